@@ -0,0 +1,58 @@
+package com.ordermanagement.admission;
+
+import com.ordermanagement.exception.WorkloadRejectedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Пропускает запрос к контроллеру только в пределах лимита {@link AdmissionGate},
+ * иначе сразу отвечает 503 с Retry-After.
+ * <p>
+ * Асинхронный запрос (/async/**) занимает место в лимите до конца асинхронной обработки:
+ * при повторной диспетчеризации место не берётся второй раз, а освобождается в её afterCompletion.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_AT = AdmissionControlInterceptor.class.getName() + ".startedAt";
+
+    private final AdmissionGate admissionGate;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getAttribute(STARTED_AT) != null) {
+            return true;
+        }
+        RequestPriority priority = resolvePriority(handlerMethod, request);
+        if (!admissionGate.tryAcquire(priority)) {
+            throw new WorkloadRejectedException(
+                    "Сервис перегружен, запрос с приоритетом " + priority + " отклонён",
+                    admissionGate.getRetryAfterSeconds());
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startedAt = request.getAttribute(STARTED_AT);
+        if (startedAt != null) {
+            request.removeAttribute(STARTED_AT);
+            admissionGate.release(System.nanoTime() - (Long) startedAt);
+        }
+    }
+
+    private RequestPriority resolvePriority(HandlerMethod handlerMethod, HttpServletRequest request) {
+        AdmissionPriority annotation = handlerMethod.getMethodAnnotation(AdmissionPriority.class);
+        if (annotation != null) {
+            return annotation.value();
+        }
+        return HttpMethod.GET.matches(request.getMethod()) ? RequestPriority.BROWSING : RequestPriority.STANDARD;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ordermanagement.admission;
+
+import com.ordermanagement.workload.WorkloadClass;
+import com.ordermanagement.workload.WorkloadRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Допуск запросов в пределах адаптивного лимита параллельности.
+ * Запросам низкого приоритета доступна только часть лимита, поэтому при перегрузке
+ * они отбрасываются раньше оплаты и резервирования.
+ */
+@Component
+public class AdmissionGate {
+
+    private final AdmissionProperties properties;
+    private final WorkloadRegistry workloadRegistry;
+    private final GradientConcurrencyLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, LongAdder> admitted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, LongAdder> shed = new EnumMap<>(RequestPriority.class);
+
+    public AdmissionGate(AdmissionProperties properties, WorkloadRegistry workloadRegistry) {
+        this.properties = properties;
+        this.workloadRegistry = workloadRegistry;
+        this.limit = new GradientConcurrencyLimit(properties);
+        for (RequestPriority priority : RequestPriority.values()) {
+            admitted.put(priority, new LongAdder());
+            shed.put(priority, new LongAdder());
+        }
+    }
+
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit.getLimit() * properties.getShares().getOrDefault(priority, 1.0)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.get(priority).increment();
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        limit.onSample(latencyNanos, current, isPoolOverloaded());
+    }
+
+    public long getRetryAfterSeconds() {
+        return properties.getRetryAfterSeconds();
+    }
+
+    public AdmissionStatistics getStatistics() {
+        Map<RequestPriority, Long> admittedCounts = new EnumMap<>(RequestPriority.class);
+        Map<RequestPriority, Long> shedCounts = new EnumMap<>(RequestPriority.class);
+        admitted.forEach((priority, counter) -> admittedCounts.put(priority, counter.sum()));
+        shed.forEach((priority, counter) -> shedCounts.put(priority, counter.sum()));
+        return AdmissionStatistics.builder()
+                .limit(limit.getLimit())
+                .inFlight(inFlight.get())
+                .minLatencyMicros(TimeUnit.NANOSECONDS.toMicros(limit.getMinLatencyNanos()))
+                .lastGradient(limit.getLastGradient())
+                .poolOverloaded(isPoolOverloaded())
+                .admitted(admittedCounts)
+                .shed(shedCounts)
+                .build();
+    }
+
+    private boolean isPoolOverloaded() {
+        long thresholdMicros = TimeUnit.MILLISECONDS.toMicros(properties.getPoolWaitThresholdMs());
+        return workloadRegistry.get(WorkloadClass.CHECKOUT).getRecentConnectionWaitMicros() > thresholdMicros
+                || workloadRegistry.get(WorkloadClass.CATALOG).getRecentConnectionWaitMicros() > thresholdMicros;
+    }
+}
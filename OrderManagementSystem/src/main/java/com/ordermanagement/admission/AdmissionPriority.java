@@ -0,0 +1,19 @@
+package com.ordermanagement.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Приоритет метода контроллера для контроля допуска.
+ * Без аннотации GET-запросы считаются BROWSING, остальные - STANDARD.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdmissionPriority {
+
+    RequestPriority value();
+}
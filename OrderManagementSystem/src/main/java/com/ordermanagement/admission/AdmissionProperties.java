@@ -0,0 +1,47 @@
+package com.ordermanagement.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 50;
+
+    private int minLimit = 5;
+
+    private int maxLimit = 500;
+
+    // Количество замеров задержки, после которого пересчитывается лимит
+    private int windowSize = 50;
+
+    // Допустимый рост задержки относительно минимальной, при котором лимит не снижается
+    private double latencyTolerance = 2.0;
+
+    // Вес нового значения лимита при сглаживании (0 - 1)
+    private double smoothing = 0.2;
+
+    // Мультипликативное снижение лимита при ожидании соединения из пула дольше порога
+    private double backoffRatio = 0.9;
+
+    private long poolWaitThresholdMs = 50;
+
+    // Через сколько окон заново измерять минимальную задержку
+    private int minLatencyProbeWindows = 100;
+
+    private long retryAfterSeconds = 1;
+
+    // Доля лимита, доступная запросам каждого приоритета
+    private Map<RequestPriority, Double> shares = new EnumMap<>(Map.of(
+            RequestPriority.CRITICAL, 1.0,
+            RequestPriority.STANDARD, 0.9,
+            RequestPriority.BROWSING, 0.7));
+}
@@ -0,0 +1,18 @@
+package com.ordermanagement.admission;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+@Builder
+public class AdmissionStatistics {
+    int limit;
+    int inFlight;
+    long minLatencyMicros;
+    double lastGradient;
+    boolean poolOverloaded;
+    Map<RequestPriority, Long> admitted;
+    Map<RequestPriority, Long> shed;
+}
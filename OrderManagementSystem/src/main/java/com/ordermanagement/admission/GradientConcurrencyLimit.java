@@ -0,0 +1,86 @@
+package com.ordermanagement.admission;
+
+/**
+ * Адаптивный лимит параллельности: градиент по задержке (отношение минимальной задержки
+ * к текущей) плюс мультипликативное снижение, когда пул соединений сигнализирует о перегрузке.
+ */
+public class GradientConcurrencyLimit {
+
+    private final AdmissionProperties properties;
+
+    private volatile double limit;
+    private double minLatencyNanos = Double.MAX_VALUE;
+    private long windowSamples;
+    private long windowLatencySum;
+    private long windowMinLatency = Long.MAX_VALUE;
+    private int windowMaxInFlight;
+    private int windowsSinceProbe;
+    private boolean windowOverloaded;
+    private volatile double lastGradient = 1.0;
+
+    public GradientConcurrencyLimit(AdmissionProperties properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public double getLastGradient() {
+        return lastGradient;
+    }
+
+    public synchronized long getMinLatencyNanos() {
+        return minLatencyNanos == Double.MAX_VALUE ? 0L : (long) minLatencyNanos;
+    }
+
+    public synchronized void onSample(long latencyNanos, int inFlight, boolean poolOverloaded) {
+        windowSamples++;
+        windowLatencySum += latencyNanos;
+        windowMinLatency = Math.min(windowMinLatency, latencyNanos);
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        windowOverloaded |= poolOverloaded;
+
+        if (windowSamples >= properties.getWindowSize()) {
+            updateLimit();
+        }
+    }
+
+    private void updateLimit() {
+        double averageLatency = (double) windowLatencySum / windowSamples;
+        if (++windowsSinceProbe >= properties.getMinLatencyProbeWindows()) {
+            // Периодически сбрасываем базовую задержку, чтобы учесть изменения окружения
+            minLatencyNanos = averageLatency;
+            windowsSinceProbe = 0;
+        } else {
+            minLatencyNanos = Math.min(minLatencyNanos, windowMinLatency);
+        }
+
+        double current = limit;
+        double target;
+        if (windowOverloaded) {
+            target = current * properties.getBackoffRatio();
+            lastGradient = properties.getBackoffRatio();
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0,
+                    properties.getLatencyTolerance() * minLatencyNanos / averageLatency));
+            lastGradient = gradient;
+            if (gradient >= 1.0 && windowMaxInFlight < current / 2) {
+                // Лимит не используется - увеличивать его нет оснований
+                target = current;
+            } else {
+                target = current * gradient + Math.sqrt(current);
+            }
+        }
+
+        double smoothed = current * (1 - properties.getSmoothing()) + target * properties.getSmoothing();
+        limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), smoothed));
+
+        windowSamples = 0;
+        windowLatencySum = 0;
+        windowMinLatency = Long.MAX_VALUE;
+        windowMaxInFlight = 0;
+        windowOverloaded = false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ordermanagement.admission;
+
+/**
+ * Приоритет запроса при перегрузке: запросы с меньшей долей лимита отбрасываются первыми.
+ */
+public enum RequestPriority {
+    // Оплата, резервирование, отмена
+    CRITICAL,
+    // Прочие изменения: создание заказа, обновление данных
+    STANDARD,
+    // Просмотр каталога и заказов
+    BROWSING
+}
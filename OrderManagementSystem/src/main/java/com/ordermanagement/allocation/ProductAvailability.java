@@ -0,0 +1,90 @@
+package com.ordermanagement.allocation;
+
+import java.util.Arrays;
+
+/**
+ * Неизменяемый снимок остатков одного товара по складам.
+ * Хранится в примитивных массивах: товар обычно лежит на нескольких складах, а не на сотнях.
+ */
+public final class ProductAvailability {
+
+    public static final ProductAvailability EMPTY = new ProductAvailability(new long[0], new int[0], new int[0]);
+
+    private final long[] warehouseIds;
+    private final int[] available;
+    private final int[] priorities;
+
+    public ProductAvailability(long[] warehouseIds, int[] available, int[] priorities) {
+        if (warehouseIds.length != available.length || warehouseIds.length != priorities.length) {
+            throw new IllegalArgumentException("Размеры массивов остатков не совпадают");
+        }
+        this.warehouseIds = warehouseIds;
+        this.available = available;
+        this.priorities = priorities;
+    }
+
+    public int size() {
+        return warehouseIds.length;
+    }
+
+    public boolean isEmpty() {
+        return warehouseIds.length == 0;
+    }
+
+    public long warehouseId(int index) {
+        return warehouseIds[index];
+    }
+
+    public int available(int index) {
+        return available[index];
+    }
+
+    public int priority(int index) {
+        return priorities[index];
+    }
+
+    public long total() {
+        long total = 0;
+        for (int quantity : available) {
+            total += quantity;
+        }
+        return total;
+    }
+
+    public int availableAt(long warehouseId) {
+        int index = indexOf(warehouseId);
+        return index < 0 ? 0 : available[index];
+    }
+
+    int[] copyAvailable() {
+        return available.clone();
+    }
+
+    /**
+     * Копия с изменённым остатком на складе; склад, которого нет в снимке, не добавляется.
+     */
+    public ProductAvailability withDelta(long warehouseId, int delta) {
+        int index = indexOf(warehouseId);
+        if (index < 0) {
+            return this;
+        }
+        int[] updated = available.clone();
+        updated[index] = Math.max(0, updated[index] + delta);
+        return new ProductAvailability(warehouseIds, updated, priorities);
+    }
+
+    private int indexOf(long warehouseId) {
+        for (int i = 0; i < warehouseIds.length; i++) {
+            if (warehouseIds[i] == warehouseId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductAvailability{warehouseIds=" + Arrays.toString(warehouseIds)
+                + ", available=" + Arrays.toString(available) + "}";
+    }
+}
@@ -0,0 +1,14 @@
+package com.ordermanagement.allocation;
+
+import lombok.Value;
+
+/**
+ * Часть позиции заказа, назначенная на конкретный склад.
+ */
+@Value
+public class StockAllocation {
+    int lineIndex;
+    long productId;
+    long warehouseId;
+    int quantity;
+}
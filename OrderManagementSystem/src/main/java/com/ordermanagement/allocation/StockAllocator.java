@@ -0,0 +1,110 @@
+package com.ordermanagement.allocation;
+
+import com.ordermanagement.exception.InsufficientStockException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Выбор складов для позиций заказа по снимкам остатков.
+ * <p>
+ * Для каждой позиции сначала ищется один склад, закрывающий остаток целиком: предпочтение складу,
+ * уже участвующему в заказе, затем более высокому приоритету, затем большему остатку. Если такого
+ * нет, берётся склад с наибольшим остатком - так число частей минимально. Решение принимается
+ * только в памяти; списание выполняет вызывающий код.
+ */
+@Component
+public class StockAllocator {
+
+    /**
+     * @param availability снимок остатков для каждой позиции; {@code null} или пустой снимок -
+     *                     позиция не ведётся по складам и пропускается
+     */
+    public List<StockAllocation> allocate(long[] productIds, int[] quantities, ProductAvailability[] availability) {
+        List<StockAllocation> result = new ArrayList<>(productIds.length);
+        // Остатки с учётом уже распределённых позиций того же товара в этом заказе
+        Map<Long, int[]> remainingByProduct = new HashMap<>();
+        long[] used = new long[4];
+        int usedCount = 0;
+
+        for (int line = 0; line < productIds.length; line++) {
+            ProductAvailability stock = availability[line];
+            if (stock == null || stock.isEmpty()) {
+                continue;
+            }
+            long productId = productIds[line];
+            int[] remaining = remainingByProduct.computeIfAbsent(productId, id -> stock.copyAvailable());
+            int need = quantities[line];
+
+            long total = 0;
+            for (int quantity : remaining) {
+                total += quantity;
+            }
+            if (total < need) {
+                throw new InsufficientStockException("Недостаточно товара с id: " + productId
+                        + ". Доступно: " + total + ", требуется: " + need);
+            }
+
+            while (need > 0) {
+                int pick = -1;
+                boolean pickUsed = false;
+                for (int w = 0; w < remaining.length; w++) {
+                    if (remaining[w] < need) {
+                        continue;
+                    }
+                    boolean wUsed = contains(used, usedCount, stock.warehouseId(w));
+                    if (pick < 0 || isBetter(stock, remaining, w, wUsed, pick, pickUsed)) {
+                        pick = w;
+                        pickUsed = wUsed;
+                    }
+                }
+                if (pick < 0) {
+                    // Ни один склад не закрывает остаток - берём самый большой, чтобы частей было меньше
+                    for (int w = 0; w < remaining.length; w++) {
+                        if (remaining[w] > 0 && (pick < 0 || remaining[w] > remaining[pick]
+                                || remaining[w] == remaining[pick] && stock.priority(w) < stock.priority(pick))) {
+                            pick = w;
+                        }
+                    }
+                }
+
+                int take = Math.min(need, remaining[pick]);
+                remaining[pick] -= take;
+                need -= take;
+                long warehouseId = stock.warehouseId(pick);
+                result.add(new StockAllocation(line, productId, warehouseId, take));
+                if (!contains(used, usedCount, warehouseId)) {
+                    if (usedCount == used.length) {
+                        used = Arrays.copyOf(used, usedCount * 2);
+                    }
+                    used[usedCount++] = warehouseId;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isBetter(ProductAvailability stock, int[] remaining,
+                                    int candidate, boolean candidateUsed, int current, boolean currentUsed) {
+        if (candidateUsed != currentUsed) {
+            return candidateUsed;
+        }
+        if (stock.priority(candidate) != stock.priority(current)) {
+            return stock.priority(candidate) < stock.priority(current);
+        }
+        return remaining[candidate] > remaining[current];
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ordermanagement.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс остатков по складам в памяти. Это подсказка для распределения, а не источник истины:
+ * списание всегда проверяется условным UPDATE в базе, индекс обновляется после фиксации транзакции.
+ */
+@Component
+public class StockAvailabilityIndex {
+
+    private final Map<Long, ProductAvailability> availability = new ConcurrentHashMap<>();
+
+    /**
+     * @return снимок остатков или {@code null}, если товар ещё не загружен в индекс
+     */
+    public ProductAvailability get(long productId) {
+        return availability.get(productId);
+    }
+
+    public void put(long productId, ProductAvailability productAvailability) {
+        availability.put(productId, productAvailability);
+    }
+
+    public void applyDelta(long productId, long warehouseId, int delta) {
+        availability.computeIfPresent(productId, (id, current) -> current.withDelta(warehouseId, delta));
+    }
+
+    public void invalidate(long productId) {
+        availability.remove(productId);
+    }
+
+    public void replaceAll(Map<Long, ProductAvailability> snapshot) {
+        availability.putAll(snapshot);
+        availability.keySet().retainAll(snapshot.keySet());
+    }
+
+    public int size() {
+        return availability.size();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ordermanagement.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch: оценка суммы весов по ключу в фиксированной памяти depth x width.
+ * Оценка никогда не бывает меньше истинной суммы и завышена не больше чем на долю ~e/width от общего веса.
+ */
+final class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L};
+
+    private final long[][] counters;
+    private final int mask;
+
+    // width округляется вверх до степени двойки
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Глубина count-min sketch должна быть от 1 до " + SEEDS.length);
+        }
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.counters = new long[depth][size];
+        this.mask = size - 1;
+    }
+
+    void add(long key, long weight) {
+        for (int row = 0; row < counters.length; row++) {
+            counters[row][index(key, row)] += weight;
+        }
+    }
+
+    long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            min = Math.min(min, counters[row][index(key, row)]);
+        }
+        return min;
+    }
+
+    void clear() {
+        for (long[] row : counters) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private int index(long key, int row) {
+        long h = key ^ SEEDS[row];
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33)) & mask;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ordermanagement.analytics;
+
+import com.ordermanagement.entity.Order;
+import com.ordermanagement.entity.OrderItem;
+import com.ordermanagement.util.Money;
+import com.ordermanagement.util.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Рейтинги товаров и покупателей за последние 5 минут, час и сутки по потоку заказов в памяти,
+ * без запросов к order_items. Питается зафиксированными созданиями заказов (единицы товара)
+ * и проведёнными оплатами (выручка); значения - приближённые оценки сверху.
+ */
+@Component
+public class OrderFlowAnalytics {
+
+    private final TrafficAnalyticsProperties properties;
+    private final Map<TrafficWindow, SlidingTopWindow> windows = new EnumMap<>(TrafficWindow.class);
+
+    public OrderFlowAnalytics(TrafficAnalyticsProperties properties) {
+        this.properties = properties;
+        for (TrafficWindow window : TrafficWindow.values()) {
+            windows.put(window, new SlidingTopWindow(window, properties.getSketchDepth(),
+                    properties.getSketchWidth(), properties.getHeavyHitterCapacity()));
+        }
+    }
+
+    /**
+     * Создан заказ: единицы товара по позициям. Учитывается после фиксации транзакции.
+     */
+    public void recordOrdered(Order order) {
+        record(order, TrafficMetric.UNITS);
+    }
+
+    /**
+     * Проведена оплата заказа: сумма позиций. Учитывается после фиксации транзакции.
+     */
+    public void recordPaid(Order order) {
+        record(order, TrafficMetric.REVENUE);
+    }
+
+    public TopList getTop(TrafficDimension dimension, TrafficMetric metric, TrafficWindow window, int limit) {
+        return top(System.currentTimeMillis(), dimension, metric, window, limit);
+    }
+
+    private void record(Order order, TrafficMetric metric) {
+        // Снимок позиций берём сейчас, пока сущности доступны
+        List<OrderItem> items = order.getItems();
+        long customerId = order.getCustomer().getId();
+        long[] productIds = new long[items.size()];
+        long[] weights = new long[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            productIds[i] = item.getProduct().getId();
+            weights[i] = metric == TrafficMetric.UNITS ? item.getQuantity() : item.getSubtotalMinor();
+        }
+        TransactionHooks.afterCommit(() ->
+                record(System.currentTimeMillis(), metric, customerId, productIds, weights));
+    }
+
+    void record(long nowMillis, TrafficMetric metric, long customerId, long[] productIds, long[] weights) {
+        for (SlidingTopWindow window : windows.values()) {
+            window.add(nowMillis, metric, customerId, productIds, weights);
+        }
+    }
+
+    TopList top(long nowMillis, TrafficDimension dimension, TrafficMetric metric, TrafficWindow window, int limit) {
+        if (limit <= 0 || limit > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("Размер рейтинга должен быть от 1 до " + properties.getMaxLimit());
+        }
+        long startedAt = System.nanoTime();
+        SlidingTopWindow slidingWindow = windows.get(window);
+        List<TopEntry> entries = slidingWindow.top(nowMillis, dimension, metric, limit).stream()
+                .map(row -> TopEntry.builder()
+                        .id(row[0])
+                        .units(row[1])
+                        .revenue(Money.toBigDecimal(row[2]))
+                        .build())
+                .toList();
+        return TopList.builder()
+                .dimension(dimension)
+                .metric(metric)
+                .window(window.getCode())
+                .since(LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(slidingWindow.windowStartMillis(nowMillis)), ZoneId.systemDefault()))
+                .entries(entries)
+                .elapsedMicros((System.nanoTime() - startedAt) / 1_000)
+                .build();
+    }
+}
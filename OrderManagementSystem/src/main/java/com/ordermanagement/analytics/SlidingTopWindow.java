@@ -0,0 +1,132 @@
+package com.ordermanagement.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Кольцо корзин одного окна. Каждая корзина хранит для каждого измерения и меры
+ * count-min sketch и кандидатов Space-Saving; корзина, вышедшая из окна, очищается при повторном использовании.
+ * Память окна фиксирована и не зависит от числа заказов и различных ключей.
+ */
+final class SlidingTopWindow {
+
+    private static final TrafficDimension[] DIMENSIONS = TrafficDimension.values();
+    private static final TrafficMetric[] METRICS = TrafficMetric.values();
+
+    private final TrafficWindow window;
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+
+    SlidingTopWindow(TrafficWindow window, int sketchDepth, int sketchWidth, int heavyHitterCapacity) {
+        this.window = window;
+        this.bucketMillis = window.getBucketMillis();
+        this.buckets = new Bucket[window.getBucketCount()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket(sketchDepth, sketchWidth, heavyHitterCapacity);
+        }
+    }
+
+    /**
+     * Вес заказа: по товарам - построчно, покупателю - суммой строк.
+     */
+    synchronized void add(long nowMillis, TrafficMetric metric, long customerId, long[] productIds, long[] weights) {
+        Bucket bucket = current(nowMillis);
+        Cell products = bucket.cell(TrafficDimension.PRODUCT, metric);
+        long total = 0;
+        for (int i = 0; i < productIds.length; i++) {
+            products.add(productIds[i], weights[i]);
+            total += weights[i];
+        }
+        bucket.cell(TrafficDimension.CUSTOMER, metric).add(customerId, total);
+    }
+
+    synchronized List<long[]> top(long nowMillis, TrafficDimension dimension, TrafficMetric metric, int limit) {
+        long epoch = nowMillis / bucketMillis;
+        List<Bucket> live = new ArrayList<>(buckets.length);
+        Set<Long> candidates = new HashSet<>();
+        for (Bucket bucket : buckets) {
+            if (bucket.epoch > epoch - buckets.length && bucket.epoch <= epoch) {
+                live.add(bucket);
+                bucket.cell(dimension, metric).hitters.candidates().forEach(candidates::add);
+            }
+        }
+
+        // Строка результата: {ключ, единицы, выручка в копейках}
+        List<long[]> rows = new ArrayList<>(candidates.size());
+        for (long key : candidates) {
+            long units = 0;
+            long revenue = 0;
+            for (Bucket bucket : live) {
+                units += bucket.cell(dimension, TrafficMetric.UNITS).sketch.estimate(key);
+                revenue += bucket.cell(dimension, TrafficMetric.REVENUE).sketch.estimate(key);
+            }
+            rows.add(new long[]{key, units, revenue});
+        }
+        int column = metric == TrafficMetric.UNITS ? 1 : 2;
+        rows.sort(Comparator.<long[]>comparingLong(row -> -row[column]).thenComparingLong(row -> row[0]));
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    // Начало окна с точностью до корзины
+    long windowStartMillis(long nowMillis) {
+        return (nowMillis / bucketMillis - buckets.length + 1) * bucketMillis;
+    }
+
+    TrafficWindow getWindow() {
+        return window;
+    }
+
+    private Bucket current(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        Bucket bucket = buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+        if (bucket.epoch != epoch) {
+            bucket.reset(epoch);
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        private long epoch = Long.MIN_VALUE;
+        private final Cell[] cells;
+
+        private Bucket(int sketchDepth, int sketchWidth, int heavyHitterCapacity) {
+            cells = new Cell[DIMENSIONS.length * METRICS.length];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = new Cell(sketchDepth, sketchWidth, heavyHitterCapacity);
+            }
+        }
+
+        private Cell cell(TrafficDimension dimension, TrafficMetric metric) {
+            return cells[dimension.ordinal() * METRICS.length + metric.ordinal()];
+        }
+
+        private void reset(long epoch) {
+            this.epoch = epoch;
+            for (Cell cell : cells) {
+                cell.sketch.clear();
+                cell.hitters.clear();
+            }
+        }
+    }
+
+    private static final class Cell {
+        private final CountMinSketch sketch;
+        private final SpaceSaving hitters;
+
+        private Cell(int sketchDepth, int sketchWidth, int heavyHitterCapacity) {
+            this.sketch = new CountMinSketch(sketchDepth, sketchWidth);
+            this.hitters = new SpaceSaving(heavyHitterCapacity);
+        }
+
+        private void add(long key, long weight) {
+            if (weight <= 0) {
+                return;
+            }
+            sketch.add(key, weight);
+            hitters.offer(key, weight);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ordermanagement.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Алгоритм Space-Saving: не больше capacity счётчиков-кандидатов в частые ключи.
+ * Новый ключ при заполненной таблице вытесняет минимальный счётчик и наследует его значение,
+ * поэтому любой ключ с весом больше total/capacity гарантированно остаётся среди кандидатов.
+ */
+final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, long[]> counters;
+
+    SpaceSaving(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.counters = new HashMap<>(this.capacity * 2);
+    }
+
+    void offer(long key, long weight) {
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0] += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[]{weight});
+            return;
+        }
+        long minKey = 0;
+        long[] min = null;
+        for (Map.Entry<Long, long[]> entry : counters.entrySet()) {
+            if (min == null || entry.getValue()[0] < min[0]) {
+                minKey = entry.getKey();
+                min = entry.getValue();
+            }
+        }
+        counters.remove(minKey);
+        min[0] += weight;
+        counters.put(key, min);
+    }
+
+    Iterable<Long> candidates() {
+        return counters.keySet();
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    void clear() {
+        counters.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ordermanagement.analytics;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Строка рейтинга; значения - оценки сверху по count-min sketch.
+ */
+@Value
+@Builder
+public class TopEntry {
+    long id;
+    long units;
+    BigDecimal revenue;
+}
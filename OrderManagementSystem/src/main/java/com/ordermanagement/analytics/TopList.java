@@ -0,0 +1,19 @@
+package com.ordermanagement.analytics;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class TopList {
+    TrafficDimension dimension;
+    TrafficMetric metric;
+    String window;
+    // Начало окна с точностью до корзины
+    LocalDateTime since;
+    List<TopEntry> entries;
+    long elapsedMicros;
+}
@@ -0,0 +1,23 @@
+package com.ordermanagement.analytics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.traffic-analytics")
+public class TrafficAnalyticsProperties {
+
+    // Строки count-min sketch: больше строк - меньше вероятность завышенной оценки
+    private int sketchDepth = 4;
+
+    // Счётчиков в строке (округляется до степени двойки): больше - меньше завышение
+    private int sketchWidth = 1024;
+
+    // Кандидатов в частые ключи на корзину окна
+    private int heavyHitterCapacity = 64;
+
+    // Максимальный размер рейтинга в ответе
+    private int maxLimit = 100;
+}
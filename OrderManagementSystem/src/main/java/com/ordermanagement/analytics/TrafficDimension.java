@@ -0,0 +1,9 @@
+package com.ordermanagement.analytics;
+
+/**
+ * По чему строится рейтинг: товары или покупатели.
+ */
+public enum TrafficDimension {
+    PRODUCT,
+    CUSTOMER
+}
@@ -0,0 +1,9 @@
+package com.ordermanagement.analytics;
+
+/**
+ * Мера рейтинга: единицы товара в созданных заказах или выручка проведённых оплат.
+ */
+public enum TrafficMetric {
+    UNITS,
+    REVENUE
+}
@@ -0,0 +1,47 @@
+package com.ordermanagement.analytics;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Скользящие окна рейтинга. Окно состоит из bucketCount корзин и сдвигается на одну корзину.
+ */
+public enum TrafficWindow {
+    LAST_5_MINUTES("5m", Duration.ofMinutes(5), 10),
+    LAST_HOUR("1h", Duration.ofHours(1), 12),
+    LAST_DAY("1d", Duration.ofDays(1), 24);
+
+    private final String code;
+    private final Duration length;
+    private final int bucketCount;
+
+    TrafficWindow(String code, Duration length, int bucketCount) {
+        this.code = code;
+        this.length = length;
+        this.bucketCount = bucketCount;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public long getBucketMillis() {
+        return length.toMillis() / bucketCount;
+    }
+
+    public static TrafficWindow fromCode(String code) {
+        return Arrays.stream(values())
+                .filter(window -> window.code.equalsIgnoreCase(code) || window.name().equalsIgnoreCase(code))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестное окно: " + code
+                        + ". Допустимые значения: 5m, 1h, 1d"));
+    }
+}
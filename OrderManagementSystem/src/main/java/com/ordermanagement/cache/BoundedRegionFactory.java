@@ -0,0 +1,94 @@
+package com.ordermanagement.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Фабрика регионов кэша второго уровня Hibernate, хранящая данные в памяти процесса.
+ * Подключается через {@code hibernate.cache.region.factory_class}.
+ *
+ * Настройки:
+ * {@code hibernate.cache.ordermanagement.default_max_entries} - размер региона по умолчанию,
+ * {@code hibernate.cache.ordermanagement.max_entries.<регион>} - размер конкретного региона.
+ */
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+
+    public static final String DEFAULT_MAX_ENTRIES = "hibernate.cache.ordermanagement.default_max_entries";
+    public static final String REGION_MAX_ENTRIES_PREFIX = "hibernate.cache.ordermanagement.max_entries.";
+
+    private static final int FALLBACK_MAX_ENTRIES = 10_000;
+
+    private final Map<String, BoundedRegionStorage> storages = new ConcurrentHashMap<>();
+    private Map<String, Object> configValues = Map.of();
+    private int defaultMaxEntries = FALLBACK_MAX_ENTRIES;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        this.configValues = configValues;
+        this.defaultMaxEntries = readInt(configValues.get(DEFAULT_MAX_ENTRIES), FALLBACK_MAX_ENTRIES);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        storages.values().forEach(BoundedRegionStorage::release);
+        storages.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+            DomainDataRegionConfig regionConfig,
+            DomainDataRegionBuildingContext buildingContext) {
+        return storageFor(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(
+            String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return storageFor(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(
+            String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return storageFor(regionName);
+    }
+
+    public List<RegionStatistics> getRegionStatistics() {
+        List<RegionStatistics> result = new ArrayList<>();
+        storages.values().forEach(storage -> result.add(storage.getStatistics()));
+        result.sort(Comparator.comparing(RegionStatistics::getRegionName));
+        return result;
+    }
+
+    public BoundedRegionStorage getStorage(String regionName) {
+        return storages.get(regionName);
+    }
+
+    private BoundedRegionStorage storageFor(String regionName) {
+        return storages.computeIfAbsent(regionName, name -> new BoundedRegionStorage(
+                name, readInt(configValues.get(REGION_MAX_ENTRIES_PREFIX + name), defaultMaxEntries)));
+    }
+
+    private static int readInt(Object value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        return Integer.parseInt(value.toString().trim());
+    }
+}
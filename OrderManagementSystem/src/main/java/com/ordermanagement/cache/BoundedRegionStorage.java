@@ -0,0 +1,148 @@
+package com.ordermanagement.cache;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Хранилище региона кэша второго уровня: LRU с ограничением размера,
+ * разбитое на сегменты для снижения конкуренции за блокировки.
+ */
+public class BoundedRegionStorage implements DomainDataStorageAccess {
+
+    private static final int SEGMENTS = 16;
+
+    private final String regionName;
+    private final int maxEntries;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BoundedRegionStorage(String regionName, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Размер региона должен быть больше 0: " + regionName);
+        }
+        this.regionName = regionName;
+        this.maxEntries = maxEntries;
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value;
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+        puts.increment();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.containsKey(key);
+        }
+    }
+
+    @Override
+    public void evictData() {
+        // Полная очистка региона: вызывается Hibernate, в том числе после массовых JPQL-обновлений
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        invalidations.increment();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    @Override
+    public void release() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public RegionStatistics getStatistics() {
+        return RegionStatistics.builder()
+                .regionName(regionName)
+                .maxEntries(maxEntries)
+                .size(size())
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .puts(puts.sum())
+                .evictions(evictions.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    private Segment segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    private final class Segment extends LinkedHashMap<Object, Object> {
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
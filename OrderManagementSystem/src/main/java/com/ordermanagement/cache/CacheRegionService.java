@@ -0,0 +1,111 @@
+package com.ordermanagement.cache;
+
+import com.ordermanagement.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Статистика и точечная инвалидация регионов кэша второго уровня.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheRegionService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<RegionStatistics> getRegionStatistics() {
+        BoundedRegionFactory regionFactory = boundedRegionFactory();
+        return regionFactory != null ? regionFactory.getRegionStatistics() : List.of();
+    }
+
+    public RegionStatistics getRegionStatistics(String regionName) {
+        BoundedRegionFactory regionFactory = boundedRegionFactory();
+        BoundedRegionStorage storage = regionFactory != null ? regionFactory.getStorage(regionName) : null;
+        if (storage == null) {
+            throw new ResourceNotFoundException("Регион кэша не найден: " + regionName);
+        }
+        return storage.getStatistics();
+    }
+
+    public void evictRegion(String regionName) {
+        BoundedRegionFactory regionFactory = boundedRegionFactory();
+        BoundedRegionStorage storage = regionFactory != null ? regionFactory.getStorage(regionName) : null;
+        if (storage == null) {
+            throw new ResourceNotFoundException("Регион кэша не найден: " + regionName);
+        }
+        storage.evictData();
+        log.info("Регион кэша {} очищен", regionName);
+    }
+
+    public void evict(Class<?> entityClass, Object id) {
+        entityManagerFactory.getCache().evict(entityClass, id);
+    }
+
+    public void evictAll(Class<?> entityClass) {
+        entityManagerFactory.getCache().evict(entityClass);
+    }
+
+    /**
+     * Удаляет сущность из кэша сразу и повторно после фиксации транзакции,
+     * чтобы параллельное чтение не вернуло в кэш незафиксированное состояние строки.
+     */
+    public void evictAfterCommit(Class<?> entityClass, Object id) {
+        entityManagerFactory.getCache().evict(entityClass, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(entityClass, id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Помещает в кэш второго уровня уже готовые сущности без чтения из базы (например, из снимка каталога).
+     * Записи кладутся так же, как при загрузке из базы, и не вытесняют более свежие данные в регионе.
+     */
+    public int warmEntities(Class<?> entityClass, Collection<?> entities) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        if (cacheAccess == null) {
+            return 0;
+        }
+        int warmed = 0;
+        try (Session session = sessionFactory.openSession()) {
+            SharedSessionContractImplementor sessionImplementor = (SharedSessionContractImplementor) session;
+            for (Object entity : entities) {
+                Object id = persister.getIdentifier(entity, sessionImplementor);
+                Object key = cacheAccess.generateCacheKey(id, persister, sessionFactory, null);
+                Object entry = persister.getCacheEntryStructure().structure(
+                        persister.buildCacheEntry(entity, persister.getValues(entity), null, sessionImplementor));
+                if (cacheAccess.putFromLoad(sessionImplementor, key, entry, null)) {
+                    warmed++;
+                }
+            }
+        }
+        return warmed;
+    }
+
+    private BoundedRegionFactory boundedRegionFactory() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+        return regionFactory instanceof BoundedRegionFactory bounded ? bounded : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ordermanagement.cache;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class RegionStatistics {
+    String regionName;
+    int maxEntries;
+    int size;
+    long hits;
+    long misses;
+    long puts;
+    long evictions;
+    long invalidations;
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ordermanagement.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Одновременные вызовы метода с одинаковыми аргументами выполняют одну загрузку
+ * и получают её результат (или исключение). Результат должен быть неизменяемым для вызывающих:
+ * один и тот же объект достаётся всем участникам загрузки.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+    // Имя группы в статистике; ключи разных групп не пересекаются
+    String value();
+}
@@ -0,0 +1,46 @@
+package com.ordermanagement.coalescing;
+
+import com.ordermanagement.workload.WorkloadContext;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Объединяет одновременные одинаковые вызовы до назначения класса нагрузки и до транзакции:
+ * ожидающие не занимают ни место в пуле нагрузки, ни соединение.
+ * Вызовы внутри транзакции или другого сервиса не объединяются - они должны видеть
+ * собственные изменения, а не результат загрузки, начатой раньше.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CoalescingAspect {
+
+    private final RequestCoalescer coalescer;
+
+    @Around("@annotation(com.ordermanagement.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (WorkloadContext.current() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Object[] args = joinPoint.getArgs();
+        Object key = args.length == 1 ? args[0] : Arrays.asList(args);
+        if (key == null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Coalesced coalesced = AnnotatedElementUtils.findMergedAnnotation(method, Coalesced.class);
+        return coalescer.execute(coalesced.value(), key, joinPoint::proceed);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ordermanagement.coalescing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    // Сегментов таблицы загрузок; ключи разных сегментов не конкурируют за блокировку
+    private int stripes = 64;
+
+    // Дольше ожидающий вызов перестаёт ждать зависшую загрузку и загружает сам
+    private long maxWaitMs = 2000;
+}
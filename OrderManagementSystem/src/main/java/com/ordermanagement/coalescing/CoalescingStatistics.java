@@ -0,0 +1,26 @@
+package com.ordermanagement.coalescing;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class CoalescingStatistics {
+    String name;
+    long calls;
+    // Выполненные загрузки
+    long loads;
+    // Вызовы, получившие результат чужой загрузки
+    long coalesced;
+    // Доля вызовов, обошедшихся без своей загрузки
+    double coalescingRatio;
+    // Ожидавшие, не дождавшиеся загрузки за max-wait-ms и загрузившие сами
+    long waitTimeouts;
+    long inFlight;
+    // Вызовы, ожидающие чужую загрузку сейчас
+    long waiting;
+    // Ожидание чужой загрузки, мкс
+    double meanWaitMicros;
+    long p99WaitMicros;
+    long maxWaitMicros;
+}
@@ -0,0 +1,36 @@
+package com.ordermanagement.coalescing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таблицы одновременных загрузок по группам {@link Coalesced}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestCoalescer {
+
+    private final CoalescingProperties properties;
+    private final Map<String, SingleFlight> flights = new ConcurrentHashMap<>();
+
+    public Object execute(String name, Object key, SingleFlight.Loader loader) throws Throwable {
+        if (!properties.isEnabled()) {
+            return loader.load();
+        }
+        return flights.computeIfAbsent(name,
+                        group -> new SingleFlight(group, properties.getStripes(), properties.getMaxWaitMs()))
+                .execute(key, loader);
+    }
+
+    public List<CoalescingStatistics> getStatistics() {
+        return flights.values().stream()
+                .map(SingleFlight::getStatistics)
+                .sorted(Comparator.comparing(CoalescingStatistics::getName))
+                .toList();
+    }
+}
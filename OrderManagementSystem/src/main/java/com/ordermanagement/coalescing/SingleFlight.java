@@ -0,0 +1,155 @@
+package com.ordermanagement.coalescing;
+
+import com.ordermanagement.monitoring.LatencyHistogram;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Таблица загрузок «в полёте»: первый вызов по ключу загружает, одновременные вызовы
+ * с тем же ключом ждут его результат. Таблица разбита на сегменты со своей блокировкой,
+ * блокировка держится только на время поиска и вставки, загрузка идёт без неё.
+ * Загрузка снимается с таблицы до публикации результата, поэтому вызов, пришедший
+ * после её завершения, загружает заново и не получает устаревший результат.
+ */
+public class SingleFlight {
+
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws Throwable;
+    }
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Object, Flight> flights = new HashMap<>();
+    }
+
+    private final String name;
+    private final Stripe[] stripes;
+    private final long maxWaitNanos;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder waiting = new LongAdder();
+    private final LatencyHistogram waitMicros = new LatencyHistogram();
+
+    public SingleFlight(String name, int stripes, long maxWaitMs) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Число сегментов должно быть положительным");
+        }
+        // Число сегментов округляется вверх до степени двойки - сегмент выбирается маской
+        int size = Integer.highestOneBit(stripes);
+        this.name = name;
+        this.stripes = new Stripe[size < stripes ? size << 1 : size];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    }
+
+    public Object execute(Object key, Loader loader) throws Throwable {
+        calls.increment();
+        Stripe stripe = stripeOf(key);
+        Flight own = new Flight();
+        Flight existing;
+        stripe.lock.lock();
+        try {
+            existing = stripe.flights.putIfAbsent(key, own);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (existing == null) {
+            return lead(stripe, key, own, loader);
+        }
+        return follow(existing, loader);
+    }
+
+    private Object lead(Stripe stripe, Object key, Flight flight, Loader loader) throws Throwable {
+        loads.increment();
+        inFlight.increment();
+        Object value = null;
+        Throwable failure = null;
+        try {
+            value = loader.load();
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            stripe.lock.lock();
+            try {
+                stripe.flights.remove(key, flight);
+            } finally {
+                stripe.lock.unlock();
+            }
+            inFlight.decrement();
+        }
+
+        if (failure != null) {
+            flight.result.completeExceptionally(failure);
+            throw failure;
+        }
+        flight.result.complete(value);
+        return value;
+    }
+
+    private Object follow(Flight flight, Loader loader) throws Throwable {
+        long started = System.nanoTime();
+        waiting.increment();
+        try {
+            Object value = flight.result.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return value;
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (TimeoutException e) {
+            // Загрузка зависла - не копим ожидающих за ней, загружаем без объединения
+            waitTimeouts.increment();
+            loads.increment();
+            return loader.load();
+        } finally {
+            waiting.decrement();
+            waitMicros.record((System.nanoTime() - started) / 1_000L);
+        }
+    }
+
+    private Stripe stripeOf(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    public CoalescingStatistics getStatistics() {
+        long totalCalls = calls.sum();
+        long totalCoalesced = coalesced.sum();
+        return CoalescingStatistics.builder()
+                .name(name)
+                .calls(totalCalls)
+                .loads(loads.sum())
+                .coalesced(totalCoalesced)
+                .coalescingRatio(totalCalls == 0 ? 0.0 : (double) totalCoalesced / totalCalls)
+                .waitTimeouts(waitTimeouts.sum())
+                .inFlight(inFlight.sum())
+                .waiting(waiting.sum())
+                .meanWaitMicros(waitMicros.getMean())
+                .p99WaitMicros(waitMicros.percentile(0.99))
+                .maxWaitMicros(waitMicros.getMax())
+                .build();
+    }
+}
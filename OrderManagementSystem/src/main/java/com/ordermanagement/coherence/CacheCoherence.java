@@ -0,0 +1,332 @@
+package com.ordermanagement.coherence;
+
+import com.ordermanagement.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Согласование локальных кэшей между экземплярами через PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * После фиксации изменения товара или покупателя его id ставится в очередь; очередь за coalesceMillis
+ * уходит одним сообщением NOTIFY с номером узла по порядку. Остальные узлы применяют сообщение как
+ * {@link CacheInvalidationEvent}. Пропуск номера, ошибка применения или переподключение слушателя означают
+ * возможную потерю сообщений - тогда вместо точечной инвалидации выполняется полное обновление.
+ * Для прослушивания и отправки используются два отдельных соединения вне пулов классов нагрузки.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheCoherence {
+
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    // Узел, номер и время отправки в начале сообщения
+    private static final int HEADER_RESERVE = 64;
+
+    private final CacheCoherenceProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final SequenceTracker sequenceTracker = new SequenceTracker();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Object pendingLock = new Object();
+    private Set<Long> pendingProducts = new HashSet<>();
+    private Set<Long> pendingCustomers = new HashSet<>();
+    private boolean pendingFullRefresh;
+
+    private final AtomicLong messagesPublished = new AtomicLong();
+    private final AtomicLong keysPublished = new AtomicLong();
+    private final AtomicLong publishFailures = new AtomicLong();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private final AtomicLong keysApplied = new AtomicLong();
+    private final AtomicLong sequenceGaps = new AtomicLong();
+    private final AtomicLong fullRefreshes = new AtomicLong();
+    private volatile long lastLagMillis;
+    private volatile boolean listening;
+    private volatile boolean running;
+
+    private ScheduledExecutorService publisher;
+    private Thread listener;
+    private Connection publishConnection;
+
+    /**
+     * Товар или его остатки изменены; другие узлы узнают об этом после фиксации транзакции.
+     */
+    public void productChanged(long productId) {
+        if (properties.isEnabled()) {
+            TransactionHooks.afterCommit(() -> enqueue(productId, true));
+        }
+    }
+
+    public void customerChanged(long customerId) {
+        if (properties.isEnabled()) {
+            TransactionHooks.afterCommit(() -> enqueue(customerId, false));
+        }
+    }
+
+    /**
+     * Полное обновление кэшей на всех узлах, включая текущий.
+     */
+    public void requestFullRefresh() {
+        if (properties.isEnabled()) {
+            synchronized (pendingLock) {
+                pendingFullRefresh = true;
+            }
+        }
+        dispatch(CacheInvalidationEvent.builder().fullRefresh(true).productIds(Set.of()).customerIds(Set.of()).build());
+    }
+
+    public CacheCoherenceStatistics getStatistics() {
+        return CacheCoherenceStatistics.builder()
+                .nodeId(nodeId)
+                .enabled(properties.isEnabled())
+                .listening(listening)
+                .messagesPublished(messagesPublished.get())
+                .keysPublished(keysPublished.get())
+                .publishFailures(publishFailures.get())
+                .messagesReceived(messagesReceived.get())
+                .keysApplied(keysApplied.get())
+                .sequenceGaps(sequenceGaps.get())
+                .fullRefreshes(fullRefreshes.get())
+                .lastLagMillis(lastLagMillis)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        if (!CHANNEL.matcher(properties.getChannel()).matches()) {
+            throw new IllegalStateException("Недопустимое имя канала инвалидации: " + properties.getChannel());
+        }
+        running = true;
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-coherence-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleWithFixedDelay(this::flush, properties.getCoalesceMillis(),
+                properties.getCoalesceMillis(), TimeUnit.MILLISECONDS);
+        listener = new Thread(this::listen, "cache-coherence-listener");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Согласование кэшей через канал {} запущено, узел {}", properties.getChannel(), nodeId);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        publisher.shutdown();
+        try {
+            publisher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        closeQuietly(publishConnection);
+        listener.interrupt();
+    }
+
+    void flush() {
+        Set<Long> products;
+        Set<Long> customers;
+        boolean fullRefresh;
+        synchronized (pendingLock) {
+            if (pendingProducts.isEmpty() && pendingCustomers.isEmpty() && !pendingFullRefresh) {
+                return;
+            }
+            products = pendingProducts;
+            customers = pendingCustomers;
+            fullRefresh = pendingFullRefresh;
+            pendingProducts = new HashSet<>();
+            pendingCustomers = new HashSet<>();
+            pendingFullRefresh = false;
+        }
+        List<String> bodies = fullRefresh
+                ? List.of(InvalidationMessage.FULL_REFRESH)
+                : InvalidationMessage.bodies(products, customers, properties.getMaxPayloadBytes() - HEADER_RESERVE);
+        for (String body : bodies) {
+            // Номер расходуется и при ошибке отправки: получатели увидят пропуск и обновятся целиком
+            String payload = InvalidationMessage.encode(nodeId, sequence.incrementAndGet(),
+                    System.currentTimeMillis(), body);
+            try {
+                send(payload);
+                messagesPublished.incrementAndGet();
+            } catch (SQLException e) {
+                publishFailures.incrementAndGet();
+                closeQuietly(publishConnection);
+                publishConnection = null;
+                // Неотправленные ключи не теряются: следующая отправка - полное обновление
+                synchronized (pendingLock) {
+                    pendingFullRefresh = true;
+                }
+                log.warn("Не удалось отправить сообщение инвалидации, при следующей отправке - полное обновление: {}",
+                        e.getMessage());
+                return;
+            }
+        }
+        keysPublished.addAndGet(products.size() + customers.size());
+    }
+
+    private void send(String payload) throws SQLException {
+        if (publishConnection == null || publishConnection.isClosed()) {
+            publishConnection = connect();
+        }
+        try (PreparedStatement statement = publishConnection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, properties.getChannel());
+            statement.setString(2, payload);
+            statement.execute();
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                if (reconnect) {
+                    // Пока слушателя не было, сообщения могли быть потеряны
+                    sequenceTracker.reset();
+                    dispatch(fullRefreshEvent());
+                }
+                reconnect = true;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(properties.getPollTimeoutMs());
+                    if (notifications != null && notifications.length > 0) {
+                        apply(notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Соединение слушателя инвалидации потеряно: {}", e.getMessage());
+                }
+            } finally {
+                listening = false;
+            }
+            sleep(properties.getReconnectDelayMs());
+        }
+    }
+
+    // Все уведомления одного опроса сливаются в одно событие
+    void apply(PGNotification[] notifications) {
+        Set<Long> products = new HashSet<>();
+        Set<Long> customers = new HashSet<>();
+        boolean fullRefresh = false;
+        long now = System.currentTimeMillis();
+        for (PGNotification notification : notifications) {
+            InvalidationMessage message;
+            try {
+                message = InvalidationMessage.decode(notification.getParameter());
+            } catch (IllegalArgumentException e) {
+                log.warn("Пропущено сообщение инвалидации: {}", e.getMessage());
+                continue;
+            }
+            if (nodeId.equals(message.getNodeId())) {
+                continue;
+            }
+            messagesReceived.incrementAndGet();
+            lastLagMillis = Math.max(0, now - message.getSentAtMillis());
+            if (!sequenceTracker.accept(message.getNodeId(), message.getSequence())) {
+                sequenceGaps.incrementAndGet();
+                log.warn("Пропуск в сообщениях инвалидации узла {} перед номером {}, полное обновление",
+                        message.getNodeId(), message.getSequence());
+                fullRefresh = true;
+            }
+            fullRefresh |= message.isFullRefresh();
+            products.addAll(message.getProductIds());
+            customers.addAll(message.getCustomerIds());
+        }
+        if (fullRefresh) {
+            dispatch(fullRefreshEvent());
+        } else if (!products.isEmpty() || !customers.isEmpty()) {
+            dispatch(CacheInvalidationEvent.builder()
+                    .productIds(products)
+                    .customerIds(customers)
+                    .build());
+        }
+    }
+
+    private void dispatch(CacheInvalidationEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+            if (event.isFullRefresh()) {
+                fullRefreshes.incrementAndGet();
+            } else {
+                keysApplied.addAndGet(event.getProductIds().size() + event.getCustomerIds().size());
+            }
+        } catch (RuntimeException e) {
+            if (event.isFullRefresh()) {
+                log.error("Не удалось выполнить полное обновление кэшей", e);
+                return;
+            }
+            log.warn("Не удалось применить инвалидацию, полное обновление: {}", e.getMessage());
+            dispatch(fullRefreshEvent());
+        }
+    }
+
+    private CacheInvalidationEvent fullRefreshEvent() {
+        return CacheInvalidationEvent.builder().fullRefresh(true).productIds(Set.of()).customerIds(Set.of()).build();
+    }
+
+    private void enqueue(long id, boolean product) {
+        synchronized (pendingLock) {
+            (product ? pendingProducts : pendingCustomers).add(id);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Ошибка закрытия соединения инвалидации: {}", e.getMessage());
+        }
+    }
+}
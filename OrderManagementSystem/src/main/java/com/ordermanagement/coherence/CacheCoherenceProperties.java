@@ -0,0 +1,28 @@
+package com.ordermanagement.coherence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.cache-coherence")
+public class CacheCoherenceProperties {
+
+    // Требует PostgreSQL; включается на всех узлах, когда запущено несколько экземпляров
+    private boolean enabled = false;
+
+    // Канал LISTEN/NOTIFY: строчные латинские буквы, цифры и подчёркивание
+    private String channel = "oms_cache_invalidation";
+
+    // Изменения за этот интервал отправляются одним сообщением
+    private long coalesceMillis = 5;
+
+    // Предел полезной нагрузки NOTIFY в PostgreSQL - 8000 байт
+    private int maxPayloadBytes = 7900;
+
+    // Ожидание уведомлений за один опрос соединения
+    private int pollTimeoutMs = 500;
+
+    private long reconnectDelayMs = 1000;
+}
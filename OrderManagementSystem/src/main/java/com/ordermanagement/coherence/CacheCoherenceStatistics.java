@@ -0,0 +1,22 @@
+package com.ordermanagement.coherence;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class CacheCoherenceStatistics {
+    String nodeId;
+    boolean enabled;
+    boolean listening;
+    long messagesPublished;
+    long keysPublished;
+    long publishFailures;
+    long messagesReceived;
+    long keysApplied;
+    // Обнаруженные пропуски номеров сообщений других узлов
+    long sequenceGaps;
+    long fullRefreshes;
+    // Задержка от отправки до применения последнего сообщения
+    long lastLagMillis;
+}
@@ -0,0 +1,18 @@
+package com.ordermanagement.coherence;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Изменения, сделанные другими узлами; публикуется как событие приложения.
+ * При {@code fullRefresh} локальные кэши нужно перестроить целиком: часть сообщений могла быть потеряна.
+ */
+@Value
+@Builder
+public class CacheInvalidationEvent {
+    boolean fullRefresh;
+    Set<Long> productIds;
+    Set<Long> customerIds;
+}
@@ -0,0 +1,94 @@
+package com.ordermanagement.coherence;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Сообщение об изменениях в канале NOTIFY: {@code узел|номер|время отправки|тело}.
+ * Тело - {@code *} для полного обновления или {@code P1,2,3;C7} со списками id товаров и покупателей.
+ */
+@Value
+class InvalidationMessage {
+
+    static final String FULL_REFRESH = "*";
+
+    String nodeId;
+    long sequence;
+    long sentAtMillis;
+    boolean fullRefresh;
+    Set<Long> productIds;
+    Set<Long> customerIds;
+
+    static String encode(String nodeId, long sequence, long sentAtMillis, String body) {
+        return nodeId + '|' + sequence + '|' + sentAtMillis + '|' + body;
+    }
+
+    /**
+     * Раскладывает id по телам сообщений так, чтобы каждое сообщение уложилось в {@code maxLength} символов.
+     */
+    static List<String> bodies(Collection<Long> productIds, Collection<Long> customerIds, int maxLength) {
+        List<String> bodies = new ArrayList<>();
+        StringBuilder body = new StringBuilder();
+        char[] section = {0};
+        appendAll(bodies, body, section, 'P', productIds, maxLength);
+        appendAll(bodies, body, section, 'C', customerIds, maxLength);
+        if (body.length() > 0) {
+            bodies.add(body.toString());
+        }
+        return bodies;
+    }
+
+    private static void appendAll(List<String> bodies, StringBuilder body, char[] section, char kind,
+                                  Collection<Long> ids, int maxLength) {
+        for (Long id : ids) {
+            String value = Long.toString(id);
+            boolean sameSection = section[0] == kind;
+            int extra = value.length() + (sameSection ? 1 : body.length() > 0 ? 2 : 1);
+            if (body.length() > 0 && body.length() + extra > maxLength) {
+                bodies.add(body.toString());
+                body.setLength(0);
+                sameSection = false;
+            }
+            if (sameSection && body.length() > 0) {
+                body.append(',');
+            } else {
+                if (body.length() > 0) {
+                    body.append(';');
+                }
+                body.append(kind);
+                section[0] = kind;
+            }
+            body.append(value);
+        }
+    }
+
+    static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Некорректное сообщение инвалидации: " + payload);
+        }
+        String body = parts[3];
+        Set<Long> products = new LinkedHashSet<>();
+        Set<Long> customers = new LinkedHashSet<>();
+        boolean full = FULL_REFRESH.equals(body);
+        if (!full && !body.isEmpty()) {
+            for (String section : body.split(";")) {
+                Set<Long> target = switch (section.charAt(0)) {
+                    case 'P' -> products;
+                    case 'C' -> customers;
+                    default -> throw new IllegalArgumentException("Неизвестный раздел сообщения инвалидации: " + section);
+                };
+                for (String id : section.substring(1).split(",")) {
+                    target.add(Long.parseLong(id));
+                }
+            }
+        }
+        return new InvalidationMessage(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                full, products, customers);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ordermanagement.coherence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Последний принятый номер сообщения по каждому узлу-отправителю.
+ * Узел при запуске получает новый идентификатор, поэтому номера одного узла только растут.
+ */
+final class SequenceTracker {
+
+    private final Map<String, Long> lastSequences = new HashMap<>();
+
+    /**
+     * @return {@code false}, если между предыдущим и этим сообщением узла есть пропуск
+     */
+    synchronized boolean accept(String nodeId, long sequence) {
+        Long last = lastSequences.put(nodeId, sequence);
+        if (last != null && sequence <= last) {
+            // Повтор или устаревшее сообщение не сдвигают счётчик назад
+            lastSequences.put(nodeId, last);
+            return true;
+        }
+        return last == null || sequence == last + 1;
+    }
+
+    synchronized void reset() {
+        lastSequences.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package com.ordermanagement.config;
+
+import com.ordermanagement.admission.AdmissionControlInterceptor;
+import com.ordermanagement.admission.AdmissionProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+    private final AdmissionProperties admissionProperties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (admissionProperties.isEnabled()) {
+            registry.addInterceptor(admissionControlInterceptor)
+                    .addPathPatterns("/orders/**", "/products/**", "/async/**");
+        }
+    }
+}
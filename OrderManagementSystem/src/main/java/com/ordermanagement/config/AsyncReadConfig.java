@@ -0,0 +1,43 @@
+package com.ordermanagement.config;
+
+import com.ordermanagement.exception.WorkloadRejectedException;
+import com.ordermanagement.streaming.AsyncReadProperties;
+import com.ordermanagement.streaming.NdjsonStreamTimeoutInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Пул асинхронного чтения: запросы /async/** возвращают поток Tomcat сразу,
+ * а чтение и запись ответа выполняются здесь. Переполнение очереди - 503 с Retry-After.
+ * Общий таймаут действует на короткие чтения, у потоков NDJSON - свой ({@link NdjsonStreamTimeoutInterceptor}).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncReadConfig implements WebMvcConfigurer {
+
+    private final AsyncReadProperties properties;
+
+    @Bean
+    public ThreadPoolTaskExecutor asyncReadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("async-read-");
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            throw new WorkloadRejectedException("Очередь асинхронного чтения переполнена", 1);
+        });
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(asyncReadExecutor());
+        configurer.setDefaultTimeout(properties.getTimeoutMs());
+        configurer.registerCallableInterceptors(new NdjsonStreamTimeoutInterceptor(properties));
+    }
+}
@@ -0,0 +1,14 @@
+package com.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.batch")
+public class BatchProperties {
+
+    // Максимальное число идентификаторов в одном пакетном запросе
+    private int maxIds = 200;
+}
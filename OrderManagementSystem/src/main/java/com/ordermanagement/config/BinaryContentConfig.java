@@ -0,0 +1,99 @@
+package com.ordermanagement.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jackson.autoconfigure.JacksonProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.PropertyNamingStrategy;
+import tools.jackson.databind.cfg.ConstructorDetector;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.lang.reflect.Field;
+import java.text.SimpleDateFormat;
+
+/**
+ * Бинарные представления для внутренних клиентов: application/cbor и application/x-jackson-smile
+ * по заголовкам Accept и Content-Type. Форматы строятся по тем же DTO и аннотациям Jackson, что и JSON,
+ * поэтому отдельные схемы не нужны и не расходятся с DTO. Без заголовка ответ по-прежнему в JSON.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class BinaryContentConfig implements WebMvcConfigurer {
+
+    private final CBORMapper cborMapper;
+    private final JacksonProperties jacksonProperties;
+    private final ObjectProvider<JacksonModule> modules;
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper()));
+    }
+
+    /**
+     * CBOR-маппер собирает Spring Boot со стандартным настройщиком spring.jackson.*, а для Smile
+     * автоконфигурации нет. Чтобы Smile не расходился с JSON и CBOR (включение null, даты, имена полей),
+     * к его сборщику применяются те же свойства spring.jackson.* и те же модули, что и в стандартном настройщике.
+     */
+    private SmileMapper smileMapper() {
+        SmileMapper.Builder builder = SmileMapper.builder();
+        jacksonProperties.getSerialization().forEach(builder::configure);
+        jacksonProperties.getDeserialization().forEach(builder::configure);
+        jacksonProperties.getMapper().forEach(builder::configure);
+        jacksonProperties.getDatatype().getEnum().forEach(builder::configure);
+        jacksonProperties.getDatatype().getJsonNode().forEach(builder::configure);
+        jacksonProperties.getDatatype().getDatetime().forEach(builder::configure);
+        if (jacksonProperties.getDefaultPropertyInclusion() != null) {
+            builder.changeDefaultPropertyInclusion(inclusion -> inclusion
+                    .withValueInclusion(jacksonProperties.getDefaultPropertyInclusion())
+                    .withContentInclusion(jacksonProperties.getDefaultPropertyInclusion()));
+        }
+        jacksonProperties.getVisibility().forEach((accessor, visibility) ->
+                builder.changeDefaultVisibility(checker -> checker.withVisibility(accessor, visibility)));
+        if (jacksonProperties.getTimeZone() != null) {
+            builder.defaultTimeZone(jacksonProperties.getTimeZone());
+        }
+        if (jacksonProperties.getLocale() != null) {
+            builder.defaultLocale(jacksonProperties.getLocale());
+        }
+        if (jacksonProperties.getDateFormat() != null) {
+            SimpleDateFormat dateFormat = new SimpleDateFormat(jacksonProperties.getDateFormat());
+            if (jacksonProperties.getTimeZone() != null) {
+                dateFormat.setTimeZone(jacksonProperties.getTimeZone());
+            }
+            builder.defaultDateFormat(dateFormat);
+        }
+        if (jacksonProperties.getPropertyNamingStrategy() != null) {
+            builder.propertyNamingStrategy(namingStrategy(jacksonProperties.getPropertyNamingStrategy()));
+        }
+        if (jacksonProperties.getDefaultLeniency() != null) {
+            builder.defaultLeniency(jacksonProperties.getDefaultLeniency());
+        }
+        if (jacksonProperties.getConstructorDetector() != null) {
+            builder.constructorDetector(switch (jacksonProperties.getConstructorDetector()) {
+                case DEFAULT -> ConstructorDetector.DEFAULT;
+                case USE_PROPERTIES_BASED -> ConstructorDetector.USE_PROPERTIES_BASED;
+                case USE_DELEGATING -> ConstructorDetector.USE_DELEGATING;
+                case EXPLICIT_ONLY -> ConstructorDetector.EXPLICIT_ONLY;
+            });
+        }
+        return builder.addModules(modules.orderedStream().toList()).build();
+    }
+
+    // Как и в spring.jackson.property-naming-strategy: имя константы PropertyNamingStrategies
+    private static PropertyNamingStrategy namingStrategy(String name) {
+        Field field = ReflectionUtils.findField(PropertyNamingStrategies.class, name, PropertyNamingStrategy.class);
+        if (field == null) {
+            throw new IllegalArgumentException("Неизвестная стратегия именования свойств: " + name);
+        }
+        return (PropertyNamingStrategy) ReflectionUtils.getField(field, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.fulfillment")
+public class FulfillmentProperties {
+
+    // Сколько заказов комплектовщик получает за один захват по умолчанию
+    private int defaultBatchSize = 20;
+
+    private int maxBatchSize = 100;
+
+    // Срок аренды: неподтверждённые заказы после него снова доступны другим комплектовщикам
+    private int leaseSeconds = 300;
+}
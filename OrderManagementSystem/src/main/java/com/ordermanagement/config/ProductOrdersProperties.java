@@ -0,0 +1,18 @@
+package com.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.product-orders")
+public class ProductOrdersProperties {
+
+    private int defaultLimit = 50;
+
+    private int maxLimit = 500;
+
+    // Сегментов счётчика заказов на товар; заказ пишет в сегмент по своему id
+    private int counterShards = 8;
+}
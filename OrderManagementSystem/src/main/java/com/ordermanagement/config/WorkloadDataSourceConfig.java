@@ -0,0 +1,54 @@
+package com.ordermanagement.config;
+
+import com.ordermanagement.workload.WorkloadClass;
+import com.ordermanagement.workload.WorkloadPool;
+import com.ordermanagement.workload.WorkloadProperties;
+import com.ordermanagement.workload.WorkloadRegistry;
+import com.ordermanagement.workload.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Отдельный пул соединений Hikari для каждого класса нагрузки.
+ * Параметры подключения берутся из spring.datasource, размеры пулов - из ordermanagement.workloads.
+ */
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 WorkloadProperties workloadProperties,
+                                 WorkloadRegistry workloadRegistry) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            WorkloadProperties.Pool settings = workloadProperties.pool(workloadClass);
+            WorkloadPool pool = workloadRegistry.get(workloadClass);
+
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            dataSource.setPoolName("oms-" + workloadClass.name().toLowerCase());
+            dataSource.setMaximumPoolSize(settings.getMaximumPoolSize());
+            dataSource.setMinimumIdle(settings.getMinimumIdle());
+            dataSource.setConnectionTimeout(settings.getConnectionTimeout());
+            dataSource.setMetricsTrackerFactory((poolName, poolStats) -> pool);
+            pool.attach(dataSource);
+
+            targets.put(workloadClass, dataSource);
+        }
+
+        WorkloadRoutingDataSource routingDataSource = new WorkloadRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(targets.get(workloadProperties.getDefaultWorkload()));
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ordermanagement.dataset;
+
+import com.ordermanagement.util.Money;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+/**
+ * Строки пакетами INSERT для баз без COPY (H2).
+ */
+final class BatchRowWriter implements RowWriter, AutoCloseable {
+
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int column = 1;
+    private int pending;
+
+    BatchRowWriter(Connection connection, DatasetTable table, int batchSize) throws SQLException {
+        this.statement = connection.prepareStatement("INSERT INTO " + table.getTableName() + " (" + table.columnList()
+                + ") VALUES (" + String.join(", ", Collections.nCopies(table.getColumns().size(), "?")) + ")");
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void value(long value) throws SQLException {
+        statement.setLong(column++, value);
+    }
+
+    @Override
+    public void text(String value) throws SQLException {
+        statement.setString(column++, value);
+    }
+
+    @Override
+    public void money(long minor) throws SQLException {
+        statement.setBigDecimal(column++, Money.toBigDecimal(minor));
+    }
+
+    @Override
+    public void timestamp(LocalDateTime value) throws SQLException {
+        statement.setTimestamp(column++, Timestamp.valueOf(value));
+    }
+
+    @Override
+    public void nullValue() throws SQLException {
+        statement.setNull(column++, Types.NULL);
+    }
+
+    @Override
+    public void endRow() throws SQLException {
+        statement.addBatch();
+        column = 1;
+        if (++pending == batchSize) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    void finish() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        statement.close();
+    }
+}
@@ -0,0 +1,160 @@
+package com.ordermanagement.dataset;
+
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Строки в COPY ... FROM STDIN WITH (FORMAT csv) PostgreSQL. CSV собирается в байтовый буфер
+ * и отправляется порциями, без промежуточных строк и без разбора SQL на сервере.
+ */
+final class CopyRowWriter implements RowWriter {
+
+    private final CopyIn copyIn;
+    private final int flushBytes;
+    private byte[] buffer;
+    private int length;
+    private boolean firstColumn = true;
+
+    CopyRowWriter(CopyIn copyIn, int flushBytes) {
+        this.copyIn = copyIn;
+        this.flushBytes = flushBytes;
+        this.buffer = new byte[flushBytes + 4096];
+    }
+
+    @Override
+    public void value(long value) {
+        separator();
+        appendLong(value);
+    }
+
+    @Override
+    public void text(String value) {
+        separator();
+        // Без кавычек пустая строка в CSV означает NULL
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quote) {
+            append((byte) '"');
+            appendBytes(value.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8));
+            append((byte) '"');
+        } else {
+            appendBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public void money(long minor) {
+        separator();
+        appendLong(minor / 100);
+        append((byte) '.');
+        long cents = Math.abs(minor % 100);
+        append((byte) ('0' + cents / 10));
+        append((byte) ('0' + cents % 10));
+    }
+
+    @Override
+    public void timestamp(LocalDateTime value) {
+        separator();
+        appendPadded(value.getYear(), 4);
+        append((byte) '-');
+        appendPadded(value.getMonthValue(), 2);
+        append((byte) '-');
+        appendPadded(value.getDayOfMonth(), 2);
+        append((byte) ' ');
+        appendPadded(value.getHour(), 2);
+        append((byte) ':');
+        appendPadded(value.getMinute(), 2);
+        append((byte) ':');
+        appendPadded(value.getSecond(), 2);
+    }
+
+    @Override
+    public void nullValue() {
+        separator();
+    }
+
+    @Override
+    public void endRow() throws SQLException {
+        append((byte) '\n');
+        firstColumn = true;
+        if (length >= flushBytes) {
+            flush();
+        }
+    }
+
+    long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    void cancel() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (length > 0) {
+            copyIn.writeToCopy(buffer, 0, length);
+            length = 0;
+        }
+    }
+
+    private void separator() {
+        if (!firstColumn) {
+            append((byte) ',');
+        }
+        firstColumn = false;
+    }
+
+    private void appendLong(long value) {
+        if (value < 0) {
+            append((byte) '-');
+            value = -value;
+        }
+        ensureCapacity(20);
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    private void appendPadded(int value, int digits) {
+        ensureCapacity(digits);
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void appendBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        buffer[length++] = b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
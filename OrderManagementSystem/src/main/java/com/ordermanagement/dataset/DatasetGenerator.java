@@ -0,0 +1,434 @@
+package com.ordermanagement.dataset;
+
+import com.ordermanagement.entity.Order.OrderStatus;
+import com.ordermanagement.entity.Payment.PaymentMethod;
+import com.ordermanagement.entity.Payment.PaymentStatus;
+import com.ordermanagement.entity.Reservation.ReservationStatus;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Детерминированный генератор набора данных. Каждая строка выводится из зерна и своего id,
+ * поэтому таблицы генерируются независимо и в любом порядке, а заказ при генерации позиций,
+ * резервирований и платежей воспроизводится заново, без хранения в памяти.
+ * Строки согласованы с ограничениями schema.sql: остаток товара равен сумме остатков по складам,
+ * сумма заказа - сумме позиций по цене товара, у оплаченного заказа один платёж на всю сумму.
+ */
+public class DatasetGenerator {
+
+    private static final long SALT_WAREHOUSE = 0x5741L;
+    private static final long SALT_CUSTOMER = 0x4355L;
+    private static final long SALT_PRODUCT = 0x5052L;
+    private static final long SALT_CATALOG = 0x4341L;
+    private static final long SALT_STOCK = 0x5354L;
+    private static final long SALT_ORDER = 0x4f52L;
+
+    // Популярность товаров по Ципфу: небольшая доля товаров собирает большую часть позиций
+    private static final double PRODUCT_SKEW = 0.9;
+    // Число позиций в заказе: чаще всего одна-две, редкие оптовые заказы - до maxItemsPerOrder
+    private static final double ITEM_COUNT_SKEW = 1.8;
+    private static final int MAX_STOCK_WAREHOUSES = 3;
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private static final String[] CITIES = {"Москва", "Санкт-Петербург", "Казань", "Новосибирск", "Екатеринбург",
+            "Нижний Новгород", "Самара", "Ростов-на-Дону", "Краснодар", "Воронеж", "Пермь", "Уфа"};
+    private static final String[] STREETS = {"Ленина", "Пушкина", "Гагарина", "Мира", "Советская", "Садовая",
+            "Лесная", "Центральная", "Молодёжная", "Школьная", "Набережная", "Баумана"};
+    private static final String[] LAST_NAMES = {"Иванов", "Петров", "Сидоров", "Смирнов", "Кузнецов", "Попов",
+            "Васильев", "Соколов", "Михайлов", "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев",
+            "Семёнов", "Егоров", "Павлов", "Козлов", "Степанов", "Николаев", "Орлов", "Андреев", "Макаров"};
+    private static final String[] MALE_NAMES = {"Иван", "Алексей", "Дмитрий", "Сергей", "Андрей", "Михаил",
+            "Николай", "Павел", "Артём", "Максим", "Егор", "Владимир"};
+    private static final String[] FEMALE_NAMES = {"Анна", "Мария", "Елена", "Ольга", "Наталья", "Татьяна",
+            "Ирина", "Екатерина", "Светлана", "Дарья", "Полина", "Юлия"};
+    private static final String[] CATEGORIES = {"Ноутбук", "Смартфон", "Наушники", "Планшет", "Монитор",
+            "Клавиатура", "Мышь", "Принтер", "Роутер", "Телевизор"};
+    // Диапазон цен категории в рублях; верхняя граница держит сумму крупного заказа в NUMERIC(10,2)
+    private static final int[][] CATEGORY_PRICES = {{35_000, 200_000}, {8_000, 150_000}, {900, 40_000},
+            {12_000, 120_000}, {9_000, 90_000}, {700, 20_000}, {300, 9_000}, {6_000, 60_000}, {1_500, 25_000},
+            {15_000, 200_000}};
+    private static final String[] BRANDS = {"ASUS", "Samsung", "Sony", "Apple", "Dell", "Logitech", "Lenovo",
+            "Xiaomi", "HP", "LG", "Huawei", "Acer"};
+    private static final String[] FEATURES = {"гарантия 12 месяцев", "гарантия 24 месяца", "официальная поставка",
+            "в наличии на складе", "быстрая доставка", "новая модель"};
+    private static final String[] NOTES = {"Доставка после 18:00", "Позвонить за час до доставки",
+            "Оставить у консьержа", "Нужен счёт для юрлица", "Подарочная упаковка"};
+    private static final PaymentMethod[] PAYMENT_METHODS = {PaymentMethod.CREDIT_CARD, PaymentMethod.CREDIT_CARD,
+            PaymentMethod.CREDIT_CARD, PaymentMethod.BANK_TRANSFER, PaymentMethod.PAYPAL, PaymentMethod.CASH,
+            PaymentMethod.OTHER};
+
+    private final DatasetSpec spec;
+    private final LocalDateTime historyEnd;
+    private final LocalDateTime historyStart;
+    private final double[] productPopularity;
+    private final double[] itemCounts;
+    private final long productStride;
+    private final byte[] productCategories;
+    private final long[] productPrices;
+    private final int[] productWarehouses;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.historyEnd = spec.getEndDate().plusDays(1).atStartOfDay();
+        this.historyStart = historyEnd.minusDays(spec.getDays());
+        this.productPopularity = zipf(spec.getProducts(), PRODUCT_SKEW);
+        this.itemCounts = zipf(Math.min(spec.getMaxItemsPerOrder(), spec.getProducts()), ITEM_COUNT_SKEW);
+        this.productStride = strideFor(spec.getProducts());
+
+        // Цена и основной склад нужны в каждой позиции и резервировании - считаются один раз
+        this.productCategories = new byte[spec.getProducts() + 1];
+        this.productPrices = new long[spec.getProducts() + 1];
+        this.productWarehouses = new int[spec.getProducts() + 1];
+        int[] warehouses = new int[MAX_STOCK_WAREHOUSES];
+        int[] quantities = new int[MAX_STOCK_WAREHOUSES];
+        for (int id = 1; id <= spec.getProducts(); id++) {
+            SplittableRandom random = random(SALT_PRODUCT, id);
+            productCategories[id] = (byte) random.nextInt(CATEGORIES.length);
+            int[] range = CATEGORY_PRICES[productCategories[id]];
+            double rubles = Math.exp(random.nextDouble(Math.log(range[0]), Math.log(range[1])));
+            productPrices[id] = Math.max(1, Math.round(rubles)) * 100 - 1;
+            stock(id, warehouses, quantities);
+            productWarehouses[id] = warehouses[0];
+        }
+    }
+
+    public DatasetSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Записывает все строки таблицы и возвращает их число.
+     */
+    public long generate(DatasetTable table, RowWriter out) throws SQLException {
+        return switch (table) {
+            case WAREHOUSES -> warehouses(out);
+            case CUSTOMERS -> customers(out);
+            case PRODUCTS -> products(out);
+            case WAREHOUSE_STOCK -> warehouseStock(out);
+            case ORDERS -> orders(out);
+            case ORDER_ITEMS -> orderItems(out);
+            case RESERVATIONS -> reservations(out);
+            case PAYMENTS -> payments(out);
+        };
+    }
+
+    private long warehouses(RowWriter out) throws SQLException {
+        for (int id = 1; id <= spec.getWarehouses(); id++) {
+            SplittableRandom random = random(SALT_WAREHOUSE, id);
+            String city = CITIES[(id - 1) % CITIES.length];
+            out.value(id);
+            out.text("Склад №" + id + " (" + city + ")");
+            out.text("г. " + city + ", ул. Складская, д. " + (1 + random.nextInt(100)));
+            out.value(10_000L + random.nextInt(90_001));
+            out.value(id - 1);
+            out.endRow();
+        }
+        return spec.getWarehouses();
+    }
+
+    private long customers(RowWriter out) throws SQLException {
+        for (long id = 1; id <= spec.getCustomers(); id++) {
+            SplittableRandom random = random(SALT_CUSTOMER, id);
+            boolean female = random.nextBoolean();
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String name = female
+                    ? lastName + "а " + FEMALE_NAMES[random.nextInt(FEMALE_NAMES.length)]
+                    : lastName + " " + MALE_NAMES[random.nextInt(MALE_NAMES.length)];
+            out.value(id);
+            out.text(name);
+            out.text("customer" + id + "@example.com");
+            out.text("+79" + (100_000_000 + random.nextInt(900_000_000)));
+            out.text(address(random));
+            out.timestamp(historyStart.minusSeconds(random.nextLong(2L * 365 * SECONDS_PER_DAY)));
+            out.endRow();
+        }
+        return spec.getCustomers();
+    }
+
+    private long products(RowWriter out) throws SQLException {
+        int[] warehouses = new int[MAX_STOCK_WAREHOUSES];
+        int[] quantities = new int[MAX_STOCK_WAREHOUSES];
+        for (int id = 1; id <= spec.getProducts(); id++) {
+            SplittableRandom random = random(SALT_CATALOG, id);
+            String category = CATEGORIES[productCategories[id]];
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            String model = (char) ('A' + random.nextInt(26)) + String.valueOf(100 + random.nextInt(900));
+
+            int count = stock(id, warehouses, quantities);
+            long quantity = 0;
+            for (int i = 0; i < count; i++) {
+                quantity += quantities[i];
+            }
+            LocalDateTime created = historyStart.minusSeconds(random.nextLong(365L * SECONDS_PER_DAY));
+
+            out.value(id);
+            out.text(category + " " + brand + " " + model);
+            out.text(category + " " + brand + ", " + FEATURES[random.nextInt(FEATURES.length)]);
+            out.money(productPrices[id]);
+            out.value(quantity);
+            out.value(warehouses[0]);
+            out.value(5 + random.nextInt(16));
+            out.timestamp(created);
+            out.timestamp(created.plusSeconds(random.nextLong(Duration.between(created, historyEnd).getSeconds())));
+            out.endRow();
+        }
+        return spec.getProducts();
+    }
+
+    private long warehouseStock(RowWriter out) throws SQLException {
+        int[] warehouses = new int[MAX_STOCK_WAREHOUSES];
+        int[] quantities = new int[MAX_STOCK_WAREHOUSES];
+        long id = 0;
+        for (int productId = 1; productId <= spec.getProducts(); productId++) {
+            int count = stock(productId, warehouses, quantities);
+            for (int i = 0; i < count; i++) {
+                out.value(++id);
+                out.value(warehouses[i]);
+                out.value(productId);
+                out.value(quantities[i]);
+                out.endRow();
+            }
+        }
+        return id;
+    }
+
+    private long orders(RowWriter out) throws SQLException {
+        OrderShape order = new OrderShape(spec.getMaxItemsPerOrder());
+        for (long id = 1; id <= spec.getOrders(); id++) {
+            shape(id, order);
+            out.value(id);
+            out.value(order.customerId);
+            out.timestamp(order.orderDate);
+            out.text(order.status.name());
+            out.money(order.totalMinor);
+            if (order.notes != null) {
+                out.text(order.notes);
+            } else {
+                out.nullValue();
+            }
+            out.endRow();
+        }
+        return spec.getOrders();
+    }
+
+    private long orderItems(RowWriter out) throws SQLException {
+        OrderShape order = new OrderShape(spec.getMaxItemsPerOrder());
+        long id = 0;
+        for (long orderId = 1; orderId <= spec.getOrders(); orderId++) {
+            shape(orderId, order);
+            for (int i = 0; i < order.items; i++) {
+                out.value(++id);
+                out.value(orderId);
+                out.value(order.productIds[i]);
+                out.value(order.quantities[i]);
+                out.money(productPrices[order.productIds[i]]);
+                out.endRow();
+            }
+        }
+        return id;
+    }
+
+    private long reservations(RowWriter out) throws SQLException {
+        OrderShape order = new OrderShape(spec.getMaxItemsPerOrder());
+        long id = 0;
+        for (long orderId = 1; orderId <= spec.getOrders(); orderId++) {
+            shape(orderId, order);
+            if (!order.reserved) {
+                continue;
+            }
+            ReservationStatus status = switch (order.status) {
+                case RESERVED -> ReservationStatus.ACTIVE;
+                case CANCELLED -> ReservationStatus.CANCELLED;
+                default -> ReservationStatus.COMPLETED;
+            };
+            for (int i = 0; i < order.items; i++) {
+                out.value(++id);
+                out.value(orderId);
+                out.value(order.productIds[i]);
+                out.value(productWarehouses[order.productIds[i]]);
+                out.value(order.quantities[i]);
+                out.text(status.name());
+                out.timestamp(order.reservedAt);
+                out.endRow();
+            }
+        }
+        return id;
+    }
+
+    private long payments(RowWriter out) throws SQLException {
+        OrderShape order = new OrderShape(spec.getMaxItemsPerOrder());
+        long id = 0;
+        for (long orderId = 1; orderId <= spec.getOrders(); orderId++) {
+            shape(orderId, order);
+            if (!order.paid) {
+                continue;
+            }
+            out.value(++id);
+            out.value(orderId);
+            out.timestamp(order.paidAt);
+            out.money(order.totalMinor);
+            out.text(order.paymentMethod.name());
+            out.text((order.status == OrderStatus.CANCELLED ? PaymentStatus.REFUNDED : PaymentStatus.COMPLETED).name());
+            out.text("DS-" + orderId);
+            out.endRow();
+        }
+        return id;
+    }
+
+    /**
+     * Склады и остатки товара: от одного до трёх разных складов подряд от случайного начального.
+     */
+    private int stock(int productId, int[] warehouses, int[] quantities) {
+        SplittableRandom random = random(SALT_STOCK, productId);
+        int count = 1 + random.nextInt(Math.min(MAX_STOCK_WAREHOUSES, spec.getWarehouses()));
+        int first = random.nextInt(spec.getWarehouses());
+        for (int i = 0; i < count; i++) {
+            warehouses[i] = (first + i) % spec.getWarehouses() + 1;
+            double r = random.nextDouble();
+            // Часть товаров закончилась или на исходе - для проверки порогов низкого остатка
+            quantities[i] = r < 0.08 ? 0 : r < 0.2 ? random.nextInt(20) : 20 + random.nextInt(480);
+        }
+        return count;
+    }
+
+    private void shape(long orderId, OrderShape order) {
+        SplittableRandom random = random(SALT_ORDER, orderId);
+        order.customerId = 1 + random.nextLong(spec.getCustomers());
+        long ageSeconds = random.nextLong((long) spec.getDays() * SECONDS_PER_DAY);
+        order.orderDate = historyEnd.minusSeconds(ageSeconds + 1);
+        order.status = status(ageSeconds, random.nextDouble());
+        order.notes = random.nextDouble() < 0.1 ? NOTES[random.nextInt(NOTES.length)] : null;
+
+        order.items = 1 + sample(itemCounts, random.nextDouble());
+        order.totalMinor = 0;
+        for (int i = 0; i < order.items; i++) {
+            int productId = (int) ((sample(productPopularity, random.nextDouble()) * productStride)
+                    % spec.getProducts()) + 1;
+            // Один товар встречается в заказе одной позицией
+            while (contains(order.productIds, i, productId)) {
+                productId = productId % spec.getProducts() + 1;
+            }
+            double r = random.nextDouble();
+            int quantity = r < 0.7 ? 1 : r < 0.9 ? 2 : 3 + random.nextInt(8);
+            order.productIds[i] = productId;
+            order.quantities[i] = quantity;
+            order.totalMinor += productPrices[productId] * quantity;
+        }
+
+        switch (order.status) {
+            case RESERVED -> {
+                order.reserved = true;
+                order.paid = false;
+            }
+            case PAID, SHIPPED, DELIVERED -> {
+                order.reserved = true;
+                order.paid = true;
+            }
+            case CANCELLED -> {
+                order.reserved = random.nextDouble() < 0.5;
+                order.paid = order.reserved && random.nextDouble() < 0.3;
+            }
+            default -> {
+                order.reserved = false;
+                order.paid = false;
+            }
+        }
+        order.reservedAt = order.orderDate.plusSeconds(60 + random.nextInt(900));
+        order.paidAt = order.reservedAt.plusSeconds(30 + random.nextInt(3600));
+        order.paymentMethod = PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)];
+    }
+
+    // Свежие заказы ещё в работе, старые в основном доставлены
+    private static OrderStatus status(long ageSeconds, double r) {
+        if (ageSeconds < SECONDS_PER_DAY) {
+            return r < 0.3 ? OrderStatus.NEW : r < 0.4 ? OrderStatus.PROCESSING : r < 0.65 ? OrderStatus.RESERVED
+                    : r < 0.95 ? OrderStatus.PAID : OrderStatus.CANCELLED;
+        }
+        if (ageSeconds < 7L * SECONDS_PER_DAY) {
+            return r < 0.05 ? OrderStatus.NEW : r < 0.1 ? OrderStatus.RESERVED : r < 0.35 ? OrderStatus.PAID
+                    : r < 0.9 ? OrderStatus.SHIPPED : OrderStatus.CANCELLED;
+        }
+        return r < 0.85 ? OrderStatus.DELIVERED : r < 0.88 ? OrderStatus.SHIPPED : OrderStatus.CANCELLED;
+    }
+
+    private static String address(SplittableRandom random) {
+        return "г. " + CITIES[random.nextInt(CITIES.length)] + ", ул. " + STREETS[random.nextInt(STREETS.length)]
+                + ", д. " + (1 + random.nextInt(200)) + ", кв. " + (1 + random.nextInt(300));
+    }
+
+    private SplittableRandom random(long salt, long id) {
+        return new SplittableRandom(spec.getSeed() * 0x9E3779B97F4A7C15L + salt * 0xC2B2AE3D27D4EB4FL + id);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Накопленные вероятности распределения Ципфа для рангов 1..n
+    static double[] zipf(int n, double skew) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, skew);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    // Ранг (с нуля) для равномерного u из [0, 1)
+    static int sample(double[] cumulative, double u) {
+        int index = Arrays.binarySearch(cumulative, u);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    // Шаг, взаимно простой с n: популярные ранги разбрасываются по всему диапазону id товаров
+    private static long strideFor(int n) {
+        long stride = Math.max(1, Math.round(n * 0.618));
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static final class OrderShape {
+        long customerId;
+        LocalDateTime orderDate;
+        OrderStatus status;
+        String notes;
+        int items;
+        final int[] productIds;
+        final int[] quantities;
+        long totalMinor;
+        boolean reserved;
+        boolean paid;
+        LocalDateTime reservedAt;
+        LocalDateTime paidAt;
+        PaymentMethod paymentMethod;
+
+        OrderShape(int maxItems) {
+            productIds = new int[maxItems];
+            quantities = new int[maxItems];
+        }
+    }
+}
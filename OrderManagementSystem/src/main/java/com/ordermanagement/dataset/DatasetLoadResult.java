@@ -0,0 +1,28 @@
+package com.ordermanagement.dataset;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Value
+@Builder
+public class DatasetLoadResult {
+    long seed;
+    double scaleFactor;
+    LocalDate endDate;
+    // COPY (PostgreSQL) или BATCH (пакеты INSERT)
+    String method;
+    List<TableLoad> tables;
+    long totalRows;
+    long elapsedMillis;
+    long rowsPerSecond;
+
+    @Value
+    public static class TableLoad {
+        String table;
+        long rows;
+        long elapsedMillis;
+    }
+}
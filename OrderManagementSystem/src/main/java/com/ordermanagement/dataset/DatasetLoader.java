@@ -0,0 +1,144 @@
+package com.ordermanagement.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка сгенерированного набора одной транзакцией: COPY для PostgreSQL, пакеты INSERT для остальных баз.
+ * Id строк задаются генератором, после загрузки счётчики id таблиц переводятся за последний id.
+ */
+@Slf4j
+public class DatasetLoader {
+
+    // Очищаются перед загрузкой, от дочерних таблиц к родительским
+    private static final List<String> CLEARED_TABLES = List.of("outbox_events", "product_order_counts", "payments",
+            "reservations", "order_items", "orders", "product_stock_shards", "warehouse_stock", "products",
+            "customers", "warehouses");
+
+    private final int batchSize;
+    private final int copyBufferBytes;
+
+    public DatasetLoader(int batchSize, int copyBufferBytes) {
+        this.batchSize = batchSize;
+        this.copyBufferBytes = copyBufferBytes;
+    }
+
+    public DatasetLoadResult load(DataSource dataSource, DatasetGenerator generator, boolean replace) throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean copy = connection.isWrapperFor(PGConnection.class);
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                if (copy) {
+                    // Потеря последних транзакций при сбое сервера не страшна: набор можно загрузить заново
+                    execute(connection, "SET LOCAL synchronous_commit TO OFF");
+                }
+                if (replace) {
+                    clear(connection, copy);
+                } else {
+                    ensureEmpty(connection);
+                }
+
+                List<DatasetLoadResult.TableLoad> tables = new ArrayList<>();
+                long totalRows = 0;
+                for (DatasetTable table : DatasetTable.values()) {
+                    long tableStarted = System.nanoTime();
+                    long rows = copy ? copy(connection, generator, table) : insert(connection, generator, table);
+                    restartIdentity(connection, table, rows + 1, copy);
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - tableStarted);
+                    log.info("Набор данных: {} - {} строк за {} мс", table.getTableName(), rows, millis);
+                    tables.add(new DatasetLoadResult.TableLoad(table.getTableName(), rows, millis));
+                    totalRows += rows;
+                }
+                connection.commit();
+
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                DatasetSpec spec = generator.getSpec();
+                return DatasetLoadResult.builder()
+                        .seed(spec.getSeed())
+                        .scaleFactor(spec.getScaleFactor())
+                        .endDate(spec.getEndDate())
+                        .method(copy ? "COPY" : "BATCH")
+                        .tables(tables)
+                        .totalRows(totalRows)
+                        .elapsedMillis(elapsed)
+                        .rowsPerSecond(totalRows * 1000 / Math.max(1, elapsed))
+                        .build();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private long copy(Connection connection, DatasetGenerator generator, DatasetTable table) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        CopyRowWriter writer = new CopyRowWriter(copyManager.copyIn("COPY " + table.getTableName()
+                + " (" + table.columnList() + ") FROM STDIN WITH (FORMAT csv)"), copyBufferBytes);
+        try {
+            generator.generate(table, writer);
+            return writer.finish();
+        } catch (SQLException | RuntimeException e) {
+            writer.cancel();
+            throw e;
+        }
+    }
+
+    private long insert(Connection connection, DatasetGenerator generator, DatasetTable table) throws SQLException {
+        try (BatchRowWriter writer = new BatchRowWriter(connection, table, batchSize)) {
+            long rows = generator.generate(table, writer);
+            writer.finish();
+            return rows;
+        }
+    }
+
+    private void clear(Connection connection, boolean postgres) throws SQLException {
+        if (postgres) {
+            execute(connection, "TRUNCATE TABLE " + String.join(", ", CLEARED_TABLES) + " RESTART IDENTITY CASCADE");
+            return;
+        }
+        for (String table : CLEARED_TABLES) {
+            execute(connection, "DELETE FROM " + table);
+        }
+    }
+
+    private void ensureEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (DatasetTable table : DatasetTable.values()) {
+                try (ResultSet rows = statement.executeQuery("SELECT 1 FROM " + table.getTableName() + " LIMIT 1")) {
+                    if (rows.next()) {
+                        throw new IllegalArgumentException("Таблица " + table.getTableName()
+                                + " не пуста; загрузка поверх данных возможна только с очисткой (replace)");
+                    }
+                }
+            }
+        }
+    }
+
+    private void restartIdentity(Connection connection, DatasetTable table, long nextId, boolean postgres)
+            throws SQLException {
+        String name = table.getTableName();
+        execute(connection, postgres
+                ? "SELECT setval(pg_get_serial_sequence('" + name + "', 'id'), " + nextId + ", false)"
+                : "ALTER TABLE " + name + " ALTER COLUMN id RESTART WITH " + nextId);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ordermanagement.dataset;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.dataset")
+public class DatasetProperties {
+
+    // POST /dataset - только для стендов нагрузочного тестирования
+    private boolean endpointEnabled = false;
+
+    // Загрузить набор при старте приложения с параметрами ниже
+    private boolean loadOnStartup = false;
+
+    // 1.0 - 100 тыс. покупателей, 10 тыс. товаров, 250 тыс. заказов; объёмы растут линейно
+    private double scaleFactor = 1.0;
+
+    private long seed = 42;
+
+    // Последний день истории заказов; по умолчанию - текущая дата.
+    // Для побайтно одинаковых наборов в разные дни задаётся явно
+    private LocalDate endDate;
+
+    // Очистить таблицы перед загрузкой; иначе загрузка в непустую базу отклоняется
+    private boolean replace = true;
+
+    // Строк в пакете INSERT для баз без COPY (H2)
+    private int batchSize = 5000;
+
+    // Буфер COPY: столько байт CSV отправляется серверу за один вызов
+    private int copyBufferBytes = 1024 * 1024;
+}
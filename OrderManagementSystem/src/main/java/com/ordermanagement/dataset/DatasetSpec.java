@@ -0,0 +1,48 @@
+package com.ordermanagement.dataset;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Объёмы набора данных для масштаба и зерна. Одинаковые масштаб, зерно и дата окончания
+ * дают одинаковые строки во всех таблицах.
+ */
+@Value
+@Builder
+public class DatasetSpec {
+
+    static final long CUSTOMERS_PER_SCALE = 100_000;
+    static final long PRODUCTS_PER_SCALE = 10_000;
+    static final long ORDERS_PER_SCALE = 250_000;
+    static final double MAX_SCALE_FACTOR = 1000;
+
+    long seed;
+    double scaleFactor;
+    int warehouses;
+    long customers;
+    int products;
+    long orders;
+    int maxItemsPerOrder;
+    // Глубина истории заказов в днях до endDate включительно
+    int days;
+    LocalDate endDate;
+
+    public static DatasetSpec of(double scaleFactor, long seed, LocalDate endDate) {
+        if (!(scaleFactor > 0) || scaleFactor > MAX_SCALE_FACTOR) {
+            throw new IllegalArgumentException("Масштаб набора данных должен быть больше 0 и не больше " + MAX_SCALE_FACTOR);
+        }
+        return DatasetSpec.builder()
+                .seed(seed)
+                .scaleFactor(scaleFactor)
+                .warehouses((int) Math.max(2, Math.min(32, Math.round(4 * scaleFactor))))
+                .customers(Math.max(1, Math.round(CUSTOMERS_PER_SCALE * scaleFactor)))
+                .products((int) Math.max(1, Math.round(PRODUCTS_PER_SCALE * scaleFactor)))
+                .orders(Math.max(1, Math.round(ORDERS_PER_SCALE * scaleFactor)))
+                .maxItemsPerOrder(40)
+                .days(365)
+                .endDate(endDate)
+                .build();
+    }
+}
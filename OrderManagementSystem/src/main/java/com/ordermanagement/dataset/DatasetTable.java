@@ -0,0 +1,35 @@
+package com.ordermanagement.dataset;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Таблицы набора данных в порядке загрузки (родительские раньше дочерних).
+ * Столбцы со значениями по умолчанию и вычисляемые (order_items.subtotal) не заполняются.
+ */
+@Getter
+public enum DatasetTable {
+    WAREHOUSES("warehouses", "id", "name", "address", "capacity", "priority"),
+    CUSTOMERS("customers", "id", "name", "email", "phone", "address", "created_at"),
+    PRODUCTS("products", "id", "name", "description", "price", "quantity", "warehouse_id",
+            "low_stock_threshold", "created_at", "updated_at"),
+    WAREHOUSE_STOCK("warehouse_stock", "id", "warehouse_id", "product_id", "quantity"),
+    ORDERS("orders", "id", "customer_id", "order_date", "status", "total_amount", "notes"),
+    ORDER_ITEMS("order_items", "id", "order_id", "product_id", "quantity", "unit_price"),
+    RESERVATIONS("reservations", "id", "order_id", "product_id", "warehouse_id", "quantity_reserved", "status",
+            "reservation_date"),
+    PAYMENTS("payments", "id", "order_id", "payment_date", "amount", "payment_method", "status", "transaction_id");
+
+    private final String tableName;
+    private final List<String> columns;
+
+    DatasetTable(String tableName, String... columns) {
+        this.tableName = tableName;
+        this.columns = List.of(columns);
+    }
+
+    public String columnList() {
+        return String.join(", ", columns);
+    }
+}
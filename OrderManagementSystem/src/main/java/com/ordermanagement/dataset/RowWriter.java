@@ -0,0 +1,23 @@
+package com.ordermanagement.dataset;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Приёмник строк генератора: значения передаются по столбцам в порядке {@link DatasetTable#getColumns()}.
+ */
+public interface RowWriter {
+
+    void value(long value) throws SQLException;
+
+    void text(String value) throws SQLException;
+
+    // Денежная сумма в копейках, столбец NUMERIC(10,2)
+    void money(long minor) throws SQLException;
+
+    void timestamp(LocalDateTime value) throws SQLException;
+
+    void nullValue() throws SQLException;
+
+    void endRow() throws SQLException;
+}
@@ -0,0 +1,12 @@
+package com.ordermanagement.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BatchRequestDTO {
+
+    @NotEmpty(message = "Список идентификаторов не может быть пустым")
+    private List<Long> ids;
+}
@@ -0,0 +1,15 @@
+package com.ordermanagement.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BatchResultDTO<T> {
+
+    // Найденные записи в порядке запрошенных идентификаторов
+    private List<T> items = new ArrayList<>();
+
+    // Идентификаторы, для которых записи не найдены
+    private List<Long> missingIds = new ArrayList<>();
+}
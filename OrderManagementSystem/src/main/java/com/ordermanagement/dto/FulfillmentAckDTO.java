@@ -0,0 +1,16 @@
+package com.ordermanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class FulfillmentAckDTO {
+
+    @NotBlank(message = "Идентификатор аренды обязателен")
+    private String leaseId;
+
+    @NotEmpty(message = "Список заказов не может быть пустым")
+    private List<Long> orderIds;
+}
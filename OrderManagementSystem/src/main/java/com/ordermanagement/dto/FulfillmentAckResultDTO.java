@@ -0,0 +1,14 @@
+package com.ordermanagement.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class FulfillmentAckResultDTO {
+
+    // Заказы, обработанные по аренде
+    private List<Long> acknowledged;
+
+    // Заказы, аренда которых истекла или принадлежит другому комплектовщику
+    private List<Long> rejected;
+}
@@ -0,0 +1,20 @@
+package com.ordermanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class FulfillmentLeaseDTO {
+
+    // Идентификатор аренды для подтверждения или возврата заказов
+    private String leaseId;
+
+    private String worker;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    private List<OrderDTO> orders;
+}
@@ -0,0 +1,28 @@
+package com.ordermanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class IntakeStatusDTO {
+
+    public enum Status {
+        // Записан в журнал, но ещё не сброшен на диск
+        PENDING,
+        // Устойчиво записан в журнал и ждёт применения к базе
+        ACCEPTED,
+        // Заказ создан в базе
+        APPLIED,
+        // Заказ отклонён при применении
+        FAILED
+    }
+
+    private String reference;
+
+    private Status status;
+
+    private Long sequence;
+
+    private Long orderId;
+
+    private String message;
+}
@@ -12,12 +12,14 @@ import java.util.List;
 @Data
 public class OrderDTO {
 
+    public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
     private Long id;
 
     @NotNull(message = "ID покупателя обязательно")
     private Long customerId;
 
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonFormat(pattern = DATE_FORMAT)
     private LocalDateTime orderDate;
 
     private OrderStatus status;
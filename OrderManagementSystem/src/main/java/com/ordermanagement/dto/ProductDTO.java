@@ -26,4 +26,7 @@ public class ProductDTO {
     private Integer quantity;
 
     private Long warehouseId;
+
+    @Min(value = 0, message = "Порог низкого остатка не может быть отрицательным")
+    private Integer lowStockThreshold;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.ordermanagement.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class ProductOrderPageDTO {
+
+    private Long productId;
+
+    // Все заказы товара без учёта фильтров - по счётчику, без подсчёта строк
+    private long totalOrders;
+
+    private List<ProductOrderSummaryDTO> orders;
+
+    // Значение before для следующей страницы; null - страниц больше нет
+    private Long nextBefore;
+}
@@ -0,0 +1,23 @@
+package com.ordermanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.ordermanagement.entity.Order.OrderStatus;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class ProductOrderSummaryDTO {
+
+    private Long orderId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime orderDate;
+
+    private OrderStatus status;
+    private Long customerId;
+
+    // Количество и сумма по позициям этого товара в заказе
+    private long quantity;
+    private BigDecimal amount;
+}
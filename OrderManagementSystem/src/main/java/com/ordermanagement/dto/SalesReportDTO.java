@@ -0,0 +1,39 @@
+package com.ordermanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class SalesReportDTO {
+
+    private String type;
+    private String description;
+    private String keyName;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime start;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime end;
+
+    // На сколько частей был разбит период
+    private int chunks;
+
+    private BigDecimal totalRevenue;
+    private long totalQuantity;
+    private List<Row> rows;
+
+    // Ответ взят из кэша закрытых периодов
+    private boolean fromCache;
+    private long elapsedMillis;
+
+    @Data
+    public static class Row {
+        private String key;
+        private BigDecimal revenue;
+        private long quantity;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ordermanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class SalesReportDefinitionDTO {
+
+    private String type;
+    private String description;
+    private String keyName;
+}
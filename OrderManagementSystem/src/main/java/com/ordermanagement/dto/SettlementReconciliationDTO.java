@@ -0,0 +1,38 @@
+package com.ordermanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.ordermanagement.reconciliation.ReconciliationDiscrepancy;
+import com.ordermanagement.reconciliation.ReconciliationOutcome;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class SettlementReconciliationDTO {
+
+    // Имя файла расчётов или upload для тела запроса
+    private String source;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime start;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime end;
+
+    private long lines;
+    private long bytes;
+
+    private int indexedPayments;
+    // Платежи окна с повторяющимся ID транзакции; в сверке участвует первый
+    private long duplicatePaymentKeys;
+    private long indexMemoryBytes;
+
+    private Map<ReconciliationOutcome, Long> outcomes;
+    // Первые расхождения в порядке обнаружения, не больше sample-limit
+    private List<ReconciliationDiscrepancy> discrepancies;
+
+    private long indexMillis;
+    private long joinMillis;
+    private long linesPerSecond;
+}
@@ -0,0 +1,22 @@
+package com.ordermanagement.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class StockShardsDTO {
+
+    private Long productId;
+
+    private Integer shardCount;
+
+    private Long totalQuantity;
+
+    private List<Shard> shards;
+
+    @Data
+    public static class Shard {
+        private Integer shardNo;
+        private Integer quantity;
+    }
+}
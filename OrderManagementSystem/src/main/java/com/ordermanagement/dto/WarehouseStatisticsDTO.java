@@ -0,0 +1,16 @@
+package com.ordermanagement.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class WarehouseStatisticsDTO {
+
+    private Long warehouseId;
+
+    private Long productCount;
+
+    private Long totalQuantity;
+
+    private BigDecimal totalValue;
+}
@@ -0,0 +1,17 @@
+package com.ordermanagement.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class WarehouseStockDTO {
+
+    private Long productId;
+
+    private Long warehouseId;
+
+    @NotNull(message = "Количество обязательно")
+    @Min(value = 0, message = "Количество не может быть отрицательным")
+    private Integer quantity;
+}
@@ -1,7 +1,10 @@
 package com.ordermanagement.entity;
 
 import jakarta.persistence.*;
+import com.ordermanagement.util.Money;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -44,9 +47,28 @@ public class Order {
     @Column(name = "total_amount", precision = 10, scale = 2)
     private BigDecimal totalAmount;
 
+    // Сумма заказа в копейках, поддерживается инкрементально при изменении позиций
+    @Transient
+    private long totalMinor;
+
     private String notes;
 
+    // Номер приёма из журнала; уникальность делает повторное применение журнала идемпотентным
+    @Column(name = "intake_reference", length = 36, unique = true)
+    private String intakeReference;
+
+    // Аренда оплаченного заказа комплектовщиком: пока она не истекла, заказ не выдаётся другим
+    @Column(name = "lease_id", length = 36)
+    private String leaseId;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "orders.items")
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
 
@@ -59,34 +81,36 @@ public class Order {
 
     @PrePersist
     protected void onCreate() {
-        orderDate = LocalDateTime.now();
-        calculateTotalAmount();
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        calculateTotalAmount();
+        // Заказ из журнала приёма сохраняет время принятия, а не время применения
+        if (orderDate == null) {
+            orderDate = LocalDateTime.now();
+        }
+        totalAmount = Money.toBigDecimal(totalMinor);
     }
 
-    private void calculateTotalAmount() {
-        if (items != null && !items.isEmpty()) {
-            totalAmount = items.stream()
-                    .map(OrderItem::getSubtotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-        } else {
-            totalAmount = BigDecimal.ZERO;
-        }
+    @PostLoad
+    protected void onLoad() {
+        totalMinor = Money.toMinor(totalAmount);
     }
 
     public void addItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
-        calculateTotalAmount();
+        applyTotalDelta(item.getSubtotalMinor());
     }
 
     public void removeItem(OrderItem item) {
-        items.remove(item);
-        item.setOrder(null);
-        calculateTotalAmount();
+        if (items.remove(item)) {
+            item.setOrder(null);
+            applyTotalDelta(-item.getSubtotalMinor());
+        }
+    }
+
+    private void applyTotalDelta(long deltaMinor) {
+        totalMinor = Money.add(totalMinor, deltaMinor);
+        // У сохранённого заказа сумму обновляем сразу, чтобы изменение попало в проверку грязных полей
+        if (id != null) {
+            totalAmount = Money.toBigDecimal(totalMinor);
+        }
     }
 }
\ No newline at end of file
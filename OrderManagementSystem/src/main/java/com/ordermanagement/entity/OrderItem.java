@@ -1,11 +1,16 @@
 package com.ordermanagement.entity;
 
 import jakarta.persistence.*;
+import com.ordermanagement.util.Money;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "order_items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "order-items")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,14 +35,14 @@ public class OrderItem {
     @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal unitPrice;
 
-    @Column(name = "subtotal", precision = 10, scale = 2)
+    // Генерируемый столбец (quantity * unit_price), вычисляется базой данных
+    @Column(name = "subtotal", precision = 10, scale = 2, insertable = false, updatable = false)
     private BigDecimal subtotal;
 
-    @PrePersist
-    @PreUpdate
-    protected void calculateSubtotal() {
-        if (unitPrice != null && quantity != null) {
-            subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+    public long getSubtotalMinor() {
+        if (unitPrice == null || quantity == null) {
+            return 0L;
         }
+        return Money.multiply(Money.toMinor(unitPrice), quantity);
     }
 }
\ No newline at end of file
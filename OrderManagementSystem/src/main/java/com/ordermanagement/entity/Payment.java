@@ -55,6 +55,10 @@ public class Payment {
     @Column(name = "transaction_id")
     private String transactionId;
 
+    // Ключ идемпотентности текущей попытки списания; повтор после неизвестного исхода идёт с тем же ключом
+    @Column(name = "idempotency_key", length = 150)
+    private String idempotencyKey;
+
     private String notes;
 
     @PrePersist
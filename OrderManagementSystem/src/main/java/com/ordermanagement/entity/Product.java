@@ -2,11 +2,15 @@ package com.ordermanagement.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,16 +35,34 @@ public class Product {
     @Column(name = "warehouse_id")
     private Long warehouseId;
 
+    // Порог низкого остатка; null - порог по умолчанию (ordermanagement.low-stock.default-threshold)
+    @Column(name = "low_stock_threshold")
+    private Integer lowStockThreshold;
+
+    // Число сегментов остатка (product_stock_shards); null - остаток хранится в этой строке
+    @Column(name = "stock_shards")
+    private Integer stockShards;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Время последнего изменения строки; по нему снимок каталога догружает изменения после запуска
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        updatedAt = createdAt;
         if (quantity == null) {
             quantity = 0;
         }
     }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
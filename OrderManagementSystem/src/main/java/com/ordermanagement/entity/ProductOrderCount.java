@@ -0,0 +1,31 @@
+package com.ordermanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Сегмент счётчика заказов товара. Число заказов - сумма сегментов; заказы пишут в разные
+ * сегменты, поэтому популярный товар не превращается в одну горячую строку.
+ */
+@Entity
+@Table(name = "product_order_counts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_order_count", columnNames = {"product_id", "shard_no"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductOrderCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "shard_no", nullable = false)
+    private Integer shardNo;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+}
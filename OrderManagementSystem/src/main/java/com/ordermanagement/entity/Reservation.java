@@ -31,6 +31,10 @@ public class Reservation {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
+    // Склад, с которого зарезервирована часть позиции
+    @Column(name = "warehouse_id")
+    private Long warehouseId;
+
     @Column(name = "quantity_reserved", nullable = false)
     private Integer quantityReserved;
 
@@ -2,11 +2,15 @@ package com.ordermanagement.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "warehouses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "warehouses")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,7 +28,14 @@ public class Warehouse {
 
     private Integer capacity;
 
-    @OneToMany(mappedBy = "warehouseId", fetch = FetchType.LAZY)
+    // Приоритет отгрузки при распределении заказа: меньше - предпочтительнее
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer priority = 0;
+
+    // Обратная сторона Product.warehouseId: коллекцию не кэшируем - изменение товара её не вытесняет
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", insertable = false, updatable = false)
     @Builder.Default
     @ToString.Exclude
     private List<Product> products = new ArrayList<>();
@@ -0,0 +1,34 @@
+package com.ordermanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "warehouse_stock",
+        uniqueConstraints = @UniqueConstraint(name = "uk_warehouse_stock", columnNames = {"product_id", "warehouse_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WarehouseStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @PrePersist
+    protected void onCreate() {
+        if (quantity == null) {
+            quantity = 0;
+        }
+    }
+}
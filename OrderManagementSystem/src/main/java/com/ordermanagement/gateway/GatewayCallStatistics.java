@@ -0,0 +1,17 @@
+package com.ordermanagement.gateway;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class GatewayCallStatistics {
+    String operation;
+    long calls;
+    long failures;
+    double meanMillis;
+    double p50Millis;
+    double p95Millis;
+    double p99Millis;
+    double maxMillis;
+}
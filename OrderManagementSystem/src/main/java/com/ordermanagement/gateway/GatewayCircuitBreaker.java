@@ -0,0 +1,126 @@
+package com.ordermanagement.gateway;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Размыкатель по доле сбоев в окне последних вызовов. В разомкнутом состоянии шлюз не вызывается;
+ * по истечении паузы пропускается несколько пробных вызовов, и их успех снова замыкает цепь.
+ */
+public class GatewayCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final PaymentGatewayProperties.CircuitBreaker settings;
+    private final LongSupplier clock;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long openings;
+
+    public GatewayCircuitBreaker(PaymentGatewayProperties.CircuitBreaker settings, LongSupplier clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.window = new boolean[Math.max(1, settings.getWindowSize())];
+    }
+
+    /**
+     * Разрешение на вызов; за каждым разрешением должен следовать onSuccess или onFailure.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < settings.getOpenMs()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = settings.getHalfOpenCalls();
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= settings.getHalfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        record(true);
+        if (windowCount >= settings.getMinimumCalls()
+                && windowFailures >= settings.getFailureRateThreshold() * windowCount) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getOpenings() {
+        return openings;
+    }
+
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+
+    public synchronized long remainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, settings.getOpenMs() - (clock.getAsLong() - openedAt)) : 0;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        openings++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ordermanagement.gateway;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальный имитатор платёжного шлюза для разработки и бенчмарков: задержки по заданному
+ * распределению, отклонения, отказы и зависания. Результаты списаний хранятся по ключу
+ * идемпотентности, поэтому повтор и проверка статуса ведут себя как у настоящего шлюза.
+ */
+@Component
+public class GatewaySimulator {
+
+    // Квантиль стандартного нормального распределения для p99
+    private static final double Z_99 = 2.326;
+
+    private final PaymentGatewayProperties properties;
+    private final Map<String, PaymentAuthorization> charges;
+    private final AtomicLong references = new AtomicLong();
+
+    public GatewaySimulator(PaymentGatewayProperties properties) {
+        this.properties = properties;
+        int retained = properties.getSimulator().getRetainedCharges();
+        this.charges = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PaymentAuthorization> eldest) {
+                return size() > retained;
+            }
+        });
+    }
+
+    /**
+     * Списание с задержкой и сбоями имитатора.
+     *
+     * @param timeoutMs сколько вызывающий готов ждать; дольше имитатор не спит и отвечает таймаутом
+     */
+    public PaymentAuthorization charge(PaymentCharge charge, long timeoutMs) {
+        PaymentGatewayProperties.Simulator settings = properties.getSimulator();
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < settings.getErrorRate()) {
+            respondAfter(sampleLatencyMillis(), timeoutMs);
+            throw new PaymentGatewayException("Имитатор шлюза: сервис недоступен");
+        }
+
+        PaymentAuthorization result = charges.computeIfAbsent(charge.getIdempotencyKey(), key -> decide(charge));
+        if (roll < settings.getErrorRate() + settings.getHangRate()) {
+            // Платёж проведён, но ответ потерян: исход выясняется проверкой статуса
+            respondAfter(settings.getHangMs(), timeoutMs);
+            throw new PaymentGatewayException("Имитатор шлюза: ответ не получен");
+        }
+        respondAfter(sampleLatencyMillis(), timeoutMs);
+        return result;
+    }
+
+    public Optional<PaymentAuthorization> findCharge(String idempotencyKey, long timeoutMs) {
+        if (ThreadLocalRandom.current().nextDouble() < properties.getSimulator().getErrorRate()) {
+            respondAfter(sampleLatencyMillis(), timeoutMs);
+            throw new PaymentGatewayException("Имитатор шлюза: сервис недоступен");
+        }
+        respondAfter(sampleLatencyMillis(), timeoutMs);
+        return Optional.ofNullable(charges.get(idempotencyKey));
+    }
+
+    long sampleLatencyMillis() {
+        PaymentGatewayProperties.Simulator settings = properties.getSimulator();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long min = settings.getMinLatencyMs();
+        long median = Math.max(min + 1, settings.getMedianLatencyMs());
+        return switch (settings.getLatency()) {
+            case FIXED -> median;
+            case UNIFORM -> min + (long) (random.nextDouble() * 2 * (median - min));
+            case LOG_NORMAL -> {
+                double mu = Math.log(median - min);
+                double sigma = Math.log(Math.max(1.0, (double) (settings.getP99LatencyMs() - min) / (median - min))) / Z_99;
+                yield min + (long) Math.exp(mu + sigma * random.nextGaussian());
+            }
+        };
+    }
+
+    private PaymentAuthorization decide(PaymentCharge charge) {
+        boolean declined = ThreadLocalRandom.current().nextDouble() < properties.getSimulator().getDeclineRate();
+        return PaymentAuthorization.builder()
+                .idempotencyKey(charge.getIdempotencyKey())
+                .status(declined ? PaymentAuthorization.Status.DECLINED : PaymentAuthorization.Status.APPROVED)
+                .reference("SIM-" + references.incrementAndGet())
+                .message(declined ? "Платёж отклонён банком-эмитентом" : "Платёж проведён")
+                .build();
+    }
+
+    private static void respondAfter(long latencyMs, long timeoutMs) {
+        try {
+            Thread.sleep(Math.min(latencyMs, timeoutMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Ожидание ответа шлюза прервано", e);
+        }
+        if (latencyMs > timeoutMs) {
+            throw new PaymentGatewayException("Шлюз не ответил за " + timeoutMs + " мс");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ordermanagement.gateway;
+
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Клиент удалённого шлюза поверх общего HttpClient: HTTP/2 с мультиплексированием,
+ * соединения переиспользуются между вызовами. Клиент создаётся при первом обращении.
+ */
+@Component
+public class HttpPaymentGateway implements PaymentGateway {
+
+    private final PaymentGatewayProperties properties;
+    private final JsonMapper jsonMapper;
+
+    private volatile HttpClient client;
+    private ExecutorService executor;
+
+    public HttpPaymentGateway(PaymentGatewayProperties properties, JsonMapper jsonMapper) {
+        this.properties = properties;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public CompletableFuture<PaymentAuthorization> authorize(PaymentCharge charge) {
+        HttpRequest request = request("/charges")
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", charge.getIdempotencyKey())
+                .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(charge)))
+                .build();
+        return client().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    ensureSuccess(response);
+                    return jsonMapper.readValue(response.body(), PaymentAuthorization.class);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Optional<PaymentAuthorization>> findCharge(String idempotencyKey) {
+        HttpRequest request = request("/charges/" + URLEncoder.encode(idempotencyKey, StandardCharsets.UTF_8))
+                .GET()
+                .build();
+        return client().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 404) {
+                        return Optional.empty();
+                    }
+                    ensureSuccess(response);
+                    return Optional.of(jsonMapper.readValue(response.body(), PaymentAuthorization.class));
+                });
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(properties.getBaseUrl() + path))
+                .timeout(Duration.ofMillis(properties.getRequestTimeoutMs()));
+    }
+
+    private static void ensureSuccess(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new PaymentGatewayException("Шлюз ответил статусом " + response.statusCode());
+        }
+    }
+
+    private HttpClient client() {
+        HttpClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                if (client == null) {
+                    AtomicInteger threadNumber = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(properties.getClientThreads(), runnable -> {
+                        Thread thread = new Thread(runnable, "payment-gateway-http-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    client = HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_2)
+                            .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                            .executor(executor)
+                            .build();
+                }
+                current = client;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ordermanagement.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentAuthorization {
+
+    public enum Status {
+        APPROVED,
+        DECLINED
+    }
+
+    private String idempotencyKey;
+    private Status status;
+    // Номер операции на стороне шлюза
+    private String reference;
+    private String message;
+
+    public boolean isApproved() {
+        return status == Status.APPROVED;
+    }
+}
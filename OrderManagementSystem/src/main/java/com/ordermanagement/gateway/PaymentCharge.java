@@ -0,0 +1,23 @@
+package com.ordermanagement.gateway;
+
+import com.ordermanagement.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Запрос на списание. Повтор с тем же ключом идемпотентности не списывает деньги второй раз.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentCharge {
+    private String idempotencyKey;
+    private Long orderId;
+    private BigDecimal amount;
+    private Payment.PaymentMethod paymentMethod;
+}
@@ -0,0 +1,17 @@
+package com.ordermanagement.gateway;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Транспорт к платёжному шлюзу. Сбои возвращаются через PaymentGatewayException в результате вызова.
+ */
+public interface PaymentGateway {
+
+    CompletableFuture<PaymentAuthorization> authorize(PaymentCharge charge);
+
+    /**
+     * Результат ранее отправленного списания; пусто, если шлюз его не получал. Идемпотентна.
+     */
+    CompletableFuture<Optional<PaymentAuthorization>> findCharge(String idempotencyKey);
+}
@@ -0,0 +1,285 @@
+package com.ordermanagement.gateway;
+
+import com.ordermanagement.exception.WorkloadRejectedException;
+import com.ordermanagement.monitoring.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Устойчивый клиент платёжного шлюза для оформления заказа. Изоляция (bulkhead) ограничивает
+ * число одновременных обращений, размыкатель перестаёт вызывать сбоящий шлюз, каждый вызов
+ * ограничен таймаутом. Списание не повторяется вслепую: при неизвестном исходе выполняется
+ * идемпотентная проверка статуса с дублирующими запросами для отсечения хвоста задержек.
+ */
+@Slf4j
+@Component
+public class PaymentGatewayClient {
+
+    private final PaymentGatewayProperties properties;
+    private final SimulatedPaymentGateway simulatedGateway;
+    private final HttpPaymentGateway httpGateway;
+
+    private final Semaphore bulkhead;
+    private final GatewayCircuitBreaker circuitBreaker;
+
+    private final CallMetrics authorizeCalls = new CallMetrics("AUTHORIZE");
+    private final CallMetrics statusCalls = new CallMetrics("STATUS_CHECK");
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+    private final LongAdder rejectedByCircuit = new LongAdder();
+    private final LongAdder approved = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder resolvedByStatusCheck = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public PaymentGatewayClient(PaymentGatewayProperties properties,
+                                SimulatedPaymentGateway simulatedGateway,
+                                HttpPaymentGateway httpGateway) {
+        this.properties = properties;
+        this.simulatedGateway = simulatedGateway;
+        this.httpGateway = httpGateway;
+        this.bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        this.circuitBreaker = new GatewayCircuitBreaker(properties.getCircuitBreaker(), System::currentTimeMillis);
+    }
+
+    /**
+     * Списание по ключу идемпотентности. Отклонение банком - обычный результат;
+     * недоступность шлюза - WorkloadRejectedException (503), повтор безопасен с тем же ключом.
+     */
+    public PaymentAuthorization authorize(PaymentCharge charge) {
+        acquireBulkhead();
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                rejectedByCircuit.increment();
+                throw new WorkloadRejectedException("Платёжный шлюз временно недоступен",
+                        Math.max(1, TimeUnit.MILLISECONDS.toSeconds(circuitBreaker.remainingOpenMillis() + 999)));
+            }
+
+            long started = System.nanoTime();
+            try {
+                PaymentAuthorization result = await(gateway().authorize(charge), properties.getRequestTimeoutMs());
+                authorizeCalls.record(started, true);
+                circuitBreaker.onSuccess();
+                return count(result);
+            } catch (PaymentGatewayException e) {
+                authorizeCalls.record(started, false);
+                circuitBreaker.onFailure();
+                log.warn("Шлюз не подтвердил списание {}: {}; проверяем статус", charge.getIdempotencyKey(), e.getMessage());
+                return resolveUnknownOutcome(charge);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Идемпотентная проверка статуса: если ответ не пришёл за hedge.delay-ms,
+     * отправляется дублирующий запрос и берётся первый успешный ответ.
+     */
+    public Optional<PaymentAuthorization> checkStatus(String idempotencyKey) {
+        long started = System.nanoTime();
+        try {
+            Optional<PaymentAuthorization> result = hedged(() -> gateway().findCharge(idempotencyKey));
+            statusCalls.record(started, true);
+            return result;
+        } catch (PaymentGatewayException e) {
+            statusCalls.record(started, false);
+            throw e;
+        }
+    }
+
+    public PaymentGatewayStatistics getStatistics() {
+        int capacity = properties.getBulkhead().getMaxConcurrentCalls();
+        return PaymentGatewayStatistics.builder()
+                .mode(properties.getMode())
+                .circuitState(circuitBreaker.getState())
+                .circuitFailureRate(circuitBreaker.getFailureRate())
+                .circuitOpenings(circuitBreaker.getOpenings())
+                .bulkheadInUse(capacity - bulkhead.availablePermits())
+                .bulkheadCapacity(capacity)
+                .rejectedByBulkhead(rejectedByBulkhead.sum())
+                .rejectedByCircuit(rejectedByCircuit.sum())
+                .approved(approved.sum())
+                .declined(declined.sum())
+                .resolvedByStatusCheck(resolvedByStatusCheck.sum())
+                .hedgesSent(hedgesSent.sum())
+                .hedgeWins(hedgeWins.sum())
+                .calls(List.of(authorizeCalls.snapshot(), statusCalls.snapshot()))
+                .build();
+    }
+
+    private PaymentAuthorization resolveUnknownOutcome(PaymentCharge charge) {
+        Optional<PaymentAuthorization> resolved;
+        try {
+            resolved = checkStatus(charge.getIdempotencyKey());
+        } catch (PaymentGatewayException e) {
+            log.error("Исход списания {} неизвестен: {}", charge.getIdempotencyKey(), e.getMessage());
+            throw new WorkloadRejectedException(
+                    "Платёжный шлюз не ответил; повторите оплату с тем же ID транзакции", 1);
+        }
+        if (resolved.isEmpty()) {
+            throw new WorkloadRejectedException("Платёжный шлюз не ответил, платёж не проведён", 1);
+        }
+        resolvedByStatusCheck.increment();
+        return count(resolved.get());
+    }
+
+    private <T> T hedged(Supplier<CompletableFuture<T>> call) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getRequestTimeoutMs());
+        CompletableFuture<T> primary = call.get();
+        List<CompletableFuture<T>> attempts = new ArrayList<>();
+        attempts.add(primary);
+        int hedges = 0;
+        Throwable lastFailure = null;
+        try {
+            while (true) {
+                for (Iterator<CompletableFuture<T>> it = attempts.iterator(); it.hasNext(); ) {
+                    CompletableFuture<T> attempt = it.next();
+                    if (!attempt.isDone()) {
+                        continue;
+                    }
+                    try {
+                        T result = attempt.join();
+                        if (attempt != primary) {
+                            hedgeWins.increment();
+                        }
+                        return result;
+                    } catch (RuntimeException e) {
+                        lastFailure = e.getCause() != null ? e.getCause() : e;
+                        it.remove();
+                    }
+                }
+
+                boolean canHedge = hedges < properties.getHedge().getMaxHedges();
+                if (attempts.isEmpty()) {
+                    if (!canHedge) {
+                        throw asGatewayException(lastFailure);
+                    }
+                    // Неудачный запрос сразу заменяется дублирующим
+                    attempts.add(call.get());
+                    hedges++;
+                    hedgesSent.increment();
+                    continue;
+                }
+
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    throw new PaymentGatewayException("Шлюз не ответил за " + properties.getRequestTimeoutMs() + " мс");
+                }
+                long waitMs = canHedge ? Math.min(properties.getHedge().getDelayMs(), remainingMs) : remainingMs;
+                try {
+                    CompletableFuture.anyOf(attempts.toArray(new CompletableFuture[0])).get(waitMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (canHedge) {
+                        attempts.add(call.get());
+                        hedges++;
+                        hedgesSent.increment();
+                    }
+                } catch (ExecutionException e) {
+                    // Неудачная попытка убирается на следующем проходе
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Ожидание ответа шлюза прервано", e);
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, long timeoutMs) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PaymentGatewayException("Шлюз не ответил за " + timeoutMs + " мс");
+        } catch (ExecutionException e) {
+            throw asGatewayException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Ожидание ответа шлюза прервано", e);
+        }
+    }
+
+    private static PaymentGatewayException asGatewayException(Throwable failure) {
+        if (failure instanceof PaymentGatewayException gatewayException) {
+            return gatewayException;
+        }
+        String message = failure == null || failure.getMessage() == null
+                ? String.valueOf(failure) : failure.getMessage();
+        return new PaymentGatewayException("Ошибка обращения к шлюзу: " + message, failure);
+    }
+
+    private void acquireBulkhead() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(properties.getBulkhead().getAcquireTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedByBulkhead.increment();
+            throw new WorkloadRejectedException("Превышено число одновременных обращений к платёжному шлюзу", 1);
+        }
+    }
+
+    private PaymentAuthorization count(PaymentAuthorization authorization) {
+        if (authorization.isApproved()) {
+            approved.increment();
+        } else {
+            declined.increment();
+        }
+        return authorization;
+    }
+
+    private PaymentGateway gateway() {
+        return properties.getMode() == PaymentGatewayProperties.Mode.HTTP ? httpGateway : simulatedGateway;
+    }
+
+    private static final class CallMetrics {
+
+        private final String operation;
+        // Микросекунды
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        private CallMetrics(String operation) {
+            this.operation = operation;
+        }
+
+        void record(long startedNanos, boolean success) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedNanos));
+            if (!success) {
+                failures.incrementAndGet();
+            }
+        }
+
+        GatewayCallStatistics snapshot() {
+            return GatewayCallStatistics.builder()
+                    .operation(operation)
+                    .calls(latency.getCount())
+                    .failures(failures.get())
+                    .meanMillis(latency.getMean() / 1000.0)
+                    .p50Millis(latency.percentile(0.50) / 1000.0)
+                    .p95Millis(latency.percentile(0.95) / 1000.0)
+                    .p99Millis(latency.percentile(0.99) / 1000.0)
+                    .maxMillis(latency.getMax() / 1000.0)
+                    .build();
+        }
+    }
+}
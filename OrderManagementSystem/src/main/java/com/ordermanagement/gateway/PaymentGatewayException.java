@@ -0,0 +1,16 @@
+package com.ordermanagement.gateway;
+
+/**
+ * Сбой обращения к шлюзу: таймаут, обрыв соединения или ответ 5xx.
+ * Исход списания при этом неизвестен и выясняется проверкой статуса.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
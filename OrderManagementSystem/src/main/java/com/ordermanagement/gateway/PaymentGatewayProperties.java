@@ -0,0 +1,110 @@
+package com.ordermanagement.gateway;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.payment-gateway")
+public class PaymentGatewayProperties {
+
+    public enum Mode {
+        // Встроенный имитатор вызывается в процессе, без сети
+        SIMULATED,
+        // Удалённый шлюз по HTTP/2 (или имитатор, открытый эндпоинтом этого же приложения)
+        HTTP
+    }
+
+    public enum LatencyDistribution {
+        FIXED,
+        UNIFORM,
+        // Тяжёлый правый хвост: задаются медиана и p99
+        LOG_NORMAL
+    }
+
+    private Mode mode = Mode.SIMULATED;
+
+    private String baseUrl = "http://localhost:8080/api/simulator/payment-gateway";
+
+    private long connectTimeoutMs = 1000;
+
+    // Предел ожидания ответа на одно обращение к шлюзу
+    private long requestTimeoutMs = 2000;
+
+    // Потоки HTTP-клиента; соединения HTTP/2 мультиплексируются и переиспользуются
+    private int clientThreads = 4;
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Hedge hedge = new Hedge();
+
+    private Simulator simulator = new Simulator();
+
+    @Data
+    public static class Bulkhead {
+
+        // Одновременных обращений к шлюзу со всех потоков оформления заказа
+        private int maxConcurrentCalls = 20;
+
+        // Ожидание свободного места, мс; затем отказ 503
+        private long acquireTimeoutMs = 100;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+
+        // Окно последних вызовов, по которому считается доля сбоев
+        private int windowSize = 20;
+
+        private int minimumCalls = 10;
+
+        private double failureRateThreshold = 0.5;
+
+        // Сколько шлюз не вызывается после размыкания
+        private long openMs = 10000;
+
+        // Пробные вызовы в полуоткрытом состоянии
+        private int halfOpenCalls = 3;
+    }
+
+    @Data
+    public static class Hedge {
+
+        // Задержка перед дублирующим запросом проверки статуса; около p95 обычного ответа
+        private long delayMs = 150;
+
+        private int maxHedges = 1;
+    }
+
+    @Data
+    public static class Simulator {
+
+        // Открыть имитатор эндпоинтом /simulator/payment-gateway для режима HTTP и бенчмарков
+        private boolean endpointEnabled = false;
+
+        private LatencyDistribution latency = LatencyDistribution.LOG_NORMAL;
+
+        private long minLatencyMs = 5;
+
+        private long medianLatencyMs = 30;
+
+        private long p99LatencyMs = 250;
+
+        // Доля отклонённых платежей
+        private double declineRate = 0.05;
+
+        // Доля отказов шлюза до обработки платежа (HTTP 503)
+        private double errorRate = 0.0;
+
+        // Доля зависаний: платёж обработан, но ответ не приходит
+        private double hangRate = 0.0;
+
+        private long hangMs = 10000;
+
+        // Сколько результатов платежей хранится для проверки статуса
+        private int retainedCharges = 10000;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ordermanagement.gateway;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class PaymentGatewayStatistics {
+    PaymentGatewayProperties.Mode mode;
+    GatewayCircuitBreaker.State circuitState;
+    double circuitFailureRate;
+    long circuitOpenings;
+    int bulkheadInUse;
+    int bulkheadCapacity;
+    long rejectedByBulkhead;
+    long rejectedByCircuit;
+    long approved;
+    long declined;
+    // Списания с неизвестным исходом, выясненным проверкой статуса
+    long resolvedByStatusCheck;
+    long hedgesSent;
+    // Ответ первым пришёл на дублирующий запрос
+    long hedgeWins;
+    List<GatewayCallStatistics> calls;
+}
@@ -0,0 +1,47 @@
+package com.ordermanagement.gateway;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Вызов имитатора в процессе. Отдельные потоки нужны, чтобы дублирующие запросы
+ * проверки статуса шли параллельно, как по сети; число вызовов ограничивает изоляция клиента.
+ */
+@Component
+@RequiredArgsConstructor
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final GatewaySimulator gatewaySimulator;
+    private final PaymentGatewayProperties properties;
+
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "payment-gateway-sim-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public CompletableFuture<PaymentAuthorization> authorize(PaymentCharge charge) {
+        return CompletableFuture.supplyAsync(
+                () -> gatewaySimulator.charge(charge, properties.getRequestTimeoutMs()), executor);
+    }
+
+    @Override
+    public CompletableFuture<Optional<PaymentAuthorization>> findCharge(String idempotencyKey) {
+        return CompletableFuture.supplyAsync(
+                () -> gatewaySimulator.findCharge(idempotencyKey, properties.getRequestTimeoutMs()), executor);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
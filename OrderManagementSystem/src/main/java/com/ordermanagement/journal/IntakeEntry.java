@@ -0,0 +1,103 @@
+package com.ordermanagement.journal;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Принятый заказ в журнале. Хранится в компактном двоичном виде; суммы - в копейках.
+ * Строки записываются как длина и байты UTF-8: writeUTF ограничен 64 КБ и не подходит для примечаний.
+ */
+@Value
+@Builder
+public class IntakeEntry {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    UUID reference;
+    long customerId;
+    String notes;
+    LocalDateTime acceptedAt;
+    List<Item> items;
+
+    @Value
+    public static class Item {
+        long productId;
+        int quantity;
+        long unitPriceMinor;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + items.size() * 20);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(reference.getMostSignificantBits());
+            out.writeLong(reference.getLeastSignificantBits());
+            out.writeLong(customerId);
+            out.writeBoolean(notes != null);
+            if (notes != null) {
+                writeString(out, notes);
+            }
+            writeString(out, acceptedAt.toString());
+            out.writeInt(items.size());
+            for (Item item : items) {
+                out.writeLong(item.getProductId());
+                out.writeInt(item.getQuantity());
+                out.writeLong(item.getUnitPriceMinor());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static IntakeEntry fromBytes(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Неизвестная версия записи журнала: " + version);
+            }
+            UUID reference = new UUID(in.readLong(), in.readLong());
+            long customerId = in.readLong();
+            String notes = in.readBoolean() ? readString(in) : null;
+            LocalDateTime acceptedAt = LocalDateTime.parse(readString(in));
+            int count = in.readInt();
+            List<Item> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(new Item(in.readLong(), in.readInt(), in.readLong()));
+            }
+            return IntakeEntry.builder()
+                    .reference(reference)
+                    .customerId(customerId)
+                    .notes(notes)
+                    .acceptedAt(acceptedAt)
+                    .items(items)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
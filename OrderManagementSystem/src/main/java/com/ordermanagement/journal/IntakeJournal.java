@@ -0,0 +1,365 @@
+package com.ordermanagement.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Журнал приёма заказов на отображённых в память сегментах.
+ * Запись подтверждается после сброса на диск; сбросы группируются в окне flushIntervalMs,
+ * поэтому при всплеске один fsync покрывает много заказов.
+ * Применение к базе идёт отдельно и отмечается контрольной точкой; полностью применённые сегменты удаляются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ordermanagement.intake-journal", name = "enabled", havingValue = "true")
+public class IntakeJournal {
+
+    private static final String CHECKPOINT_FILE = "applied.checkpoint";
+
+    private final IntakeJournalProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private final Map<UUID, Long> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, String> failed = new LinkedHashMap<>();
+
+    private Path directory;
+    private JournalSegment active;
+    private long nextSequence;
+    private long durableSequence;
+    private volatile long appliedSequence;
+    private long appendedCount;
+    private long forceCount;
+    private long forcedEntries;
+
+    // Позиция чтения для применения к базе
+    private int readSegment;
+    private int readPosition;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        appliedSequence = readCheckpoint();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(JournalSegment::isSegmentFile).sorted().toList()) {
+                segments.add(JournalSegment.open(path));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(JournalSegment.create(directory, appliedSequence + 1, properties.getSegmentSizeBytes()));
+        }
+        active = segments.get(segments.size() - 1);
+        nextSequence = active.getLastSequence() + 1;
+        durableSequence = nextSequence - 1;
+
+        // Незавершённые записи после последней контрольной точки снова становятся ожидающими
+        positionReaderAfter(appliedSequence);
+        int savedSegment = readSegment;
+        int savedPosition = readPosition;
+        for (JournalRecord record : readRecords(Integer.MAX_VALUE, Long.MAX_VALUE)) {
+            pending.put(IntakeEntry.fromBytes(record.getPayload()).getReference(), record.getSequence());
+        }
+        readSegment = savedSegment;
+        readPosition = savedPosition;
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "intake-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Журнал приёма открыт: {}, сегментов {}, последняя запись {}, ожидают применения {}",
+                directory.toAbsolutePath(), segments.size(), nextSequence - 1, pending.size());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        lock.lock();
+        try {
+            for (JournalSegment segment : segments) {
+                segment.force();
+                segment.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Дописывает принятый заказ и возвращает его номер в журнале. Устойчивость записи - через awaitDurable.
+     */
+    public long append(IntakeEntry entry) {
+        byte[] payload = entry.toBytes();
+        if (JournalSegment.HEADER_SIZE + payload.length > properties.getSegmentSizeBytes()) {
+            throw new IllegalArgumentException("Заказ слишком велик для записи в журнал приёма");
+        }
+        lock.lock();
+        try {
+            long sequence = nextSequence;
+            if (!active.append(sequence, payload)) {
+                rollover();
+                active.append(sequence, payload);
+            }
+            nextSequence++;
+            appendedCount++;
+            pending.put(entry.getReference(), sequence);
+            appended.signal();
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать сегмент журнала приёма", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ждёт, пока запись с указанным номером окажется на диске.
+     */
+    public boolean awaitDurable(long sequence, long timeoutMs) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = flushed.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Очередная порция устойчивых записей, ещё не применённых к базе.
+     */
+    public List<JournalRecord> readBatch(int maxRecords) {
+        lock.lock();
+        try {
+            return readRecords(maxRecords, durableSequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает чтение к последней контрольной точке, если порцию не удалось применить.
+     */
+    public void rewind() {
+        lock.lock();
+        try {
+            positionReaderAfter(appliedSequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isDurable(long sequence) {
+        lock.lock();
+        try {
+            return sequence <= durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Фиксирует контрольную точку после применения записей до sequence включительно
+     * и удаляет сегменты, которые больше не нужны для восстановления.
+     */
+    public void markApplied(long sequence, Collection<UUID> applied, Map<UUID, String> rejected) throws IOException {
+        writeCheckpoint(sequence);
+        appliedSequence = sequence;
+        lock.lock();
+        try {
+            // Отказ регистрируем до снятия из ожидающих, чтобы запрос статуса не попал в промежуток
+            failed.putAll(rejected);
+            while (failed.size() > properties.getFailedReferenceCapacity()) {
+                failed.remove(failed.keySet().iterator().next());
+            }
+            compact();
+        } finally {
+            lock.unlock();
+        }
+        applied.forEach(pending::remove);
+    }
+
+    public Optional<Long> findPending(UUID reference) {
+        return Optional.ofNullable(pending.get(reference));
+    }
+
+    public Optional<String> findFailure(UUID reference) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(failed.get(reference));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public IntakeJournalStatistics getStatistics() {
+        lock.lock();
+        try {
+            return IntakeJournalStatistics.builder()
+                    .lastSequence(nextSequence - 1)
+                    .durableSequence(durableSequence)
+                    .appliedSequence(appliedSequence)
+                    .pendingCount(pending.size())
+                    .failedCount(failed.size())
+                    .segmentCount(segments.size())
+                    .appendedCount(appendedCount)
+                    .forceCount(forceCount)
+                    .entriesPerForce(forceCount == 0 ? 0 : (double) forcedEntries / forceCount)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                JournalSegment segment;
+                long target;
+                lock.lock();
+                try {
+                    while (running && durableSequence >= nextSequence - 1) {
+                        appended.await();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                // Окно группового сброса: собираем записи, пришедшие вслед за первой
+                Thread.sleep(properties.getFlushIntervalMs());
+                lock.lock();
+                try {
+                    segment = active;
+                    target = nextSequence - 1;
+                } finally {
+                    lock.unlock();
+                }
+                segment.force();
+                lock.lock();
+                try {
+                    forceCount++;
+                    forcedEntries += target - durableSequence;
+                    durableSequence = target;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Ошибка сброса журнала приёма на диск", e);
+            }
+        }
+    }
+
+    private void rollover() throws IOException {
+        // Закрываемый сегмент сбрасывается целиком: следующий сброс фоновым потоком затронет только новый
+        active.force();
+        active = JournalSegment.create(directory, nextSequence, properties.getSegmentSizeBytes());
+        segments.add(active);
+        log.info("Журнал приёма: новый сегмент {}", active.getPath().getFileName());
+    }
+
+    private void compact() throws IOException {
+        while (segments.size() > 1 && segments.get(0).getLastSequence() <= appliedSequence && readSegment > 0) {
+            JournalSegment segment = segments.remove(0);
+            readSegment--;
+            segment.delete();
+            log.info("Журнал приёма: удалён применённый сегмент {}", segment.getPath().getFileName());
+        }
+    }
+
+    private void positionReaderAfter(long sequence) {
+        readSegment = 0;
+        readPosition = 0;
+        while (readSegment < segments.size() - 1 && segments.get(readSegment).getLastSequence() <= sequence) {
+            readSegment++;
+        }
+        JournalSegment segment = segments.get(readSegment);
+        JournalRecord record;
+        while ((record = segment.read(readPosition)) != null && record.getSequence() <= sequence) {
+            readPosition += JournalSegment.HEADER_SIZE + record.getPayload().length;
+        }
+    }
+
+    private List<JournalRecord> readRecords(int maxRecords, long upToSequence) {
+        List<JournalRecord> records = new ArrayList<>();
+        while (records.size() < maxRecords) {
+            JournalSegment segment = segments.get(readSegment);
+            JournalRecord record = readPosition < segment.getWritePosition() ? segment.read(readPosition) : null;
+            if (record == null) {
+                if (readSegment == segments.size() - 1) {
+                    break;
+                }
+                readSegment++;
+                readPosition = 0;
+                continue;
+            }
+            if (record.getSequence() > upToSequence) {
+                break;
+            }
+            records.add(record);
+            readPosition += JournalSegment.HEADER_SIZE + record.getPayload().length;
+        }
+        return records;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return 0L;
+        }
+        return Long.parseLong(Files.readString(checkpoint, StandardCharsets.UTF_8).trim());
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temporary, Long.toString(sequence), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
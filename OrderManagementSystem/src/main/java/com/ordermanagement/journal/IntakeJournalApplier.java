@@ -0,0 +1,128 @@
+package com.ordermanagement.journal;
+
+import com.ordermanagement.exception.WorkloadRejectedException;
+import com.ordermanagement.service.OrderIntakeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновое применение журнала приёма к базе: порция записей - одна транзакция, затем контрольная точка.
+ * Стартует после готовности приложения и первым делом догоняет записи, оставшиеся после перезапуска.
+ * Если порция не применилась из-за отдельной записи, записи применяются по одной, а не прошедшие
+ * отмечаются отклонёнными - одна испорченная запись не останавливает приём остальных.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ordermanagement.intake-journal", name = "enabled", havingValue = "true")
+public class IntakeJournalApplier {
+
+    private final IntakeJournal intakeJournal;
+    private final IntakeJournalProperties properties;
+    private final OrderIntakeService orderIntakeService;
+
+    private ScheduledExecutorService executor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "intake-journal-applier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drain, 0, properties.getApplyIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Применяет все устойчивые записи, накопившиеся к текущему моменту.
+     */
+    public synchronized void drain() {
+        try {
+            List<JournalRecord> records;
+            while (!(records = intakeJournal.readBatch(properties.getApplyBatchSize())).isEmpty()) {
+                applyRecords(records);
+            }
+        } catch (Exception e) {
+            // Порция будет прочитана заново с последней контрольной точки
+            intakeJournal.rewind();
+            log.error("Ошибка применения журнала приёма, повтор через {} мс", properties.getApplyIntervalMs(), e);
+        }
+    }
+
+    private void applyRecords(List<JournalRecord> records) throws Exception {
+        List<IntakeEntry> entries = new ArrayList<>(records.size());
+        for (JournalRecord record : records) {
+            entries.add(IntakeEntry.fromBytes(record.getPayload()));
+        }
+        Map<UUID, String> rejected;
+        try {
+            rejected = orderIntakeService.applyBatch(entries);
+        } catch (RuntimeException e) {
+            if (isUnavailable(e)) {
+                throw e;
+            }
+            log.warn("Порция журнала приёма не применена ({}), записи применяются по одной",
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            rejected = applyOneByOne(entries);
+        }
+        rejected.forEach((reference, reason) ->
+                log.warn("Заказ {} из журнала приёма отклонён: {}", reference, reason));
+
+        List<UUID> applied = entries.stream().map(IntakeEntry::getReference).toList();
+        intakeJournal.markApplied(records.get(records.size() - 1).getSequence(), applied, rejected);
+    }
+
+    private Map<UUID, String> applyOneByOne(List<IntakeEntry> entries) {
+        Map<UUID, String> rejected = new LinkedHashMap<>();
+        for (IntakeEntry entry : entries) {
+            try {
+                rejected.putAll(orderIntakeService.applyBatch(List.of(entry)));
+            } catch (RuntimeException e) {
+                if (isUnavailable(e)) {
+                    // Применённые записи при повторе порции пропускаются по номеру приёма
+                    throw e;
+                }
+                rejected.put(entry.getReference(),
+                        "Заказ не удалось сохранить: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * База или разрешение CHECKOUT временно недоступны - записи не виноваты, порция повторяется целиком.
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof WorkloadRejectedException;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ordermanagement.journal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.intake-journal")
+public class IntakeJournalProperties {
+
+    private boolean enabled = false;
+
+    private String directory = "data/intake-journal";
+
+    // Размер сегмента журнала; сегмент отображается в память целиком
+    private int segmentSizeBytes = 64 * 1024 * 1024;
+
+    // Окно группового fsync: подтверждения приёма ждут не дольше этого интервала
+    private long flushIntervalMs = 5;
+
+    // Сколько ждать сброса на диск до ответа; по истечении заказ возвращается в статусе PENDING
+    private long acceptTimeoutMs = 1000;
+
+    // Сколько записей журнала применяется к базе в одной транзакции
+    private int applyBatchSize = 500;
+
+    private long applyIntervalMs = 200;
+
+    // Сколько отклонённых при применении заказов хранить для запроса статуса
+    private int failedReferenceCapacity = 1000;
+}
@@ -0,0 +1,19 @@
+package com.ordermanagement.journal;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class IntakeJournalStatistics {
+    long lastSequence;
+    long durableSequence;
+    long appliedSequence;
+    int pendingCount;
+    int failedCount;
+    int segmentCount;
+    long appendedCount;
+    long forceCount;
+    // Среднее число записей на один сброс на диск - эффект группового fsync
+    double entriesPerForce;
+}
@@ -0,0 +1,9 @@
+package com.ordermanagement.journal;
+
+import lombok.Value;
+
+@Value
+public class JournalRecord {
+    long sequence;
+    byte[] payload;
+}
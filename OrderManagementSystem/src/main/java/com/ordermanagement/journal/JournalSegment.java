@@ -0,0 +1,175 @@
+package com.ordermanagement.journal;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Сегмент журнала приёма, отображённый в память.
+ * Формат записи: [int длина][long номер][int crc32][данные]; нулевая длина - конец записанной части.
+ * Запись ведётся только абсолютными put, поэтому позиция буфера не разделяется между потоками.
+ */
+public class JournalSegment implements AutoCloseable {
+
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final String PREFIX = "intake-";
+    private static final String SUFFIX = ".journal";
+
+    @Getter
+    private final Path path;
+    @Getter
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private volatile int writePosition;
+    private volatile long lastSequence;
+    private int forcedPosition;
+
+    private JournalSegment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    public static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path path = directory.resolve(fileName(firstSequence));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(path, firstSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /**
+     * Открывает существующий сегмент и находит конец последней целой записи.
+     * Оборванная при сбое запись (неверная длина, crc или номер) отбрасывается вместе со всем хвостом.
+     */
+    public static JournalSegment open(Path path) throws IOException {
+        long firstSequence = parseFirstSequence(path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        JournalSegment segment = new JournalSegment(path, firstSequence, channel,
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        segment.recover();
+        return segment;
+    }
+
+    public static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static String fileName(long firstSequence) {
+        return String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX);
+    }
+
+    private static long parseFirstSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private void recover() {
+        int position = 0;
+        long expected = firstSequence;
+        JournalRecord record;
+        while ((record = read(position)) != null && record.getSequence() == expected) {
+            position += HEADER_SIZE + record.getPayload().length;
+            expected++;
+        }
+        writePosition = position;
+        forcedPosition = position;
+        lastSequence = expected - 1;
+        if (position + Integer.BYTES <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+    }
+
+    /**
+     * Дописывает запись; возвращает false, если в сегменте не осталось места.
+     * Вызывающий код отвечает за последовательность номеров и за единственного писателя.
+     */
+    public boolean append(long sequence, byte[] payload) {
+        int position = writePosition;
+        int end = position + HEADER_SIZE + payload.length;
+        if (end > buffer.capacity()) {
+            return false;
+        }
+        // Маркер конца ставим до заголовка, чтобы после сбоя чтение не ушло за пределы новой записи
+        if (end + Integer.BYTES <= buffer.capacity()) {
+            buffer.putInt(end, 0);
+        }
+        buffer.put(position + HEADER_SIZE, payload);
+        buffer.putLong(position + Integer.BYTES, sequence);
+        buffer.putInt(position + Integer.BYTES + Long.BYTES, checksum(sequence, payload));
+        buffer.putInt(position, payload.length);
+        writePosition = end;
+        lastSequence = sequence;
+        return true;
+    }
+
+    /**
+     * Читает запись по смещению; null - конец записанной части или повреждённая запись.
+     */
+    public JournalRecord read(int position) {
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) {
+            return null;
+        }
+        long sequence = buffer.getLong(position + Integer.BYTES);
+        int crc = buffer.getInt(position + Integer.BYTES + Long.BYTES);
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_SIZE, payload);
+        return checksum(sequence, payload) == crc ? new JournalRecord(sequence, payload) : null;
+    }
+
+    /**
+     * Сбрасывает на диск всё записанное после предыдущего сброса.
+     */
+    public synchronized void force() {
+        int position = writePosition;
+        if (position > forcedPosition) {
+            buffer.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+    }
+
+    public int getWritePosition() {
+        return writePosition;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public boolean isEmpty() {
+        return lastSequence < firstSequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (sequence >>> shift));
+        }
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
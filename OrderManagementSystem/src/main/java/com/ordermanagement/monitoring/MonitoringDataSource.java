@@ -0,0 +1,158 @@
+package com.ordermanagement.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource, замеряющий время выполнения каждого JDBC-запроса.
+ * Параметры запоминаются в массиве без преобразования и превращаются в строки
+ * только если запрос попал в список медленных или в трассу.
+ */
+public class MonitoringDataSource extends DelegatingDataSource {
+
+    private final SqlStatementMonitor monitor;
+
+    public MonitoringDataSource(DataSource targetDataSource, SqlStatementMonitor monitor) {
+        super(targetDataSource);
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                MonitoringDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) && args[0] == Connection.class) {
+                return target;
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(statement, CallableStatement.class, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(statement, PreparedStatement.class, (String) args[0]);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(statement, Statement.class, null);
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Statement statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(
+                    MonitoringDataSource.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private Object[] parameters;
+        private int parameterCount;
+        private int batchSize;
+        private String batchSql;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                // setNull(index, sqlType) вторым аргументом передаёт код типа, а не значение
+                rememberParameter(index, "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameterCount = 0;
+            } else if ("addBatch".equals(name)) {
+                batchSize++;
+                if (args != null && args.length == 1) {
+                    batchSql = (String) args[0];
+                }
+            } else if ("clearBatch".equals(name)) {
+                batchSize = 0;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            boolean batch = "executeBatch".equals(method.getName()) || "executeLargeBatch".equals(method.getName());
+            if (sql == null && batch) {
+                sql = batchSql;
+            }
+            long started = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invokeTarget(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                monitor.record(sql, parameters, parameterCount, batch ? batchSize : 1,
+                        System.nanoTime() - started, failed);
+                if (batch) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private void rememberParameter(int index, Object value) {
+            if (parameters == null) {
+                parameters = new Object[Math.max(8, index + 1)];
+            } else if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(parameters.length * 2, index + 1));
+            }
+            parameters[index] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
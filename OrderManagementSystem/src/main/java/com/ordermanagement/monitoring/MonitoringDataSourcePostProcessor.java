@@ -0,0 +1,33 @@
+package com.ordermanagement.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает DataSource приложения в {@link MonitoringDataSource}.
+ */
+@Component
+public class MonitoringDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatementMonitor> monitor;
+    private final ObjectProvider<SqlMonitoringProperties> properties;
+
+    public MonitoringDataSourcePostProcessor(ObjectProvider<SqlStatementMonitor> monitor,
+                                             ObjectProvider<SqlMonitoringProperties> properties) {
+        this.monitor = monitor;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource
+                && !(bean instanceof MonitoringDataSource)
+                && properties.getObject().isEnabled()) {
+            return new MonitoringDataSource(dataSource, monitor.getObject());
+        }
+        return bean;
+    }
+}
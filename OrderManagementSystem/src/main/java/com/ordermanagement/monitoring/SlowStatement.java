@@ -0,0 +1,21 @@
+package com.ordermanagement.monitoring;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class SlowStatement {
+    String sql;
+    List<String> parameters;
+    int batchSize;
+    long durationMicros;
+    boolean failed;
+    String thread;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    LocalDateTime executedAt;
+}
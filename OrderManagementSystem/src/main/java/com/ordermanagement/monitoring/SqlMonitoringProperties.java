@@ -0,0 +1,32 @@
+package com.ordermanagement.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.sql-monitoring")
+public class SqlMonitoringProperties {
+
+    // Оборачивать ли DataSource для замера SQL-запросов
+    private boolean enabled = true;
+
+    // Сколько самых медленных запросов хранить вместе с параметрами
+    private int slowStatementCapacity = 50;
+
+    // Доля HTTP-запросов, для которых записывается полная трасса SQL (0.0 - 1.0)
+    private double traceSampleRate = 0.01;
+
+    // Сколько последних трасс хранить
+    private int traceCapacity = 100;
+
+    // Максимум SQL-запросов в одной трассе
+    private int maxStatementsPerTrace = 500;
+
+    // Максимум различных форм запросов в статистике
+    private int maxStatementShapes = 1000;
+
+    // Максимальная длина значения параметра в отчётах
+    private int maxParameterLength = 200;
+}
@@ -0,0 +1,18 @@
+package com.ordermanagement.monitoring;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class SqlShapeStatistics {
+    String shape;
+    long count;
+    long errors;
+    long totalMillis;
+    double meanMicros;
+    long p50Micros;
+    long p95Micros;
+    long p99Micros;
+    long maxMicros;
+}
@@ -0,0 +1,291 @@
+package com.ordermanagement.monitoring;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Сбор статистики по SQL-запросам: задержки по формам запросов, буфер самых медленных
+ * запросов с параметрами и выборочные трассы всех запросов HTTP-вызова.
+ */
+@Component
+public class SqlStatementMonitor {
+
+    private static final String OTHER_SHAPE = "<другие запросы>";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SqlMonitoringProperties properties;
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Map<String, String> shapeCache = new ConcurrentHashMap<>();
+    private final SlowStatementBuffer slowStatements;
+    private final Deque<SqlTrace> traces = new ArrayDeque<>();
+    private final ThreadLocal<ActiveTrace> activeTrace = new ThreadLocal<>();
+
+    public SqlStatementMonitor(SqlMonitoringProperties properties) {
+        this.properties = properties;
+        this.slowStatements = new SlowStatementBuffer(properties.getSlowStatementCapacity());
+    }
+
+    public void record(String sql, Object[] parameters, int parameterCount, int batchSize,
+                       long elapsedNanos, boolean failed) {
+        if (sql == null) {
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+
+        ShapeStats stats = statsFor(sql);
+        stats.latency.record(micros);
+        if (failed) {
+            stats.errors.increment();
+        }
+
+        if (slowStatements.accepts(elapsedNanos)) {
+            slowStatements.offer(elapsedNanos, toSlowStatement(sql, parameters, parameterCount, batchSize, micros, failed));
+        }
+
+        ActiveTrace trace = activeTrace.get();
+        if (trace != null) {
+            trace.add(toSlowStatement(sql, parameters, parameterCount, batchSize, micros, failed), micros,
+                    properties.getMaxStatementsPerTrace());
+        }
+    }
+
+    public boolean isTracing() {
+        return activeTrace.get() != null;
+    }
+
+    public void beginTrace(String request) {
+        activeTrace.set(new ActiveTrace(request));
+    }
+
+    public void endTrace() {
+        ActiveTrace trace = activeTrace.get();
+        activeTrace.remove();
+        if (trace == null) {
+            return;
+        }
+        SqlTrace completed = trace.complete();
+        synchronized (traces) {
+            traces.addFirst(completed);
+            while (traces.size() > properties.getTraceCapacity()) {
+                traces.removeLast();
+            }
+        }
+    }
+
+    public boolean shouldSample() {
+        double rate = properties.getTraceSampleRate();
+        return rate > 0 && (rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public List<SqlShapeStatistics> getShapeStatistics() {
+        List<SqlShapeStatistics> result = new ArrayList<>(shapes.size());
+        shapes.forEach((shape, stats) -> result.add(SqlShapeStatistics.builder()
+                .shape(shape)
+                .count(stats.latency.getCount())
+                .errors(stats.errors.sum())
+                .totalMillis(stats.latency.getSum() / 1000)
+                .meanMicros(stats.latency.getMean())
+                .p50Micros(stats.latency.percentile(0.50))
+                .p95Micros(stats.latency.percentile(0.95))
+                .p99Micros(stats.latency.percentile(0.99))
+                .maxMicros(stats.latency.getMax())
+                .build()));
+        result.sort(Comparator.comparingLong(SqlShapeStatistics::getTotalMillis).reversed());
+        return result;
+    }
+
+    public List<SlowStatement> getSlowStatements() {
+        return slowStatements.snapshot();
+    }
+
+    public List<SqlTrace> getTraces() {
+        synchronized (traces) {
+            return new ArrayList<>(traces);
+        }
+    }
+
+    public void reset() {
+        shapes.clear();
+        slowStatements.clear();
+        synchronized (traces) {
+            traces.clear();
+        }
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private ShapeStats statsFor(String sql) {
+        // Hibernate переиспользует одни и те же строки SQL, поэтому нормализуем каждую строку один раз
+        String shape = shapeCache.get(sql);
+        if (shape == null) {
+            shape = normalize(sql);
+            if (shapeCache.size() >= properties.getMaxStatementShapes() * 4) {
+                shapeCache.clear();
+            }
+            shapeCache.put(sql, shape);
+        }
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        if (shapes.size() >= properties.getMaxStatementShapes()) {
+            return shapes.computeIfAbsent(OTHER_SHAPE, key -> new ShapeStats());
+        }
+        return shapes.computeIfAbsent(shape, key -> new ShapeStats());
+    }
+
+    private SlowStatement toSlowStatement(String sql, Object[] parameters, int parameterCount, int batchSize,
+                                          long micros, boolean failed) {
+        return SlowStatement.builder()
+                .sql(sql)
+                .parameters(formatParameters(parameters, parameterCount))
+                .batchSize(batchSize)
+                .durationMicros(micros)
+                .failed(failed)
+                .thread(Thread.currentThread().getName())
+                .executedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private List<String> formatParameters(Object[] parameters, int parameterCount) {
+        if (parameters == null || parameterCount == 0) {
+            return List.of();
+        }
+        int maxLength = properties.getMaxParameterLength();
+        List<String> result = new ArrayList<>(parameterCount);
+        for (int i = 1; i <= parameterCount && i < parameters.length; i++) {
+            String value = String.valueOf(parameters[i]);
+            result.add(value.length() > maxLength ? value.substring(0, maxLength) + "..." : value);
+        }
+        return result;
+    }
+
+    private static final class ShapeStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Буфер фиксированного размера с N самыми медленными запросами.
+     * Быстрые запросы отсекаются одним чтением volatile-порога без блокировки.
+     */
+    private static final class SlowStatementBuffer {
+
+        private final long[] durations;
+        private final SlowStatement[] entries;
+        private int size;
+        private volatile long thresholdNanos;
+
+        private SlowStatementBuffer(int capacity) {
+            this.durations = new long[Math.max(1, capacity)];
+            this.entries = new SlowStatement[durations.length];
+        }
+
+        boolean accepts(long elapsedNanos) {
+            return elapsedNanos > thresholdNanos;
+        }
+
+        synchronized void offer(long elapsedNanos, SlowStatement statement) {
+            if (size < entries.length) {
+                durations[size] = elapsedNanos;
+                entries[size++] = statement;
+                if (size == entries.length) {
+                    thresholdNanos = minDuration();
+                }
+                return;
+            }
+            if (elapsedNanos <= thresholdNanos) {
+                return;
+            }
+            int slot = 0;
+            for (int i = 1; i < size; i++) {
+                if (durations[i] < durations[slot]) {
+                    slot = i;
+                }
+            }
+            durations[slot] = elapsedNanos;
+            entries[slot] = statement;
+            thresholdNanos = minDuration();
+        }
+
+        synchronized List<SlowStatement> snapshot() {
+            List<SlowStatement> result = new ArrayList<>(Arrays.asList(entries).subList(0, size));
+            result.sort(Comparator.comparingLong(SlowStatement::getDurationMicros).reversed());
+            return result;
+        }
+
+        synchronized void clear() {
+            Arrays.fill(entries, null);
+            Arrays.fill(durations, 0L);
+            size = 0;
+            thresholdNanos = 0L;
+        }
+
+        private long minDuration() {
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                min = Math.min(min, durations[i]);
+            }
+            return min;
+        }
+    }
+
+    private static final class ActiveTrace {
+
+        private final String traceId = UUID.randomUUID().toString();
+        private final String request;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final List<SlowStatement> statements = new ArrayList<>();
+        private long sqlMicros;
+        private int statementCount;
+
+        private ActiveTrace(String request) {
+            this.request = request;
+        }
+
+        void add(SlowStatement statement, long micros, int maxStatements) {
+            statementCount++;
+            sqlMicros += micros;
+            if (statements.size() < maxStatements) {
+                statements.add(statement);
+            }
+        }
+
+        SqlTrace complete() {
+            return SqlTrace.builder()
+                    .traceId(traceId)
+                    .request(request)
+                    .startedAt(startedAt)
+                    .durationMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedNanos))
+                    .sqlMicros(sqlMicros)
+                    .statementCount(statementCount)
+                    .truncated(statementCount > statements.size())
+                    .statements(statements)
+                    .build();
+        }
+    }
+}
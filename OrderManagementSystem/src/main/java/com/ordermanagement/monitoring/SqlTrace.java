@@ -0,0 +1,22 @@
+package com.ordermanagement.monitoring;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class SqlTrace {
+    String traceId;
+    String request;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    LocalDateTime startedAt;
+    long durationMicros;
+    long sqlMicros;
+    int statementCount;
+    boolean truncated;
+    List<SlowStatement> statements;
+}
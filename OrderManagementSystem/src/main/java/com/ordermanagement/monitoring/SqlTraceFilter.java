@@ -0,0 +1,41 @@
+package com.ordermanagement.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Включает полную трассировку SQL для выборки HTTP-запросов
+ * (доля задаётся ordermanagement.sql-monitoring.trace-sample-rate)
+ * либо принудительно по заголовку {@code X-Sql-Trace: true}.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_HEADER = "X-Sql-Trace";
+
+    private final SqlStatementMonitor monitor;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean traced = Boolean.parseBoolean(request.getHeader(TRACE_HEADER)) || monitor.shouldSample();
+        if (!traced) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        monitor.beginTrace(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            monitor.endTrace();
+        }
+    }
+}
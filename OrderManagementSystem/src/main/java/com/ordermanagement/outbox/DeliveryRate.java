@@ -0,0 +1,33 @@
+package com.ordermanagement.outbox;
+
+/**
+ * Число доставок за последнюю минуту по секундным корзинам.
+ */
+class DeliveryRate {
+
+    private static final int SECONDS = 60;
+
+    private final long[] counts = new long[SECONDS];
+    private final long[] stamps = new long[SECONDS];
+
+    synchronized void record(long nowMillis, int delivered) {
+        long second = nowMillis / 1000;
+        int index = (int) (second % SECONDS);
+        if (stamps[index] != second) {
+            stamps[index] = second;
+            counts[index] = 0;
+        }
+        counts[index] += delivered;
+    }
+
+    synchronized long lastMinute(long nowMillis) {
+        long second = nowMillis / 1000;
+        long total = 0;
+        for (int i = 0; i < SECONDS; i++) {
+            if (stamps[i] > second - SECONDS) {
+                total += counts[i];
+            }
+        }
+        return total;
+    }
+}
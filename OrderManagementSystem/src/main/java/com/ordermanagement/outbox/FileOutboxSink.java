@@ -0,0 +1,41 @@
+package com.ordermanagement.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Локальный приёмник для разработки и тестов: дописывает конверты событий в файл NDJSON.
+ */
+@Component
+@RequiredArgsConstructor
+public class FileOutboxSink implements OutboxSink {
+
+    private final OutboxProperties properties;
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.getFileSink().isEnabled();
+    }
+
+    @Override
+    public synchronized void deliver(OutboxMessage message) throws IOException {
+        Path path = Path.of(properties.getFileSink().getPath());
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(path, message.getEnvelope() + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ordermanagement.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Доставка событий POST-запросом на внешний адрес (уведомления, синхронизация с ERP).
+ * Успехом считается любой ответ 2xx.
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpOutboxSink implements OutboxSink {
+
+    private final OutboxProperties properties;
+
+    private volatile HttpClient client;
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !properties.getHttpSink().getUrl().isBlank();
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) throws IOException, InterruptedException {
+        OutboxProperties.HttpSink settings = properties.getHttpSink();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(settings.getUrl()))
+                .timeout(Duration.ofMillis(settings.getRequestTimeoutMs()))
+                .header("Content-Type", "application/json")
+                .header("X-Outbox-Event-Id", String.valueOf(message.getEventId()))
+                .header("X-Outbox-Event-Type", message.getEventType().name())
+                .POST(HttpRequest.BodyPublishers.ofString(message.getEnvelope()))
+                .build();
+
+        HttpResponse<Void> response = client().send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Приёмник " + settings.getUrl() + " ответил статусом " + response.statusCode());
+        }
+    }
+
+    private HttpClient client() {
+        HttpClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                if (client == null) {
+                    client = HttpClient.newBuilder()
+                            .connectTimeout(Duration.ofMillis(properties.getHttpSink().getConnectTimeoutMs()))
+                            .build();
+                }
+                current = client;
+            }
+        }
+        return current;
+    }
+}
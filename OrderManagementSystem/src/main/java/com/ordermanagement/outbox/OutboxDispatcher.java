@@ -0,0 +1,288 @@
+package com.ordermanagement.outbox;
+
+import com.ordermanagement.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Доставка событий исходящей очереди пулом потоков. Каждый поток захватывает пачку событий
+ * через SKIP LOCKED, доставляет их во все включённые приёмники вне транзакции и отмечает итог.
+ * Неудачные события повторяются с экспоненциальной задержкой; пока событие заказа не доставлено,
+ * следующие события того же заказа не захватываются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxStore outboxStore;
+    private final OutboxProperties properties;
+    private final List<OutboxSink> sinks;
+    private final JsonMapper jsonMapper;
+
+    private final Object signal = new Object();
+    private boolean signalled;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong maxDeliveryLagMillis = new AtomicLong();
+    private volatile long lastDeliveryLagMillis;
+    private final DeliveryRate deliveryRate = new DeliveryRate();
+
+    private volatile boolean running;
+    private ExecutorService workers;
+    private ScheduledExecutorService housekeeping;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isDispatchEnabled()) {
+            log.info("Доставка исходящей очереди на этом экземпляре отключена");
+            return;
+        }
+        if (activeSinks().isEmpty()) {
+            log.warn("Нет включённых приёмников исходящей очереди: события остаются в очереди до включения приёмника");
+        }
+
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-dispatcher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < properties.getThreads(); i++) {
+            workers.submit(this::run);
+        }
+
+        housekeeping = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-housekeeping");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeping.scheduleWithFixedDelay(this::purgeDelivered, 1, 60, TimeUnit.MINUTES);
+
+        log.info("Диспетчер исходящей очереди запущен: потоков {}, приёмники {}",
+                properties.getThreads(), activeSinks().stream().map(OutboxSink::getName).toList());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        wakeUp();
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (housekeeping != null) {
+            housekeeping.shutdown();
+        }
+    }
+
+    /**
+     * Будит простаивающие потоки после фиксации новых событий.
+     */
+    public void wakeUp() {
+        synchronized (signal) {
+            signalled = true;
+            signal.notifyAll();
+        }
+    }
+
+    public int requeueDead() {
+        int requeued = outboxStore.requeueDead();
+        if (requeued > 0) {
+            log.info("В исходящую очередь возвращено {} событий со статусом DEAD", requeued);
+            wakeUp();
+        }
+        return requeued;
+    }
+
+    public OutboxStatistics getStatistics() {
+        long now = System.currentTimeMillis();
+        LocalDateTime oldestPending = outboxStore.oldestPendingCreatedAt();
+        long lastMinute = deliveryRate.lastMinute(now);
+        return OutboxStatistics.builder()
+                .dispatching(running)
+                .threads(running ? properties.getThreads() : 0)
+                .sinks(activeSinks().stream().map(OutboxSink::getName).toList())
+                .pending(outboxStore.count(OutboxEvent.EventStatus.PENDING))
+                .dead(outboxStore.count(OutboxEvent.EventStatus.DEAD))
+                .oldestPendingLagMillis(oldestPending == null ? 0
+                        : Math.max(0, Duration.between(oldestPending, LocalDateTime.now()).toMillis()))
+                .delivered(delivered.get())
+                .failedAttempts(failedAttempts.get())
+                .deadLettered(deadLettered.get())
+                .lastDeliveryLagMillis(lastDeliveryLagMillis)
+                .maxDeliveryLagMillis(maxDeliveryLagMillis.get())
+                .deliveredLastMinute(lastMinute)
+                .throughputPerSecond(lastMinute / 60.0)
+                .build();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // После доставки сразу следующий захват: освободились следующие события тех же заказов
+                if (dispatchBatch() == 0) {
+                    awaitSignal();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Ошибка диспетчера исходящей очереди, повтор через {} мс", properties.getPollIntervalMs(), e);
+                try {
+                    awaitSignal();
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void awaitSignal() throws InterruptedException {
+        synchronized (signal) {
+            if (!signalled && running) {
+                signal.wait(properties.getPollIntervalMs());
+            }
+            signalled = false;
+        }
+    }
+
+    int dispatchBatch() {
+        // Без приёмников события не захватываются: иначе они были бы отмечены доставленными без отправки
+        List<OutboxSink> targets = activeSinks();
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> events = outboxStore.claim(properties.getBatchSize(), properties.getLeaseSeconds());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Пачка доставляется не дольше половины аренды: остаётся запас на последнюю доставку и отметку итога,
+        // и аренда не истекает, пока событие ещё отправляется
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getLeaseSeconds()) / 2;
+        List<Long> deliveredIds = new ArrayList<>(events.size());
+        List<OutboxEvent> deliveredEvents = new ArrayList<>(events.size());
+        List<Long> unattemptedIds = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (!unattemptedIds.isEmpty() || System.nanoTime() - deadline > 0) {
+                unattemptedIds.add(event.getId());
+                continue;
+            }
+            try {
+                OutboxMessage message = toMessage(event);
+                for (OutboxSink sink : targets) {
+                    sink.deliver(message);
+                }
+                deliveredIds.add(event.getId());
+                deliveredEvents.add(event);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                fail(event, e);
+            }
+        }
+
+        if (!deliveredIds.isEmpty()) {
+            LocalDateTime deliveredAt = LocalDateTime.now();
+            outboxStore.markDelivered(deliveredIds, deliveredAt);
+            recordDelivered(deliveredEvents, deliveredAt);
+        }
+        if (!unattemptedIds.isEmpty()) {
+            outboxStore.releaseUnattempted(unattemptedIds);
+            log.warn("Пачка исходящей очереди не уложилась в половину аренды, {} событий возвращено в очередь",
+                    unattemptedIds.size());
+        }
+        return events.size();
+    }
+
+    // Приёмники проверяются на каждой пачке: адрес HTTP можно включить без перезапуска
+    private List<OutboxSink> activeSinks() {
+        return sinks.stream().filter(OutboxSink::isEnabled).toList();
+    }
+
+    private void fail(OutboxEvent event, Exception cause) {
+        failedAttempts.incrementAndGet();
+        int attempt = event.getAttempts();
+        boolean dead = attempt >= properties.getMaxAttempts();
+        long delay = OutboxRetryPolicy.backoffMillis(attempt, properties.getInitialBackoffMs(), properties.getMaxBackoffMs());
+        String error = cause.getMessage() == null ? cause.getClass().getName() : cause.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        outboxStore.markFailed(event.getId(), dead, LocalDateTime.now().plus(Duration.ofMillis(delay)), error);
+        if (dead) {
+            deadLettered.incrementAndGet();
+            log.error("Событие {} заказа ID: {} не доставлено за {} попыток: {}",
+                    event.getId(), event.getAggregateId(), attempt, error);
+        } else {
+            log.warn("Событие {} заказа ID: {} не доставлено (попытка {}), повтор через {} мс: {}",
+                    event.getId(), event.getAggregateId(), attempt, delay, error);
+        }
+    }
+
+    private void recordDelivered(List<OutboxEvent> events, LocalDateTime deliveredAt) {
+        delivered.addAndGet(events.size());
+        deliveryRate.record(System.currentTimeMillis(), events.size());
+        for (OutboxEvent event : events) {
+            long lag = Math.max(0, Duration.between(event.getCreatedAt(), deliveredAt).toMillis());
+            lastDeliveryLagMillis = lag;
+            maxDeliveryLagMillis.accumulateAndGet(lag, Math::max);
+        }
+    }
+
+    private OutboxMessage toMessage(OutboxEvent event) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("eventId", event.getId());
+        envelope.put("aggregateId", event.getAggregateId());
+        envelope.put("eventType", event.getEventType().name());
+        envelope.put("createdAt", event.getCreatedAt().toString());
+        envelope.put("attempt", event.getAttempts());
+        envelope.put("payload", jsonMapper.readTree(event.getPayload()));
+
+        return OutboxMessage.builder()
+                .eventId(event.getId())
+                .aggregateId(event.getAggregateId())
+                .eventType(event.getEventType())
+                .createdAt(event.getCreatedAt())
+                .attempt(event.getAttempts())
+                .envelope(jsonMapper.writeValueAsString(envelope))
+                .build();
+    }
+
+    private void purgeDelivered() {
+        try {
+            int purged = outboxStore.purgeDelivered(LocalDateTime.now().minusHours(properties.getRetentionHours()));
+            if (purged > 0) {
+                log.info("Из исходящей очереди удалено {} доставленных событий", purged);
+            }
+        } catch (Exception e) {
+            log.error("Ошибка очистки исходящей очереди", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ordermanagement.outbox;
+
+import com.ordermanagement.entity.OutboxEvent;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие в том виде, в каком его получают приёмники: конверт уже сериализован диспетчером.
+ */
+@Value
+@Builder
+public class OutboxMessage {
+    long eventId;
+    long aggregateId;
+    OutboxEvent.EventType eventType;
+    LocalDateTime createdAt;
+    // Номер попытки доставки, начиная с 1
+    int attempt;
+    // JSON: eventId, aggregateId, eventType, createdAt и payload события
+    String envelope;
+}
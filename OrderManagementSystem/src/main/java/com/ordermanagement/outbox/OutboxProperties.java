@@ -0,0 +1,61 @@
+package com.ordermanagement.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.outbox")
+public class OutboxProperties {
+
+    // События пишутся в таблицу всегда; флаг отключает только доставку на этом экземпляре
+    private boolean dispatchEnabled = true;
+
+    // Параллельные потоки доставки
+    private int threads = 2;
+
+    // Событий за один захват
+    private int batchSize = 50;
+
+    // Пауза между опросами пустой очереди, мс; запись события будит диспетчер сразу
+    private long pollIntervalMs = 500;
+
+    // Захваченные события возвращаются в очередь, если диспетчер не отчитался за это время.
+    // Пачка доставляется не дольше половины аренды, остаток возвращается в очередь
+    private int leaseSeconds = 60;
+
+    // После стольких неудачных попыток событие получает статус DEAD
+    private int maxAttempts = 10;
+
+    private long initialBackoffMs = 1000;
+
+    private long maxBackoffMs = 300000;
+
+    // Доставленные события удаляются по прошествии этого срока
+    private int retentionHours = 24;
+
+    private FileSink fileSink = new FileSink();
+
+    private HttpSink httpSink = new HttpSink();
+
+    @Data
+    public static class FileSink {
+
+        // Локальная заглушка для разработки и тестов (профиль test): события дописываются в файл построчно в формате NDJSON
+        private boolean enabled = false;
+
+        private String path = "data/outbox-events.ndjson";
+    }
+
+    @Data
+    public static class HttpSink {
+
+        // Пустой адрес - доставка по HTTP выключена
+        private String url = "";
+
+        private long connectTimeoutMs = 2000;
+
+        private long requestTimeoutMs = 5000;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ordermanagement.outbox;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Задержка перед повторной доставкой: экспонента от номера попытки с потолком
+ * и случайным разбросом, чтобы повторы после сбоя приёмника не приходили волной.
+ */
+public final class OutboxRetryPolicy {
+
+    private OutboxRetryPolicy() {
+    }
+
+    public static long backoffMillis(int attempt, long initialMillis, long maxMillis) {
+        return backoffMillis(attempt, initialMillis, maxMillis, ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param attempt номер неудачной попытки, начиная с 1
+     * @param random  значение из [0, 1): доля разброса в верхней половине интервала
+     */
+    static long backoffMillis(int attempt, long initialMillis, long maxMillis, double random) {
+        int shift = Math.min(Math.max(attempt, 1) - 1, 30);
+        long delay = Math.min(maxMillis, initialMillis << shift);
+        long half = delay / 2;
+        return half + (long) ((delay - half) * random);
+    }
+}
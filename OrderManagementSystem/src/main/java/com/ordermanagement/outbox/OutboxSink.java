@@ -0,0 +1,17 @@
+package com.ordermanagement.outbox;
+
+/**
+ * Приёмник событий исходящей очереди. Доставка должна быть идемпотентной по eventId:
+ * после сбоя диспетчера событие может прийти повторно.
+ */
+public interface OutboxSink {
+
+    String getName();
+
+    boolean isEnabled();
+
+    /**
+     * Доставляет событие; исключение означает неудачную попытку и повтор с задержкой.
+     */
+    void deliver(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,26 @@
+package com.ordermanagement.outbox;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class OutboxStatistics {
+    boolean dispatching;
+    int threads;
+    List<String> sinks;
+    long pending;
+    long dead;
+    // Возраст самого старого недоставленного события - отставание очереди
+    long oldestPendingLagMillis;
+    long delivered;
+    long failedAttempts;
+    long deadLettered;
+    // От записи события до подтверждения доставки
+    long lastDeliveryLagMillis;
+    long maxDeliveryLagMillis;
+    long deliveredLastMinute;
+    double throughputPerSecond;
+}
@@ -0,0 +1,75 @@
+package com.ordermanagement.outbox;
+
+import com.ordermanagement.entity.OutboxEvent;
+import com.ordermanagement.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Короткие транзакции диспетчера над таблицей outbox_events. Доставка выполняется между ними,
+ * поэтому блокировки строк не удерживаются на время обращения к приёмникам.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxStore {
+
+    private final OutboxEventRepository repository;
+
+    /**
+     * Захватывает в аренду пачку готовых событий, не более одного на заказ,
+     * и увеличивает их счётчик попыток.
+     */
+    @Transactional
+    public List<OutboxEvent> claim(int limit, int leaseSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = repository.lockDispatchableIds(now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        repository.lease(ids, now.plusSeconds(leaseSeconds));
+        return repository.findByIdsOrdered(ids);
+    }
+
+    @Transactional
+    public void markDelivered(List<Long> ids, LocalDateTime deliveredAt) {
+        repository.markDelivered(ids, deliveredAt);
+    }
+
+    /**
+     * Возвращает в очередь захваченные, но не отправленные события; попытка им не засчитывается.
+     */
+    @Transactional
+    public void releaseUnattempted(List<Long> ids) {
+        repository.releaseLease(ids);
+    }
+
+    @Transactional
+    public void markFailed(Long id, boolean dead, LocalDateTime nextAttemptAt, String error) {
+        OutboxEvent.EventStatus status = dead ? OutboxEvent.EventStatus.DEAD : OutboxEvent.EventStatus.PENDING;
+        repository.markFailed(id, status, nextAttemptAt, error);
+    }
+
+    @Transactional
+    public int requeueDead() {
+        return repository.requeueDead(LocalDateTime.now());
+    }
+
+    @Transactional
+    public int purgeDelivered(LocalDateTime before) {
+        return repository.deleteDeliveredBefore(before);
+    }
+
+    @Transactional(readOnly = true)
+    public long count(OutboxEvent.EventStatus status) {
+        return repository.countByStatus(status);
+    }
+
+    @Transactional(readOnly = true)
+    public LocalDateTime oldestPendingCreatedAt() {
+        return repository.findOldestPendingCreatedAt().orElse(null);
+    }
+}
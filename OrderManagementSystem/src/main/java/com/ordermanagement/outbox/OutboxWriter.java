@@ -0,0 +1,63 @@
+package com.ordermanagement.outbox;
+
+import com.ordermanagement.entity.Order;
+import com.ordermanagement.entity.OutboxEvent;
+import com.ordermanagement.entity.Payment;
+import com.ordermanagement.repository.OutboxEventRepository;
+import com.ordermanagement.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Запись событий заказа в исходящую очередь. Вызывается только внутри транзакции,
+ * меняющей заказ: событие фиксируется или откатывается вместе с изменением.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final JsonMapper jsonMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPaid(Order order, Payment payment) {
+        Map<String, Object> payload = basePayload(order);
+        payload.put("paymentMethod", payment.getPaymentMethod());
+        payload.put("transactionId", payment.getTransactionId());
+        payload.put("amount", payment.getAmount());
+        append(order, OutboxEvent.EventType.ORDER_PAID, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCancelled(Order order, Order.OrderStatus previousStatus) {
+        Map<String, Object> payload = basePayload(order);
+        payload.put("previousStatus", previousStatus.name());
+        append(order, OutboxEvent.EventType.ORDER_CANCELLED, payload);
+    }
+
+    private Map<String, Object> basePayload(Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("customerId", order.getCustomer().getId());
+        payload.put("status", order.getStatus().name());
+        payload.put("totalAmount", order.getTotalAmount());
+        return payload;
+    }
+
+    private void append(Order order, OutboxEvent.EventType type, Map<String, Object> payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateId(order.getId())
+                .eventType(type)
+                .payload(jsonMapper.writeValueAsString(payload))
+                .build();
+        outboxEventRepository.save(event);
+        TransactionHooks.afterCommit(outboxDispatcher::wakeUp);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ordermanagement.projection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Разбор параметра {@code fields=id,name,price}: проверка по списку допустимых полей.
+ * Поле {@code id} включается всегда и идёт первым.
+ */
+public final class FieldSelection {
+
+    public static final String ID = "id";
+
+    private FieldSelection() {
+    }
+
+    /**
+     * Поля, имена которых совпадают с атрибутами сущности, в порядке перечисления.
+     */
+    public static Map<String, String> sameNames(String... fields) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (String field : fields) {
+            paths.put(field, field);
+        }
+        return Collections.unmodifiableMap(paths);
+    }
+
+    public static List<String> parse(String fields, Collection<String> allowed) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!allowed.contains(name)) {
+                    throw new IllegalArgumentException("Неизвестное поле: " + name + ". Допустимые поля: "
+                            + String.join(", ", allowed));
+                }
+                selected.add(name);
+            }
+        }
+        return new ArrayList<>(selected);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ordermanagement.projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Выборка только запрошенных столбцов сущности (кортежная проекция через Criteria API).
+ * Набор полей задаётся запросом клиента, поэтому фиксированные интерфейсные проекции не подходят.
+ */
+@Component
+public class ProjectionQuery {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param paths       соответствие поля ответа пути атрибута сущности, например {@code customerId -> customer.id}
+     * @param fields      запрошенные поля (ключи {@code paths})
+     * @param filterPath  путь атрибута для условия равенства или {@code null} - без условия
+     * @return строки в виде упорядоченных по {@code fields} отображений поле -> значение
+     */
+    public List<Map<String, Object>> find(Class<?> entityClass, Map<String, String> paths, List<String> fields,
+                                          String filterPath, Object filterValue) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entityClass);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(path(root, paths.get(field)).alias(field));
+        }
+        query.select(cb.tuple(selections));
+        if (filterPath != null) {
+            query.where(cb.equal(path(root, filterPath), filterValue));
+        }
+        query.orderBy(cb.asc(root.get(FieldSelection.ID)));
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Path<?> path(Root<?> root, String attributePath) {
+        Path<?> path = root;
+        for (String attribute : attributePath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,199 @@
+package com.ordermanagement.reconciliation;
+
+import com.ordermanagement.entity.Payment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Индекс платежей окна сверки по ID транзакции без объектов на запись: байты ключей лежат
+ * в direct-буфере вне кучи, атрибуты - в параллельных примитивных массивах, таблица -
+ * открытая адресация с линейным пробированием. Поиск идёт прямо по байтам строки файла,
+ * без создания String. Не потокобезопасен.
+ */
+public final class PaymentIndex {
+
+    private static final int INITIAL_ENTRIES = 1024;
+    private static final int INITIAL_ARENA_BYTES = 64 * 1024;
+
+    private ByteBuffer arena = ByteBuffer.allocateDirect(INITIAL_ARENA_BYTES);
+    private int arenaUsed;
+
+    private int[] keyOffsets = new int[INITIAL_ENTRIES];
+    private int[] keyLengths = new int[INITIAL_ENTRIES];
+    private int[] hashes = new int[INITIAL_ENTRIES];
+    private long[] paymentIds = new long[INITIAL_ENTRIES];
+    private long[] amounts = new long[INITIAL_ENTRIES];
+    private byte[] statuses = new byte[INITIAL_ENTRIES];
+    private long[] matched = new long[INITIAL_ENTRIES / 64];
+    private int size;
+    private long duplicateKeys;
+
+    // Номер записи + 1; 0 - свободная ячейка
+    private int[] table = new int[INITIAL_ENTRIES * 2];
+    private int mask = table.length - 1;
+
+    /**
+     * Добавляет платёж; повтор ID транзакции в базе не заменяет первую запись и только учитывается.
+     */
+    public boolean put(String transactionId, long paymentId, long amountMinor, Payment.PaymentStatus status) {
+        byte[] key = transactionId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer wrapped = ByteBuffer.wrap(key);
+        int hash = hash(wrapped, 0, key.length);
+        if (find(wrapped, 0, key.length, hash) >= 0) {
+            duplicateKeys++;
+            return false;
+        }
+        if (size == paymentIds.length) {
+            growEntries();
+        }
+        if (arenaUsed + key.length > arena.capacity()) {
+            growArena(arenaUsed + key.length);
+        }
+        arena.put(arenaUsed, key);
+
+        int entry = size++;
+        keyOffsets[entry] = arenaUsed;
+        keyLengths[entry] = key.length;
+        hashes[entry] = hash;
+        paymentIds[entry] = paymentId;
+        amounts[entry] = amountMinor;
+        statuses[entry] = (byte) status.ordinal();
+        arenaUsed += key.length;
+
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            insert(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Номер записи с ключом из байтов [offset, offset + length) буфера или -1.
+     */
+    public int find(ByteBuffer source, int offset, int length, int hash) {
+        int slot = hash & mask;
+        int candidate;
+        while ((candidate = table[slot]) != 0) {
+            int entry = candidate - 1;
+            if (hashes[entry] == hash && keyLengths[entry] == length && sameKey(entry, source, offset, length)) {
+                return entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Отмечает запись сопоставленной; false - запись уже встречалась в файле.
+     */
+    public boolean markMatched(int entry) {
+        long bit = 1L << entry;
+        int word = entry >>> 6;
+        if ((matched[word] & bit) != 0) {
+            return false;
+        }
+        matched[word] |= bit;
+        return true;
+    }
+
+    public void forEachUnmatched(IntConsumer action) {
+        for (int entry = 0; entry < size; entry++) {
+            if ((matched[entry >>> 6] & (1L << entry)) == 0) {
+                action.accept(entry);
+            }
+        }
+    }
+
+    public static int hash(ByteBuffer source, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + source.get(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    public String transactionId(int entry) {
+        byte[] key = new byte[keyLengths[entry]];
+        arena.get(keyOffsets[entry], key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    public long paymentId(int entry) {
+        return paymentIds[entry];
+    }
+
+    public long amountMinor(int entry) {
+        return amounts[entry];
+    }
+
+    public Payment.PaymentStatus status(int entry) {
+        return Payment.PaymentStatus.values()[statuses[entry]];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getDuplicateKeys() {
+        return duplicateKeys;
+    }
+
+    /**
+     * Занятая память: байты ключей вне кучи плюс примитивные массивы.
+     */
+    public long memoryBytes() {
+        long perEntry = 4L + 4 + 4 + 8 + 8 + 1;
+        return arena.capacity() + perEntry * paymentIds.length + 8L * matched.length + 4L * table.length;
+    }
+
+    private boolean sameKey(int entry, ByteBuffer source, int offset, int length) {
+        int keyOffset = keyOffsets[entry];
+        for (int i = 0; i < length; i++) {
+            if (arena.get(keyOffset + i) != source.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(int entry) {
+        int slot = hashes[entry] & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        for (int entry = 0; entry < size; entry++) {
+            insert(entry);
+        }
+    }
+
+    private void growEntries() {
+        int capacity = paymentIds.length * 2;
+        keyOffsets = Arrays.copyOf(keyOffsets, capacity);
+        keyLengths = Arrays.copyOf(keyLengths, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        paymentIds = Arrays.copyOf(paymentIds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        matched = Arrays.copyOf(matched, capacity / 64);
+    }
+
+    private void growArena(int required) {
+        int capacity = arena.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        grown.put(0, arena, 0, arenaUsed);
+        arena = grown;
+    }
+}
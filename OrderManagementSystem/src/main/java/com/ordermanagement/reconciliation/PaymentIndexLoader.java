@@ -0,0 +1,35 @@
+package com.ordermanagement.reconciliation;
+
+import com.ordermanagement.entity.Payment;
+import com.ordermanagement.repository.PaymentRepository;
+import com.ordermanagement.util.Money;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Построение индекса платежей окна сверки одним потоковым чтением без загрузки сущностей.
+ */
+@Component
+@RequiredArgsConstructor
+@Workload(WorkloadClass.REPORTING)
+public class PaymentIndexLoader {
+
+    private final PaymentRepository paymentRepository;
+
+    @Transactional(readOnly = true)
+    public PaymentIndex load(LocalDateTime from, LocalDateTime to) {
+        PaymentIndex index = new PaymentIndex();
+        try (Stream<Object[]> rows = paymentRepository.streamSettlementWindow(from, to)) {
+            rows.forEach(row -> index.put((String) row[1], (Long) row[0],
+                    Money.toMinor((BigDecimal) row[2]), (Payment.PaymentStatus) row[3]));
+        }
+        return index;
+    }
+}
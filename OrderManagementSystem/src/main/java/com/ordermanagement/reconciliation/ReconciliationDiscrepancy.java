@@ -0,0 +1,21 @@
+package com.ordermanagement.reconciliation;
+
+import com.ordermanagement.entity.Payment;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+@Value
+@Builder
+public class ReconciliationDiscrepancy {
+    ReconciliationOutcome outcome;
+    // Номер строки файла; 0 - для платежей, которых нет в файле
+    long line;
+    String transactionId;
+    Long paymentId;
+    BigDecimal paymentAmount;
+    BigDecimal settledAmount;
+    Payment.PaymentStatus paymentStatus;
+    Payment.PaymentStatus settledStatus;
+}
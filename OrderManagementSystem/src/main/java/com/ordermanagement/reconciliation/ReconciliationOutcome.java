@@ -0,0 +1,17 @@
+package com.ordermanagement.reconciliation;
+
+public enum ReconciliationOutcome {
+    MATCHED,
+    // Сумма в файле расчётов не совпадает с платежом
+    AMOUNT_MISMATCH,
+    // Статус расчёта не соответствует статусу платежа
+    STATUS_MISMATCH,
+    // Строка файла без платежа в окне сверки
+    MISSING_PAYMENT,
+    // Платёж окна сверки, которого нет в файле
+    MISSING_SETTLEMENT,
+    // Повтор ID транзакции в файле
+    DUPLICATE,
+    // Строка не разобрана
+    MALFORMED
+}
@@ -0,0 +1,25 @@
+package com.ordermanagement.reconciliation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.reconciliation")
+public class ReconciliationProperties {
+
+    // Каталог файлов расчётов шлюза; файлы вне него не читаются
+    private String directory = "data/settlements";
+
+    // Буфер чтения файла; строка не может быть длиннее
+    private int bufferBytes = 1024 * 1024;
+
+    // Сколько расхождений возвращать в ответе; счётчики ведутся по всем
+    private int sampleLimit = 100;
+
+    // Максимальное окно платежей для одной сверки
+    private Duration maxWindow = Duration.ofDays(7);
+}
@@ -0,0 +1,60 @@
+package com.ordermanagement.reconciliation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Построчное чтение канала через один direct-буфер: строки передаются обработчику
+ * как диапазоны байтов буфера, неполная строка в конце порции переносится в начало.
+ */
+public final class SettlementLineReader {
+
+    @FunctionalInterface
+    public interface LineHandler {
+        // Байты строки [start, end) без перевода строки; действительны только во время вызова
+        void line(ByteBuffer buffer, int start, int end);
+    }
+
+    private SettlementLineReader() {
+    }
+
+    /**
+     * @return число прочитанных байтов
+     */
+    public static long read(ReadableByteChannel channel, int bufferBytes, LineHandler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes);
+        long bytes = 0;
+        boolean eof = false;
+        while (!eof) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                eof = true;
+            } else {
+                bytes += read;
+            }
+            buffer.flip();
+
+            int lineStart = 0;
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    handler.line(buffer, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (eof) {
+                if (lineStart < limit) {
+                    handler.line(buffer, lineStart, limit);
+                }
+                break;
+            }
+            if (lineStart == 0 && limit == buffer.capacity()) {
+                throw new IllegalArgumentException("Строка файла расчётов длиннее буфера " + bufferBytes + " байт");
+            }
+            buffer.position(lineStart);
+            buffer.compact();
+        }
+        return bytes;
+    }
+}
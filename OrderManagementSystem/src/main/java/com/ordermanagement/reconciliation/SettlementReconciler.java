@@ -0,0 +1,214 @@
+package com.ordermanagement.reconciliation;
+
+import com.ordermanagement.entity.Payment;
+import com.ordermanagement.util.Money;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Потоковое хеш-соединение строк файла расчётов с индексом платежей.
+ * Формат строки: {@code transaction_id,amount,status[,...]}; сумма - десятичная с точкой,
+ * статус - SETTLED/COMPLETED, REFUNDED или FAILED/DECLINED. Заголовок с transaction_id пропускается,
+ * кавычки CSV не поддерживаются. Строки в памяти создаются только для выборки расхождений.
+ */
+public class SettlementReconciler implements SettlementLineReader.LineHandler {
+
+    private static final byte[] HEADER = "transaction_id".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] STATUS_NAMES = {
+            "SETTLED".getBytes(StandardCharsets.US_ASCII),
+            "COMPLETED".getBytes(StandardCharsets.US_ASCII),
+            "REFUNDED".getBytes(StandardCharsets.US_ASCII),
+            "FAILED".getBytes(StandardCharsets.US_ASCII),
+            "DECLINED".getBytes(StandardCharsets.US_ASCII)};
+    private static final Payment.PaymentStatus[] STATUS_VALUES = {
+            Payment.PaymentStatus.COMPLETED,
+            Payment.PaymentStatus.COMPLETED,
+            Payment.PaymentStatus.REFUNDED,
+            Payment.PaymentStatus.FAILED,
+            Payment.PaymentStatus.FAILED};
+
+    private final PaymentIndex index;
+    private final int sampleLimit;
+
+    private final long[] counts = new long[ReconciliationOutcome.values().length];
+    private final List<ReconciliationDiscrepancy> samples = new ArrayList<>();
+    private long lines;
+
+    public SettlementReconciler(PaymentIndex index, int sampleLimit) {
+        this.index = index;
+        this.sampleLimit = sampleLimit;
+    }
+
+    @Override
+    public void line(ByteBuffer buffer, int start, int end) {
+        long lineNumber = ++lines;
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end == start || (lineNumber == 1 && startsWith(buffer, start, end, HEADER))) {
+            return;
+        }
+
+        int amountStart = indexOf(buffer, start, end) + 1;
+        int statusStart = amountStart == 0 ? -1 : indexOf(buffer, amountStart, end) + 1;
+        if (statusStart <= 0 || amountStart - 1 == start) {
+            record(ReconciliationOutcome.MALFORMED, lineNumber, buffer, start, end, -1, 0, null);
+            return;
+        }
+        int statusEnd = indexOf(buffer, statusStart, end);
+        if (statusEnd < 0) {
+            statusEnd = end;
+        }
+
+        long amount = parseAmount(buffer, amountStart, statusStart - 1);
+        int status = parseStatus(buffer, statusStart, statusEnd);
+        if (amount == Long.MIN_VALUE || status < 0) {
+            record(ReconciliationOutcome.MALFORMED, lineNumber, buffer, start, end, -1, 0, null);
+            return;
+        }
+
+        int keyLength = amountStart - 1 - start;
+        int entry = index.find(buffer, start, keyLength, PaymentIndex.hash(buffer, start, keyLength));
+        Payment.PaymentStatus settledStatus = STATUS_VALUES[status];
+        ReconciliationOutcome outcome;
+        if (entry < 0) {
+            outcome = ReconciliationOutcome.MISSING_PAYMENT;
+        } else if (!index.markMatched(entry)) {
+            outcome = ReconciliationOutcome.DUPLICATE;
+        } else if (index.amountMinor(entry) != amount) {
+            outcome = ReconciliationOutcome.AMOUNT_MISMATCH;
+        } else if (index.status(entry) != settledStatus) {
+            outcome = ReconciliationOutcome.STATUS_MISMATCH;
+        } else {
+            outcome = ReconciliationOutcome.MATCHED;
+        }
+        record(outcome, lineNumber, buffer, start, start + keyLength, entry, amount, settledStatus);
+    }
+
+    /**
+     * Учитывает платежи окна, не встретившиеся в файле. Вызывается после чтения всего файла.
+     */
+    public void finish() {
+        index.forEachUnmatched(entry -> {
+            counts[ReconciliationOutcome.MISSING_SETTLEMENT.ordinal()]++;
+            if (samples.size() < sampleLimit) {
+                samples.add(ReconciliationDiscrepancy.builder()
+                        .outcome(ReconciliationOutcome.MISSING_SETTLEMENT)
+                        .transactionId(index.transactionId(entry))
+                        .paymentId(index.paymentId(entry))
+                        .paymentAmount(Money.toBigDecimal(index.amountMinor(entry)))
+                        .paymentStatus(index.status(entry))
+                        .build());
+            }
+        });
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public Map<ReconciliationOutcome, Long> getCounts() {
+        Map<ReconciliationOutcome, Long> result = new EnumMap<>(ReconciliationOutcome.class);
+        for (ReconciliationOutcome outcome : ReconciliationOutcome.values()) {
+            result.put(outcome, counts[outcome.ordinal()]);
+        }
+        return result;
+    }
+
+    public List<ReconciliationDiscrepancy> getSamples() {
+        return samples;
+    }
+
+    private void record(ReconciliationOutcome outcome, long lineNumber, ByteBuffer buffer, int keyStart, int keyEnd,
+                        int entry, long settledAmount, Payment.PaymentStatus settledStatus) {
+        counts[outcome.ordinal()]++;
+        if (outcome == ReconciliationOutcome.MATCHED || samples.size() >= sampleLimit) {
+            return;
+        }
+        byte[] key = new byte[keyEnd - keyStart];
+        buffer.get(keyStart, key);
+        ReconciliationDiscrepancy.ReconciliationDiscrepancyBuilder sample = ReconciliationDiscrepancy.builder()
+                .outcome(outcome)
+                .line(lineNumber)
+                .transactionId(new String(key, StandardCharsets.UTF_8))
+                .settledStatus(settledStatus);
+        if (settledStatus != null) {
+            sample.settledAmount(Money.toBigDecimal(settledAmount));
+        }
+        if (entry >= 0) {
+            sample.paymentId(index.paymentId(entry))
+                    .paymentAmount(Money.toBigDecimal(index.amountMinor(entry)))
+                    .paymentStatus(index.status(entry));
+        }
+        samples.add(sample.build());
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Сумма в копейках; Long.MIN_VALUE - ошибка формата.
+     */
+    static long parseAmount(ByteBuffer buffer, int start, int end) {
+        boolean negative = start < end && buffer.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end) {
+            return Long.MIN_VALUE;
+        }
+        long units = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9' && fractionDigits < Money.SCALE) {
+                units = units * 10 + (b - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (units > Long.MAX_VALUE / 100) {
+                    return Long.MIN_VALUE;
+                }
+            } else {
+                return Long.MIN_VALUE;
+            }
+        }
+        for (int digits = Math.max(fractionDigits, 0); digits < Money.SCALE; digits++) {
+            units *= 10;
+        }
+        return negative ? -units : units;
+    }
+
+    private static int parseStatus(ByteBuffer buffer, int start, int end) {
+        for (int s = 0; s < STATUS_NAMES.length; s++) {
+            byte[] name = STATUS_NAMES[s];
+            if (name.length == end - start && startsWith(buffer, start, end, name)) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
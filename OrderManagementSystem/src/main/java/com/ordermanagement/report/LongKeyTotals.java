@@ -0,0 +1,113 @@
+package com.ordermanagement.report;
+
+import java.util.Arrays;
+
+/**
+ * Итоги по ключу long без упаковки в объекты: открытая адресация с линейным пробированием.
+ * Для каждого ключа копятся сумма в копейках и количество. Не потокобезопасна -
+ * каждая часть отчёта считается в своём экземпляре, затем части сливаются через {@link #merge}.
+ */
+public final class LongKeyTotals {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys;
+    private long[] amounts;
+    private long[] quantities;
+    private int size;
+    private int mask;
+
+    public LongKeyTotals() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public void add(long key, long amountMinor, long quantity) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Недопустимый ключ: " + key);
+        }
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                amounts[slot] = amountMinor;
+                quantities[slot] = quantity;
+                resize();
+                return;
+            }
+        }
+        amounts[slot] += amountMinor;
+        quantities[slot] += quantity;
+    }
+
+    public void merge(LongKeyTotals other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                add(other.keys[i], other.amounts[i], other.quantities[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getAmount(long key) {
+        int slot = slot(key);
+        return keys[slot] == key ? amounts[slot] : 0L;
+    }
+
+    public long getQuantity(long key) {
+        int slot = slot(key);
+        return keys[slot] == key ? quantities[slot] : 0L;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], amounts[i], quantities[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(long key, long amountMinor, long quantity);
+    }
+
+    private int slot(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldAmounts = amounts;
+        long[] oldQuantities = quantities;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                amounts[slot] = oldAmounts[i];
+                quantities[slot] = oldQuantities[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        amounts = new long[capacity];
+        quantities = new long[capacity];
+        mask = capacity - 1;
+    }
+}
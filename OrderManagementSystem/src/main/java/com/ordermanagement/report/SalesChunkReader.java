@@ -0,0 +1,39 @@
+package com.ordermanagement.report;
+
+import com.ordermanagement.entity.Payment;
+import com.ordermanagement.repository.PaymentRepository;
+import com.ordermanagement.util.Money;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Чтение одной части периода: строки идут потоком и сразу сворачиваются в итоги по ключу отчёта.
+ */
+@Component
+@RequiredArgsConstructor
+@Workload(WorkloadClass.REPORTING)
+public class SalesChunkReader {
+
+    private final PaymentRepository paymentRepository;
+
+    @Transactional(readOnly = true)
+    public LongKeyTotals read(SalesReportType type, LocalDateTime from, LocalDateTime to) {
+        LongKeyTotals totals = new LongKeyTotals();
+        try (Stream<Object[]> rows = paymentRepository.streamPaidItems(from, to)) {
+            rows.forEach(row -> {
+                int quantity = (Integer) row[4];
+                long key = type.key((LocalDateTime) row[0], (Payment.PaymentMethod) row[1],
+                        (Long) row[2], (Long) row[3]);
+                totals.add(key, Money.multiply(Money.toMinor((BigDecimal) row[5]), quantity), quantity);
+            });
+        }
+        return totals;
+    }
+}
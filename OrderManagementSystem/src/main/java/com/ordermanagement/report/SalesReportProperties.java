@@ -0,0 +1,31 @@
+package com.ordermanagement.report;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.sales-report")
+public class SalesReportProperties {
+
+    // Длина части периода, читаемой одним запросом
+    private Duration chunk = Duration.ofDays(1);
+
+    // При большем числе частей длина части увеличивается
+    private int maxChunks = 512;
+
+    // Параллельность пула fork/join; чтение из базы дополнительно ограничено классом нагрузки REPORTING
+    private int parallelism = 4;
+
+    // Сколько частей одного отчёта читается из базы одновременно (не больше пула REPORTING)
+    private int readConcurrency = 2;
+
+    // Сколько отчётов по закрытым периодам держать в кэше
+    private int cacheEntries = 200;
+
+    // Максимальный период отчёта
+    private Duration maxPeriod = Duration.ofDays(3 * 366);
+}
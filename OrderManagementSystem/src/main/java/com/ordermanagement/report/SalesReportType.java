@@ -0,0 +1,58 @@
+package com.ordermanagement.report;
+
+import com.ordermanagement.entity.Payment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Определения отчётов о продажах: по какому ключу группируется выручка оплаченных позиций.
+ */
+public enum SalesReportType {
+
+    REVENUE_BY_PRODUCT("Выручка по товарам", "productId"),
+    REVENUE_BY_CUSTOMER("Выручка по покупателям", "customerId"),
+    REVENUE_BY_DAY("Выручка по дням", "day"),
+    REVENUE_BY_PAYMENT_METHOD("Выручка по способам оплаты", "paymentMethod");
+
+    private final String description;
+    private final String keyName;
+
+    SalesReportType(String description, String keyName) {
+        this.description = description;
+        this.keyName = keyName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getKeyName() {
+        return keyName;
+    }
+
+    /**
+     * Ключ группировки строки оплаченной позиции в виде long.
+     */
+    public long key(LocalDateTime paymentDate, Payment.PaymentMethod method, long customerId, long productId) {
+        return switch (this) {
+            case REVENUE_BY_PRODUCT -> productId;
+            case REVENUE_BY_CUSTOMER -> customerId;
+            case REVENUE_BY_DAY -> paymentDate.toLocalDate().toEpochDay();
+            case REVENUE_BY_PAYMENT_METHOD -> method != null ? method.ordinal() : -1;
+        };
+    }
+
+    public String formatKey(long key) {
+        return switch (this) {
+            case REVENUE_BY_PRODUCT, REVENUE_BY_CUSTOMER -> Long.toString(key);
+            case REVENUE_BY_DAY -> LocalDate.ofEpochDay(key).toString();
+            case REVENUE_BY_PAYMENT_METHOD -> key >= 0 ? Payment.PaymentMethod.values()[(int) key].name() : "UNKNOWN";
+        };
+    }
+
+    // По дням строки упорядочены по дате, в остальных отчётах - по убыванию выручки
+    public boolean isChronological() {
+        return this == REVENUE_BY_DAY;
+    }
+}
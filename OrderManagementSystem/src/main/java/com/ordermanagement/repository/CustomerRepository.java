@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +20,11 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByEmailContaining(@Param("email") String email);
 
     boolean existsByEmail(String email);
+
+    // Поля для префиксного индекса подсказок: id, имя, email
+    @Query("SELECT c.id, c.name, c.email FROM Customer c")
+    List<Object[]> findSuggestFields();
+
+    @Query("SELECT c.id, c.name, c.email FROM Customer c WHERE c.id IN :ids")
+    List<Object[]> findSuggestFieldsByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
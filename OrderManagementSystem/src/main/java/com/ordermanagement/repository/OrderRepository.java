@@ -2,29 +2,97 @@ package com.ordermanagement.repository;
 
 import com.ordermanagement.entity.Order;
 import com.ordermanagement.entity.Order.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByCustomerId(Long customerId);
 
+    // Заказ с блокировкой строки до конца транзакции - перед проверкой и сменой статуса
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") Long orderId);
+
+    // ID заказов покупателя после указанного id - страница для потоковой выдачи
+    @Query("SELECT o.id FROM Order o WHERE o.customer.id = :customerId AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsByCustomerIdAfter(@Param("customerId") Long customerId,
+                                        @Param("afterId") Long afterId,
+                                        Limit limit);
+
+    // Позиции заказов без загрузки сущностей: orderId, productId, quantity, unitPrice
+    @Query("SELECT i.order.id, i.product.id, i.quantity, i.unitPrice FROM OrderItem i " +
+            "WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<Object[]> findItemRowsByOrderIds(@Param("orderIds") List<Long> orderIds);
+
+    // Заказы по списку ID вместе с позициями - одним запросом
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :orderIds")
+    List<Order> findByIdsWithItems(@Param("orderIds") List<Long> orderIds);
+
+    // Номера приёма, уже применённые к базе
+    @Query("SELECT o.intakeReference FROM Order o WHERE o.intakeReference IN :references")
+    List<String> findExistingIntakeReferences(@Param("references") Collection<String> references);
+
+    @Query("SELECT o.id FROM Order o WHERE o.intakeReference = :reference")
+    Optional<Long> findIdByIntakeReference(@Param("reference") String reference);
+
     List<Order> findByStatus(OrderStatus status);
 
     List<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
+    // Свободные оплаченные заказы и заказы с истёкшей арендой в порядке поступления.
+    // Строки, заблокированные параллельными захватами, пропускаются, а не ожидаются
+    @Query(value = "SELECT id FROM orders WHERE status = 'PAID' " +
+            "AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+            "ORDER BY order_date, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockClaimableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.leaseId = :leaseId, o.leaseOwner = :worker, o.leaseExpiresAt = :expiresAt " +
+            "WHERE o.id IN :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("leaseId") String leaseId,
+              @Param("worker") String worker, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Заказы, аренда которых ещё действует; строки блокируются до конца транзакции
+    @Query(value = "SELECT id FROM orders WHERE id IN :ids AND lease_id = :leaseId AND status = 'PAID' " +
+            "AND lease_expires_at >= :now FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockLeasedIds(@Param("ids") List<Long> ids, @Param("leaseId") String leaseId,
+                             @Param("now") LocalDateTime now);
+
     @Query("SELECT o FROM Order o WHERE o.customer.email = :email")
     List<Order> findByCustomerEmail(@Param("email") String email);
 
-    @Query("SELECT o FROM Order o JOIN o.items i WHERE i.product.id = :productId")
-    List<Order> findByProductId(@Param("productId") Long productId);
+    // Сводка заказов товара от новых к старым: orderId, дата, статус, покупатель, количество, сумма.
+    // Диапазон по индексу order_items(product_id, order_id) читается без сортировки; фильтры необязательны
+    @Query("SELECT i.order.id, o.orderDate, o.status, o.customer.id, SUM(i.quantity), SUM(i.quantity * i.unitPrice) " +
+            "FROM OrderItem i JOIN i.order o " +
+            "WHERE i.product.id = :productId AND i.order.id < :beforeId " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:from IS NULL OR o.orderDate >= :from) " +
+            "AND (:to IS NULL OR o.orderDate < :to) " +
+            "GROUP BY i.order.id, o.orderDate, o.status, o.customer.id " +
+            "ORDER BY i.order.id DESC")
+    List<Object[]> findProductOrderSummaries(@Param("productId") Long productId,
+                                             @Param("beforeId") Long beforeId,
+                                             @Param("status") OrderStatus status,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             Limit limit);
 
     @Query("SELECT o FROM Order o WHERE o.totalAmount > :minAmount ORDER BY o.orderDate DESC")
     List<Order> findOrdersWithAmountGreaterThan(@Param("minAmount") BigDecimal minAmount);
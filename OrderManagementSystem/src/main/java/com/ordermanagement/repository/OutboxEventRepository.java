@@ -0,0 +1,65 @@
+package com.ordermanagement.repository;
+
+import com.ordermanagement.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Готовые к доставке события, перед которыми у того же заказа нет недоставленных.
+    // Строки, захваченные параллельными диспетчерами, пропускаются, а не ожидаются
+    @Query(value = "SELECT e.id FROM outbox_events e WHERE e.status = 'PENDING' " +
+            "AND e.next_attempt_at <= :now " +
+            "AND (e.lease_expires_at IS NULL OR e.lease_expires_at < :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_events p WHERE p.aggregate_id = e.aggregate_id " +
+            "AND p.status = 'PENDING' AND p.id < e.id) " +
+            "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockDispatchableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.leaseExpiresAt = :expiresAt, e.attempts = e.attempts + 1 " +
+            "WHERE e.id IN :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.leaseExpiresAt = NULL, e.attempts = e.attempts - 1 WHERE e.id IN :ids")
+    int releaseLease(@Param("ids") List<Long> ids);
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id IN :ids ORDER BY e.id")
+    List<OutboxEvent> findByIdsOrdered(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DELIVERED', e.deliveredAt = :deliveredAt, " +
+            "e.leaseExpiresAt = NULL, e.lastError = NULL WHERE e.id IN :ids")
+    int markDelivered(@Param("ids") List<Long> ids, @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.leaseExpiresAt = NULL, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") OutboxEvent.EventStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    // Возврат исчерпавших попытки событий в очередь с новым счётчиком попыток
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PENDING', e.attempts = 0, e.nextAttemptAt = :now " +
+            "WHERE e.status = 'DEAD'")
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DELIVERED' AND e.deliveredAt < :before")
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before);
+
+    long countByStatus(OutboxEvent.EventStatus status);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = 'PENDING'")
+    Optional<LocalDateTime> findOldestPendingCreatedAt();
+}
@@ -2,8 +2,11 @@ package com.ordermanagement.repository;
 
 import com.ordermanagement.entity.Payment;
 import com.ordermanagement.entity.Payment.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +14,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -26,4 +30,22 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED' AND p.paymentDate BETWEEN :start AND :end")
     BigDecimal getTotalRevenueForPeriod(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-}
\ No newline at end of file
+
+    // Оплаченные позиции за полуинтервал [start, end): дата и способ оплаты, покупатель, товар, количество, цена.
+    // Читается потоком порциями по fetch size без загрузки сущностей; поток нужно закрыть внутри транзакции
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p.paymentDate, p.paymentMethod, o.customer.id, i.product.id, i.quantity, i.unitPrice " +
+            "FROM Payment p JOIN p.order o JOIN o.items i " +
+            "WHERE p.status = 'COMPLETED' AND p.paymentDate >= :start AND p.paymentDate < :end")
+    Stream<Object[]> streamPaidItems(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Платежи с ID транзакции за полуинтервал [start, end) для сверки: id, transactionId, сумма, статус
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p.id, p.transactionId, p.amount, p.status FROM Payment p " +
+            "WHERE p.transactionId IS NOT NULL AND p.paymentDate >= :start AND p.paymentDate < :end")
+    Stream<Object[]> streamSettlementWindow(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,44 @@
+package com.ordermanagement.repository;
+
+import com.ordermanagement.entity.ProductOrderCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductOrderCountRepository extends JpaRepository<ProductOrderCount, Long> {
+
+    @Modifying
+    @Query("UPDATE ProductOrderCount c SET c.orderCount = c.orderCount + :delta " +
+            "WHERE c.productId = :productId AND c.shardNo = :shardNo")
+    int increment(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("delta") long delta);
+
+    // Создание сегмента при первом заказе; параллельная вставка того же сегмента не ошибка.
+    // Пространство запроса указано явно, иначе нативная вставка сбросит весь кэш второго уровня
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_order_counts"))
+    @Query(value = "INSERT INTO product_order_counts (product_id, shard_no, order_count) " +
+            "VALUES (:productId, :shardNo, 0) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("productId") Long productId, @Param("shardNo") int shardNo);
+
+    @Query("SELECT COALESCE(SUM(c.orderCount), 0) FROM ProductOrderCount c WHERE c.productId = :productId")
+    long sumByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductOrderCount c")
+    int deleteAllCounts();
+
+    // Пересчёт по позициям заказов - для базы, где заказы появились раньше счётчиков
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_order_counts"))
+    @Query(value = "INSERT INTO product_order_counts (product_id, shard_no, order_count) " +
+            "SELECT product_id, 0, COUNT(DISTINCT order_id) FROM order_items GROUP BY product_id",
+            nativeQuery = true)
+    int rebuildFromOrderItems();
+}
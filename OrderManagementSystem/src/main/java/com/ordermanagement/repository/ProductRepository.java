@@ -1,20 +1,36 @@
 package com.ordermanagement.repository;
 
 import com.ordermanagement.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Пространство синхронизации для нативных обновлений остатков
+    String STOCK_QUERY_SPACE = "products_stock";
+
+    // Товар с блокировкой строки до конца транзакции - перед изменением остатка через сущность
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :productId")
+    Optional<Product> findByIdForUpdate(@Param("productId") Long productId);
+
     // Найти товары по названию (регистронезависимый поиск)
     List<Product> findByNameContainingIgnoreCase(String name);
 
@@ -46,28 +62,45 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT SUM(p.price * p.quantity) FROM Product p")
     BigDecimal getTotalStockValue();
 
-    // Резервирование товара (уменьшение количества)
+    // Резервирование товара (уменьшение количества).
+    // Нативный запрос с отдельным пространством синхронизации не сбрасывает весь регион "products"
+    // кэша второго уровня; строку инвалидирует вызывающий код (ProductService)
     @Modifying
     @Transactional
-    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity WHERE p.id = :productId AND p.quantity >= :quantity")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE products SET quantity = quantity - :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :productId AND quantity >= :quantity AND stock_shards IS NULL",
+            nativeQuery = true)
     int reserveProduct(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 
-    // Освобождение товара (увеличение количества)
+    // Освобождение товара (увеличение количества).
+    // Строки сегментированных товаров (stock_shards IS NOT NULL) оба запроса не меняют: 0 строк означает,
+    // что остаток разделён на сегменты, возможно на другом узле
     @Modifying
     @Transactional
-    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity WHERE p.id = :productId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE products SET quantity = quantity + :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :productId AND stock_shards IS NULL", nativeQuery = true)
     int releaseProduct(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 
+    // Изменение остатка на складе: разница прибавляется к текущему значению, а не перезаписывает его
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE products SET quantity = quantity + :delta, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :productId", nativeQuery = true)
+    int adjustQuantity(@Param("productId") Long productId, @Param("delta") int delta);
+
     // Обновление цены товара
     @Modifying
     @Transactional
-    @Query("UPDATE Product p SET p.price = :price WHERE p.id = :productId")
+    @Query("UPDATE Product p SET p.price = :price, p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :productId")
     int updateProductPrice(@Param("productId") Long productId, @Param("price") BigDecimal price);
 
     // Обновление количества товара
     @Modifying
     @Transactional
-    @Query("UPDATE Product p SET p.quantity = :quantity WHERE p.id = :productId")
+    @Query("UPDATE Product p SET p.quantity = :quantity, p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :productId")
     int updateProductQuantity(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 
     // Поиск товаров по нескольким критериям
@@ -85,7 +118,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("minQuantity") Integer minQuantity,
             @Param("warehouseId") Long warehouseId);
 
-    // Получить товары с низким запасом
+    // Получить товары с низким запасом.
+    // Сканирует и сортирует всю таблицу; текущий список низких остатков отдаёт LowStockWatcher из памяти
     @Query("SELECT p FROM Product p WHERE p.quantity <= :threshold ORDER BY p.quantity")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
 
@@ -99,6 +133,51 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p.quantity FROM Product p WHERE p.id = :productId")
     Optional<Integer> getProductQuantity(@Param("productId") Long productId);
 
+    // Количество и порог низкого остатка всех товаров - для первичной загрузки LowStockWatcher.
+    // Для сегментированных товаров количество - сумма по сегментам
+    @Query("SELECT p.id, COALESCE((SELECT SUM(s.quantity) FROM ProductStockShard s WHERE s.productId = p.id), " +
+            "p.quantity), p.lowStockThreshold FROM Product p")
+    List<Object[]> findStockLevels();
+
+    @Query("SELECT p.id, COALESCE((SELECT SUM(s.quantity) FROM ProductStockShard s WHERE s.productId = p.id), " +
+            "p.quantity), p.lowStockThreshold FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStockLevelsByIds(@Param("ids") Collection<Long> ids);
+
+    // Число сегментов остатка товара; пусто - остаток хранится в строке products
+    @Query("SELECT p.stockShards FROM Product p WHERE p.id = :productId")
+    Optional<Integer> findStockShards(@Param("productId") Long productId);
+
+    // Товары с сегментированным остатком: id, число сегментов
+    @Query("SELECT p.id, p.stockShards FROM Product p WHERE p.stockShards IS NOT NULL")
+    List<Object[]> findShardedProducts();
+
+    @Query("SELECT p.id, p.stockShards FROM Product p WHERE p.stockShards IS NOT NULL AND p.id IN :ids")
+    List<Object[]> findShardedProductsByIds(@Param("ids") Collection<Long> ids);
+
+    // Товары, изменённые начиная с указанного момента, - догрузка после снимка каталога
+    @Query("SELECT p FROM Product p WHERE p.updatedAt >= :since")
+    List<Product> findUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    // Следующая страница товаров после указанного id - для потоковой выдачи без OFFSET
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Product> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Страница поиска после указанного id; каждый фильтр необязателен
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId AND " +
+            "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) " +
+            "ORDER BY p.id")
+    List<Product> searchPageAfter(
+            @Param("name") String name,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
     // Найти товары по списку ID
     @Query("SELECT p FROM Product p WHERE p.id IN :productIds")
     List<Product> findProductsByIds(@Param("productIds") List<Long> productIds);
@@ -0,0 +1,65 @@
+package com.ordermanagement.repository;
+
+import com.ordermanagement.entity.ProductStockShard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    List<ProductStockShard> findByProductIdOrderByShardNo(Long productId);
+
+    // Резервирование из одного сегмента; 0 строк - в сегменте недостаточно остатка
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ProductRepository.STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE product_stock_shards SET quantity = quantity - :quantity " +
+            "WHERE product_id = :productId AND shard_no = :shardNo AND quantity >= :quantity",
+            nativeQuery = true)
+    int reserveFromShard(@Param("productId") Long productId, @Param("shardNo") Integer shardNo,
+                         @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ProductRepository.STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE product_stock_shards SET quantity = quantity + :quantity " +
+            "WHERE product_id = :productId AND shard_no = :shardNo",
+            nativeQuery = true)
+    int releaseToShard(@Param("productId") Long productId, @Param("shardNo") Integer shardNo,
+                       @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ProductRepository.STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE product_stock_shards SET quantity = :quantity " +
+            "WHERE product_id = :productId AND shard_no = :shardNo",
+            nativeQuery = true)
+    int setShardQuantity(@Param("productId") Long productId, @Param("shardNo") Integer shardNo,
+                         @Param("quantity") Integer quantity);
+
+    // Блокировка всех сегментов товара в порядке номеров: shard_no, quantity
+    @Query(value = "SELECT shard_no, quantity FROM product_stock_shards " +
+            "WHERE product_id = :productId ORDER BY shard_no FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockShards(@Param("productId") Long productId);
+
+    // Один оператор - согласованный снимок суммы по всем сегментам
+    @Query(value = "SELECT COALESCE(SUM(quantity), 0) FROM product_stock_shards WHERE product_id = :productId",
+            nativeQuery = true)
+    Long getTotalQuantity(@Param("productId") Long productId);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ProductRepository.STOCK_QUERY_SPACE))
+    @Query(value = "DELETE FROM product_stock_shards WHERE product_id = :productId", nativeQuery = true)
+    int deleteByProductId(@Param("productId") Long productId);
+}
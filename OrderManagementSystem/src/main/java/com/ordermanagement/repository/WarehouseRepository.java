@@ -0,0 +1,9 @@
+package com.ordermanagement.repository;
+
+import com.ordermanagement.entity.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+}
@@ -0,0 +1,63 @@
+package com.ordermanagement.repository;
+
+import com.ordermanagement.entity.WarehouseStock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+
+    List<WarehouseStock> findByProductId(Long productId);
+
+    Optional<WarehouseStock> findByProductIdAndWarehouseId(Long productId, Long warehouseId);
+
+    // Остаток на складе с блокировкой строки - прежнее значение нужно для разницы в products.quantity
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WarehouseStock s WHERE s.productId = :productId AND s.warehouseId = :warehouseId")
+    Optional<WarehouseStock> findForUpdate(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+
+    boolean existsByProductId(Long productId);
+
+    // Остатки вместе с приоритетом склада: productId, warehouseId, quantity, priority
+    @Query("SELECT s.productId, s.warehouseId, s.quantity, w.priority " +
+            "FROM WarehouseStock s, Warehouse w WHERE w.id = s.warehouseId")
+    List<Object[]> findAllAvailability();
+
+    @Query("SELECT s.productId, s.warehouseId, s.quantity, w.priority " +
+            "FROM WarehouseStock s, Warehouse w WHERE w.id = s.warehouseId AND s.productId = :productId")
+    List<Object[]> findAvailabilityByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM WarehouseStock s WHERE s.productId = :productId")
+    Integer getTotalQuantity(@Param("productId") Long productId);
+
+    // Резервирование на конкретном складе; 0 строк - остатка уже недостаточно
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ProductRepository.STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE warehouse_stock SET quantity = quantity - :quantity " +
+            "WHERE product_id = :productId AND warehouse_id = :warehouseId AND quantity >= :quantity",
+            nativeQuery = true)
+    int reserveStock(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId,
+                     @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ProductRepository.STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE warehouse_stock SET quantity = quantity + :quantity " +
+            "WHERE product_id = :productId AND warehouse_id = :warehouseId",
+            nativeQuery = true)
+    int releaseStock(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId,
+                     @Param("quantity") Integer quantity);
+}
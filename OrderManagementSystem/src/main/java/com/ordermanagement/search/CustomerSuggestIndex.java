@@ -0,0 +1,220 @@
+package com.ordermanagement.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Префиксный индекс покупателей для подсказок по части имени или email вместо LIKE '%x%' по таблице.
+ * <p>
+ * Токены - слова имени, email целиком, его локальная часть, её фрагменты и домен, в нижнем регистре и с ё -> е.
+ * Каждое слово запроса должно быть префиксом какого-либо токена покупателя. Индекс обновляется
+ * после фиксации изменений покупателя и строится заново при запуске.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerSuggestIndex {
+
+    private final CustomerSuggestProperties properties;
+
+    private RadixTrie trie = new RadixTrie();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long id, String name, String email) {
+        Entry entry = new Entry(CustomerSuggestion.builder().id(id).name(name).email(email).build(),
+                tokens(name, email));
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            entries.put(id, entry);
+            for (String token : entry.tokens) {
+                trie.add(token, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Перестраивает индекс целиком; читатели видят старый индекс до замены.
+     */
+    public void replaceAll(Collection<CustomerSuggestion> suggestions) {
+        RadixTrie rebuilt = new RadixTrie();
+        Map<Long, Entry> rebuiltEntries = new HashMap<>(suggestions.size() * 2);
+        for (CustomerSuggestion suggestion : suggestions) {
+            Entry entry = new Entry(suggestion, tokens(suggestion.getName(), suggestion.getEmail()));
+            rebuiltEntries.put(suggestion.getId(), entry);
+            for (String token : entry.tokens) {
+                rebuilt.add(token, suggestion.getId());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            trie = rebuilt;
+            entries.clear();
+            entries.putAll(rebuiltEntries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<CustomerSuggestion> suggest(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        // По самому длинному слову кандидатов меньше всего, остальные проверяются по токенам кандидата
+        String driver = words.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        List<String> others = new ArrayList<>(words);
+        others.remove(driver);
+
+        Set<Long> found = new LinkedHashSet<>();
+        List<CustomerSuggestion> result = new ArrayList<>(limit);
+        int[] visited = {0};
+        lock.readLock().lock();
+        try {
+            trie.visitPrefix(driver, id -> {
+                if (found.add(id)) {
+                    Entry entry = entries.get(id);
+                    if (entry != null && entry.matchesAll(others)) {
+                        result.add(entry.suggestion);
+                    }
+                }
+                return result.size() < limit && ++visited[0] < properties.getMaxCandidates();
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public CustomerSuggestStatistics getStatistics() {
+        lock.readLock().lock();
+        try {
+            long entryBytes = 0;
+            for (Entry entry : entries.values()) {
+                // Карточка, массив токенов, запись карты
+                entryBytes += 24 + 16 + 4L * entry.tokens.length + 48
+                        + stringBytes(entry.suggestion.getName()) + stringBytes(entry.suggestion.getEmail());
+                for (String token : entry.tokens) {
+                    entryBytes += stringBytes(token);
+                }
+            }
+            return CustomerSuggestStatistics.builder()
+                    .customers(entries.size())
+                    .tokens(trie.countTokens())
+                    .nodes(trie.getNodeCount())
+                    .postings(trie.getPostingCount())
+                    .estimatedBytes(trie.estimateBytes() + entryBytes)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            for (String token : previous.tokens) {
+                trie.remove(token, id);
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT).replace('ё', 'е').trim();
+    }
+
+    static List<String> words(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : normalize(query).split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    static String[] tokens(String name, String email) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (name != null) {
+            for (String word : normalize(name).split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    tokens.add(word);
+                }
+            }
+        }
+        if (email != null && !email.isBlank()) {
+            String normalized = normalize(email);
+            tokens.add(normalized);
+            int at = normalized.indexOf('@');
+            String local = at >= 0 ? normalized.substring(0, at) : normalized;
+            if (!local.isEmpty()) {
+                tokens.add(local);
+            }
+            for (String fragment : local.split("[._+\\-]+")) {
+                if (!fragment.isEmpty()) {
+                    tokens.add(fragment);
+                }
+            }
+            if (at >= 0 && at < normalized.length() - 1) {
+                tokens.add(normalized.substring(at + 1));
+            }
+        }
+        return tokens.toArray(String[]::new);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private static final class Entry {
+        private final CustomerSuggestion suggestion;
+        private final String[] tokens;
+
+        private Entry(CustomerSuggestion suggestion, String[] tokens) {
+            this.suggestion = suggestion;
+            this.tokens = tokens;
+        }
+
+        private boolean matchesAll(List<String> words) {
+            for (String word : words) {
+                boolean matched = false;
+                for (String token : tokens) {
+                    if (token.startsWith(word)) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ordermanagement.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.customer-suggest")
+public class CustomerSuggestProperties {
+
+    private int defaultLimit = 10;
+
+    private int maxLimit = 50;
+
+    // Сколько владельцев токенов просмотреть при фильтрации запроса из нескольких слов
+    private int maxCandidates = 2000;
+}
@@ -0,0 +1,17 @@
+package com.ordermanagement.search;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class CustomerSuggestStatistics {
+    int customers;
+    // Различные токены имён и email
+    int tokens;
+    int nodes;
+    // Пары (токен, покупатель)
+    long postings;
+    // Оценка памяти дерева и карточек покупателей
+    long estimatedBytes;
+}
@@ -0,0 +1,12 @@
+package com.ordermanagement.search;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class CustomerSuggestion {
+    long id;
+    String name;
+    String email;
+}
@@ -0,0 +1,262 @@
+package com.ordermanagement.search;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.LongPredicate;
+
+/**
+ * Сжатое префиксное дерево (radix trie): цепочки узлов с одним потомком склеены в одно ребро-строку,
+ * поэтому число узлов не больше удвоенного числа различных токенов. В конечных узлах хранятся id владельцев токена.
+ * Не потокобезопасно: синхронизацию обеспечивает вызывающий.
+ */
+final class RadixTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final Node root = new Node("");
+    private int nodeCount = 1;
+    private long postingCount;
+
+    void add(String token, long id) {
+        Node node = root;
+        String rest = token;
+        while (!rest.isEmpty()) {
+            int index = node.find(rest.charAt(0));
+            if (index < 0) {
+                Node leaf = new Node(rest);
+                node.insertChild(-index - 1, leaf);
+                nodeCount++;
+                node = leaf;
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, rest);
+            if (common < child.label.length()) {
+                // Разрезаем ребро: общий префикс становится новым промежуточным узлом
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.insertChild(0, child);
+                node.children[index] = middle;
+                nodeCount++;
+                child = middle;
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+        if (node.addId(id)) {
+            postingCount++;
+        }
+    }
+
+    boolean remove(String token, long id) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        String rest = token;
+        while (!rest.isEmpty()) {
+            int index = node.find(rest.charAt(0));
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (!rest.startsWith(child.label)) {
+                return false;
+            }
+            path.push(node);
+            node = child;
+            rest = rest.substring(child.label.length());
+        }
+        if (!node.removeId(id)) {
+            return false;
+        }
+        postingCount--;
+        compact(node, path);
+        return true;
+    }
+
+    /**
+     * Обходит владельцев токенов с префиксом {@code prefix} в ширину: сначала более короткие токены.
+     * Обход прекращается, когда {@code visitor} возвращает {@code false}.
+     */
+    void visitPrefix(String prefix, LongPredicate visitor) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            int index = node.find(rest.charAt(0));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            if (rest.startsWith(child.label)) {
+                rest = rest.substring(child.label.length());
+            } else if (child.label.startsWith(rest)) {
+                rest = "";
+            } else {
+                return;
+            }
+            node = child;
+        }
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(node);
+        while (!queue.isEmpty()) {
+            Node current = queue.poll();
+            for (int i = 0; i < current.idCount; i++) {
+                if (!visitor.test(current.ids[i])) {
+                    return;
+                }
+            }
+            for (int i = 0; i < current.childCount; i++) {
+                queue.add(current.children[i]);
+            }
+        }
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    long getPostingCount() {
+        return postingCount;
+    }
+
+    /**
+     * Оценка занимаемой памяти в байтах при сжатых указателях: заголовки объектов, массивы и строки рёбер.
+     */
+    long estimateBytes() {
+        long bytes = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            // Узел: заголовок, 4 ссылки, 2 int; строка: объект и массив байтов (Latin-1 или UTF-16)
+            bytes += 40 + 24 + 16 + node.label.length() * (node.label.chars().allMatch(c -> c < 256) ? 1L : 2L);
+            bytes += node.keys.length == 0 ? 0 : 16 + node.keys.length * 2L + 16 + node.children.length * 4L;
+            bytes += node.ids.length == 0 ? 0 : 16 + node.ids.length * 8L;
+            for (int i = 0; i < node.childCount; i++) {
+                stack.push(node.children[i]);
+            }
+        }
+        return bytes;
+    }
+
+    int countTokens() {
+        int tokens = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.idCount > 0) {
+                tokens++;
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                stack.push(node.children[i]);
+            }
+        }
+        return tokens;
+    }
+
+    // Опустевший узел удаляется, а узел с единственным потомком и без id склеивается с ним
+    private void compact(Node node, Deque<Node> path) {
+        Node current = node;
+        while (current != root) {
+            Node parent = path.pop();
+            if (current.idCount == 0 && current.childCount == 0) {
+                parent.removeChild(current.label.charAt(0));
+                nodeCount--;
+                current = parent;
+                continue;
+            }
+            if (current.idCount == 0 && current.childCount == 1) {
+                Node child = current.children[0];
+                current.label = current.label + child.label;
+                current.keys = child.keys;
+                current.children = child.children;
+                current.childCount = child.childCount;
+                current.ids = child.ids;
+                current.idCount = child.idCount;
+                nodeCount--;
+            }
+            break;
+        }
+    }
+
+    private static int commonPrefix(String left, String right) {
+        int length = Math.min(left.length(), right.length());
+        int i = 0;
+        while (i < length && left.charAt(i) == right.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        // Потомки упорядочены по первому символу ребра
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        private long[] ids = NO_IDS;
+        private int idCount;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int find(char key) {
+            return Arrays.binarySearch(keys, 0, childCount, key);
+        }
+
+        private void insertChild(int position, Node child) {
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, position, keys, position + 1, childCount - position);
+            System.arraycopy(children, position, children, position + 1, childCount - position);
+            keys[position] = child.label.charAt(0);
+            children[position] = child;
+            childCount++;
+        }
+
+        private void removeChild(char key) {
+            int position = find(key);
+            System.arraycopy(keys, position + 1, keys, position, childCount - position - 1);
+            System.arraycopy(children, position + 1, children, position, childCount - position - 1);
+            childCount--;
+            children[childCount] = null;
+            if (childCount == 0) {
+                keys = NO_KEYS;
+                children = NO_CHILDREN;
+            }
+        }
+
+        private boolean addId(long id) {
+            for (int i = 0; i < idCount; i++) {
+                if (ids[i] == id) {
+                    return false;
+                }
+            }
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(1, idCount * 2));
+            }
+            ids[idCount++] = id;
+            return true;
+        }
+
+        private boolean removeId(long id) {
+            for (int i = 0; i < idCount; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--idCount];
+                    if (idCount == 0) {
+                        ids = NO_IDS;
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.cache.CacheRegionService;
+import com.ordermanagement.entity.Product;
+import com.ordermanagement.repository.ProductRepository;
+import com.ordermanagement.snapshot.CatalogSnapshot;
+import com.ordermanagement.snapshot.CatalogSnapshotFile;
+import com.ordermanagement.snapshot.CatalogSnapshotProperties;
+import com.ordermanagement.snapshot.CatalogSnapshotStatistics;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Снимок каталога для быстрого прогрева после перезапуска.
+ * При запуске кэш товаров заполняется из файла снимка, а из базы догружаются только строки,
+ * изменённые после снимка (по updated_at), и список существующих id для отсева удалённых.
+ * Снимок сохраняется периодически и при остановке приложения.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Workload(WorkloadClass.CATALOG)
+public class CatalogSnapshotService {
+
+    private final CatalogSnapshotProperties properties;
+    private final ProductRepository productRepository;
+    private final CacheRegionService cacheRegionService;
+
+    private volatile CatalogSnapshotStatistics statistics = CatalogSnapshotStatistics.builder().build();
+    private ScheduledExecutorService executor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path file = Paths.get(properties.getFile());
+        long started = System.nanoTime();
+        CatalogSnapshot snapshot = null;
+        if (Files.exists(file)) {
+            try {
+                snapshot = CatalogSnapshotFile.read(file);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Снимок каталога {} не прочитан, прогрев из базы: {}", file, e.getMessage());
+            }
+        }
+        long loaded = System.nanoTime();
+
+        CatalogSnapshotStatistics.CatalogSnapshotStatisticsBuilder result = statistics.toBuilder()
+                .file(file.toAbsolutePath().toString())
+                .warmFromSnapshot(false)
+                .snapshotTakenAt(null)
+                .snapshotProducts(0)
+                .reconciledProducts(0)
+                .removedProducts(0)
+                .loadMillis(TimeUnit.NANOSECONDS.toMillis(loaded - started));
+        if (snapshot != null) {
+            reconcile(snapshot, result);
+        } else {
+            // Холодный старт: один проход по каталогу вместо тысяч одиночных промахов кэша
+            result.warmedEntries(productRepository.findAll().size());
+        }
+        long timeToWarm = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        statistics = result
+                .reconcileMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loaded))
+                .timeToWarmMillis(timeToWarm)
+                .build();
+        log.info("Кэш каталога прогрет {}: записей {}, чтение снимка {} мс, догрузка {} мс, от запуска {} мс",
+                snapshot != null ? "из снимка" : "из базы", statistics.getWarmedEntries(),
+                statistics.getLoadMillis(), statistics.getReconcileMillis(), timeToWarm);
+
+        if (properties.getIntervalSeconds() > 0 && executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "catalog-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::saveQuietly, properties.getIntervalSeconds(),
+                    properties.getIntervalSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void saveOnShutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (properties.isEnabled()) {
+            saveQuietly();
+        }
+    }
+
+    /**
+     * Сохраняет текущее состояние каталога в файл снимка.
+     */
+    public synchronized CatalogSnapshotStatistics saveSnapshot() throws IOException {
+        long started = System.nanoTime();
+        // Момент снимка фиксируется до чтения: всё изменённое во время чтения попадёт в догрузку
+        LocalDateTime takenAt = LocalDateTime.now();
+        List<Product> products = productRepository.findAll();
+        CatalogSnapshotFile.write(Paths.get(properties.getFile()), new CatalogSnapshot(takenAt, products));
+        statistics = statistics.toBuilder()
+                .lastSavedAt(takenAt)
+                .lastSavedProducts(products.size())
+                .lastSaveMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .build();
+        log.info("Снимок каталога сохранён: товаров {}, {} мс", products.size(), statistics.getLastSaveMillis());
+        return statistics;
+    }
+
+    public CatalogSnapshotStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void reconcile(CatalogSnapshot snapshot, CatalogSnapshotStatistics.CatalogSnapshotStatisticsBuilder result) {
+        LocalDateTime since = snapshot.getTakenAt().minusSeconds(properties.getReconcileMarginSeconds());
+        // Изменённые строки читаются из базы и попадают в кэш обычной загрузкой
+        Set<Long> changedIds = productRepository.findUpdatedSince(since).stream()
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+        Set<Long> existingIds = new HashSet<>(productRepository.findAllIds());
+
+        List<Product> unchanged = snapshot.getProducts().stream()
+                .filter(product -> existingIds.contains(product.getId()) && !changedIds.contains(product.getId()))
+                .toList();
+        int removed = (int) snapshot.getProducts().stream()
+                .filter(product -> !existingIds.contains(product.getId()))
+                .count();
+        int warmed = cacheRegionService.warmEntities(Product.class, unchanged);
+
+        result.warmFromSnapshot(true)
+                .snapshotTakenAt(snapshot.getTakenAt())
+                .snapshotProducts(snapshot.getProducts().size())
+                .reconciledProducts(changedIds.size())
+                .removedProducts(removed)
+                .warmedEntries(warmed + changedIds.size());
+    }
+
+    private void saveQuietly() {
+        try {
+            saveSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Не удалось сохранить снимок каталога: {}", e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,47 @@
 package com.ordermanagement.service;
 
+import com.ordermanagement.cache.CacheRegionService;
+import com.ordermanagement.coalescing.Coalesced;
+import com.ordermanagement.coherence.CacheCoherence;
+import com.ordermanagement.coherence.CacheInvalidationEvent;
+import com.ordermanagement.config.BatchProperties;
+import com.ordermanagement.dto.BatchResultDTO;
 import com.ordermanagement.dto.CustomerDTO;
 import com.ordermanagement.entity.Customer;
 import com.ordermanagement.exception.ResourceNotFoundException;
 import com.ordermanagement.repository.CustomerRepository;
+import com.ordermanagement.search.CustomerSuggestIndex;
+import com.ordermanagement.search.CustomerSuggestProperties;
+import com.ordermanagement.search.CustomerSuggestStatistics;
+import com.ordermanagement.search.CustomerSuggestion;
+import com.ordermanagement.util.BatchLookup;
+import com.ordermanagement.util.TransactionHooks;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
+@Workload(WorkloadClass.CATALOG)
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final BatchProperties batchProperties;
+    private final CustomerSuggestIndex suggestIndex;
+    private final CustomerSuggestProperties suggestProperties;
+    private final CacheRegionService cacheRegionService;
+    private final CacheCoherence cacheCoherence;
 
     @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomers() {
@@ -24,13 +51,22 @@ public class CustomerService {
     }
 
     @Transactional(readOnly = true)
+    @Coalesced("customer")
     public CustomerDTO getCustomerById(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Покупатель не найден с id: " + id));
         return convertToDTO(customer);
     }
 
+    @Transactional(readOnly = true)
+    public BatchResultDTO<CustomerDTO> getCustomersByIds(List<Long> ids) {
+        List<Long> distinctIds = BatchLookup.distinctIds(ids, batchProperties.getMaxIds());
+        return BatchLookup.collect(distinctIds, customerRepository.findAllById(distinctIds),
+                Customer::getId, this::convertToDTO);
+    }
+
     @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
     public CustomerDTO createCustomer(CustomerDTO customerDTO) {
         if (customerRepository.existsByEmail(customerDTO.getEmail())) {
             throw new IllegalArgumentException("Покупатель с email " + customerDTO.getEmail() + " уже существует");
@@ -38,10 +74,12 @@ public class CustomerService {
 
         Customer customer = convertToEntity(customerDTO);
         Customer savedCustomer = customerRepository.save(customer);
+        indexAfterCommit(savedCustomer);
         return convertToDTO(savedCustomer);
     }
 
     @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
     public CustomerDTO updateCustomer(Long id, CustomerDTO customerDTO) {
         Customer existingCustomer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Покупатель не найден с id: " + id));
@@ -58,15 +96,19 @@ public class CustomerService {
         existingCustomer.setAddress(customerDTO.getAddress());
 
         Customer updatedCustomer = customerRepository.save(existingCustomer);
+        indexAfterCommit(updatedCustomer);
         return convertToDTO(updatedCustomer);
     }
 
     @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
     public void deleteCustomer(Long id) {
         if (!customerRepository.existsById(id)) {
             throw new ResourceNotFoundException("Покупатель не найден с id: " + id);
         }
         customerRepository.deleteById(id);
+        TransactionHooks.afterCommit(() -> suggestIndex.remove(id));
+        cacheCoherence.customerChanged(id);
     }
 
     @Transactional(readOnly = true)
@@ -76,6 +118,75 @@ public class CustomerService {
         return convertToDTO(customer);
     }
 
+    /**
+     * Подсказки покупателей по началу слова имени или email из префиксного индекса в памяти.
+     */
+    public List<CustomerSuggestion> suggestCustomers(String query, Integer limit) {
+        int effectiveLimit = limit != null ? limit : suggestProperties.getDefaultLimit();
+        if (effectiveLimit <= 0 || effectiveLimit > suggestProperties.getMaxLimit()) {
+            throw new IllegalArgumentException("Количество подсказок должно быть от 1 до " + suggestProperties.getMaxLimit());
+        }
+        return suggestIndex.suggest(query, effectiveLimit);
+    }
+
+    public CustomerSuggestStatistics getSuggestStatistics() {
+        return suggestIndex.getStatistics();
+    }
+
+    /**
+     * Однократное построение индекса подсказок; дальше он обновляется по изменениям покупателей.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSuggestIndex() {
+        List<Object[]> rows = customerRepository.findSuggestFields();
+        List<CustomerSuggestion> suggestions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            suggestions.add(toSuggestion(row));
+        }
+        suggestIndex.replaceAll(suggestions);
+        log.info("Индекс подсказок покупателей построен: {} покупателей", rows.size());
+    }
+
+    /**
+     * Покупатели, изменённые на других узлах: вытесняем их из кэша второго уровня и обновляем подсказки.
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.isFullRefresh()) {
+            cacheRegionService.evictAll(Customer.class);
+            rebuildSuggestIndex();
+            return;
+        }
+        if (event.getCustomerIds().isEmpty()) {
+            return;
+        }
+        event.getCustomerIds().forEach(id -> cacheRegionService.evict(Customer.class, id));
+        Set<Long> missing = new HashSet<>(event.getCustomerIds());
+        for (Object[] row : customerRepository.findSuggestFieldsByIds(event.getCustomerIds())) {
+            missing.remove((Long) row[0]);
+            suggestIndex.put((Long) row[0], (String) row[1], (String) row[2]);
+        }
+        missing.forEach(suggestIndex::remove);
+    }
+
+    private void indexAfterCommit(Customer customer) {
+        Long id = customer.getId();
+        String name = customer.getName();
+        String email = customer.getEmail();
+        TransactionHooks.afterCommit(() -> suggestIndex.put(id, name, email));
+        cacheCoherence.customerChanged(id);
+    }
+
+    private CustomerSuggestion toSuggestion(Object[] row) {
+        return CustomerSuggestion.builder()
+                .id((Long) row[0])
+                .name((String) row[1])
+                .email((String) row[2])
+                .build();
+    }
+
     private CustomerDTO convertToDTO(Customer customer) {
         CustomerDTO dto = new CustomerDTO();
         dto.setId(customer.getId());
@@ -0,0 +1,83 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.cache.CacheRegionService;
+import com.ordermanagement.cache.RegionStatistics;
+import com.ordermanagement.coherence.CacheCoherence;
+import com.ordermanagement.dataset.DatasetGenerator;
+import com.ordermanagement.dataset.DatasetLoadResult;
+import com.ordermanagement.dataset.DatasetLoader;
+import com.ordermanagement.dataset.DatasetProperties;
+import com.ordermanagement.dataset.DatasetSpec;
+import com.ordermanagement.exception.WorkloadRejectedException;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Нагрузочный набор данных заданного масштаба. Загрузка идёт через пул отчётов, чтобы не занимать
+ * соединения оформления заказов; после неё сбрасываются кэши и пересчитываются производные данные.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetService {
+
+    private final DataSource dataSource;
+    private final DatasetProperties properties;
+    private final ProductOrderService productOrderService;
+    private final CacheRegionService cacheRegionService;
+    private final CacheCoherence cacheCoherence;
+
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Workload(WorkloadClass.REPORTING)
+    public void loadOnStartup() {
+        if (properties.isLoadOnStartup()) {
+            load(null, null, null, null);
+        }
+    }
+
+    /**
+     * Загружает набор; параметры, не заданные явно, берутся из ordermanagement.dataset.
+     */
+    @Workload(WorkloadClass.REPORTING)
+    public DatasetLoadResult load(Double scaleFactor, Long seed, LocalDate endDate, Boolean replace) {
+        DatasetSpec spec = DatasetSpec.of(
+                scaleFactor != null ? scaleFactor : properties.getScaleFactor(),
+                seed != null ? seed : properties.getSeed(),
+                endDate != null ? endDate : properties.getEndDate() != null ? properties.getEndDate() : LocalDate.now());
+        if (!loading.compareAndSet(false, true)) {
+            throw new WorkloadRejectedException("Набор данных уже загружается", 60);
+        }
+        try {
+            log.info("Загрузка набора данных: масштаб {}, зерно {}, покупателей {}, товаров {}, заказов {}",
+                    spec.getScaleFactor(), spec.getSeed(), spec.getCustomers(), spec.getProducts(), spec.getOrders());
+            DatasetLoader loader = new DatasetLoader(properties.getBatchSize(), properties.getCopyBufferBytes());
+            DatasetLoadResult result = loader.load(dataSource, new DatasetGenerator(spec),
+                    replace != null ? replace : properties.isReplace());
+
+            productOrderService.rebuildCounters();
+            cacheRegionService.getRegionStatistics().stream()
+                    .map(RegionStatistics::getRegionName)
+                    .forEach(cacheRegionService::evictRegion);
+            cacheCoherence.requestFullRefresh();
+            log.info("Набор данных загружен ({}): {} строк за {} мс", result.getMethod(), result.getTotalRows(),
+                    result.getElapsedMillis());
+            return result;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось загрузить набор данных: " + e.getMessage(), e);
+        } finally {
+            loading.set(false);
+        }
+    }
+}
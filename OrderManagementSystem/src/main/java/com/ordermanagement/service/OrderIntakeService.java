@@ -0,0 +1,178 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.analytics.OrderFlowAnalytics;
+import com.ordermanagement.dto.IntakeStatusDTO;
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.entity.Customer;
+import com.ordermanagement.entity.Order;
+import com.ordermanagement.entity.OrderItem;
+import com.ordermanagement.entity.Product;
+import com.ordermanagement.exception.ResourceNotFoundException;
+import com.ordermanagement.journal.IntakeEntry;
+import com.ordermanagement.journal.IntakeJournal;
+import com.ordermanagement.journal.IntakeJournalProperties;
+import com.ordermanagement.repository.CustomerRepository;
+import com.ordermanagement.repository.OrderRepository;
+import com.ordermanagement.repository.ProductRepository;
+import com.ordermanagement.util.Money;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Быстрый приём заказов через журнал: заказ подтверждается после записи в журнал на диске,
+ * а в базу попадает пакетами фоновым применением.
+ * <p>
+ * Приём ({@link #accept}) не держит ни транзакцию, ни разрешение CHECKOUT на время ожидания сброса журнала:
+ * они нужны только для проверки заказа ({@link OrderIntakeValidator}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "ordermanagement.intake-journal", name = "enabled", havingValue = "true")
+public class OrderIntakeService {
+
+    private final IntakeJournal intakeJournal;
+    private final IntakeJournalProperties properties;
+    private final OrderIntakeValidator orderIntakeValidator;
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final OrderFlowAnalytics orderFlowAnalytics;
+    private final ProductOrderService productOrderService;
+
+    /**
+     * Принимает заказ в журнал: проверка в короткой транзакции, затем запись и ожидание сброса на диск
+     * без соединения с базой.
+     */
+    public IntakeStatusDTO accept(OrderDTO orderDTO) {
+        IntakeEntry entry = orderIntakeValidator.validate(orderDTO);
+        long sequence = intakeJournal.append(entry);
+        boolean durable = false;
+        try {
+            durable = intakeJournal.awaitDurable(sequence, properties.getAcceptTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!durable) {
+            log.warn("Заказ {} записан в журнал, но сброс на диск не подтверждён за {} мс",
+                    entry.getReference(), properties.getAcceptTimeoutMs());
+        }
+
+        IntakeStatusDTO status = new IntakeStatusDTO();
+        status.setReference(entry.getReference().toString());
+        status.setSequence(sequence);
+        status.setStatus(durable ? IntakeStatusDTO.Status.ACCEPTED : IntakeStatusDTO.Status.PENDING);
+        return status;
+    }
+
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CHECKOUT)
+    public IntakeStatusDTO getStatus(String reference) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(reference);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный номер приёма: " + reference);
+        }
+
+        IntakeStatusDTO status = new IntakeStatusDTO();
+        status.setReference(uuid.toString());
+        Long sequence = intakeJournal.findPending(uuid).orElse(null);
+        if (sequence != null) {
+            status.setSequence(sequence);
+            status.setStatus(intakeJournal.isDurable(sequence)
+                    ? IntakeStatusDTO.Status.ACCEPTED : IntakeStatusDTO.Status.PENDING);
+            return status;
+        }
+        String failure = intakeJournal.findFailure(uuid).orElse(null);
+        if (failure != null) {
+            status.setStatus(IntakeStatusDTO.Status.FAILED);
+            status.setMessage(failure);
+            return status;
+        }
+        Long orderId = orderRepository.findIdByIntakeReference(uuid.toString())
+                .orElseThrow(() -> new ResourceNotFoundException("Приём не найден с номером: " + reference));
+        status.setStatus(IntakeStatusDTO.Status.APPLIED);
+        status.setOrderId(orderId);
+        return status;
+    }
+
+    /**
+     * Применяет порцию журнала одной транзакцией. Уже применённые номера приёма пропускаются,
+     * поэтому повтор после сбоя между коммитом и контрольной точкой не создаёт дубликатов.
+     * Возвращает причины отказа для заказов, которые не удалось создать.
+     */
+    @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
+    public Map<UUID, String> applyBatch(List<IntakeEntry> entries) {
+        Set<String> existing = new HashSet<>(orderRepository.findExistingIntakeReferences(
+                entries.stream().map(entry -> entry.getReference().toString()).toList()));
+
+        Map<Long, Customer> customers = customerRepository.findAllById(
+                        entries.stream().map(IntakeEntry::getCustomerId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<Long, Product> products = productRepository.findAllById(
+                        entries.stream().flatMap(entry -> entry.getItems().stream())
+                                .map(IntakeEntry.Item::getProductId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Map<UUID, String> rejected = new LinkedHashMap<>();
+        List<Order> orders = new ArrayList<>(entries.size());
+        for (IntakeEntry entry : entries) {
+            if (existing.contains(entry.getReference().toString())) {
+                continue;
+            }
+            Customer customer = customers.get(entry.getCustomerId());
+            if (customer == null) {
+                rejected.put(entry.getReference(), "Покупатель не найден с id: " + entry.getCustomerId());
+                continue;
+            }
+            Order order = Order.builder()
+                    .customer(customer)
+                    .status(Order.OrderStatus.NEW)
+                    .notes(entry.getNotes())
+                    .orderDate(entry.getAcceptedAt())
+                    .intakeReference(entry.getReference().toString())
+                    .build();
+            String missing = null;
+            for (IntakeEntry.Item line : entry.getItems()) {
+                Product product = products.get(line.getProductId());
+                if (product == null) {
+                    missing = "Товар не найден с id: " + line.getProductId();
+                    break;
+                }
+                order.addItem(OrderItem.builder()
+                        .product(product)
+                        .quantity(line.getQuantity())
+                        .unitPrice(Money.toBigDecimal(line.getUnitPriceMinor()))
+                        .build());
+            }
+            if (missing != null) {
+                rejected.put(entry.getReference(), missing);
+                continue;
+            }
+            orders.add(order);
+        }
+
+        orderRepository.saveAll(orders);
+        orders.forEach(orderFlowAnalytics::recordOrdered);
+        productOrderService.recordOrders(orders);
+        log.info("Из журнала приёма применено заказов: {}, отклонено: {}", orders.size(), rejected.size());
+        return rejected;
+    }
+}
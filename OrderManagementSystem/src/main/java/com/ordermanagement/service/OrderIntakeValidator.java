@@ -0,0 +1,89 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.entity.Product;
+import com.ordermanagement.exception.ResourceNotFoundException;
+import com.ordermanagement.journal.IntakeEntry;
+import com.ordermanagement.repository.CustomerRepository;
+import com.ordermanagement.repository.ProductRepository;
+import com.ordermanagement.util.Money;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка заказа перед записью в журнал приёма: короткая читающая транзакция,
+ * после которой соединение и разрешение CHECKOUT сразу освобождаются.
+ */
+@Service
+@RequiredArgsConstructor
+@Workload(WorkloadClass.CHECKOUT)
+@ConditionalOnProperty(prefix = "ordermanagement.intake-journal", name = "enabled", havingValue = "true")
+public class OrderIntakeValidator {
+
+    private static final BigDecimal MAX_STORED_AMOUNT = Money.toBigDecimal(Money.MAX_STORED_MINOR);
+
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+
+    /**
+     * Проверки те же, что и при обычном создании заказа, но без записи в базу.
+     */
+    @Transactional(readOnly = true)
+    public IntakeEntry validate(OrderDTO orderDTO) {
+        if (!customerRepository.existsById(orderDTO.getCustomerId())) {
+            throw new ResourceNotFoundException("Покупатель не найден с id: " + orderDTO.getCustomerId());
+        }
+        return IntakeEntry.builder()
+                .reference(UUID.randomUUID())
+                .customerId(orderDTO.getCustomerId())
+                .notes(orderDTO.getNotes())
+                .acceptedAt(LocalDateTime.now())
+                .items(validateItems(orderDTO.getItems()))
+                .build();
+    }
+
+    private List<IntakeEntry.Item> validateItems(List<OrderDTO.OrderItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Заказ должен содержать хотя бы один товар");
+        }
+        Set<Long> productIds = items.stream().map(OrderDTO.OrderItemDTO::getProductId).collect(Collectors.toSet());
+        Set<Long> found = productRepository.findAllById(productIds).stream()
+                .map(Product::getId).collect(Collectors.toSet());
+
+        List<IntakeEntry.Item> result = new ArrayList<>(items.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderDTO.OrderItemDTO itemDTO : items) {
+            if (!found.contains(itemDTO.getProductId())) {
+                throw new ResourceNotFoundException("Товар не найден с id: " + itemDTO.getProductId());
+            }
+            if (itemDTO.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Количество товара должно быть больше 0");
+            }
+            BigDecimal unitPrice = itemDTO.getUnitPrice().setScale(Money.SCALE, RoundingMode.HALF_UP);
+            if (unitPrice.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Цена товара должна быть больше 0");
+            }
+            // Сумма заказа и каждой позиции хранится в NUMERIC(10,2): заказ, который база не примет,
+            // не должен попасть в журнал - фоновое применение его только отклонит
+            total = total.add(unitPrice.multiply(BigDecimal.valueOf(itemDTO.getQuantity())));
+            if (total.compareTo(MAX_STORED_AMOUNT) > 0) {
+                throw new IllegalArgumentException("Сумма заказа превышает " + MAX_STORED_AMOUNT.toPlainString());
+            }
+            result.add(new IntakeEntry.Item(itemDTO.getProductId(), itemDTO.getQuantity(), Money.toMinor(unitPrice)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.dto.PaymentDTO;
+import com.ordermanagement.exception.PaymentException;
+import com.ordermanagement.gateway.PaymentAuthorization;
+import com.ordermanagement.gateway.PaymentCharge;
+import com.ordermanagement.gateway.PaymentGatewayClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Оплата заказа. Шлюз вызывается между двумя короткими транзакциями {@link OrderService}:
+ * на время ожидания ответа (таймаут запроса и проверка статуса) не удерживаются ни соединение
+ * с базой, ни блокировка заказа, ни разрешение CHECKOUT.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPaymentService {
+
+    private final OrderService orderService;
+    private final PaymentGatewayClient paymentGatewayClient;
+
+    /**
+     * Недоступность шлюза оставляет попытку незавершённой: повтор оплаты отправит тот же ключ идемпотентности
+     * и не спишет деньги второй раз.
+     */
+    public OrderDTO processOrderPayment(Long orderId, PaymentDTO paymentDTO) {
+        PaymentCharge charge = orderService.beginPayment(orderId, paymentDTO);
+
+        // Отправить запрос в платёжную систему
+        log.info("Вызов платежного шлюза для заказа ID: {} на сумму: {}", orderId, charge.getAmount());
+        PaymentAuthorization authorization = paymentGatewayClient.authorize(charge);
+
+        OrderDTO order = orderService.completePayment(orderId, charge.getIdempotencyKey(), authorization);
+        if (!authorization.isApproved()) {
+            // Если оплата не прошла
+            throw new PaymentException("Оплата не прошла. Пожалуйста, проверьте данные и попробуйте снова.");
+        }
+        return order;
+    }
+}
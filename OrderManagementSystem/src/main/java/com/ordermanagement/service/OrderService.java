@@ -1,26 +1,63 @@
 package com.ordermanagement.service;
 
+import com.ordermanagement.allocation.ProductAvailability;
+import com.ordermanagement.allocation.StockAllocation;
+import com.ordermanagement.allocation.StockAllocator;
+import com.ordermanagement.analytics.OrderFlowAnalytics;
+import com.ordermanagement.coalescing.Coalesced;
+import com.ordermanagement.config.BatchProperties;
+import com.ordermanagement.config.FulfillmentProperties;
+import com.ordermanagement.dto.BatchResultDTO;
+import com.ordermanagement.dto.FulfillmentAckResultDTO;
+import com.ordermanagement.dto.FulfillmentLeaseDTO;
 import com.ordermanagement.dto.OrderDTO;
 import com.ordermanagement.dto.PaymentDTO;
 import com.ordermanagement.entity.*;
 import com.ordermanagement.exception.*;
+import com.ordermanagement.gateway.PaymentAuthorization;
+import com.ordermanagement.gateway.PaymentCharge;
+import com.ordermanagement.outbox.OutboxWriter;
+import com.ordermanagement.projection.FieldSelection;
+import com.ordermanagement.projection.ProjectionQuery;
 import com.ordermanagement.repository.*;
+import com.ordermanagement.util.BatchLookup;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Workload(WorkloadClass.CHECKOUT)
 public class OrderService {
 
+    // Поля заказа для параметра fields и соответствующие атрибуты сущности
+    private static final Map<String, String> ORDER_FIELDS = orderFields();
+    private static final String ITEMS_FIELD = "items";
+    private static final Set<String> ORDER_FIELD_NAMES = orderFieldNames();
+    private static final DateTimeFormatter ORDER_DATE_FORMAT = DateTimeFormatter.ofPattern(OrderDTO.DATE_FORMAT);
+    private static final int ITEMS_QUERY_CHUNK = 1000;
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
@@ -50,6 +87,8 @@ public class OrderService {
         // Сохранение в базу данных
         Order savedOrder = orderRepository.save(order);
         log.info("Заказ создан с ID: {}", savedOrder.getId());
+        orderFlowAnalytics.recordOrdered(savedOrder);
+        productOrderService.recordOrders(List.of(savedOrder));
 
         return convertToDTO(savedOrder);
     }
@@ -68,36 +107,69 @@ public class OrderService {
             throw new IllegalStateException("Невозможно резервировать товары для заказа в статусе: " + order.getStatus());
         }
 
+        List<OrderItem> items = order.getItems();
         List<Reservation> reservations = new ArrayList<>();
 
-        // Для каждого товара в заказе:
-        for (OrderItem item : order.getItems()) {
+        // Распределение позиций по складам по индексу остатков в памяти
+        List<StockAllocation> allocations = allocateItems(items);
+        boolean[] allocated = new boolean[items.size()];
+        allocations.forEach(allocation -> allocated[allocation.getLineIndex()] = true);
+
+        // Списание в едином порядке (товар, склад), чтобы параллельные заказы не блокировали друг друга;
+        // при любой неудаче транзакция откатывает списания на всех складах
+        List<StockAllocation> ordered = new ArrayList<>(allocations);
+        ordered.sort(Comparator.comparingLong(StockAllocation::getProductId)
+                .thenComparingLong(StockAllocation::getWarehouseId));
+        for (StockAllocation allocation : ordered) {
+            OrderItem item = items.get(allocation.getLineIndex());
+            if (!warehouseStockService.reserveStock(
+                    allocation.getProductId(), allocation.getWarehouseId(), allocation.getQuantity())) {
+                throw new ReservationException("Не удалось зарезервировать товар: " + item.getProduct().getName()
+                        + " на складе ID: " + allocation.getWarehouseId());
+            }
+            reservations.add(Reservation.builder()
+                    .order(order)
+                    .product(item.getProduct())
+                    .warehouseId(allocation.getWarehouseId())
+                    .quantityReserved(allocation.getQuantity())
+                    .status(Reservation.ReservationStatus.ACTIVE)
+                    .build());
+        }
+
+        // Для каждого товара в заказе - по возрастанию id товара, как и списания по складам выше:
+        // строки products блокируются в одном порядке для всех заказов независимо от порядка позиций
+        List<Integer> lines = IntStream.range(0, items.size()).boxed()
+                .sorted(Comparator.comparingLong(line -> items.get(line).getProduct().getId()))
+                .toList();
+        for (int line : lines) {
+            OrderItem item = items.get(line);
             Product product = item.getProduct();
             Integer requiredQuantity = item.getQuantity();
 
-            // Проверить наличие на складе
-            if (!productService.checkProductAvailability(product.getId(), requiredQuantity)) {
+            // Товары без остатков по складам проверяются по общему количеству
+            if (!allocated[line] && !productService.checkProductAvailability(product.getId(), requiredQuantity)) {
                 throw new InsufficientStockException(
                         "Недостаточно товара: " + product.getName() +
                                 ". Доступно: " + product.getQuantity() +
                                 ", требуется: " + requiredQuantity);
             }
 
-            // Если достаточно - зарезервировать
+            // Общий остаток товара уменьшается в любом случае
             boolean reserved = productService.reserveProductQuantity(product.getId(), requiredQuantity);
             if (!reserved) {
                 throw new ReservationException("Не удалось зарезервировать товар: " + product.getName());
             }
 
-            // Создаем запись о резервировании
-            Reservation reservation = Reservation.builder()
-                    .order(order)
-                    .product(product)
-                    .quantityReserved(requiredQuantity)
-                    .status(Reservation.ReservationStatus.ACTIVE)
-                    .build();
-
-            reservations.add(reservation);
+            if (!allocated[line]) {
+                // Создаем запись о резервировании
+                reservations.add(Reservation.builder()
+                        .order(order)
+                        .product(product)
+                        .warehouseId(product.getWarehouseId())
+                        .quantityReserved(requiredQuantity)
+                        .status(Reservation.ReservationStatus.ACTIVE)
+                        .build());
+            }
         }
 
         // Сохраняем все резервирования
@@ -113,55 +185,150 @@ public class OrderService {
     }
 
     /**
-     * Процесс 3: Обработка оплаты
+     * Процесс 3: Обработка оплаты, начало попытки. Заказ блокируется, поэтому параллельные оплаты
+     * проходят проверку статуса по очереди; попытка с ключом идемпотентности фиксируется до обращения к шлюзу
+     * (см. {@link OrderPaymentService}). Если исход прошлой попытки неизвестен, повторяется тот же ключ.
      */
     @Transactional
-    public OrderDTO processOrderPayment(Long orderId, PaymentDTO paymentDTO) {
+    public PaymentCharge beginPayment(Long orderId, PaymentDTO paymentDTO) {
         log.info("Обработка оплаты для заказа ID: {}", orderId);
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Заказ не найден с id: " + orderId));
 
         if (order.getStatus() != Order.OrderStatus.RESERVED) {
             throw new IllegalStateException("Невозможно оплатить заказ в статусе: " + order.getStatus());
         }
 
-        // Отправить запрос в платёжную систему (имитация)
-        boolean paymentSuccess = processPaymentThroughGateway(paymentDTO);
+        Payment payment = paymentRepository.findByOrderId(orderId).orElse(null);
+        if (payment == null || payment.getStatus() != Payment.PaymentStatus.PROCESSING) {
+            // Новая попытка: после отклонения повтор без ID транзакции получает новый ключ
+            if (payment == null) {
+                payment = Payment.builder().order(order).build();
+            }
+            payment.setIdempotencyKey("order-" + orderId + "-"
+                    + (paymentDTO.getTransactionId() != null ? paymentDTO.getTransactionId() : UUID.randomUUID()));
+            payment.setAmount(order.getTotalAmount());
+            payment.setPaymentMethod(paymentDTO.getPaymentMethod());
+            payment.setTransactionId(paymentDTO.getTransactionId());
+            payment.setNotes(paymentDTO.getNotes());
+            payment.setStatus(Payment.PaymentStatus.PROCESSING);
+            paymentRepository.save(payment);
+        } else {
+            log.info("Повтор незавершённой попытки оплаты заказа ID: {} с ключом {}",
+                    orderId, payment.getIdempotencyKey());
+        }
 
-        if (paymentSuccess) {
-            // Обработать ответ
-            Payment payment = Payment.builder()
-                    .order(order)
-                    .amount(order.getTotalAmount())
-                    .paymentMethod(paymentDTO.getPaymentMethod())
-                    .status(Payment.PaymentStatus.COMPLETED)
-                    .transactionId(paymentDTO.getTransactionId())
-                    .notes(paymentDTO.getNotes())
-                    .build();
+        // Повтор незавершённой попытки отправляется с сохранёнными суммой и способом оплаты
+        return PaymentCharge.builder()
+                .idempotencyKey(payment.getIdempotencyKey())
+                .orderId(orderId)
+                .amount(payment.getAmount())
+                .paymentMethod(payment.getPaymentMethod())
+                .build();
+    }
 
+    /**
+     * Процесс 3: Обработка оплаты, итог попытки. Одобренный платёж переводит заказ в статус "Оплачен",
+     * отклонённый завершает попытку, и следующая оплата пойдёт с новым ключом.
+     * Попытку, уже завершённую параллельным запросом с тем же ключом, повторно не применяет.
+     */
+    @Transactional
+    public OrderDTO completePayment(Long orderId, String idempotencyKey, PaymentAuthorization authorization) {
+        Order order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Заказ не найден с id: " + orderId));
+        Payment payment = paymentRepository.findByOrderId(orderId)
+                .filter(current -> idempotencyKey.equals(current.getIdempotencyKey()))
+                .orElseThrow(() -> new IllegalStateException("Попытка оплаты заказа заменена другой: " + orderId));
+        if (payment.getStatus() != Payment.PaymentStatus.PROCESSING) {
+            return convertToDTO(order);
+        }
+
+        if (!authorization.isApproved()) {
+            payment.setStatus(Payment.PaymentStatus.FAILED);
             paymentRepository.save(payment);
+            log.info("Оплата заказа ID: {} отклонена: {}", orderId, authorization.getMessage());
+            return convertToDTO(order);
+        }
+
+        // Обработать ответ
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        if (payment.getTransactionId() == null) {
+            payment.setTransactionId(authorization.getReference());
+        }
+        paymentRepository.save(payment);
 
-            // Обновить статус оплаты
-            order.setStatus(Order.OrderStatus.PAID);
+        // Обновить статус оплаты
+        order.setStatus(Order.OrderStatus.PAID);
+        outboxWriter.orderPaid(order, payment);
 
-            // Обновить статус резервирований
-            List<Reservation> reservations = reservationRepository.findByOrderId(orderId);
-            reservations.forEach(r -> r.setStatus(Reservation.ReservationStatus.COMPLETED));
-            reservationRepository.saveAll(reservations);
+        // Обновить статус резервирований
+        List<Reservation> reservations = reservationRepository.findByOrderId(orderId);
+        reservations.forEach(r -> r.setStatus(Reservation.ReservationStatus.COMPLETED));
+        reservationRepository.saveAll(reservations);
 
-            Order updatedOrder = orderRepository.save(order);
+        Order updatedOrder = orderRepository.save(order);
+        orderFlowAnalytics.recordPaid(updatedOrder);
 
-            log.info("Оплата для заказа ID: {} успешно обработана", orderId);
+        log.info("Оплата для заказа ID: {} успешно обработана", orderId);
 
-            return convertToDTO(updatedOrder);
-        } else {
-            // Если оплата не прошла
-            throw new PaymentException("Оплата не прошла. Пожалуйста, проверьте данные и попробуйте снова.");
+        return convertToDTO(updatedOrder);
+    }
+
+    /**
+     * Процесс 4: Комплектация. Комплектовщик захватывает пачку оплаченных заказов в аренду;
+     * параллельные захваты пропускают заблокированные строки и получают разные заказы.
+     */
+    @Transactional
+    public FulfillmentLeaseDTO claimFulfillment(String worker, Integer batchSize) {
+        if (worker == null || worker.isBlank() || worker.length() > 100) {
+            throw new IllegalArgumentException("Имя комплектовщика должно быть от 1 до 100 символов");
+        }
+        int limit = batchSize != null ? batchSize : fulfillmentProperties.getDefaultBatchSize();
+        if (limit <= 0 || limit > fulfillmentProperties.getMaxBatchSize()) {
+            throw new IllegalArgumentException("Размер пачки должен быть от 1 до " + fulfillmentProperties.getMaxBatchSize());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = orderRepository.lockClaimableIds(now, limit);
+        String leaseId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = now.plusSeconds(fulfillmentProperties.getLeaseSeconds());
+        List<OrderDTO> orders = List.of();
+        if (!ids.isEmpty()) {
+            orderRepository.lease(ids, leaseId, worker, expiresAt);
+            orders = orderRepository.findByIdsWithItems(ids).stream()
+                    .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId))
+                    .map(this::convertToDTO)
+                    .toList();
+            log.info("Комплектовщик {} захватил заказов: {}, аренда {}", worker, ids.size(), leaseId);
         }
+
+        FulfillmentLeaseDTO lease = new FulfillmentLeaseDTO();
+        lease.setLeaseId(leaseId);
+        lease.setWorker(worker);
+        lease.setExpiresAt(expiresAt);
+        lease.setOrders(orders);
+        return lease;
+    }
+
+    /**
+     * Подтверждение комплектации: заказы с действующей арендой переходят в статус "Отправлен".
+     */
+    @Transactional
+    public FulfillmentAckResultDTO acknowledgeFulfillment(String leaseId, List<Long> orderIds) {
+        return completeLease(leaseId, orderIds, Order.OrderStatus.SHIPPED);
+    }
+
+    /**
+     * Возврат заказов в очередь до истечения аренды, например когда комплектация невозможна.
+     */
+    @Transactional
+    public FulfillmentAckResultDTO releaseFulfillment(String leaseId, List<Long> orderIds) {
+        return completeLease(leaseId, orderIds, Order.OrderStatus.PAID);
     }
 
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
     public List<OrderDTO> getAllOrders() {
         return orderRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -169,20 +336,73 @@ public class OrderService {
     }
 
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    @Coalesced("order")
     public OrderDTO getOrderById(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Заказ не найден с id: " + id));
         return convertToDTO(order);
     }
 
+    /**
+     * Только запрошенные поля; позиции загружаются одним запросом и только при fields=...,items.
+     */
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public List<Map<String, Object>> getAllOrders(String fields) {
+        return findOrderFields(fields, null, null);
+    }
+
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public Map<String, Object> getOrderById(Long id, String fields) {
+        List<Map<String, Object>> rows = findOrderFields(fields, FieldSelection.ID, id);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Заказ не найден с id: " + id);
+        }
+        return rows.get(0);
+    }
+
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public List<Map<String, Object>> getOrdersByCustomerId(Long customerId, String fields) {
+        return findOrderFields(fields, ORDER_FIELDS.get("customerId"), customerId);
+    }
+
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public BatchResultDTO<OrderDTO> getOrdersByIds(List<Long> ids) {
+        List<Long> distinctIds = BatchLookup.distinctIds(ids, batchProperties.getMaxIds());
+        return BatchLookup.collect(distinctIds, orderRepository.findByIdsWithItems(distinctIds),
+                Order::getId, this::convertToDTO);
+    }
+
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
     public List<OrderDTO> getOrdersByCustomerId(Long customerId) {
         return orderRepository.findByCustomerId(customerId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Страница заказов покупателя по возрастанию id вместе с позициями.
+     */
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public List<OrderDTO> getOrdersByCustomerIdAfter(Long customerId, long afterId, int limit) {
+        List<Long> ids = orderRepository.findIdsByCustomerIdAfter(customerId, afterId, Limit.of(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return orderRepository.findByIdsWithItems(ids).stream()
+                .sorted(Comparator.comparing(Order::getId))
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
     public List<OrderDTO> getOrdersByStatus(Order.OrderStatus status) {
         return orderRepository.findByStatus(status).stream()
                 .map(this::convertToDTO)
@@ -202,33 +422,156 @@ public class OrderService {
 
     @Transactional
     public void cancelOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Заказ не найден с id: " + orderId));
 
         if (order.getStatus() == Order.OrderStatus.CANCELLED) {
             throw new IllegalStateException("Заказ уже отменен");
         }
+        // Списание могло уже пройти: отмена возможна после того, как попытка оплаты завершится
+        if (paymentRepository.findByOrderId(orderId)
+                .filter(payment -> payment.getStatus() == Payment.PaymentStatus.PROCESSING).isPresent()) {
+            throw new IllegalStateException("Оплата заказа ещё не завершена");
+        }
 
-        // Освобождаем резервирования
+        // Освобождаем резервирования в том же порядке блокировок, что и при резервировании:
+        // сначала остатки по складам (товар, склад), затем строки products по возрастанию id товара
         List<Reservation> reservations = reservationRepository.findByOrderId(orderId);
-        for (Reservation reservation : reservations) {
-            if (reservation.getStatus() == Reservation.ReservationStatus.ACTIVE) {
-                productService.releaseProductQuantity(
+        List<Reservation> active = reservations.stream()
+                .filter(reservation -> reservation.getStatus() == Reservation.ReservationStatus.ACTIVE)
+                .sorted(Comparator.comparingLong((Reservation reservation) -> reservation.getProduct().getId())
+                        .thenComparing(Reservation::getWarehouseId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+        for (Reservation reservation : active) {
+            if (reservation.getWarehouseId() != null) {
+                warehouseStockService.releaseStock(
                         reservation.getProduct().getId(),
+                        reservation.getWarehouseId(),
                         reservation.getQuantityReserved()
                 );
-                reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
             }
         }
+        for (Reservation reservation : active) {
+            productService.releaseProductQuantity(
+                    reservation.getProduct().getId(),
+                    reservation.getQuantityReserved()
+            );
+            reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
+        }
         reservationRepository.saveAll(reservations);
 
         // Обновляем статус заказа
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
         orderRepository.save(order);
+        outboxWriter.orderCancelled(order, previousStatus);
 
         log.info("Заказ ID: {} отменен", orderId);
     }
 
+    private FulfillmentAckResultDTO completeLease(String leaseId, List<Long> orderIds, Order.OrderStatus status) {
+        List<Long> distinctIds = BatchLookup.distinctIds(orderIds, batchProperties.getMaxIds());
+        List<Long> leased = orderRepository.lockLeasedIds(distinctIds, leaseId, LocalDateTime.now());
+        // Статус меняется через сущности, а не массовым UPDATE: срабатывают обратные вызовы JPA
+        // и проверка грязных полей, а загруженные в контекст заказы не расходятся с базой
+        for (Order order : orderRepository.findAllById(leased)) {
+            order.setStatus(status);
+            order.setLeaseId(null);
+            order.setLeaseOwner(null);
+            order.setLeaseExpiresAt(null);
+        }
+        Set<Long> leasedSet = new HashSet<>(leased);
+
+        FulfillmentAckResultDTO result = new FulfillmentAckResultDTO();
+        result.setAcknowledged(distinctIds.stream().filter(leasedSet::contains).toList());
+        result.setRejected(distinctIds.stream().filter(id -> !leasedSet.contains(id)).toList());
+        if (!result.getRejected().isEmpty()) {
+            log.warn("Аренда {}: заказы {} уже не принадлежат комплектовщику", leaseId, result.getRejected());
+        }
+        return result;
+    }
+
+    private List<StockAllocation> allocateItems(List<OrderItem> items) {
+        long[] productIds = new long[items.size()];
+        int[] quantities = new int[items.size()];
+        ProductAvailability[] availability = new ProductAvailability[items.size()];
+        for (int line = 0; line < items.size(); line++) {
+            OrderItem item = items.get(line);
+            productIds[line] = item.getProduct().getId();
+            quantities[line] = item.getQuantity();
+            availability[line] = warehouseStockService.getAvailability(item.getProduct().getId());
+        }
+        try {
+            return stockAllocator.allocate(productIds, quantities, availability);
+        } catch (InsufficientStockException e) {
+            // Индекс мог отстать от освобождённых резервов - повторяем по свежим данным из базы
+            for (int line = 0; line < items.size(); line++) {
+                if (!availability[line].isEmpty()) {
+                    availability[line] = warehouseStockService.refreshAvailability(productIds[line]);
+                }
+            }
+            return stockAllocator.allocate(productIds, quantities, availability);
+        }
+    }
+
+    private List<Map<String, Object>> findOrderFields(String fields, String filterPath, Object filterValue) {
+        List<String> selected = FieldSelection.parse(fields, ORDER_FIELD_NAMES);
+        boolean withItems = selected.remove(ITEMS_FIELD);
+        List<Map<String, Object>> rows = projectionQuery.find(Order.class, ORDER_FIELDS, selected,
+                filterPath, filterValue);
+
+        for (Map<String, Object> row : rows) {
+            // Тот же формат даты, что и в OrderDTO
+            if (row.get("orderDate") instanceof LocalDateTime orderDate) {
+                row.put("orderDate", ORDER_DATE_FORMAT.format(orderDate));
+            }
+        }
+        if (withItems && !rows.isEmpty()) {
+            attachItems(rows);
+        }
+        return rows;
+    }
+
+    private void attachItems(List<Map<String, Object>> rows) {
+        Map<Long, List<OrderDTO.OrderItemDTO>> itemsByOrder = new HashMap<>(rows.size() * 2);
+        List<Long> orderIds = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Long orderId = (Long) row.get(FieldSelection.ID);
+            orderIds.add(orderId);
+            itemsByOrder.put(orderId, new ArrayList<>());
+        }
+        for (int from = 0; from < orderIds.size(); from += ITEMS_QUERY_CHUNK) {
+            List<Long> chunk = orderIds.subList(from, Math.min(orderIds.size(), from + ITEMS_QUERY_CHUNK));
+            for (Object[] itemRow : orderRepository.findItemRowsByOrderIds(chunk)) {
+                OrderDTO.OrderItemDTO itemDTO = new OrderDTO.OrderItemDTO();
+                itemDTO.setProductId((Long) itemRow[1]);
+                itemDTO.setQuantity((Integer) itemRow[2]);
+                itemDTO.setUnitPrice((BigDecimal) itemRow[3]);
+                itemsByOrder.get((Long) itemRow[0]).add(itemDTO);
+            }
+        }
+        for (Map<String, Object> row : rows) {
+            row.put(ITEMS_FIELD, itemsByOrder.get((Long) row.get(FieldSelection.ID)));
+        }
+    }
+
+    private static Map<String, String> orderFields() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("id", "id");
+        fields.put("customerId", "customer.id");
+        fields.put("orderDate", "orderDate");
+        fields.put("status", "status");
+        fields.put("totalAmount", "totalAmount");
+        fields.put("notes", "notes");
+        return fields;
+    }
+
+    private static Set<String> orderFieldNames() {
+        Set<String> names = new LinkedHashSet<>(ORDER_FIELDS.keySet());
+        names.add(ITEMS_FIELD);
+        return names;
+    }
+
     private void validateOrderItems(List<OrderDTO.OrderItemDTO> items) {
         if (items == null || items.isEmpty()) {
             throw new IllegalArgumentException("Заказ должен содержать хотя бы один товар");
@@ -255,15 +598,6 @@ public class OrderService {
         }
     }
 
-    private boolean processPaymentThroughGateway(PaymentDTO paymentDTO) {
-        // Имитация вызова платежного шлюза
-        // В реальной системе здесь был бы вызов API платежной системы
-        log.info("Имитация вызова платежного шлюза для суммы: {}", paymentDTO.getAmount());
-
-        // Возвращаем true в 95% случаев для тестирования
-        return Math.random() > 0.05;
-    }
-
     private OrderDTO convertToDTO(Order order) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
@@ -316,4 +650,12 @@ public class OrderService {
 
     // Внедряем ProductService
     private final ProductService productService;
+    private final WarehouseStockService warehouseStockService;
+    private final StockAllocator stockAllocator;
+    private final BatchProperties batchProperties;
+    private final FulfillmentProperties fulfillmentProperties;
+    private final ProjectionQuery projectionQuery;
+    private final OrderFlowAnalytics orderFlowAnalytics;
+    private final OutboxWriter outboxWriter;
+    private final ProductOrderService productOrderService;
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.SettlementReconciliationDTO;
+import com.ordermanagement.exception.ResourceNotFoundException;
+import com.ordermanagement.reconciliation.PaymentIndex;
+import com.ordermanagement.reconciliation.PaymentIndexLoader;
+import com.ordermanagement.reconciliation.ReconciliationProperties;
+import com.ordermanagement.reconciliation.SettlementLineReader;
+import com.ordermanagement.reconciliation.SettlementReconciler;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Сверка файлов расчётов шлюза с таблицей payments: платежи окна один раз читаются в индекс,
+ * затем файл проходит потоком через хеш-соединение - без запроса к базе на строку.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Workload(WorkloadClass.REPORTING)
+public class PaymentReconciliationService {
+
+    private final PaymentIndexLoader paymentIndexLoader;
+    private final ReconciliationProperties properties;
+
+    /**
+     * Сверка файла из каталога расчётов.
+     */
+    public SettlementReconciliationDTO reconcileFile(String fileName, LocalDateTime start, LocalDateTime end) {
+        Path directory = Path.of(properties.getDirectory()).toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException("Недопустимое имя файла расчётов: " + fileName);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Файл расчётов не найден: " + fileName);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return reconcile(fileName, channel, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения файла расчётов " + fileName, e);
+        }
+    }
+
+    /**
+     * Сверка файла, переданного телом запроса; тело читается потоком, не сохраняясь целиком.
+     */
+    public SettlementReconciliationDTO reconcileStream(InputStream body, LocalDateTime start, LocalDateTime end) {
+        try (ReadableByteChannel channel = Channels.newChannel(body)) {
+            return reconcile("upload", channel, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения файла расчётов из запроса", e);
+        }
+    }
+
+    private SettlementReconciliationDTO reconcile(String source, ReadableByteChannel channel,
+                                                  LocalDateTime start, LocalDateTime end) throws IOException {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Начало окна сверки должно быть раньше конца");
+        }
+        if (Duration.between(start, end).compareTo(properties.getMaxWindow()) > 0) {
+            throw new IllegalArgumentException("Окно сверки больше допустимого: " + properties.getMaxWindow());
+        }
+
+        long started = System.nanoTime();
+        PaymentIndex index = paymentIndexLoader.load(start, end);
+        long indexed = System.nanoTime();
+
+        SettlementReconciler reconciler = new SettlementReconciler(index, properties.getSampleLimit());
+        long bytes = SettlementLineReader.read(channel, properties.getBufferBytes(), reconciler);
+        reconciler.finish();
+        long finished = System.nanoTime();
+
+        long joinNanos = Math.max(1, finished - indexed);
+        SettlementReconciliationDTO dto = new SettlementReconciliationDTO();
+        dto.setSource(source);
+        dto.setStart(start);
+        dto.setEnd(end);
+        dto.setLines(reconciler.getLines());
+        dto.setBytes(bytes);
+        dto.setIndexedPayments(index.size());
+        dto.setDuplicatePaymentKeys(index.getDuplicateKeys());
+        dto.setIndexMemoryBytes(index.memoryBytes());
+        dto.setOutcomes(reconciler.getCounts());
+        dto.setDiscrepancies(reconciler.getSamples());
+        dto.setIndexMillis((indexed - started) / 1_000_000);
+        dto.setJoinMillis(joinNanos / 1_000_000);
+        dto.setLinesPerSecond(reconciler.getLines() * 1_000_000_000L / joinNanos);
+
+        log.info("Сверка расчётов {}: строк {}, платежей в окне {}, итоги {}, {} строк/с",
+                source, dto.getLines(), dto.getIndexedPayments(), dto.getOutcomes(), dto.getLinesPerSecond());
+        return dto;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.config.ProductOrdersProperties;
+import com.ordermanagement.dto.ProductOrderPageDTO;
+import com.ordermanagement.dto.ProductOrderSummaryDTO;
+import com.ordermanagement.entity.Order;
+import com.ordermanagement.entity.OrderItem;
+import com.ordermanagement.exception.ResourceNotFoundException;
+import com.ordermanagement.repository.OrderRepository;
+import com.ordermanagement.repository.ProductOrderCountRepository;
+import com.ordermanagement.repository.ProductRepository;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Заказы товара: постраничная сводка по индексу order_items(product_id, order_id) с курсором
+ * по id заказа и счётчик заказов, который обновляется вместе с созданием заказа.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductOrderService {
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final ProductOrderCountRepository productOrderCountRepository;
+    private final ProductOrdersProperties properties;
+
+    /**
+     * Страница заказов товара от новых к старым, начиная с заказов с id меньше before.
+     */
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public ProductOrderPageDTO getProductOrders(Long productId, Long before, Order.OrderStatus status,
+                                                LocalDateTime from, LocalDateTime to, Integer limit) {
+        int pageSize = limit == null ? properties.getDefaultLimit() : limit;
+        if (pageSize < 1 || pageSize > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + properties.getMaxLimit());
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше конца");
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Товар не найден с id: " + productId);
+        }
+
+        List<Object[]> rows = orderRepository.findProductOrderSummaries(productId,
+                before == null ? Long.MAX_VALUE : before, status, from, to, Limit.of(pageSize));
+        List<ProductOrderSummaryDTO> orders = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ProductOrderSummaryDTO dto = new ProductOrderSummaryDTO();
+            dto.setOrderId((Long) row[0]);
+            dto.setOrderDate((LocalDateTime) row[1]);
+            dto.setStatus((Order.OrderStatus) row[2]);
+            dto.setCustomerId((Long) row[3]);
+            dto.setQuantity(((Number) row[4]).longValue());
+            dto.setAmount((BigDecimal) row[5]);
+            orders.add(dto);
+        }
+
+        ProductOrderPageDTO page = new ProductOrderPageDTO();
+        page.setProductId(productId);
+        page.setTotalOrders(productOrderCountRepository.sumByProductId(productId));
+        page.setOrders(orders);
+        page.setNextBefore(orders.size() == pageSize ? orders.get(orders.size() - 1).getOrderId() : null);
+        return page;
+    }
+
+    /**
+     * Учитывает новые заказы в счётчиках их товаров, в транзакции создания заказов.
+     * Сегменты обновляются в порядке (товар, сегмент), чтобы параллельные заказы не взаимоблокировались.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrders(Collection<Order> orders) {
+        int shards = Math.max(1, properties.getCounterShards());
+        Map<Long, Map<Integer, Long>> deltas = new TreeMap<>();
+        for (Order order : orders) {
+            int shard = (int) Math.floorMod(order.getId(), (long) shards);
+            Set<Long> products = new HashSet<>();
+            for (OrderItem item : order.getItems()) {
+                if (products.add(item.getProduct().getId())) {
+                    deltas.computeIfAbsent(item.getProduct().getId(), key -> new TreeMap<>())
+                            .merge(shard, 1L, Long::sum);
+                }
+            }
+        }
+
+        deltas.forEach((productId, byShard) -> byShard.forEach((shard, delta) -> {
+            if (productOrderCountRepository.increment(productId, shard, delta) == 0) {
+                productOrderCountRepository.insertIfAbsent(productId, shard);
+                productOrderCountRepository.increment(productId, shard, delta);
+            }
+        }));
+    }
+
+    /**
+     * Пересчитывает счётчики по позициям заказов; нужен один раз для базы, где заказы были раньше счётчиков.
+     */
+    @Transactional
+    public int rebuildCounters() {
+        productOrderCountRepository.deleteAllCounts();
+        int products = productOrderCountRepository.rebuildFromOrderItems();
+        log.info("Счётчики заказов пересчитаны для {} товаров", products);
+        return products;
+    }
+}
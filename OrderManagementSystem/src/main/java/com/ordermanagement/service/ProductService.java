@@ -1,21 +1,55 @@
 package com.ordermanagement.service;
 
+import com.ordermanagement.cache.CacheRegionService;
+import com.ordermanagement.coalescing.Coalesced;
+import com.ordermanagement.coherence.CacheCoherence;
+import com.ordermanagement.coherence.CacheInvalidationEvent;
+import com.ordermanagement.config.BatchProperties;
+import com.ordermanagement.dto.BatchResultDTO;
 import com.ordermanagement.dto.ProductDTO;
 import com.ordermanagement.entity.Product;
 import com.ordermanagement.exception.ResourceNotFoundException;
+import com.ordermanagement.projection.FieldSelection;
+import com.ordermanagement.projection.ProjectionQuery;
 import com.ordermanagement.repository.ProductRepository;
+import com.ordermanagement.repository.WarehouseStockRepository;
+import com.ordermanagement.stock.LowStockWatcher;
+import com.ordermanagement.util.BatchLookup;
+import com.ordermanagement.util.TransactionHooks;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
+@Workload(WorkloadClass.CATALOG)
 public class ProductService {
 
+    // Поля товара для параметра fields; имена совпадают с атрибутами сущности
+    private static final Map<String, String> PRODUCT_FIELDS = FieldSelection.sameNames(
+            "id", "name", "description", "price", "quantity", "warehouseId", "lowStockThreshold");
+
     private final ProductRepository productRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final CacheRegionService cacheRegionService;
+    private final LowStockWatcher lowStockWatcher;
+    private final StockShardService stockShardService;
+    private final BatchProperties batchProperties;
+    private final ProjectionQuery projectionQuery;
+    private final CacheCoherence cacheCoherence;
 
     @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
@@ -25,31 +59,80 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
+    @Coalesced("product")
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Товар не найден с id: " + id));
         return convertToDTO(product);
     }
 
+    /**
+     * Только запрошенные поля: выбираются из базы только соответствующие столбцы.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProducts(String fields) {
+        List<String> selected = FieldSelection.parse(fields, PRODUCT_FIELDS.keySet());
+        return withCurrentQuantity(projectionQuery.find(Product.class, PRODUCT_FIELDS, selected, null, null));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductById(Long id, String fields) {
+        List<String> selected = FieldSelection.parse(fields, PRODUCT_FIELDS.keySet());
+        List<Map<String, Object>> rows = projectionQuery.find(Product.class, PRODUCT_FIELDS, selected,
+                FieldSelection.ID, id);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Товар не найден с id: " + id);
+        }
+        return withCurrentQuantity(rows).get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public BatchResultDTO<ProductDTO> getProductsByIds(List<Long> ids) {
+        List<Long> distinctIds = BatchLookup.distinctIds(ids, batchProperties.getMaxIds());
+        return BatchLookup.collect(distinctIds, productRepository.findProductsByIds(distinctIds),
+                Product::getId, this::convertToDTO);
+    }
+
     @Transactional
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = convertToEntity(productDTO);
         Product savedProduct = productRepository.save(product);
+        trackStockAfterCommit(savedProduct);
+        cacheCoherence.productChanged(savedProduct.getId());
         return convertToDTO(savedProduct);
     }
 
+    /**
+     * Строка товара блокируется, чтобы сохранение сущности не затёрло параллельные списания.
+     * Для товаров, которые ведутся по складам, количество - сумма остатков по складам и меняется
+     * только через остатки складов; переданное количество в этом случае не применяется.
+     */
     @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
-        Product existingProduct = productRepository.findById(id)
+        Product existingProduct = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Товар не найден с id: " + id));
 
         existingProduct.setName(productDTO.getName());
         existingProduct.setDescription(productDTO.getDescription());
         existingProduct.setPrice(productDTO.getPrice());
-        existingProduct.setQuantity(productDTO.getQuantity());
+        int quantity = productDTO.getQuantity();
+        if (warehouseStockRepository.existsByProductId(id)) {
+            quantity = warehouseStockRepository.getTotalQuantity(id);
+            if (quantity != productDTO.getQuantity()) {
+                log.warn("Количество товара ID: {} задаётся остатками по складам ({}), переданное значение {} не применено",
+                        id, quantity, productDTO.getQuantity());
+            }
+        }
+        existingProduct.setQuantity(quantity);
+        if (stockShardService.isSharded(id)) {
+            stockShardService.redistribute(id, quantity);
+        }
         existingProduct.setWarehouseId(productDTO.getWarehouseId());
+        existingProduct.setLowStockThreshold(productDTO.getLowStockThreshold());
 
         Product updatedProduct = productRepository.save(existingProduct);
+        trackStockAfterCommit(updatedProduct);
+        cacheCoherence.productChanged(id);
         return convertToDTO(updatedProduct);
     }
 
@@ -59,6 +142,8 @@ public class ProductService {
             throw new ResourceNotFoundException("Товар не найден с id: " + id);
         }
         productRepository.deleteById(id);
+        TransactionHooks.afterCommit(() -> lowStockWatcher.untrack(id));
+        cacheCoherence.productChanged(id);
     }
 
     @Transactional(readOnly = true)
@@ -80,6 +165,25 @@ public class ProductService {
         return getAllProducts();
     }
 
+    /**
+     * Страница каталога по возрастанию id, начиная после afterId. Каждая страница - отдельная короткая транзакция,
+     * поэтому медленный клиент потоковой выдачи не удерживает соединение с базой.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsAfter(long afterId, int limit) {
+        return productRepository.findPageAfter(afterId, Limit.of(limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductDTO> searchProductsAfter(String name, BigDecimal minPrice, BigDecimal maxPrice,
+                                                long afterId, int limit) {
+        return productRepository.searchPageAfter(name, minPrice, maxPrice, afterId, Limit.of(limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public List<ProductDTO> getAvailableProducts() {
         return productRepository.findAvailableProducts().stream()
@@ -88,21 +192,115 @@ public class ProductService {
     }
 
     @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
     public boolean reserveProductQuantity(Long productId, Integer quantity) {
-        int rowsAffected = productRepository.reserveProduct(productId, quantity);
-        return rowsAffected > 0;
+        // Для сегментированного товара строка products не блокируется - списание идёт из сегментов
+        StockShardService.ReserveResult result = stockShardService.reserve(productId, quantity);
+        if (result == StockShardService.ReserveResult.NOT_SHARDED) {
+            if (productRepository.reserveProduct(productId, quantity) > 0) {
+                cacheRegionService.evictAfterCommit(Product.class, productId);
+                onStockDelta(productId, -quantity);
+                return true;
+            }
+            // 0 строк: остатка недостаточно или товар сегментирован на другом узле
+            if (!stockShardService.refresh(productId)) {
+                return false;
+            }
+            result = stockShardService.reserve(productId, quantity);
+        }
+        if (result == StockShardService.ReserveResult.RESERVED) {
+            onStockDelta(productId, -quantity);
+            return true;
+        }
+        return false;
     }
 
     @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
     public void releaseProductQuantity(Long productId, Integer quantity) {
-        productRepository.releaseProduct(productId, quantity);
+        boolean released = stockShardService.release(productId, quantity);
+        if (!released) {
+            released = productRepository.releaseProduct(productId, quantity) > 0
+                    || stockShardService.refresh(productId) && stockShardService.release(productId, quantity);
+            cacheRegionService.evictAfterCommit(Product.class, productId);
+        }
+        if (released) {
+            onStockDelta(productId, quantity);
+        }
     }
 
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CHECKOUT)
     public boolean checkProductAvailability(Long productId, Integer requiredQuantity) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Товар не найден с id: " + productId));
-        return product.getQuantity() >= requiredQuantity;
+        return currentQuantity(product) >= requiredQuantity;
+    }
+
+    /**
+     * Однократная загрузка остатков в LowStockWatcher; дальше он обновляется по изменениям.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initializeLowStockWatcher() {
+        List<Object[]> levels = productRepository.findStockLevels();
+        for (Object[] level : levels) {
+            lowStockWatcher.track((Long) level[0], level[1] != null ? ((Number) level[1]).intValue() : 0,
+                    (Integer) level[2]);
+        }
+        log.info("Отслеживание низких остатков запущено для {} товаров", levels.size());
+    }
+
+    /**
+     * Товары, изменённые на других узлах: вытесняем их из кэша второго уровня и перечитываем остатки.
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.isFullRefresh()) {
+            cacheRegionService.evictAll(Product.class);
+            initializeLowStockWatcher();
+            return;
+        }
+        if (event.getProductIds().isEmpty()) {
+            return;
+        }
+        event.getProductIds().forEach(id -> cacheRegionService.evict(Product.class, id));
+        Set<Long> missing = new HashSet<>(event.getProductIds());
+        for (Object[] level : productRepository.findStockLevelsByIds(event.getProductIds())) {
+            missing.remove((Long) level[0]);
+            lowStockWatcher.track((Long) level[0], level[1] != null ? ((Number) level[1]).intValue() : 0,
+                    (Integer) level[2]);
+        }
+        missing.forEach(lowStockWatcher::untrack);
+    }
+
+    private void onStockDelta(Long productId, int delta) {
+        TransactionHooks.afterCommit(() -> lowStockWatcher.onDelta(productId, delta));
+        cacheCoherence.productChanged(productId);
+    }
+
+    private List<Map<String, Object>> withCurrentQuantity(List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            Long id = (Long) row.get(FieldSelection.ID);
+            if (row.containsKey("quantity") && stockShardService.isSharded(id)) {
+                row.put("quantity", stockShardService.getTotalQuantity(id));
+            }
+        }
+        return rows;
+    }
+
+    private int currentQuantity(Product product) {
+        return stockShardService.isSharded(product.getId())
+                ? stockShardService.getTotalQuantity(product.getId())
+                : product.getQuantity();
+    }
+
+    private void trackStockAfterCommit(Product product) {
+        Long id = product.getId();
+        int quantity = product.getQuantity();
+        Integer threshold = product.getLowStockThreshold();
+        TransactionHooks.afterCommit(() -> lowStockWatcher.track(id, quantity, threshold));
     }
 
     private ProductDTO convertToDTO(Product product) {
@@ -111,8 +309,9 @@ public class ProductService {
         dto.setName(product.getName());
         dto.setDescription(product.getDescription());
         dto.setPrice(product.getPrice());
-        dto.setQuantity(product.getQuantity());
+        dto.setQuantity(currentQuantity(product));
         dto.setWarehouseId(product.getWarehouseId());
+        dto.setLowStockThreshold(product.getLowStockThreshold());
         return dto;
     }
 
@@ -123,6 +322,7 @@ public class ProductService {
                 .price(dto.getPrice())
                 .quantity(dto.getQuantity())
                 .warehouseId(dto.getWarehouseId())
+                .lowStockThreshold(dto.getLowStockThreshold())
                 .build();
     }
 }
\ No newline at end of file
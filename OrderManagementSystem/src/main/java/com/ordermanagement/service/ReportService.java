@@ -0,0 +1,54 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.RevenueReportDTO;
+import com.ordermanagement.dto.WarehouseStatisticsDTO;
+import com.ordermanagement.repository.PaymentRepository;
+import com.ordermanagement.repository.ProductRepository;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Workload(WorkloadClass.REPORTING)
+public class ReportService {
+
+    private final ProductRepository productRepository;
+    private final PaymentRepository paymentRepository;
+
+    @Transactional(readOnly = true)
+    public List<WarehouseStatisticsDTO> getWarehouseStatistics() {
+        return productRepository.getWarehouseStatistics().stream()
+                .map(this::convertToWarehouseStatistics)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public RevenueReportDTO getTotalRevenueForPeriod(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше окончания");
+        }
+        BigDecimal revenue = paymentRepository.getTotalRevenueForPeriod(start, end);
+
+        RevenueReportDTO dto = new RevenueReportDTO();
+        dto.setStart(start);
+        dto.setEnd(end);
+        dto.setTotalRevenue(revenue != null ? revenue : BigDecimal.ZERO);
+        return dto;
+    }
+
+    private WarehouseStatisticsDTO convertToWarehouseStatistics(Object[] row) {
+        WarehouseStatisticsDTO dto = new WarehouseStatisticsDTO();
+        dto.setWarehouseId((Long) row[0]);
+        dto.setProductCount(((Number) row[1]).longValue());
+        dto.setTotalQuantity(row[2] != null ? ((Number) row[2]).longValue() : 0L);
+        dto.setTotalValue(row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO);
+        return dto;
+    }
+}
@@ -0,0 +1,239 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.SalesReportDTO;
+import com.ordermanagement.dto.SalesReportDefinitionDTO;
+import com.ordermanagement.report.LongKeyTotals;
+import com.ordermanagement.report.SalesChunkReader;
+import com.ordermanagement.report.SalesReportProperties;
+import com.ordermanagement.report.SalesReportType;
+import com.ordermanagement.util.Money;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import com.ordermanagement.workload.WorkloadContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Отчёты о продажах: период режется на части, части читаются и сворачиваются параллельно
+ * в пуле fork/join, частичные итоги сливаются попарно.
+ * <p>
+ * Весь отчёт занимает одно разрешение класса REPORTING; части выполняются от его имени
+ * через {@link WorkloadContext#callAs}, поэтому соединения берутся из пула отчётов,
+ * а число одновременных чтений ограничено readConcurrency.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Workload(WorkloadClass.REPORTING)
+public class SalesReportService {
+
+    private final SalesChunkReader chunkReader;
+    private final SalesReportProperties properties;
+
+    private ForkJoinPool pool;
+    private Semaphore readPermits;
+
+    // Отчёты по закрытым периодам не меняются и хранятся по принципу LRU
+    private Map<String, SalesReportDTO> cache;
+
+    @PostConstruct
+    void start() {
+        pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        readPermits = new Semaphore(Math.max(1, properties.getReadConcurrency()));
+        int capacity = Math.max(0, properties.getCacheEntries());
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SalesReportDTO> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    public List<SalesReportDefinitionDTO> getDefinitions() {
+        return Arrays.stream(SalesReportType.values())
+                .map(type -> {
+                    SalesReportDefinitionDTO dto = new SalesReportDefinitionDTO();
+                    dto.setType(type.name());
+                    dto.setDescription(type.getDescription());
+                    dto.setKeyName(type.getKeyName());
+                    return dto;
+                })
+                .toList();
+    }
+
+    public SalesReportDTO getReport(SalesReportType type, LocalDateTime start, LocalDateTime end, Integer limit) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше окончания");
+        }
+        if (Duration.between(start, end).compareTo(properties.getMaxPeriod()) > 0) {
+            throw new IllegalArgumentException("Период отчёта не может превышать " + properties.getMaxPeriod().toDays() + " дней");
+        }
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Ограничение числа строк должно быть положительным");
+        }
+
+        boolean closed = end.isBefore(LocalDate.now().atStartOfDay());
+        String cacheKey = type + "|" + start + "|" + end + "|" + limit;
+        if (closed) {
+            SalesReportDTO cached = cache.get(cacheKey);
+            if (cached != null) {
+                return copyFromCache(cached);
+            }
+        }
+
+        long startedAt = System.nanoTime();
+        // Границы включительные, как в отчёте о выручке: читаем полуинтервал [start, end + 1 нс)
+        LocalDateTime[] bounds = split(start, end.plusNanos(1));
+        LongKeyTotals totals = pool.invoke(new ChunkTask(type, bounds, 0, bounds.length - 1));
+
+        SalesReportDTO report = toReport(type, start, end, bounds.length - 1, totals, limit);
+        report.setElapsedMillis((System.nanoTime() - startedAt) / 1_000_000);
+        log.debug("Отчёт {} за {} - {}: частей {}, ключей {}, {} мс",
+                type, start, end, bounds.length - 1, totals.size(), report.getElapsedMillis());
+
+        if (closed) {
+            cache.put(cacheKey, report);
+        }
+        return report;
+    }
+
+    LocalDateTime[] split(LocalDateTime from, LocalDateTime to) {
+        Duration chunk = properties.getChunk();
+        Duration period = Duration.between(from, to);
+        long maxChunks = Math.max(1, properties.getMaxChunks());
+        if (period.dividedBy(chunk) >= maxChunks) {
+            chunk = period.dividedBy(maxChunks).plusNanos(1);
+        }
+        List<LocalDateTime> bounds = new ArrayList<>();
+        LocalDateTime cursor = from;
+        bounds.add(cursor);
+        while (cursor.isBefore(to)) {
+            cursor = cursor.plus(chunk);
+            bounds.add(cursor.isBefore(to) ? cursor : to);
+        }
+        if (bounds.size() == 1) {
+            bounds.add(to);
+        }
+        return bounds.toArray(LocalDateTime[]::new);
+    }
+
+    private LongKeyTotals readChunk(SalesReportType type, LocalDateTime from, LocalDateTime to) {
+        readPermits.acquireUninterruptibly();
+        try {
+            return WorkloadContext.callAs(WorkloadClass.REPORTING, () -> chunkReader.read(type, from, to));
+        } finally {
+            readPermits.release();
+        }
+    }
+
+    private SalesReportDTO toReport(SalesReportType type, LocalDateTime start, LocalDateTime end,
+                                    int chunks, LongKeyTotals totals, Integer limit) {
+        long[] keys = new long[totals.size()];
+        long[] total = new long[2];
+        int[] index = {0};
+        totals.forEach((key, amount, quantity) -> {
+            keys[index[0]++] = key;
+            total[0] = Money.add(total[0], amount);
+            total[1] += quantity;
+        });
+
+        Comparator<Long> order = type.isChronological()
+                ? Comparator.naturalOrder()
+                : Comparator.<Long>comparingLong(totals::getAmount).reversed().thenComparing(Comparator.naturalOrder());
+        List<SalesReportDTO.Row> rows = Arrays.stream(keys).boxed()
+                .sorted(order)
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .map(key -> {
+                    SalesReportDTO.Row row = new SalesReportDTO.Row();
+                    row.setKey(type.formatKey(key));
+                    row.setRevenue(Money.toBigDecimal(totals.getAmount(key)));
+                    row.setQuantity(totals.getQuantity(key));
+                    return row;
+                })
+                .toList();
+
+        SalesReportDTO report = new SalesReportDTO();
+        report.setType(type.name());
+        report.setDescription(type.getDescription());
+        report.setKeyName(type.getKeyName());
+        report.setStart(start);
+        report.setEnd(end);
+        report.setChunks(chunks);
+        report.setTotalRevenue(Money.toBigDecimal(total[0]));
+        report.setTotalQuantity(total[1]);
+        report.setRows(rows);
+        return report;
+    }
+
+    private SalesReportDTO copyFromCache(SalesReportDTO cached) {
+        SalesReportDTO copy = new SalesReportDTO();
+        copy.setType(cached.getType());
+        copy.setDescription(cached.getDescription());
+        copy.setKeyName(cached.getKeyName());
+        copy.setStart(cached.getStart());
+        copy.setEnd(cached.getEnd());
+        copy.setChunks(cached.getChunks());
+        copy.setTotalRevenue(cached.getTotalRevenue());
+        copy.setTotalQuantity(cached.getTotalQuantity());
+        copy.setRows(cached.getRows());
+        copy.setFromCache(true);
+        return copy;
+    }
+
+    // Части [lo, hi) массива границ: делим пополам, левую половину отдаём в пул, правую считаем сами
+    private class ChunkTask extends RecursiveTask<LongKeyTotals> {
+
+        private final SalesReportType type;
+        private final LocalDateTime[] bounds;
+        private final int lo;
+        private final int hi;
+
+        ChunkTask(SalesReportType type, LocalDateTime[] bounds, int lo, int hi) {
+            this.type = type;
+            this.bounds = bounds;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected LongKeyTotals compute() {
+            if (hi - lo == 1) {
+                return readChunk(type, bounds[lo], bounds[hi]);
+            }
+            int mid = (lo + hi) >>> 1;
+            ChunkTask left = new ChunkTask(type, bounds, lo, mid);
+            left.fork();
+            LongKeyTotals right = new ChunkTask(type, bounds, mid, hi).compute();
+            LongKeyTotals leftTotals = left.join();
+            // Сливаем меньшую таблицу в большую
+            if (leftTotals.size() >= right.size()) {
+                leftTotals.merge(right);
+                return leftTotals;
+            }
+            right.merge(leftTotals);
+            return right;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.coherence.CacheCoherence;
+import com.ordermanagement.coherence.CacheInvalidationEvent;
+import com.ordermanagement.dto.StockShardsDTO;
+import com.ordermanagement.entity.Product;
+import com.ordermanagement.entity.ProductStockShard;
+import com.ordermanagement.exception.ResourceNotFoundException;
+import com.ordermanagement.repository.ProductRepository;
+import com.ordermanagement.repository.ProductStockShardRepository;
+import com.ordermanagement.stock.StockShardProperties;
+import com.ordermanagement.util.TransactionHooks;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Сегментированный остаток для «горячих» товаров: доступное количество разложено по N строкам
+ * product_stock_shards, и параллельные резервирования блокируют разные строки, а не одну строку products.
+ * <p>
+ * Для сегментированного товара products.quantity - снимок на момент последней перебалансировки;
+ * точное значение - сумма по сегментам ({@link #getTotalQuantity}).
+ * <p>
+ * Источник истины - products.stock_shards; карта {@code shardCounts} - её копия на узле. Если копия отстала
+ * (режим переключён на другом узле), списание из строки products или из сегментов затрагивает 0 строк,
+ * и вызывающий код перечитывает состояние товара через {@link #refresh}.
+ * Блокировки берутся в порядке: строка products, затем сегменты по номерам.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Workload(WorkloadClass.CHECKOUT)
+public class StockShardService {
+
+    private final ProductStockShardRepository shardRepository;
+    private final ProductRepository productRepository;
+    private final StockShardProperties properties;
+    private final CacheCoherence cacheCoherence;
+
+    // Число сегментов по товарам, для которых режим включён
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Результат списания из сегментов. NOT_SHARDED - сегментов у товара нет, списывать из строки products.
+     */
+    public enum ReserveResult {
+        RESERVED,
+        INSUFFICIENT,
+        NOT_SHARDED
+    }
+
+    public boolean isSharded(Long productId) {
+        return shardCounts.containsKey(productId);
+    }
+
+    /**
+     * Перечитывает режим товара из базы; true - остаток товара разделён на сегменты.
+     */
+    @Transactional(readOnly = true)
+    public boolean refresh(Long productId) {
+        Integer shardCount = productRepository.findStockShards(productId).orElse(null);
+        if (shardCount == null) {
+            shardCounts.remove(productId);
+            return false;
+        }
+        shardCounts.put(productId, shardCount);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public StockShardsDTO getShards(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Товар не найден с id: " + productId);
+        }
+        List<ProductStockShard> shards = shardRepository.findByProductIdOrderByShardNo(productId);
+        StockShardsDTO dto = new StockShardsDTO();
+        dto.setProductId(productId);
+        dto.setShardCount(shards.size());
+        dto.setTotalQuantity(shards.stream().mapToLong(ProductStockShard::getQuantity).sum());
+        dto.setShards(shards.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        return dto;
+    }
+
+    /**
+     * Точный остаток сегментированного товара одним запросом.
+     */
+    @Transactional(readOnly = true)
+    public int getTotalQuantity(Long productId) {
+        return shardRepository.getTotalQuantity(productId).intValue();
+    }
+
+    @Transactional
+    public StockShardsDTO enableSharding(Long productId, int shardCount) {
+        if (shardCount < 2 || shardCount > properties.getMaxShards()) {
+            throw new IllegalArgumentException("Число сегментов должно быть от 2 до " + properties.getMaxShards());
+        }
+        // Блокировка строки: параллельные списания из products.quantity дождутся фиксации
+        // и затем не найдут строку (stock_shards уже задан)
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Товар не найден с id: " + productId));
+        if (product.getStockShards() != null) {
+            throw new IllegalStateException("Остаток товара уже разделён на сегменты");
+        }
+
+        int[] distribution = distribute(product.getQuantity(), shardCount);
+        List<ProductStockShard> shards = new ArrayList<>(shardCount);
+        for (int shardNo = 0; shardNo < shardCount; shardNo++) {
+            shards.add(ProductStockShard.builder()
+                    .productId(productId)
+                    .shardNo(shardNo)
+                    .quantity(distribution[shardNo])
+                    .build());
+        }
+        shardRepository.saveAll(shards);
+        product.setStockShards(shardCount);
+        productRepository.save(product);
+
+        TransactionHooks.afterCommit(() -> shardCounts.put(productId, shardCount));
+        cacheCoherence.productChanged(productId);
+        log.info("Остаток товара ID: {} разделён на {} сегментов", productId, shardCount);
+        return getShards(productId);
+    }
+
+    @Transactional
+    public void disableSharding(Long productId) {
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Товар не найден с id: " + productId));
+        if (product.getStockShards() == null) {
+            throw new IllegalStateException("Остаток товара не разделён на сегменты");
+        }
+
+        int total = 0;
+        for (Object[] shard : shardRepository.lockShards(productId)) {
+            total += ((Number) shard[1]).intValue();
+        }
+        shardRepository.deleteByProductId(productId);
+        product.setQuantity(total);
+        product.setStockShards(null);
+        productRepository.save(product);
+
+        TransactionHooks.afterCommit(() -> shardCounts.remove(productId));
+        cacheCoherence.productChanged(productId);
+        log.info("Сегменты остатка товара ID: {} объединены, остаток: {}", productId, total);
+    }
+
+    /**
+     * Выравнивает остаток между сегментами и обновляет снимок в products.quantity.
+     */
+    @Transactional
+    public StockShardsDTO rebalance(Long productId) {
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Товар не найден с id: " + productId));
+        if (product.getStockShards() == null) {
+            throw new IllegalStateException("Остаток товара не разделён на сегменты");
+        }
+        List<Object[]> shards = shardRepository.lockShards(productId);
+        int total = 0;
+        for (Object[] shard : shards) {
+            total += ((Number) shard[1]).intValue();
+        }
+        writeDistribution(productId, shards, total);
+        product.setQuantity(total);
+        productRepository.save(product);
+        cacheCoherence.productChanged(productId);
+        return getShards(productId);
+    }
+
+    /**
+     * Новое абсолютное количество сегментированного товара (редактирование, поступление на склад).
+     * Снимок в products.quantity записывает вызывающий код, уже заблокировавший строку товара.
+     */
+    @Transactional
+    public void redistribute(Long productId, int total) {
+        writeDistribution(productId, shardRepository.lockShards(productId), total);
+    }
+
+    /**
+     * Изменение остатка на {@code delta} (поступление на склад, списание со склада) поверх текущей суммы сегментов,
+     * поэтому параллельные резервирования из сегментов не теряются. Сумма не опускается ниже нуля.
+     */
+    @Transactional
+    public void adjust(Long productId, int delta) {
+        List<Object[]> shards = shardRepository.lockShards(productId);
+        int total = 0;
+        for (Object[] shard : shards) {
+            total += ((Number) shard[1]).intValue();
+        }
+        writeDistribution(productId, shards, Math.max(0, total + delta));
+    }
+
+    /**
+     * Резервирование: сначала один сегмент, выбранный случайно или по потоку, затем остальные по кругу.
+     * Если ни в одном сегменте не хватает, но хватает в сумме - все сегменты блокируются по порядку,
+     * количество списывается и остаток сразу перебалансируется. Строка products при этом не блокируется.
+     */
+    @Transactional
+    public ReserveResult reserve(Long productId, int quantity) {
+        Integer shardCount = shardCounts.get(productId);
+        if (shardCount == null) {
+            return ReserveResult.NOT_SHARDED;
+        }
+        int start = selectShard(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (shardRepository.reserveFromShard(productId, (start + i) % shardCount, quantity) > 0) {
+                return ReserveResult.RESERVED;
+            }
+        }
+
+        List<Object[]> shards = shardRepository.lockShards(productId);
+        if (shards.isEmpty()) {
+            // Сегменты объединены на другом узле
+            shardCounts.remove(productId);
+            return ReserveResult.NOT_SHARDED;
+        }
+        int total = 0;
+        for (Object[] shard : shards) {
+            total += ((Number) shard[1]).intValue();
+        }
+        if (total < quantity) {
+            return ReserveResult.INSUFFICIENT;
+        }
+        log.debug("Резервирование товара ID: {} из нескольких сегментов, перебалансировка", productId);
+        writeDistribution(productId, shards, total - quantity);
+        return ReserveResult.RESERVED;
+    }
+
+    /**
+     * Возврат в один из сегментов; false - сегментов у товара нет, возвращать в строку products.
+     */
+    @Transactional
+    public boolean release(Long productId, int quantity) {
+        Integer shardCount = shardCounts.get(productId);
+        if (shardCount == null) {
+            return false;
+        }
+        if (shardRepository.releaseToShard(productId, selectShard(shardCount), quantity) > 0) {
+            return true;
+        }
+        shardCounts.remove(productId);
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public void loadShardedProducts() {
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (Object[] row : productRepository.findShardedProducts()) {
+            loaded.put((Long) row[0], (Integer) row[1]);
+        }
+        shardCounts.putAll(loaded);
+        shardCounts.keySet().retainAll(loaded.keySet());
+        if (!shardCounts.isEmpty()) {
+            log.info("Сегментированный остаток включён для {} товаров", shardCounts.size());
+        }
+    }
+
+    /**
+     * Режим сегментов, переключённый на других узлах: при полном обновлении перечитываются все товары,
+     * иначе только изменённые.
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CATALOG)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.isFullRefresh()) {
+            loadShardedProducts();
+            return;
+        }
+        if (event.getProductIds().isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (Object[] row : productRepository.findShardedProductsByIds(event.getProductIds())) {
+            loaded.put((Long) row[0], (Integer) row[1]);
+        }
+        for (Long productId : event.getProductIds()) {
+            Integer shardCount = loaded.get(productId);
+            if (shardCount != null) {
+                shardCounts.put(productId, shardCount);
+            } else {
+                shardCounts.remove(productId);
+            }
+        }
+    }
+
+    private void writeDistribution(Long productId, List<Object[]> lockedShards, int total) {
+        int[] distribution = distribute(total, lockedShards.size());
+        for (int i = 0; i < lockedShards.size(); i++) {
+            int shardNo = ((Number) lockedShards.get(i)[0]).intValue();
+            shardRepository.setShardQuantity(productId, shardNo, distribution[i]);
+        }
+    }
+
+    private int selectShard(int shardCount) {
+        if (properties.getSelection() == StockShardProperties.Selection.THREAD_AFFINE) {
+            return (int) Math.floorMod(Thread.currentThread().getId(), (long) shardCount);
+        }
+        return ThreadLocalRandom.current().nextInt(shardCount);
+    }
+
+    static int[] distribute(int total, int shardCount) {
+        int[] distribution = new int[shardCount];
+        int base = total / shardCount;
+        int remainder = total % shardCount;
+        for (int i = 0; i < shardCount; i++) {
+            distribution[i] = base + (i < remainder ? 1 : 0);
+        }
+        return distribution;
+    }
+
+    private StockShardsDTO.Shard convertToDTO(ProductStockShard shard) {
+        StockShardsDTO.Shard dto = new StockShardsDTO.Shard();
+        dto.setShardNo(shard.getShardNo());
+        dto.setQuantity(shard.getQuantity());
+        return dto;
+    }
+}
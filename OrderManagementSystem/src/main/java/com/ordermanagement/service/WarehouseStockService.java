@@ -0,0 +1,192 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.allocation.ProductAvailability;
+import com.ordermanagement.allocation.StockAvailabilityIndex;
+import com.ordermanagement.cache.CacheRegionService;
+import com.ordermanagement.coherence.CacheCoherence;
+import com.ordermanagement.coherence.CacheInvalidationEvent;
+import com.ordermanagement.dto.WarehouseStockDTO;
+import com.ordermanagement.entity.Product;
+import com.ordermanagement.entity.WarehouseStock;
+import com.ordermanagement.exception.ResourceNotFoundException;
+import com.ordermanagement.repository.ProductRepository;
+import com.ordermanagement.repository.WarehouseRepository;
+import com.ordermanagement.repository.WarehouseStockRepository;
+import com.ordermanagement.stock.LowStockWatcher;
+import com.ordermanagement.util.TransactionHooks;
+import com.ordermanagement.workload.Workload;
+import com.ordermanagement.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Остатки товаров по складам и поддержка индекса {@link StockAvailabilityIndex}.
+ * Поле products.quantity хранит сумму остатков по складам для товаров, которые ведутся по складам.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Workload(WorkloadClass.CATALOG)
+public class WarehouseStockService {
+
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductRepository productRepository;
+    private final StockAvailabilityIndex availabilityIndex;
+    private final LowStockWatcher lowStockWatcher;
+    private final StockShardService stockShardService;
+    private final CacheCoherence cacheCoherence;
+    private final CacheRegionService cacheRegionService;
+
+    @Transactional(readOnly = true)
+    public List<WarehouseStockDTO> getStock(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Товар не найден с id: " + productId);
+        }
+        return warehouseStockRepository.findByProductId(productId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
+    public WarehouseStockDTO setStock(Long productId, Long warehouseId, Integer quantity) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Товар не найден с id: " + productId);
+        }
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new ResourceNotFoundException("Склад не найден с id: " + warehouseId);
+        }
+
+        // Строка склада блокируется, а в products.quantity прибавляется только разница: параллельные
+        // резервирования уменьшают то же поле, и перезапись суммой по складам потеряла бы их списания
+        WarehouseStock stock = warehouseStockRepository.findForUpdate(productId, warehouseId)
+                .orElseGet(() -> WarehouseStock.builder().productId(productId).warehouseId(warehouseId).quantity(0).build());
+        int delta = quantity - stock.getQuantity();
+        stock.setQuantity(quantity);
+        WarehouseStock saved = warehouseStockRepository.save(stock);
+
+        if (delta != 0) {
+            productRepository.adjustQuantity(productId, delta);
+            if (stockShardService.isSharded(productId)) {
+                stockShardService.adjust(productId, delta);
+            }
+            cacheRegionService.evictAfterCommit(Product.class, productId);
+            TransactionHooks.afterCommit(() -> lowStockWatcher.onDelta(productId, delta));
+        }
+
+        TransactionHooks.afterCompletion(() -> availabilityIndex.invalidate(productId));
+        cacheCoherence.productChanged(productId);
+        log.info("Остаток товара ID: {} на складе ID: {} установлен: {}", productId, warehouseId, quantity);
+        return convertToDTO(saved);
+    }
+
+    /**
+     * Снимок остатков товара; при промахе индекса загружается из базы.
+     * Пустой снимок означает, что товар не ведётся по складам.
+     */
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CHECKOUT)
+    public ProductAvailability getAvailability(Long productId) {
+        ProductAvailability availability = availabilityIndex.get(productId);
+        if (availability == null) {
+            availability = toAvailability(warehouseStockRepository.findAvailabilityByProductId(productId));
+            availabilityIndex.put(productId, availability);
+        }
+        return availability;
+    }
+
+    /**
+     * Перечитывает снимок из базы - когда индекс мог отстать от параллельных изменений.
+     */
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.CHECKOUT)
+    public ProductAvailability refreshAvailability(Long productId) {
+        ProductAvailability availability = toAvailability(warehouseStockRepository.findAvailabilityByProductId(productId));
+        availabilityIndex.put(productId, availability);
+        return availability;
+    }
+
+    @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
+    public boolean reserveStock(Long productId, Long warehouseId, Integer quantity) {
+        int rowsAffected = warehouseStockRepository.reserveStock(productId, warehouseId, quantity);
+        if (rowsAffected > 0) {
+            TransactionHooks.afterCommit(() -> availabilityIndex.applyDelta(productId, warehouseId, -quantity));
+            cacheCoherence.productChanged(productId);
+        } else {
+            // Индекс разошёлся с базой - перечитаем товар при следующем обращении
+            availabilityIndex.invalidate(productId);
+        }
+        return rowsAffected > 0;
+    }
+
+    @Transactional
+    @Workload(WorkloadClass.CHECKOUT)
+    public void releaseStock(Long productId, Long warehouseId, Integer quantity) {
+        if (warehouseStockRepository.releaseStock(productId, warehouseId, quantity) > 0) {
+            TransactionHooks.afterCommit(() -> availabilityIndex.applyDelta(productId, warehouseId, quantity));
+            cacheCoherence.productChanged(productId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        Map<Long, List<Object[]>> rowsByProduct = new HashMap<>();
+        for (Object[] row : warehouseStockRepository.findAllAvailability()) {
+            rowsByProduct.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, ProductAvailability> snapshot = new HashMap<>(rowsByProduct.size() * 2);
+        rowsByProduct.forEach((productId, rows) -> snapshot.put(productId, toAvailability(rows)));
+        availabilityIndex.replaceAll(snapshot);
+        log.info("Индекс остатков по складам построен: {} товаров", snapshot.size());
+    }
+
+    /**
+     * Остатки, изменённые на других узлах, перечитываются из базы при следующем обращении.
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.isFullRefresh()) {
+            rebuildIndex();
+            return;
+        }
+        event.getProductIds().forEach(availabilityIndex::invalidate);
+    }
+
+    private ProductAvailability toAvailability(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return ProductAvailability.EMPTY;
+        }
+        long[] warehouseIds = new long[rows.size()];
+        int[] available = new int[rows.size()];
+        int[] priorities = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            warehouseIds[i] = (Long) row[1];
+            available[i] = (Integer) row[2];
+            priorities[i] = row[3] != null ? (Integer) row[3] : 0;
+        }
+        return new ProductAvailability(warehouseIds, available, priorities);
+    }
+
+    private WarehouseStockDTO convertToDTO(WarehouseStock stock) {
+        WarehouseStockDTO dto = new WarehouseStockDTO();
+        dto.setProductId(stock.getProductId());
+        dto.setWarehouseId(stock.getWarehouseId());
+        dto.setQuantity(stock.getQuantity());
+        return dto;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ordermanagement.snapshot;
+
+import com.ordermanagement.entity.Product;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+public class CatalogSnapshot {
+    LocalDateTime takenAt;
+    List<Product> products;
+}
@@ -0,0 +1,188 @@
+package com.ordermanagement.snapshot;
+
+import com.ordermanagement.entity.Product;
+import com.ordermanagement.util.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Двоичный формат снимка каталога. Файл читается через отображение в память без промежуточного копирования.
+ * Формат: [int магия][int версия][long момент снимка][int число товаров][записи...][int crc32 записей].
+ * Необязательные поля предваряются байтом-признаком; цены хранятся в копейках.
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x4F4D5343;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 3 + Long.BYTES;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * Записывает снимок во временный файл и атомарно подменяет им прежний,
+     * поэтому при сбое во время записи остаётся предыдущий целый снимок.
+     */
+    public static void write(Path path, CatalogSnapshot snapshot) throws IOException {
+        List<byte[][]> strings = new ArrayList<>(snapshot.getProducts().size());
+        long size = HEADER_SIZE + Integer.BYTES;
+        for (Product product : snapshot.getProducts()) {
+            byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+            byte[] description = product.getDescription() != null
+                    ? product.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+            strings.add(new byte[][]{name, description});
+            size += recordSize(name, description);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Снимок каталога превышает 2 ГБ");
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = parent.resolve(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION)
+                    .putLong(snapshot.getTakenAt().toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .putInt(snapshot.getProducts().size());
+            for (int i = 0; i < snapshot.getProducts().size(); i++) {
+                writeRecord(buffer, snapshot.getProducts().get(i), strings.get(i)[0], strings.get(i)[1]);
+            }
+            buffer.putInt(checksum(buffer, HEADER_SIZE, buffer.position() - HEADER_SIZE));
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Читает снимок; повреждённый или несовместимый файл отклоняется исключением.
+     */
+    public static CatalogSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + Integer.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Некорректный размер снимка каталога: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Неизвестный формат снимка каталога");
+            }
+            int bodyLength = (int) size - HEADER_SIZE - Integer.BYTES;
+            if (checksum(buffer, HEADER_SIZE, bodyLength) != buffer.getInt(HEADER_SIZE + bodyLength)) {
+                throw new IOException("Контрольная сумма снимка каталога не совпадает");
+            }
+            LocalDateTime takenAt = fromEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            List<Product> products = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                products.add(readRecord(buffer));
+            }
+            return new CatalogSnapshot(takenAt, products);
+        }
+    }
+
+    private static long recordSize(byte[] name, byte[] description) {
+        return Long.BYTES + Integer.BYTES + name.length
+                + 1 + (description != null ? Integer.BYTES + description.length : 0)
+                + Long.BYTES + Integer.BYTES
+                + 1 + Long.BYTES
+                + 1 + Integer.BYTES
+                + 1 + Integer.BYTES
+                + 1 + Long.BYTES
+                + 1 + Long.BYTES;
+    }
+
+    private static void writeRecord(ByteBuffer buffer, Product product, byte[] name, byte[] description) {
+        buffer.putLong(product.getId());
+        buffer.putInt(name.length).put(name);
+        putBytes(buffer, description);
+        buffer.putLong(Money.toMinor(product.getPrice()));
+        buffer.putInt(product.getQuantity());
+        putLong(buffer, product.getWarehouseId());
+        putInt(buffer, product.getLowStockThreshold());
+        putInt(buffer, product.getStockShards());
+        putLong(buffer, toEpochMilli(product.getCreatedAt()));
+        putLong(buffer, toEpochMilli(product.getUpdatedAt()));
+    }
+
+    private static Product readRecord(ByteBuffer buffer) {
+        Product product = new Product();
+        product.setId(buffer.getLong());
+        product.setName(getString(buffer));
+        product.setDescription(buffer.get() != 0 ? getString(buffer) : null);
+        product.setPrice(Money.toBigDecimal(buffer.getLong()));
+        product.setQuantity(buffer.getInt());
+        product.setWarehouseId(getLong(buffer));
+        product.setLowStockThreshold(getInt(buffer));
+        product.setStockShards(getInt(buffer));
+        Long createdAt = getLong(buffer);
+        product.setCreatedAt(createdAt != null ? fromEpochMilli(createdAt) : null);
+        Long updatedAt = getLong(buffer);
+        product.setUpdatedAt(updatedAt != null ? fromEpochMilli(updatedAt) : null);
+        return product;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        buffer.put((byte) (value != null ? 1 : 0));
+        if (value != null) {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static void putLong(ByteBuffer buffer, Long value) {
+        buffer.put((byte) (value != null ? 1 : 0));
+        buffer.putLong(value != null ? value : 0L);
+    }
+
+    private static void putInt(ByteBuffer buffer, Integer value) {
+        buffer.put((byte) (value != null ? 1 : 0));
+        buffer.putInt(value != null ? value : 0);
+    }
+
+    private static Long getLong(ByteBuffer buffer) {
+        boolean present = buffer.get() != 0;
+        long value = buffer.getLong();
+        return present ? value : null;
+    }
+
+    private static Integer getInt(ByteBuffer buffer) {
+        boolean present = buffer.get() != 0;
+        int value = buffer.getInt();
+        return present ? value : null;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Long toEpochMilli(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : null;
+    }
+
+    private static LocalDateTime fromEpochMilli(long value) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1000), (int) Math.floorMod(value, 1000) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
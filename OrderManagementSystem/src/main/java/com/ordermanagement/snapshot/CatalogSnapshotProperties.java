@@ -0,0 +1,22 @@
+package com.ordermanagement.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.catalog-snapshot")
+public class CatalogSnapshotProperties {
+
+    private boolean enabled = true;
+
+    private String file = "data/catalog.snapshot";
+
+    // Период сохранения снимка; 0 - только при остановке приложения
+    private long intervalSeconds = 600;
+
+    // Запас при догрузке изменений: транзакции, начатые до снимка и зафиксированные после,
+    // имеют updated_at раньше момента снимка
+    private long reconcileMarginSeconds = 60;
+}
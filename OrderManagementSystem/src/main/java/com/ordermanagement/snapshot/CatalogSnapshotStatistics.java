@@ -0,0 +1,28 @@
+package com.ordermanagement.snapshot;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder(toBuilder = true)
+public class CatalogSnapshotStatistics {
+    String file;
+    // Прогрев выполнен из снимка (false - холодный старт с полной загрузкой каталога из базы)
+    boolean warmFromSnapshot;
+    LocalDateTime snapshotTakenAt;
+    int snapshotProducts;
+    // Товары, изменённые в базе после снимка и загруженные заново
+    int reconciledProducts;
+    // Товары из снимка, удалённые из базы
+    int removedProducts;
+    int warmedEntries;
+    long loadMillis;
+    long reconcileMillis;
+    // Время от запуска JVM до прогретого кэша каталога
+    long timeToWarmMillis;
+    LocalDateTime lastSavedAt;
+    int lastSavedProducts;
+    long lastSaveMillis;
+}
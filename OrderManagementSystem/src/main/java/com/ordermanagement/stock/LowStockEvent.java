@@ -0,0 +1,25 @@
+package com.ordermanagement.stock;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Пересечение порога низкого остатка; публикуется как событие приложения.
+ */
+@Value
+@Builder
+public class LowStockEvent {
+
+    public enum Type {
+        ENTERED,
+        CLEARED
+    }
+
+    Type type;
+    long productId;
+    int quantity;
+    int threshold;
+    LocalDateTime occurredAt;
+}
@@ -0,0 +1,15 @@
+package com.ordermanagement.stock;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+public class LowStockItem {
+    long productId;
+    int quantity;
+    int threshold;
+    LocalDateTime since;
+}
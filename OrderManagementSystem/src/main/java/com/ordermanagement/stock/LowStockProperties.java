@@ -0,0 +1,19 @@
+package com.ordermanagement.stock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.low-stock")
+public class LowStockProperties {
+
+    // Порог для товаров без собственного low_stock_threshold
+    private int defaultThreshold = 10;
+
+    // Товар выходит из списка, только когда остаток превысит порог на эту долю (не меньше чем на 1 шт.)
+    private double hysteresis = 0.2;
+
+    private int recentEventCapacity = 200;
+}
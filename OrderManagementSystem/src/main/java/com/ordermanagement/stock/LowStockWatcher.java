@@ -0,0 +1,158 @@
+package com.ordermanagement.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Отслеживание низких остатков по изменениям количества вместо периодического сканирования таблицы.
+ * <p>
+ * Для каждого товара хранится последнее известное количество и порог. Товар попадает в список,
+ * когда остаток опускается до порога, и покидает его, только когда поднимается выше
+ * порога плюс полоса гистерезиса, - так колебания около порога не порождают поток событий.
+ * Текущий список хранится отдельно, поэтому его чтение стоит O(k), где k - число товаров в нём.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockWatcher {
+
+    private final LowStockProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Level> levels = new ConcurrentHashMap<>();
+    private final Map<Long, LowStockItem> lowStock = new ConcurrentHashMap<>();
+    private final Deque<LowStockEvent> recentEvents = new ArrayDeque<>();
+
+    /**
+     * Абсолютное количество и порог товара: создание, редактирование, загрузка, импорт.
+     *
+     * @param threshold собственный порог товара или {@code null} для порога по умолчанию
+     */
+    public void track(long productId, int quantity, Integer threshold) {
+        int effectiveThreshold = threshold != null ? threshold : properties.getDefaultThreshold();
+        Level level = levels.computeIfAbsent(productId, Level::new);
+        LowStockEvent event;
+        synchronized (level) {
+            level.quantity = quantity;
+            level.threshold = effectiveThreshold;
+            event = evaluate(level);
+        }
+        publish(event);
+    }
+
+    /**
+     * Изменение количества на {@code delta}: резервирование, освобождение, поступление.
+     * Товары, количество которых ещё не известно, пропускаются.
+     */
+    public void onDelta(long productId, int delta) {
+        Level level = levels.get(productId);
+        if (level == null) {
+            return;
+        }
+        LowStockEvent event;
+        synchronized (level) {
+            level.quantity += delta;
+            event = evaluate(level);
+        }
+        publish(event);
+    }
+
+    public void untrack(long productId) {
+        levels.remove(productId);
+        lowStock.remove(productId);
+    }
+
+    public boolean isTracked(long productId) {
+        return levels.containsKey(productId);
+    }
+
+    public List<LowStockItem> getLowStock() {
+        return new ArrayList<>(lowStock.values());
+    }
+
+    public List<LowStockEvent> getRecentEvents() {
+        synchronized (recentEvents) {
+            return new ArrayList<>(recentEvents);
+        }
+    }
+
+    private LowStockEvent evaluate(Level level) {
+        if (!level.low && level.quantity <= level.threshold) {
+            level.low = true;
+            LocalDateTime now = LocalDateTime.now();
+            lowStock.put(level.productId, LowStockItem.builder()
+                    .productId(level.productId)
+                    .quantity(level.quantity)
+                    .threshold(level.threshold)
+                    .since(now)
+                    .build());
+            return event(LowStockEvent.Type.ENTERED, level, now);
+        }
+        if (level.low && level.quantity > level.threshold + band(level.threshold)) {
+            level.low = false;
+            lowStock.remove(level.productId);
+            return event(LowStockEvent.Type.CLEARED, level, LocalDateTime.now());
+        }
+        if (level.low) {
+            // Обновляем количество в списке без нового события
+            lowStock.computeIfPresent(level.productId, (id, item) -> LowStockItem.builder()
+                    .productId(id)
+                    .quantity(level.quantity)
+                    .threshold(level.threshold)
+                    .since(item.getSince())
+                    .build());
+        }
+        return null;
+    }
+
+    private int band(int threshold) {
+        return Math.max(1, (int) Math.ceil(threshold * properties.getHysteresis()));
+    }
+
+    private LowStockEvent event(LowStockEvent.Type type, Level level, LocalDateTime now) {
+        return LowStockEvent.builder()
+                .type(type)
+                .productId(level.productId)
+                .quantity(level.quantity)
+                .threshold(level.threshold)
+                .occurredAt(now)
+                .build();
+    }
+
+    private void publish(LowStockEvent event) {
+        if (event == null) {
+            return;
+        }
+        synchronized (recentEvents) {
+            if (recentEvents.size() >= properties.getRecentEventCapacity()) {
+                recentEvents.pollFirst();
+            }
+            recentEvents.addLast(event);
+        }
+        log.info("Остаток товара ID: {} {} порога {}: {} шт.", event.getProductId(),
+                event.getType() == LowStockEvent.Type.ENTERED ? "опустился до" : "поднялся выше",
+                event.getThreshold(), event.getQuantity());
+        eventPublisher.publishEvent(event);
+    }
+
+    private static final class Level {
+        private final long productId;
+        private int quantity;
+        private int threshold;
+        private boolean low;
+
+        private Level(long productId) {
+            this.productId = productId;
+        }
+    }
+}
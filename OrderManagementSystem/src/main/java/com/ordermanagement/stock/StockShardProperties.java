@@ -0,0 +1,22 @@
+package com.ordermanagement.stock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.stock-shards")
+public class StockShardProperties {
+
+    public enum Selection {
+        // Случайный сегмент на каждое резервирование
+        RANDOM,
+        // Сегмент по номеру потока: повторные резервирования потока попадают в одну строку
+        THREAD_AFFINE
+    }
+
+    private Selection selection = Selection.RANDOM;
+
+    private int maxShards = 64;
+}
@@ -0,0 +1,26 @@
+package com.ordermanagement.streaming;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.async-read")
+public class AsyncReadProperties {
+
+    // Потоки, выполняющие чтение вместо потоков Tomcat; больше пула CATALOG смысла не имеет
+    private int threads = 16;
+
+    // Очередь ожидающих чтений; при переполнении - 503
+    private int queueCapacity = 2000;
+
+    // Размер страницы потоковой выдачи: столько строк читается из базы за одну транзакцию
+    private int pageSize = 200;
+
+    // Таймаут коротких асинхронных чтений (заказ по id)
+    private long timeoutMs = 30_000;
+
+    // Таймаут потоковой выдачи NDJSON; 0 - без ограничения, поток идёт, пока клиент читает
+    private long streamTimeoutMs = 0;
+}
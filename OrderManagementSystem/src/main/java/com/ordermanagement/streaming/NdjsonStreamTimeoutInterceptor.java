@@ -0,0 +1,35 @@
+package com.ordermanagement.streaming;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Отдельный таймаут для потоков NDJSON. Общий таймаут асинхронных запросов рассчитан на короткие чтения,
+ * а поток всего каталога может идти дольше; оборванный по таймауту поток уже отправил 200,
+ * и клиент не отличил бы его от полного.
+ * <p>
+ * Заголовки потокового ответа записываются до начала асинхронной обработки, поэтому поток узнаётся
+ * по типу содержимого ответа.
+ */
+@RequiredArgsConstructor
+public class NdjsonStreamTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType(NdjsonStreamer.MEDIA_TYPE);
+
+    private final AsyncReadProperties properties;
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (request instanceof AsyncWebRequest asyncRequest && response != null && response.getContentType() != null
+                && NDJSON.isCompatibleWith(MediaType.parseMediaType(response.getContentType()))) {
+            asyncRequest.setTimeout(properties.getStreamTimeoutMs());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ordermanagement.streaming;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Потоковая выдача списка в формате NDJSON (один JSON-объект на строку) постранично по возрастанию id.
+ * Следующая страница читается только после того, как предыдущая записана в сокет: медленный клиент
+ * блокирует запись и тем самым притормаживает чтение из базы, а между страницами соединение с базой не удерживается.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonStreamer {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final JsonMapper jsonMapper;
+    private final AsyncReadProperties properties;
+
+    @FunctionalInterface
+    public interface PageSource<T> {
+        List<T> nextPage(long afterId, int limit);
+    }
+
+    public <T> StreamingResponseBody stream(PageSource<T> source, ToLongFunction<T> idExtractor) {
+        int pageSize = properties.getPageSize();
+        return (OutputStream output) -> {
+            long afterId = 0;
+            List<T> page;
+            do {
+                page = source.nextPage(afterId, pageSize);
+                for (T item : page) {
+                    // writeValue(OutputStream) закрыл бы поток ответа после первого объекта
+                    output.write(jsonMapper.writeValueAsBytes(item));
+                    output.write(NEW_LINE);
+                }
+                output.flush();
+                if (!page.isEmpty()) {
+                    afterId = idExtractor.applyAsLong(page.get(page.size() - 1));
+                }
+            } while (page.size() == pageSize);
+        };
+    }
+}
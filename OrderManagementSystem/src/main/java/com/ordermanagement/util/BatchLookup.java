@@ -0,0 +1,55 @@
+package com.ordermanagement.util;
+
+import com.ordermanagement.dto.BatchResultDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Пакетная выборка по списку идентификаторов: проверка размера списка и сборка ответа
+ * в порядке запроса с отдельным списком ненайденных идентификаторов.
+ */
+public final class BatchLookup {
+
+    private BatchLookup() {
+    }
+
+    /**
+     * Уникальные идентификаторы в порядке первого появления.
+     */
+    public static List<Long> distinctIds(List<Long> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Список идентификаторов не может быть пустым");
+        }
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > maxIds) {
+            throw new IllegalArgumentException("Слишком много идентификаторов в запросе: "
+                    + distinct.size() + ", максимум: " + maxIds);
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    public static <E, D> BatchResultDTO<D> collect(List<Long> ids, Collection<E> found,
+                                                   Function<E, Long> idOf, Function<E, D> mapper) {
+        Map<Long, E> byId = new HashMap<>(found.size() * 2);
+        for (E entity : found) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        BatchResultDTO<D> result = new BatchResultDTO<>();
+        for (Long id : ids) {
+            E entity = byId.get(id);
+            if (entity != null) {
+                result.getItems().add(mapper.apply(entity));
+            } else {
+                result.getMissingIds().add(id);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ordermanagement.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежные суммы в минимальных единицах валюты (копейках) в виде {@code long}.
+ * BigDecimal используется только на границах: API (DTO) и хранение (NUMERIC(10,2)).
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    // Наибольшая сумма, помещающаяся в NUMERIC(10,2): 99 999 999.99
+    public static final long MAX_STORED_MINOR = 9_999_999_999L;
+
+    private Money() {
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static long multiply(long unitMinor, int quantity) {
+        return Math.multiplyExact(unitMinor, (long) quantity);
+    }
+
+    public static long add(long left, long right) {
+        return Math.addExact(left, right);
+    }
+
+    public static long subtract(long left, long right) {
+        return Math.subtractExact(left, right);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ordermanagement.workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Относит метод сервиса (или все методы класса) к классу нагрузки.
+ * Аннотация на методе важнее аннотации на классе; во вложенных вызовах
+ * действует класс нагрузки самого внешнего вызова.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+
+    WorkloadClass value();
+}
@@ -0,0 +1,53 @@
+package com.ordermanagement.workload;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Назначает вызову класс нагрузки до начала транзакции, чтобы соединение
+ * было взято из пула нужного класса, и ограничивает число параллельных вызовов.
+ * Выполняется сразу после объединения одинаковых вызовов (CoalescingAspect).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class WorkloadAspect {
+
+    private final WorkloadRegistry registry;
+
+    @Around("@within(com.ordermanagement.workload.Workload) || @annotation(com.ordermanagement.workload.Workload)")
+    public Object assignWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (WorkloadContext.current() != null) {
+            return joinPoint.proceed();
+        }
+
+        WorkloadPool pool = registry.get(resolve(joinPoint));
+        pool.acquire();
+        WorkloadContext.set(pool.getWorkloadClass());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.clear();
+            pool.release();
+        }
+    }
+
+    private WorkloadClass resolve(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(method, Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Workload.class);
+        }
+        return workload != null ? workload.value() : registry.getDefaultWorkload();
+    }
+}
@@ -0,0 +1,13 @@
+package com.ordermanagement.workload;
+
+/**
+ * Классы нагрузки, у каждого из которых свой пул соединений и лимит параллельности.
+ */
+public enum WorkloadClass {
+    // Оформление заказа: резервирование, оплата, отмена
+    CHECKOUT,
+    // Чтение каталога и истории заказов
+    CATALOG,
+    // Отчёты и выгрузки
+    REPORTING
+}
@@ -0,0 +1,44 @@
+package com.ordermanagement.workload;
+
+import java.util.function.Supplier;
+
+/**
+ * Класс нагрузки текущего потока.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadClass current() {
+        return CURRENT.get();
+    }
+
+    static void set(WorkloadClass workloadClass) {
+        CURRENT.set(workloadClass);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Выполняет часть уже допущенного вызова в другом потоке от имени его класса нагрузки:
+     * соединение берётся из пула этого класса, повторное разрешение не запрашивается.
+     */
+    public static <T> T callAs(WorkloadClass workloadClass, Supplier<T> task) {
+        WorkloadClass previous = CURRENT.get();
+        CURRENT.set(workloadClass);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
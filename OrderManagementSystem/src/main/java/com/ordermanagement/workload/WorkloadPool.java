@@ -0,0 +1,117 @@
+package com.ordermanagement.workload;
+
+import com.ordermanagement.exception.WorkloadRejectedException;
+import com.ordermanagement.monitoring.LatencyHistogram;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Изолированный отсек (bulkhead) для класса нагрузки: собственный пул соединений Hikari,
+ * семафор параллельности и метрики ожидания.
+ */
+public class WorkloadPool implements IMetricsTracker {
+
+    private final WorkloadClass workloadClass;
+    private final WorkloadProperties.Pool settings;
+    private final Semaphore permits;
+    private HikariDataSource dataSource;
+
+    private final LatencyHistogram permitWaitMicros = new LatencyHistogram();
+    private final LatencyHistogram connectionWaitMicros = new LatencyHistogram();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder connectionTimeouts = new LongAdder();
+
+    // Экспоненциально сглаженное время ожидания соединения - сигнал перегрузки для допуска запросов
+    private static final double WAIT_SMOOTHING = 0.1;
+    private volatile double recentConnectionWaitMicros;
+
+    public WorkloadPool(WorkloadClass workloadClass, WorkloadProperties.Pool settings) {
+        this.workloadClass = workloadClass;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxConcurrency(), true);
+    }
+
+    public void attach(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public WorkloadClass getWorkloadClass() {
+        return workloadClass;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public void acquire() {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = settings.getAcquireTimeout() <= 0
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(settings.getAcquireTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        permitWaitMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+        if (!acquired) {
+            rejections.increment();
+            throw new WorkloadRejectedException(
+                    "Превышен лимит параллельных запросов класса нагрузки " + workloadClass, 1);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos);
+        connectionWaitMicros.record(micros);
+        updateRecentConnectionWait(micros);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        connectionTimeouts.increment();
+        updateRecentConnectionWait(TimeUnit.MILLISECONDS.toMicros(settings.getConnectionTimeout()));
+    }
+
+    public double getRecentConnectionWaitMicros() {
+        return recentConnectionWaitMicros;
+    }
+
+    private void updateRecentConnectionWait(long micros) {
+        // Гонки между потоками допустимы: значение используется только как приблизительный сигнал
+        recentConnectionWaitMicros = recentConnectionWaitMicros * (1 - WAIT_SMOOTHING) + micros * WAIT_SMOOTHING;
+    }
+
+    public WorkloadStatistics getStatistics() {
+        HikariPoolMXBean pool = dataSource != null ? dataSource.getHikariPoolMXBean() : null;
+        return WorkloadStatistics.builder()
+                .workloadClass(workloadClass)
+                .poolName(dataSource != null ? dataSource.getPoolName() : null)
+                .maximumPoolSize(settings.getMaximumPoolSize())
+                .maxConcurrency(settings.getMaxConcurrency())
+                .inFlight(settings.getMaxConcurrency() - permits.availablePermits())
+                .queued(permits.getQueueLength())
+                .activeConnections(pool != null ? pool.getActiveConnections() : 0)
+                .idleConnections(pool != null ? pool.getIdleConnections() : 0)
+                .threadsAwaitingConnection(pool != null ? pool.getThreadsAwaitingConnection() : 0)
+                .rejections(rejections.sum())
+                .connectionTimeouts(connectionTimeouts.sum())
+                .permitWaitP50Micros(permitWaitMicros.percentile(0.50))
+                .permitWaitP99Micros(permitWaitMicros.percentile(0.99))
+                .connectionWaitP50Micros(connectionWaitMicros.percentile(0.50))
+                .connectionWaitP99Micros(connectionWaitMicros.percentile(0.99))
+                .connectionWaitMaxMicros(connectionWaitMicros.getMax())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ordermanagement.workload;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ordermanagement.workloads")
+public class WorkloadProperties {
+
+    // Класс нагрузки для вызовов без аннотации @Workload
+    private WorkloadClass defaultWorkload = WorkloadClass.CHECKOUT;
+
+    private Map<WorkloadClass, Pool> pools = new EnumMap<>(WorkloadClass.class);
+
+    public Pool pool(WorkloadClass workloadClass) {
+        return pools.computeIfAbsent(workloadClass, key -> new Pool());
+    }
+
+    @Data
+    public static class Pool {
+
+        private int maximumPoolSize = 5;
+
+        private int minimumIdle = 1;
+
+        // Ожидание свободного соединения в пуле, мс
+        private long connectionTimeout = 5000;
+
+        // Максимум одновременно выполняющихся вызовов этого класса
+        private int maxConcurrency = 20;
+
+        // Ожидание разрешения на вызов, мс; 0 - отказ сразу
+        private long acquireTimeout = 500;
+    }
+}
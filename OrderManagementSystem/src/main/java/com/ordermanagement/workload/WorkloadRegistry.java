@@ -0,0 +1,43 @@
+package com.ordermanagement.workload;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class WorkloadRegistry implements DisposableBean {
+
+    private final WorkloadProperties properties;
+    private final Map<WorkloadClass, WorkloadPool> pools = new EnumMap<>(WorkloadClass.class);
+
+    public synchronized WorkloadPool get(WorkloadClass workloadClass) {
+        return pools.computeIfAbsent(workloadClass, key -> new WorkloadPool(key, properties.pool(key)));
+    }
+
+    public WorkloadClass getDefaultWorkload() {
+        return properties.getDefaultWorkload();
+    }
+
+    public List<WorkloadStatistics> getStatistics() {
+        List<WorkloadStatistics> result = new ArrayList<>();
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            result.add(get(workloadClass).getStatistics());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        pools.values().forEach(pool -> {
+            if (pool.getDataSource() != null) {
+                pool.getDataSource().close();
+            }
+        });
+    }
+}
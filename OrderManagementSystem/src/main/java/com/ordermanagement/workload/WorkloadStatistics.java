@@ -0,0 +1,25 @@
+package com.ordermanagement.workload;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class WorkloadStatistics {
+    WorkloadClass workloadClass;
+    String poolName;
+    int maximumPoolSize;
+    int maxConcurrency;
+    int inFlight;
+    int queued;
+    int activeConnections;
+    int idleConnections;
+    int threadsAwaitingConnection;
+    long rejections;
+    long connectionTimeouts;
+    long permitWaitP50Micros;
+    long permitWaitP99Micros;
+    long connectionWaitP50Micros;
+    long connectionWaitP99Micros;
+    long connectionWaitMaxMicros;
+}
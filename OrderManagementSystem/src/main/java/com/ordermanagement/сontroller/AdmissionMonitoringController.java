@@ -0,0 +1,24 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.admission.AdmissionGate;
+import com.ordermanagement.admission.AdmissionStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/monitoring/admission")
+@RequiredArgsConstructor
+@Tag(name = "Допуск запросов", description = "Адаптивный лимит параллельности и отброшенные запросы")
+public class AdmissionMonitoringController {
+
+    private final AdmissionGate admissionGate;
+
+    @GetMapping
+    @Operation(summary = "Получить текущий лимит, число запросов в работе и счётчики отказов")
+    public ResponseEntity<AdmissionStatistics> getAdmissionStatistics() {
+        return ResponseEntity.ok(admissionGate.getStatistics());
+    }
+}
@@ -0,0 +1,31 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.analytics.OrderFlowAnalytics;
+import com.ordermanagement.analytics.TopList;
+import com.ordermanagement.analytics.TrafficDimension;
+import com.ordermanagement.analytics.TrafficMetric;
+import com.ordermanagement.analytics.TrafficWindow;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Аналитика", description = "API рейтингов товаров и покупателей по потоку заказов")
+public class AnalyticsController {
+
+    private final OrderFlowAnalytics orderFlowAnalytics;
+
+    @GetMapping("/top")
+    @Operation(summary = "Получить рейтинг товаров или покупателей за последние 5 минут (5m), час (1h) или сутки (1d)")
+    public ResponseEntity<TopList> getTop(
+            @RequestParam(defaultValue = "PRODUCT") TrafficDimension dimension,
+            @RequestParam(defaultValue = "UNITS") TrafficMetric metric,
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(orderFlowAnalytics.getTop(dimension, metric, TrafficWindow.fromCode(window), limit));
+    }
+}
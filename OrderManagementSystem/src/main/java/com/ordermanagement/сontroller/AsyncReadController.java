@@ -0,0 +1,68 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.dto.ProductDTO;
+import com.ordermanagement.service.OrderService;
+import com.ordermanagement.service.ProductService;
+import com.ordermanagement.streaming.NdjsonStreamer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующий вариант чтения каталога и истории заказов: поток Tomcat освобождается сразу,
+ * списки отдаются потоком NDJSON постранично. Изменение данных - только через основные контроллеры.
+ */
+@RestController
+@RequestMapping("/async")
+@RequiredArgsConstructor
+@Tag(name = "Асинхронное чтение", description = "Чтение каталога и заказов без удержания потоков Tomcat")
+public class AsyncReadController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType(NdjsonStreamer.MEDIA_TYPE);
+
+    private final ProductService productService;
+    private final OrderService orderService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final ThreadPoolTaskExecutor asyncReadExecutor;
+
+    @GetMapping(value = "/products", produces = NdjsonStreamer.MEDIA_TYPE)
+    @Operation(summary = "Потоковая выдача всех товаров (NDJSON)")
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        return ResponseEntity.ok().contentType(NDJSON)
+                .body(ndjsonStreamer.stream(productService::getProductsAfter, ProductDTO::getId));
+    }
+
+    @GetMapping(value = "/products/search", produces = NdjsonStreamer.MEDIA_TYPE)
+    @Operation(summary = "Потоковый поиск товаров по названию и диапазону цен (NDJSON)")
+    public ResponseEntity<StreamingResponseBody> streamSearch(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        return ResponseEntity.ok().contentType(NDJSON)
+                .body(ndjsonStreamer.stream((afterId, limit) ->
+                        productService.searchProductsAfter(name, minPrice, maxPrice, afterId, limit), ProductDTO::getId));
+    }
+
+    @GetMapping("/orders/{id}")
+    @Operation(summary = "Получить заказ по ID без удержания потока Tomcat")
+    public CompletableFuture<ResponseEntity<OrderDTO>> getOrderById(@PathVariable Long id) {
+        return CompletableFuture.supplyAsync(() -> ResponseEntity.ok(orderService.getOrderById(id)), asyncReadExecutor);
+    }
+
+    @GetMapping(value = "/orders/customer/{customerId}", produces = NdjsonStreamer.MEDIA_TYPE)
+    @Operation(summary = "Потоковая выдача заказов покупателя (NDJSON)")
+    public ResponseEntity<StreamingResponseBody> streamOrdersByCustomerId(@PathVariable Long customerId) {
+        return ResponseEntity.ok().contentType(NDJSON)
+                .body(ndjsonStreamer.stream((afterId, limit) ->
+                        orderService.getOrdersByCustomerIdAfter(customerId, afterId, limit), OrderDTO::getId));
+    }
+}
@@ -0,0 +1,31 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.coherence.CacheCoherence;
+import com.ordermanagement.coherence.CacheCoherenceStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/cache/coherence")
+@RequiredArgsConstructor
+@Tag(name = "Согласование кэшей", description = "Инвалидация локальных кэшей между экземплярами через LISTEN/NOTIFY")
+public class CacheCoherenceController {
+
+    private final CacheCoherence cacheCoherence;
+
+    @GetMapping
+    @Operation(summary = "Получить показатели канала инвалидации")
+    public ResponseEntity<CacheCoherenceStatistics> getStatistics() {
+        return ResponseEntity.ok(cacheCoherence.getStatistics());
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Полностью обновить локальные кэши на всех узлах")
+    public ResponseEntity<CacheCoherenceStatistics> requestFullRefresh() {
+        cacheCoherence.requestFullRefresh();
+        return ResponseEntity.ok(cacheCoherence.getStatistics());
+    }
+}
@@ -0,0 +1,38 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.cache.CacheRegionService;
+import com.ordermanagement.cache.RegionStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache/regions")
+@RequiredArgsConstructor
+@Tag(name = "Кэш второго уровня", description = "Статистика и управление регионами кэша")
+public class CacheController {
+
+    private final CacheRegionService cacheRegionService;
+
+    @GetMapping
+    @Operation(summary = "Получить статистику всех регионов кэша")
+    public ResponseEntity<List<RegionStatistics>> getRegionStatistics() {
+        return ResponseEntity.ok(cacheRegionService.getRegionStatistics());
+    }
+
+    @GetMapping("/{regionName}")
+    @Operation(summary = "Получить статистику региона кэша")
+    public ResponseEntity<RegionStatistics> getRegionStatistics(@PathVariable String regionName) {
+        return ResponseEntity.ok(cacheRegionService.getRegionStatistics(regionName));
+    }
+
+    @DeleteMapping("/{regionName}")
+    @Operation(summary = "Очистить регион кэша")
+    public ResponseEntity<Void> evictRegion(@PathVariable String regionName) {
+        cacheRegionService.evictRegion(regionName);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.service.CatalogSnapshotService;
+import com.ordermanagement.snapshot.CatalogSnapshotStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/cache/catalog-snapshot")
+@RequiredArgsConstructor
+@Tag(name = "Снимок каталога", description = "Прогрев кэша товаров из файла снимка после перезапуска")
+public class CatalogSnapshotController {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    @GetMapping
+    @Operation(summary = "Получить показатели прогрева и последнего сохранения снимка")
+    public ResponseEntity<CatalogSnapshotStatistics> getStatistics() {
+        return ResponseEntity.ok(catalogSnapshotService.getStatistics());
+    }
+
+    @PostMapping
+    @Operation(summary = "Сохранить снимок каталога сейчас")
+    public ResponseEntity<CatalogSnapshotStatistics> saveSnapshot() throws IOException {
+        return ResponseEntity.ok(catalogSnapshotService.saveSnapshot());
+    }
+}
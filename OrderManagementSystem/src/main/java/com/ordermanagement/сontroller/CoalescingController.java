@@ -0,0 +1,25 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.coalescing.CoalescingStatistics;
+import com.ordermanagement.coalescing.RequestCoalescer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/monitoring/coalescing")
+@RequiredArgsConstructor
+@Tag(name = "Объединение запросов", description = "Метрики объединения одновременных одинаковых чтений")
+public class CoalescingController {
+
+    private final RequestCoalescer requestCoalescer;
+
+    @GetMapping
+    @Operation(summary = "Получить долю объединённых вызовов и время ожидания по группам")
+    public ResponseEntity<List<CoalescingStatistics>> getStatistics() {
+        return ResponseEntity.ok(requestCoalescer.getStatistics());
+    }
+}
@@ -1,6 +1,10 @@
 package com.ordermanagement.сontroller;
 
+import com.ordermanagement.dto.BatchRequestDTO;
+import com.ordermanagement.dto.BatchResultDTO;
 import com.ordermanagement.dto.CustomerDTO;
+import com.ordermanagement.search.CustomerSuggestStatistics;
+import com.ordermanagement.search.CustomerSuggestion;
 import com.ordermanagement.service.CustomerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,6 +30,32 @@ public class CustomerController {
         return ResponseEntity.ok(customers);
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Получить покупателей по списку ID")
+    public ResponseEntity<BatchResultDTO<CustomerDTO>> getCustomersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(customerService.getCustomersByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Получить покупателей по длинному списку ID")
+    public ResponseEntity<BatchResultDTO<CustomerDTO>> getCustomersByIdsBatch(@Valid @RequestBody BatchRequestDTO request) {
+        return ResponseEntity.ok(customerService.getCustomersByIds(request.getIds()));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Подсказки покупателей по началу имени или email")
+    public ResponseEntity<List<CustomerSuggestion>> suggestCustomers(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(customerService.suggestCustomers(q, limit));
+    }
+
+    @GetMapping("/suggest/statistics")
+    @Operation(summary = "Получить размер индекса подсказок покупателей")
+    public ResponseEntity<CustomerSuggestStatistics> getSuggestStatistics() {
+        return ResponseEntity.ok(customerService.getSuggestStatistics());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Получить покупателя по ID")
     public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
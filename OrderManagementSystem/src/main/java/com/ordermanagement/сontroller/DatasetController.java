@@ -0,0 +1,35 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.dataset.DatasetLoadResult;
+import com.ordermanagement.service.DatasetService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+
+/**
+ * Загрузка нагрузочного набора данных для стендов и бенчмарков.
+ */
+@RestController
+@RequestMapping("/dataset")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ordermanagement.dataset", name = "endpoint-enabled", havingValue = "true")
+@Tag(name = "Набор данных", description = "Детерминированный набор данных заданного масштаба для нагрузочных тестов")
+public class DatasetController {
+
+    private final DatasetService datasetService;
+
+    @PostMapping
+    @Operation(summary = "Сгенерировать и загрузить набор данных")
+    public ResponseEntity<DatasetLoadResult> load(
+            @RequestParam(required = false) Double scaleFactor,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Boolean replace) {
+        return ResponseEntity.ok(datasetService.load(scaleFactor, seed, endDate, replace));
+    }
+}
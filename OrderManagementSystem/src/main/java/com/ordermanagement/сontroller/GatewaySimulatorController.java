@@ -0,0 +1,48 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.gateway.GatewaySimulator;
+import com.ordermanagement.gateway.PaymentAuthorization;
+import com.ordermanagement.gateway.PaymentCharge;
+import com.ordermanagement.gateway.PaymentGatewayException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Имитатор платёжного шлюза по HTTP для режима payment-gateway.mode=HTTP и бенчмарков.
+ */
+@RestController
+@RequestMapping("/simulator/payment-gateway")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ordermanagement.payment-gateway.simulator", name = "endpoint-enabled", havingValue = "true")
+@Tag(name = "Имитатор платёжного шлюза", description = "Задержки и сбои шлюза для разработки и бенчмарков")
+public class GatewaySimulatorController {
+
+    private final GatewaySimulator gatewaySimulator;
+
+    @PostMapping("/charges")
+    @Operation(summary = "Списание")
+    public ResponseEntity<PaymentAuthorization> charge(@RequestBody PaymentCharge charge) {
+        try {
+            return ResponseEntity.ok(gatewaySimulator.charge(charge, Long.MAX_VALUE));
+        } catch (PaymentGatewayException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/charges/{idempotencyKey}")
+    @Operation(summary = "Статус списания")
+    public ResponseEntity<PaymentAuthorization> findCharge(@PathVariable String idempotencyKey) {
+        try {
+            return gatewaySimulator.findCharge(idempotencyKey, Long.MAX_VALUE)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (PaymentGatewayException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
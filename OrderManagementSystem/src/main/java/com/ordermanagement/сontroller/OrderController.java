@@ -1,8 +1,16 @@
 package com.ordermanagement.сontroller;
 
+import com.ordermanagement.admission.AdmissionPriority;
+import com.ordermanagement.admission.RequestPriority;
+import com.ordermanagement.dto.BatchRequestDTO;
+import com.ordermanagement.dto.BatchResultDTO;
+import com.ordermanagement.dto.FulfillmentAckDTO;
+import com.ordermanagement.dto.FulfillmentAckResultDTO;
+import com.ordermanagement.dto.FulfillmentLeaseDTO;
 import com.ordermanagement.dto.OrderDTO;
 import com.ordermanagement.dto.PaymentDTO;
 import com.ordermanagement.entity.Order.OrderStatus;
+import com.ordermanagement.service.OrderPaymentService;
 import com.ordermanagement.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/orders")
@@ -20,6 +29,7 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderPaymentService orderPaymentService;
 
     @GetMapping
     @Operation(summary = "Получить все заказы")
@@ -28,6 +38,25 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Получить все заказы с выбранными полями")
+    public ResponseEntity<List<Map<String, Object>>> getAllOrders(@RequestParam String fields) {
+        return ResponseEntity.ok(orderService.getAllOrders(fields));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Получить заказы по списку ID")
+    public ResponseEntity<BatchResultDTO<OrderDTO>> getOrdersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(orderService.getOrdersByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    @AdmissionPriority(RequestPriority.BROWSING)
+    @Operation(summary = "Получить заказы по длинному списку ID")
+    public ResponseEntity<BatchResultDTO<OrderDTO>> getOrdersByIdsBatch(@Valid @RequestBody BatchRequestDTO request) {
+        return ResponseEntity.ok(orderService.getOrdersByIds(request.getIds()));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Получить заказ по ID")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id) {
@@ -35,6 +64,20 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Получить заказ по ID с выбранными полями")
+    public ResponseEntity<Map<String, Object>> getOrderById(@PathVariable Long id, @RequestParam String fields) {
+        return ResponseEntity.ok(orderService.getOrderById(id, fields));
+    }
+
+    @GetMapping(value = "/customer/{customerId}", params = "fields")
+    @Operation(summary = "Получить заказы покупателя с выбранными полями")
+    public ResponseEntity<List<Map<String, Object>>> getOrdersByCustomerId(
+            @PathVariable Long customerId,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(orderService.getOrdersByCustomerId(customerId, fields));
+    }
+
     @GetMapping("/customer/{customerId}")
     @Operation(summary = "Получить заказы покупателя")
     public ResponseEntity<List<OrderDTO>> getOrdersByCustomerId(@PathVariable Long customerId) {
@@ -57,6 +100,7 @@ public class OrderController {
     }
 
     @PostMapping("/{orderId}/reserve")
+    @AdmissionPriority(RequestPriority.CRITICAL)
     @Operation(summary = "Зарезервировать товары для заказа")
     public ResponseEntity<OrderDTO> reserveOrderItems(@PathVariable Long orderId) {
         OrderDTO reservedOrder = orderService.reserveOrderItems(orderId);
@@ -64,14 +108,35 @@ public class OrderController {
     }
 
     @PostMapping("/{orderId}/pay")
+    @AdmissionPriority(RequestPriority.CRITICAL)
     @Operation(summary = "Обработать оплату заказа")
     public ResponseEntity<OrderDTO> processOrderPayment(
             @PathVariable Long orderId,
             @Valid @RequestBody PaymentDTO paymentDTO) {
-        OrderDTO paidOrder = orderService.processOrderPayment(orderId, paymentDTO);
+        OrderDTO paidOrder = orderPaymentService.processOrderPayment(orderId, paymentDTO);
         return ResponseEntity.ok(paidOrder);
     }
 
+    @PostMapping("/fulfillment/claim")
+    @Operation(summary = "Захватить пачку оплаченных заказов для комплектации")
+    public ResponseEntity<FulfillmentLeaseDTO> claimFulfillment(
+            @RequestParam String worker,
+            @RequestParam(required = false) Integer batchSize) {
+        return ResponseEntity.ok(orderService.claimFulfillment(worker, batchSize));
+    }
+
+    @PostMapping("/fulfillment/ack")
+    @Operation(summary = "Подтвердить комплектацию и отправку заказов по аренде")
+    public ResponseEntity<FulfillmentAckResultDTO> acknowledgeFulfillment(@Valid @RequestBody FulfillmentAckDTO request) {
+        return ResponseEntity.ok(orderService.acknowledgeFulfillment(request.getLeaseId(), request.getOrderIds()));
+    }
+
+    @PostMapping("/fulfillment/release")
+    @Operation(summary = "Вернуть заказы аренды в очередь комплектации")
+    public ResponseEntity<FulfillmentAckResultDTO> releaseFulfillment(@Valid @RequestBody FulfillmentAckDTO request) {
+        return ResponseEntity.ok(orderService.releaseFulfillment(request.getLeaseId(), request.getOrderIds()));
+    }
+
     @PutMapping("/{orderId}/status")
     @Operation(summary = "Обновить статус заказа")
     public ResponseEntity<OrderDTO> updateOrderStatus(
@@ -82,6 +147,7 @@ public class OrderController {
     }
 
     @PostMapping("/{orderId}/cancel")
+    @AdmissionPriority(RequestPriority.CRITICAL)
     @Operation(summary = "Отменить заказ")
     public ResponseEntity<Void> cancelOrder(@PathVariable Long orderId) {
         orderService.cancelOrder(orderId);
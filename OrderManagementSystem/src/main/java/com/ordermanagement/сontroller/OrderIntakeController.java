@@ -0,0 +1,49 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.dto.IntakeStatusDTO;
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.journal.IntakeJournal;
+import com.ordermanagement.journal.IntakeJournalStatistics;
+import com.ordermanagement.service.OrderIntakeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@RequestMapping("/orders/intake")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ordermanagement.intake-journal", name = "enabled", havingValue = "true")
+@Tag(name = "Журнал приёма", description = "Приём заказов через журнал на диске с последующим применением к базе")
+public class OrderIntakeController {
+
+    private final OrderIntakeService orderIntakeService;
+    private final IntakeJournal intakeJournal;
+
+    @PostMapping
+    @Operation(summary = "Принять заказ в журнал; заказ будет создан в базе асинхронно")
+    public ResponseEntity<IntakeStatusDTO> accept(@Valid @RequestBody OrderDTO orderDTO) {
+        IntakeStatusDTO status = orderIntakeService.accept(orderDTO);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{reference}").buildAndExpand(status.getReference()).toUri())
+                .body(status);
+    }
+
+    @GetMapping("/{reference}")
+    @Operation(summary = "Получить статус принятого заказа по номеру приёма")
+    public ResponseEntity<IntakeStatusDTO> getStatus(@PathVariable String reference) {
+        return ResponseEntity.ok(orderIntakeService.getStatus(reference));
+    }
+
+    @GetMapping
+    @Operation(summary = "Получить статистику журнала приёма")
+    public ResponseEntity<IntakeJournalStatistics> getStatistics() {
+        return ResponseEntity.ok(intakeJournal.getStatistics());
+    }
+}
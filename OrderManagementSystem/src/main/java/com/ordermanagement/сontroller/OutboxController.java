@@ -0,0 +1,31 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.outbox.OutboxDispatcher;
+import com.ordermanagement.outbox.OutboxStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/outbox")
+@RequiredArgsConstructor
+@Tag(name = "Исходящая очередь", description = "Доставка событий заказов во внешние системы")
+public class OutboxController {
+
+    private final OutboxDispatcher outboxDispatcher;
+
+    @GetMapping
+    @Operation(summary = "Получить отставание и пропускную способность доставки")
+    public ResponseEntity<OutboxStatistics> getStatistics() {
+        return ResponseEntity.ok(outboxDispatcher.getStatistics());
+    }
+
+    @PostMapping("/dead/requeue")
+    @Operation(summary = "Вернуть в очередь события, исчерпавшие попытки доставки")
+    public ResponseEntity<OutboxStatistics> requeueDead() {
+        outboxDispatcher.requeueDead();
+        return ResponseEntity.ok(outboxDispatcher.getStatistics());
+    }
+}
@@ -0,0 +1,34 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.exception.ResourceNotFoundException;
+import com.ordermanagement.gateway.PaymentAuthorization;
+import com.ordermanagement.gateway.PaymentGatewayClient;
+import com.ordermanagement.gateway.PaymentGatewayStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/payment-gateway")
+@RequiredArgsConstructor
+@Tag(name = "Платёжный шлюз", description = "Состояние клиента платёжного шлюза")
+public class PaymentGatewayController {
+
+    private final PaymentGatewayClient paymentGatewayClient;
+
+    @GetMapping
+    @Operation(summary = "Получить состояние размыкателя, изоляции и задержки вызовов шлюза")
+    public ResponseEntity<PaymentGatewayStatistics> getStatistics() {
+        return ResponseEntity.ok(paymentGatewayClient.getStatistics());
+    }
+
+    @GetMapping("/charges/{idempotencyKey}")
+    @Operation(summary = "Проверить статус списания в шлюзе по ключу идемпотентности")
+    public ResponseEntity<PaymentAuthorization> checkStatus(@PathVariable String idempotencyKey) {
+        return paymentGatewayClient.checkStatus(idempotencyKey)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException("Списание не найдено в шлюзе: " + idempotencyKey));
+    }
+}
@@ -1,16 +1,29 @@
 package com.ordermanagement.сontroller;
 
+import com.ordermanagement.admission.AdmissionPriority;
+import com.ordermanagement.admission.RequestPriority;
+import com.ordermanagement.dto.BatchRequestDTO;
+import com.ordermanagement.dto.BatchResultDTO;
 import com.ordermanagement.dto.ProductDTO;
+import com.ordermanagement.dto.ProductOrderPageDTO;
+import com.ordermanagement.entity.Order;
+import com.ordermanagement.service.ProductOrderService;
 import com.ordermanagement.service.ProductService;
+import com.ordermanagement.stock.LowStockEvent;
+import com.ordermanagement.stock.LowStockItem;
+import com.ordermanagement.stock.LowStockWatcher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/products")
@@ -19,6 +32,8 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final LowStockWatcher lowStockWatcher;
+    private final ProductOrderService productOrderService;
 
     @GetMapping
     @Operation(summary = "Получить все товары")
@@ -27,6 +42,25 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Получить все товары с выбранными полями")
+    public ResponseEntity<List<Map<String, Object>>> getAllProducts(@RequestParam String fields) {
+        return ResponseEntity.ok(productService.getAllProducts(fields));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Получить товары по списку ID")
+    public ResponseEntity<BatchResultDTO<ProductDTO>> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    @AdmissionPriority(RequestPriority.BROWSING)
+    @Operation(summary = "Получить товары по длинному списку ID")
+    public ResponseEntity<BatchResultDTO<ProductDTO>> getProductsByIdsBatch(@Valid @RequestBody BatchRequestDTO request) {
+        return ResponseEntity.ok(productService.getProductsByIds(request.getIds()));
+    }
+
     @GetMapping("/available")
     @Operation(summary = "Получить доступные товары")
     public ResponseEntity<List<ProductDTO>> getAvailableProducts() {
@@ -34,6 +68,18 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/low-stock")
+    @Operation(summary = "Получить товары с низким остатком")
+    public ResponseEntity<List<LowStockItem>> getLowStockProducts() {
+        return ResponseEntity.ok(lowStockWatcher.getLowStock());
+    }
+
+    @GetMapping("/low-stock/events")
+    @Operation(summary = "Получить последние пересечения порога низкого остатка")
+    public ResponseEntity<List<LowStockEvent>> getLowStockEvents() {
+        return ResponseEntity.ok(lowStockWatcher.getRecentEvents());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Получить товар по ID")
     public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
@@ -41,6 +87,30 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Получить товар по ID с выбранными полями")
+    public ResponseEntity<Map<String, Object>> getProductById(@PathVariable Long id, @RequestParam String fields) {
+        return ResponseEntity.ok(productService.getProductById(id, fields));
+    }
+
+    @GetMapping("/{id}/orders")
+    @Operation(summary = "Получить заказы товара постранично")
+    public ResponseEntity<ProductOrderPageDTO> getProductOrders(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productOrderService.getProductOrders(id, before, status, from, to, limit));
+    }
+
+    @PostMapping("/order-counts/rebuild")
+    @Operation(summary = "Пересчитать счётчики заказов товаров")
+    public ResponseEntity<Map<String, Integer>> rebuildOrderCounts() {
+        return ResponseEntity.ok(Map.of("products", productOrderService.rebuildCounters()));
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Поиск товаров")
     public ResponseEntity<List<ProductDTO>> searchProducts(
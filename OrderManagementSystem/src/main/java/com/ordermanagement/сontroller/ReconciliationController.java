@@ -0,0 +1,41 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.dto.SettlementReconciliationDTO;
+import com.ordermanagement.service.PaymentReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/reconciliation/settlements")
+@RequiredArgsConstructor
+@Tag(name = "Сверка расчётов", description = "Сверка файлов расчётов платёжного шлюза с платежами")
+public class ReconciliationController {
+
+    private final PaymentReconciliationService paymentReconciliationService;
+
+    @PostMapping("/files/{fileName}")
+    @Operation(summary = "Сверить файл из каталога расчётов с платежами за окно")
+    public ResponseEntity<SettlementReconciliationDTO> reconcileFile(
+            @PathVariable String fileName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(paymentReconciliationService.reconcileFile(fileName, start, end));
+    }
+
+    @PostMapping(consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    @Operation(summary = "Сверить файл расчётов, переданный телом запроса")
+    public ResponseEntity<SettlementReconciliationDTO> reconcileUpload(
+            HttpServletRequest request,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) throws IOException {
+        return ResponseEntity.ok(paymentReconciliationService.reconcileStream(request.getInputStream(), start, end));
+    }
+}
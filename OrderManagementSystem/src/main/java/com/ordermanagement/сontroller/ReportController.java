@@ -0,0 +1,57 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.dto.RevenueReportDTO;
+import com.ordermanagement.dto.SalesReportDTO;
+import com.ordermanagement.dto.SalesReportDefinitionDTO;
+import com.ordermanagement.dto.WarehouseStatisticsDTO;
+import com.ordermanagement.report.SalesReportType;
+import com.ordermanagement.service.ReportService;
+import com.ordermanagement.service.SalesReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+@Tag(name = "Отчёты", description = "API для отчётов по складам и выручке")
+public class ReportController {
+
+    private final ReportService reportService;
+    private final SalesReportService salesReportService;
+
+    @GetMapping("/warehouses")
+    @Operation(summary = "Получить статистику по складам")
+    public ResponseEntity<List<WarehouseStatisticsDTO>> getWarehouseStatistics() {
+        return ResponseEntity.ok(reportService.getWarehouseStatistics());
+    }
+
+    @GetMapping("/revenue")
+    @Operation(summary = "Получить выручку за период")
+    public ResponseEntity<RevenueReportDTO> getTotalRevenueForPeriod(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(reportService.getTotalRevenueForPeriod(start, end));
+    }
+
+    @GetMapping("/sales")
+    @Operation(summary = "Получить список отчётов о продажах")
+    public ResponseEntity<List<SalesReportDefinitionDTO>> getSalesReportDefinitions() {
+        return ResponseEntity.ok(salesReportService.getDefinitions());
+    }
+
+    @GetMapping("/sales/{type}")
+    @Operation(summary = "Построить отчёт о продажах за период")
+    public ResponseEntity<SalesReportDTO> getSalesReport(
+            @PathVariable SalesReportType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(salesReportService.getReport(type, start, end, limit));
+    }
+}
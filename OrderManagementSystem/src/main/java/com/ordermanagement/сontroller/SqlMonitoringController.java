@@ -0,0 +1,46 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.monitoring.SlowStatement;
+import com.ordermanagement.monitoring.SqlShapeStatistics;
+import com.ordermanagement.monitoring.SqlStatementMonitor;
+import com.ordermanagement.monitoring.SqlTrace;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/monitoring/sql")
+@RequiredArgsConstructor
+@Tag(name = "Мониторинг SQL", description = "Статистика SQL-запросов, медленные запросы и трассы")
+public class SqlMonitoringController {
+
+    private final SqlStatementMonitor sqlStatementMonitor;
+
+    @GetMapping("/statements")
+    @Operation(summary = "Получить статистику по формам SQL-запросов")
+    public ResponseEntity<List<SqlShapeStatistics>> getStatementStatistics() {
+        return ResponseEntity.ok(sqlStatementMonitor.getShapeStatistics());
+    }
+
+    @GetMapping("/slow")
+    @Operation(summary = "Получить самые медленные SQL-запросы с параметрами")
+    public ResponseEntity<List<SlowStatement>> getSlowStatements() {
+        return ResponseEntity.ok(sqlStatementMonitor.getSlowStatements());
+    }
+
+    @GetMapping("/traces")
+    @Operation(summary = "Получить последние трассы SQL-запросов")
+    public ResponseEntity<List<SqlTrace>> getTraces() {
+        return ResponseEntity.ok(sqlStatementMonitor.getTraces());
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Сбросить статистику SQL-запросов")
+    public ResponseEntity<Void> reset() {
+        sqlStatementMonitor.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.dto.StockShardsDTO;
+import com.ordermanagement.service.StockShardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/products/{productId}/stock-shards")
+@RequiredArgsConstructor
+@Tag(name = "Сегменты остатка", description = "Разделение остатка горячих товаров на несколько строк")
+public class StockShardController {
+
+    private final StockShardService stockShardService;
+
+    @GetMapping
+    @Operation(summary = "Получить сегменты остатка товара и их сумму")
+    public ResponseEntity<StockShardsDTO> getShards(@PathVariable Long productId) {
+        return ResponseEntity.ok(stockShardService.getShards(productId));
+    }
+
+    @PostMapping
+    @Operation(summary = "Разделить остаток товара на сегменты")
+    public ResponseEntity<StockShardsDTO> enableSharding(
+            @PathVariable Long productId,
+            @RequestParam int shards) {
+        return ResponseEntity.ok(stockShardService.enableSharding(productId, shards));
+    }
+
+    @PostMapping("/rebalance")
+    @Operation(summary = "Выровнять остаток между сегментами")
+    public ResponseEntity<StockShardsDTO> rebalance(@PathVariable Long productId) {
+        return ResponseEntity.ok(stockShardService.rebalance(productId));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Объединить сегменты остатка в строку товара")
+    public ResponseEntity<Void> disableSharding(@PathVariable Long productId) {
+        stockShardService.disableSharding(productId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.dto.WarehouseStockDTO;
+import com.ordermanagement.service.WarehouseStockService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/products/{productId}/stock")
+@RequiredArgsConstructor
+@Tag(name = "Остатки по складам", description = "API для работы с остатками товаров на складах")
+public class WarehouseStockController {
+
+    private final WarehouseStockService warehouseStockService;
+
+    @GetMapping
+    @Operation(summary = "Получить остатки товара по складам")
+    public ResponseEntity<List<WarehouseStockDTO>> getStock(@PathVariable Long productId) {
+        return ResponseEntity.ok(warehouseStockService.getStock(productId));
+    }
+
+    @PutMapping("/{warehouseId}")
+    @Operation(summary = "Установить остаток товара на складе")
+    public ResponseEntity<WarehouseStockDTO> setStock(
+            @PathVariable Long productId,
+            @PathVariable Long warehouseId,
+            @Valid @RequestBody WarehouseStockDTO stockDTO) {
+        return ResponseEntity.ok(warehouseStockService.setStock(productId, warehouseId, stockDTO.getQuantity()));
+    }
+}
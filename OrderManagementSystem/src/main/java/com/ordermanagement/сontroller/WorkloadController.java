@@ -0,0 +1,25 @@
+package com.ordermanagement.сontroller;
+
+import com.ordermanagement.workload.WorkloadRegistry;
+import com.ordermanagement.workload.WorkloadStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/monitoring/workloads")
+@RequiredArgsConstructor
+@Tag(name = "Классы нагрузки", description = "Метрики пулов соединений по классам нагрузки")
+public class WorkloadController {
+
+    private final WorkloadRegistry workloadRegistry;
+
+    @GetMapping
+    @Operation(summary = "Получить метрики пулов и лимитов параллельности")
+    public ResponseEntity<List<WorkloadStatistics>> getWorkloadStatistics() {
+        return ResponseEntity.ok(workloadRegistry.getStatistics());
+    }
+}
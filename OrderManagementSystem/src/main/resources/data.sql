@@ -1,7 +1,7 @@
 -- Тестовые данные для складов
-INSERT INTO warehouses (name, address, capacity) VALUES
-('Основной склад', 'г. Москва, ул. Складская, д. 1', 10000),
-('Дополнительный склад', 'г. Санкт-Петербург, ул. Товарная, д. 5', 5000);
+INSERT INTO warehouses (name, address, capacity, priority) VALUES
+('Основной склад', 'г. Москва, ул. Складская, д. 1', 10000, 0),
+('Дополнительный склад', 'г. Санкт-Петербург, ул. Товарная, д. 5', 5000, 1);
 
 -- Тестовые данные для покупателей
 INSERT INTO customers (name, email, phone, address) VALUES
@@ -17,4 +17,17 @@ INSERT INTO products (name, description, price, quantity, warehouse_id) VALUES
 ('Планшет Apple iPad', '10.2" Retina, 64GB, Wi-Fi', 34999.00, 15, 1),
 ('Монитор Dell', '27" 4K UHD, IPS, 60Hz', 27999.00, 20, 2),
 ('Клавиатура Logitech', 'Механическая клавиатура с RGB подсветкой', 8999.00, 30, 2),
-('Мышь беспроводная', 'Оптическая мышь, 1600 DPI', 2499.00, 100, 2);
\ No newline at end of file
+('Мышь беспроводная', 'Оптическая мышь, 1600 DPI', 2499.00, 100, 2);
+
+-- Остатки товаров по складам (в сумме совпадают с products.quantity)
+INSERT INTO warehouse_stock (warehouse_id, product_id, quantity) VALUES
+(1, 1, 10),
+(1, 2, 15),
+(2, 2, 10),
+(2, 3, 50),
+(1, 4, 15),
+(1, 5, 8),
+(2, 5, 12),
+(2, 6, 30),
+(1, 7, 40),
+(2, 7, 60);
\ No newline at end of file
@@ -1,6 +1,10 @@
 -- Удаление существующих таблиц (если нужно)
+DROP TABLE IF EXISTS outbox_events CASCADE;
+DROP TABLE IF EXISTS product_order_counts CASCADE;
 DROP TABLE IF EXISTS payments CASCADE;
 DROP TABLE IF EXISTS reservations CASCADE;
+DROP TABLE IF EXISTS warehouse_stock CASCADE;
+DROP TABLE IF EXISTS product_stock_shards CASCADE;
 DROP TABLE IF EXISTS order_items CASCADE;
 DROP TABLE IF EXISTS orders CASCADE;
 DROP TABLE IF EXISTS products CASCADE;
@@ -22,7 +26,8 @@ CREATE TABLE warehouses (
     id BIGSERIAL PRIMARY KEY,
     name VARCHAR(100) NOT NULL,
     address TEXT,
-    capacity INTEGER
+    capacity INTEGER,
+    priority INTEGER NOT NULL DEFAULT 0
 );
 
 -- Таблица товаров
@@ -33,7 +38,31 @@ CREATE TABLE products (
     price NUMERIC(10,2) NOT NULL,
     quantity INTEGER DEFAULT 0,
     warehouse_id BIGINT REFERENCES warehouses(id),
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    low_stock_threshold INTEGER,
+    stock_shards INTEGER,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT check_low_stock_threshold_non_negative CHECK (low_stock_threshold >= 0)
+);
+
+-- Остатки товаров по складам
+CREATE TABLE warehouse_stock (
+    id BIGSERIAL PRIMARY KEY,
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT uk_warehouse_stock UNIQUE (product_id, warehouse_id),
+    CONSTRAINT check_stock_quantity_non_negative CHECK (quantity >= 0)
+);
+
+-- Сегменты остатка для товаров с высокой конкуренцией за строку products
+CREATE TABLE product_stock_shards (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    shard_no INTEGER NOT NULL,
+    quantity INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT uk_product_stock_shard UNIQUE (product_id, shard_no),
+    CONSTRAINT check_shard_quantity_non_negative CHECK (quantity >= 0)
 );
 
 -- Таблица заказов
@@ -43,7 +72,11 @@ CREATE TABLE orders (
     order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     status VARCHAR(50) NOT NULL DEFAULT 'NEW',
     total_amount NUMERIC(10,2),
-    notes TEXT
+    notes TEXT,
+    intake_reference VARCHAR(36) UNIQUE,
+    lease_id VARCHAR(36),
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP
 );
 
 -- Таблица позиций заказа
@@ -58,11 +91,21 @@ CREATE TABLE order_items (
     CONSTRAINT check_unit_price_positive CHECK (unit_price > 0)
 );
 
+-- Сегменты счётчика заказов товара; заказ увеличивает сегмент по своему id, а не одну горячую строку
+CREATE TABLE product_order_counts (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    shard_no INTEGER NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_product_order_count UNIQUE (product_id, shard_no)
+);
+
 -- Таблица резервирований
 CREATE TABLE reservations (
     id BIGSERIAL PRIMARY KEY,
     order_id BIGINT NOT NULL REFERENCES orders(id),
     product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT REFERENCES warehouses(id),
     quantity_reserved INTEGER NOT NULL,
     status VARCHAR(50) NOT NULL DEFAULT 'ACTIVE',
     reservation_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -79,27 +122,57 @@ CREATE TABLE payments (
     payment_method VARCHAR(50),
     status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
     transaction_id VARCHAR(100),
+    idempotency_key VARCHAR(150),
     notes TEXT,
     CONSTRAINT check_amount_positive CHECK (amount > 0)
 );
 
+-- Исходящая очередь событий заказов
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    lease_expires_at TIMESTAMP,
+    delivered_at TIMESTAMP,
+    last_error VARCHAR(1000)
+);
+
 -- Индексы для улучшения производительности
 CREATE INDEX idx_customers_email ON customers(email);
 CREATE INDEX idx_products_name ON products(name);
+CREATE INDEX idx_products_updated_at ON products(updated_at);
 CREATE INDEX idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_order_date ON orders(order_date);
+-- Очередь комплектации: только оплаченные заказы в порядке поступления
+CREATE INDEX idx_orders_fulfillment ON orders(order_date, id) WHERE status = 'PAID';
+CREATE INDEX idx_orders_lease_id ON orders(lease_id);
 CREATE INDEX idx_order_items_order_id ON order_items(order_id);
+-- Заказы товара: диапазон по товару в порядке id заказа без обращения к таблице для отбора
+CREATE INDEX idx_order_items_product_order ON order_items(product_id, order_id);
 CREATE INDEX idx_reservations_order_id ON reservations(order_id);
 CREATE INDEX idx_reservations_status ON reservations(status);
 CREATE INDEX idx_payments_order_id ON payments(order_id);
 CREATE INDEX idx_payments_status ON payments(status);
+CREATE INDEX idx_payments_payment_date ON payments(payment_date);
+-- Исходящая очередь: только недоставленные события и порядок событий внутри заказа
+CREATE INDEX idx_outbox_events_pending ON outbox_events(id) WHERE status = 'PENDING';
+CREATE INDEX idx_outbox_events_aggregate ON outbox_events(aggregate_id, id);
 
 -- Комментарии к таблицам
 COMMENT ON TABLE customers IS 'Покупатели';
 COMMENT ON TABLE products IS 'Товары';
 COMMENT ON TABLE warehouses IS 'Склады';
+COMMENT ON TABLE warehouse_stock IS 'Остатки товаров по складам';
+COMMENT ON TABLE product_stock_shards IS 'Сегменты остатка товаров';
 COMMENT ON TABLE orders IS 'Заказы';
 COMMENT ON TABLE order_items IS 'Позиции заказов';
 COMMENT ON TABLE reservations IS 'Резервирования товаров';
-COMMENT ON TABLE payments IS 'Платежи';
\ No newline at end of file
+COMMENT ON TABLE payments IS 'Платежи';
+COMMENT ON TABLE outbox_events IS 'Исходящая очередь событий заказов';
+COMMENT ON TABLE product_order_counts IS 'Сегменты счётчика заказов товаров';
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.ordermanagement.admission;
+
+import com.ordermanagement.workload.WorkloadProperties;
+import com.ordermanagement.workload.WorkloadRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void limitGrowsWhileLatencyStaysFlat() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(new AdmissionProperties());
+        int initial = limit.getLimit();
+
+        feed(limit, 20, 10 * MILLIS, initial, false);
+
+        assertTrue(limit.getLimit() > initial, "Лимит должен расти: " + limit.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyGrows() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(new AdmissionProperties());
+        feed(limit, 5, 10 * MILLIS, 50, false);
+        int before = limit.getLimit();
+
+        feed(limit, 20, 100 * MILLIS, before, false);
+
+        assertTrue(limit.getLimit() < before, "Лимит должен снижаться: " + limit.getLimit());
+        assertTrue(limit.getLastGradient() < 1.0);
+    }
+
+    @Test
+    void poolOverloadBacksOffAndRespectsMinimum() {
+        AdmissionProperties properties = new AdmissionProperties();
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(properties);
+
+        feed(limit, 500, 10 * MILLIS, 50, true);
+
+        assertEquals(properties.getMinLimit(), limit.getLimit());
+    }
+
+    @Test
+    void lowPriorityShedFirst() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(10);
+        AdmissionGate gate = new AdmissionGate(properties, new WorkloadRegistry(new WorkloadProperties()));
+        for (int i = 0; i < 7; i++) {
+            assertTrue(gate.tryAcquire(RequestPriority.BROWSING));
+        }
+
+        assertFalse(gate.tryAcquire(RequestPriority.BROWSING));
+        assertTrue(gate.tryAcquire(RequestPriority.CRITICAL));
+        assertEquals(1, gate.getStatistics().getShed().get(RequestPriority.BROWSING));
+    }
+
+    private static void feed(GradientConcurrencyLimit limit, int windows, long latencyNanos, int inFlight,
+                             boolean overloaded) {
+        for (int i = 0; i < windows * 50; i++) {
+            limit.onSample(latencyNanos, inFlight, overloaded);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ordermanagement.allocation;
+
+import com.ordermanagement.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockAllocatorTest {
+
+    private final StockAllocator allocator = new StockAllocator();
+
+    @Test
+    void singleWarehouseByPriority() {
+        ProductAvailability stock = availability(new long[]{1, 2}, new int[]{10, 10}, new int[]{1, 0});
+
+        List<StockAllocation> result = allocator.allocate(new long[]{100}, new int[]{5}, new ProductAvailability[]{stock});
+
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getWarehouseId());
+    }
+
+    @Test
+    void prefersWarehouseAlreadyInOrder() {
+        ProductAvailability first = availability(new long[]{1}, new int[]{10}, new int[]{5});
+        ProductAvailability second = availability(new long[]{1, 2}, new int[]{10, 10}, new int[]{5, 0});
+
+        List<StockAllocation> result = allocator.allocate(new long[]{100, 200}, new int[]{3, 3},
+                new ProductAvailability[]{first, second});
+
+        assertEquals(1, result.get(1).getWarehouseId());
+    }
+
+    @Test
+    void splitsIntoFewestParts() {
+        ProductAvailability stock = availability(new long[]{1, 2, 3}, new int[]{4, 9, 3}, new int[]{0, 1, 2});
+
+        List<StockAllocation> result = allocator.allocate(new long[]{100}, new int[]{12}, new ProductAvailability[]{stock});
+
+        assertEquals(2, result.size());
+        assertEquals(2, result.get(0).getWarehouseId());
+        assertEquals(9, result.get(0).getQuantity());
+        // Остаток 3 закрывает склад 1 с более высоким приоритетом
+        assertEquals(1, result.get(1).getWarehouseId());
+        assertEquals(3, result.get(1).getQuantity());
+    }
+
+    @Test
+    void repeatedProductSharesRemainingStock() {
+        ProductAvailability stock = availability(new long[]{1, 2}, new int[]{5, 5}, new int[]{0, 1});
+
+        List<StockAllocation> result = allocator.allocate(new long[]{100, 100}, new int[]{5, 5},
+                new ProductAvailability[]{stock, stock});
+
+        assertEquals(1, result.get(0).getWarehouseId());
+        assertEquals(2, result.get(1).getWarehouseId());
+        assertThrows(InsufficientStockException.class, () -> allocator.allocate(new long[]{100, 100},
+                new int[]{5, 6}, new ProductAvailability[]{stock, stock}));
+    }
+
+    @Test
+    void linesWithoutWarehouseStockAreSkipped() {
+        List<StockAllocation> result = allocator.allocate(new long[]{100}, new int[]{5},
+                new ProductAvailability[]{ProductAvailability.EMPTY});
+
+        assertTrue(result.isEmpty());
+    }
+
+    private static ProductAvailability availability(long[] warehouseIds, int[] available, int[] priorities) {
+        return new ProductAvailability(warehouseIds, available, priorities);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ordermanagement.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderFlowAnalyticsTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void heavyHittersSurviveLongTail() {
+        OrderFlowAnalytics analytics = new OrderFlowAnalytics(new TrafficAnalyticsProperties());
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            // Товары 1..3 заметно чаще остальных 100 000
+            long productId = i % 10 < 3 ? i % 10 + 1 : 1_000 + random.nextInt(100_000);
+            analytics.record(NOW, TrafficMetric.UNITS, 1, new long[]{productId}, new long[]{1});
+        }
+
+        List<TopEntry> top = analytics.top(NOW, TrafficDimension.PRODUCT, TrafficMetric.UNITS,
+                TrafficWindow.LAST_5_MINUTES, 3).getEntries();
+
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(TopEntry::getId).sorted().toList());
+        // Оценка не меньше истинных 5000 и завышена не сильно
+        top.forEach(entry -> assertTrue(entry.getUnits() >= 5_000 && entry.getUnits() < 5_500));
+    }
+
+    @Test
+    void customersAccumulateOrderTotalsAndMetricsStaySeparate() {
+        OrderFlowAnalytics analytics = new OrderFlowAnalytics(new TrafficAnalyticsProperties());
+        analytics.record(NOW, TrafficMetric.UNITS, 10, new long[]{1, 2}, new long[]{2, 3});
+        analytics.record(NOW, TrafficMetric.REVENUE, 10, new long[]{1, 2}, new long[]{1_000, 2_550});
+        analytics.record(NOW, TrafficMetric.UNITS, 20, new long[]{1}, new long[]{1});
+
+        List<TopEntry> top = analytics.top(NOW, TrafficDimension.CUSTOMER, TrafficMetric.REVENUE,
+                TrafficWindow.LAST_HOUR, 10).getEntries();
+
+        assertEquals(1, top.size());
+        assertEquals(10L, top.get(0).getId());
+        assertEquals(5L, top.get(0).getUnits());
+        assertEquals(new BigDecimal("35.50"), top.get(0).getRevenue());
+    }
+
+    @Test
+    void oldBucketsLeaveWindow() {
+        OrderFlowAnalytics analytics = new OrderFlowAnalytics(new TrafficAnalyticsProperties());
+        analytics.record(NOW, TrafficMetric.UNITS, 1, new long[]{42}, new long[]{5});
+
+        long sixMinutesLater = NOW + 6 * 60_000;
+        assertTrue(analytics.top(sixMinutesLater, TrafficDimension.PRODUCT, TrafficMetric.UNITS,
+                TrafficWindow.LAST_5_MINUTES, 10).getEntries().isEmpty());
+        assertEquals(5L, analytics.top(sixMinutesLater, TrafficDimension.PRODUCT, TrafficMetric.UNITS,
+                TrafficWindow.LAST_HOUR, 10).getEntries().get(0).getUnits());
+    }
+}
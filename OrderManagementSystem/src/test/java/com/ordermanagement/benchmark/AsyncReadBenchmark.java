@@ -0,0 +1,226 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.admission.AdmissionGate;
+import com.ordermanagement.admission.RequestPriority;
+import com.ordermanagement.entity.Customer;
+import com.ordermanagement.entity.Order;
+import com.ordermanagement.entity.OrderItem;
+import com.ordermanagement.entity.Product;
+import com.ordermanagement.repository.CustomerRepository;
+import com.ordermanagement.repository.OrderRepository;
+import com.ordermanagement.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Блокирующие MVC-эндпоинты чтения против /async/** при большом числе одновременных клиентов.
+ * Пул Tomcat намеренно меньше числа клиентов; списки /async/** отдаются потоком NDJSON.
+ * Печатаются пропускная способность и задержки p50/p99 по всем запросам серии.
+ * Допуск запросов включён с лимитом выше числа клиентов: он не отбрасывает запросы,
+ * но проверяется, что асинхронный запрос занимает в нём ровно одно место.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:asyncread;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "server.tomcat.threads.max=16",
+        "ordermanagement.admission.initial-limit=500",
+        "ordermanagement.admission.min-limit=400",
+        "ordermanagement.admission.max-limit=500",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.async-read.threads=16"})
+class AsyncReadBenchmark {
+
+    private static final int CLIENTS = 200;
+    private static final int PRODUCTS = 1_000;
+    private static final int ORDERS = 100;
+    private static final int ROUNDS = 5;
+    private static final int TOMCAT_THREADS = 16;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    ThreadPoolTaskExecutor asyncReadExecutor;
+    @Autowired
+    AdmissionGate admissionGate;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private long customerId;
+    private long orderId;
+
+    @BeforeAll
+    void createData() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= PRODUCTS; i++) {
+            products.add(Product.builder().name("Товар " + i).description("Описание товара " + i)
+                    .price(BigDecimal.valueOf(100 + i % 900)).quantity(i % 50).build());
+        }
+        products = productRepository.saveAll(products);
+
+        Customer customer = customerRepository.save(Customer.builder().name("Покупатель").email("bench@example.com").build());
+        customerId = customer.getId();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder().customer(customer).notes("Заказ " + i).build();
+            for (int j = 0; j < 3; j++) {
+                Product product = products.get((i * 3 + j) % PRODUCTS);
+                order.addItem(OrderItem.builder().product(product).quantity(1).unitPrice(product.getPrice()).build());
+            }
+            orders.add(order);
+        }
+        orderId = orderRepository.saveAll(orders).get(0).getId();
+    }
+
+    @Test
+    void mvcVersusAsyncUnderConcurrency() throws Exception {
+        compare("products", "/products", "/async/products");
+        compare("orders by customer", "/orders/customer/" + customerId, "/async/orders/customer/" + customerId);
+        compare("order by id", "/orders/" + orderId, "/async/orders/" + orderId);
+    }
+
+    /**
+     * Все потоки пула /async/** заняты, и запросов к /async/** втрое больше, чем потоков Tomcat.
+     * Если бы обработчики удерживали потоки Tomcat, обычный запрос к MVC не получил бы ответа.
+     */
+    @Test
+    void asyncRequestsReleaseTomcatThreads() throws Exception {
+        awaitNoRequestsInFlight();
+        long admittedBefore = admissionGate.getStatistics().getAdmitted().get(RequestPriority.BROWSING);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < asyncReadExecutor.getMaxPoolSize(); i++) {
+            asyncReadExecutor.execute(() -> awaitQuietly(release));
+        }
+
+        int pending = TOMCAT_THREADS * 3;
+        URI asyncUri = URI.create("http://localhost:" + port + "/api/async/orders/" + orderId);
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>();
+        for (int i = 0; i < pending; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(asyncUri).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (asyncReadExecutor.getQueueSize() < pending && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(pending, asyncReadExecutor.getQueueSize());
+        assertEquals(pending, admissionGate.getStatistics().getInFlight());
+
+        HttpResponse<byte[]> mvc = client.sendAsync(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/" + orderId)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray()).get(5, TimeUnit.SECONDS);
+        assertEquals(200, mvc.statusCode());
+        assertTrue(responses.stream().noneMatch(CompletableFuture::isDone));
+
+        release.countDown();
+        for (CompletableFuture<HttpResponse<byte[]>> response : responses) {
+            assertEquals(200, response.get(10, TimeUnit.SECONDS).statusCode());
+        }
+        // Повторная диспетчеризация асинхронного запроса не занимает второе место в допуске
+        assertEquals(admittedBefore + pending + 1,
+                admissionGate.getStatistics().getAdmitted().get(RequestPriority.BROWSING));
+        awaitNoRequestsInFlight();
+    }
+
+    // afterCompletion выполняется уже после отправки ответа клиенту
+    private void awaitNoRequestsInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admissionGate.getStatistics().getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, admissionGate.getStatistics().getInFlight());
+    }
+
+    private void compare(String name, String mvcPath, String asyncPath) throws Exception {
+        run(name + ": mvc", mvcPath, 1);
+        run(name + ": async", asyncPath, 1);
+        assertEquals(0, run(name + ": mvc", mvcPath, ROUNDS));
+        assertEquals(0, run(name + ": async", asyncPath, ROUNDS));
+    }
+
+    private int run(String name, String path, int rounds) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        URI uri = URI.create("http://localhost:" + port + "/api" + path);
+        long[] latencies = new long[CLIENTS * rounds];
+        AtomicInteger errors = new AtomicInteger();
+        long started = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            List<Callable<Long>> requests = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                requests.add(() -> {
+                    long requestStarted = System.nanoTime();
+                    HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                            HttpResponse.BodyHandlers.ofByteArray());
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    return System.nanoTime() - requestStarted;
+                });
+            }
+            int i = 0;
+            for (Future<Long> latency : clients.invokeAll(requests)) {
+                latencies[round * CLIENTS + i++] = latency.get();
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        clients.shutdown();
+
+        if (rounds > 1) {
+            Arrays.sort(latencies);
+            System.out.println(String.format(Locale.ROOT,
+                    "%-32s %10.0f req/s  p50 %8.1f ms  p99 %8.1f ms  errors %d",
+                    name, latencies.length * 1_000_000_000d / elapsed,
+                    latencies[latencies.length / 2] / 1_000_000d,
+                    latencies[latencies.length * 99 / 100] / 1_000_000d, errors.get()));
+        }
+        return errors.get();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
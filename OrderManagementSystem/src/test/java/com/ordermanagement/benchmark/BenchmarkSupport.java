@@ -0,0 +1,47 @@
+package com.ordermanagement.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Простейший замер времени и выделенной памяти для бенчмарков (mvn test -Pbenchmark).
+ */
+final class BenchmarkSupport {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkSupport() {
+    }
+
+    static Result measure(String name, int warmupIterations, int iterations, Runnable body) {
+        for (int i = 0; i < warmupIterations; i++) {
+            body.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            body.run();
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Result result = new Result(name, iterations, elapsed / (double) iterations, allocated / (double) iterations);
+        System.out.println(result);
+        return result;
+    }
+
+    record Result(String name, int iterations, double nanosPerOp, double bytesPerOp) {
+
+        double throughputPerSecond() {
+            return 1_000_000_000d / nanosPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %12.1f us/op %14.0f B/op %12.0f ops/s",
+                    name, nanosPerOp / 1000d, bytesPerOp, throughputPerSecond());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.entity.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Список из 5000 заказов по 5 позиций: размер тела и стоимость записи и чтения в JSON, CBOR и Smile.
+ */
+@Tag("benchmark")
+class BinaryFormatBenchmark {
+
+    private static final int ORDERS = 5_000;
+    private static final int ITEMS = 5;
+    private static final TypeReference<List<OrderDTO>> ORDER_LIST = new TypeReference<>() {
+    };
+
+    private final List<OrderDTO> orders = new ArrayList<>(ORDERS);
+
+    BinaryFormatBenchmark() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int i = 0; i < ORDERS; i++) {
+            OrderDTO order = new OrderDTO();
+            order.setId(1_000_000L + i);
+            order.setCustomerId(10_000L + i % 977);
+            order.setOrderDate(base.plusMinutes(i));
+            order.setStatus(Order.OrderStatus.values()[i % Order.OrderStatus.values().length]);
+            order.setNotes(i % 4 == 0 ? "Доставить до 18:00" : null);
+            List<OrderDTO.OrderItemDTO> items = new ArrayList<>(ITEMS);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int j = 0; j < ITEMS; j++) {
+                OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+                item.setProductId(1L + (i * 7L + j) % 5_000);
+                item.setQuantity(1 + (i + j) % 4);
+                item.setUnitPrice(BigDecimal.valueOf(99 + (i * 31L + j * 17L) % 100_000, 2));
+                total = total.add(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+                items.add(item);
+            }
+            order.setItems(items);
+            order.setTotalAmount(total);
+            orders.add(order);
+        }
+    }
+
+    @Test
+    void binaryFormatsForLargeOrderList() {
+        Format json = run("json", JsonMapper.builder().build());
+        Format cbor = run("cbor", CBORMapper.builder().build());
+        Format smile = run("smile", SmileMapper.builder().build());
+
+        assertTrue(cbor.bytes() < json.bytes());
+        assertTrue(smile.bytes() < json.bytes());
+    }
+
+    private Format run(String name, ObjectMapper mapper) {
+        byte[] payload = mapper.writeValueAsBytes(orders);
+        assertEquals(orders, mapper.readValue(payload, ORDER_LIST));
+        System.out.printf("%-40s %12d bytes%n", name + " payload", payload.length);
+
+        BenchmarkSupport.Result write = BenchmarkSupport.measure(name + " write", 5, 20,
+                () -> mapper.writeValueAsBytes(orders));
+        BenchmarkSupport.Result read = BenchmarkSupport.measure(name + " read", 5, 20,
+                () -> mapper.readValue(payload, ORDER_LIST));
+        return new Format(payload.length, write, read);
+    }
+
+    private record Format(int bytes, BenchmarkSupport.Result write, BenchmarkSupport.Result read) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.dataset.DatasetLoadResult;
+import com.ordermanagement.dto.CustomerDTO;
+import com.ordermanagement.service.CustomerService;
+import com.ordermanagement.service.DatasetService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузочный набор масштаба 0.2 в H2 пакетами INSERT: скорость загрузки, повторяемость
+ * при том же зерне и согласованность таблиц после загрузки.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datasetbench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false"})
+class DatasetLoadBenchmark {
+
+    private static final double SCALE_FACTOR = 0.2;
+    private static final LocalDate END_DATE = LocalDate.of(2026, 6, 30);
+
+    @Autowired
+    private DatasetService datasetService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loadIsRepeatableAndConsistent() {
+        DatasetLoadResult first = datasetService.load(SCALE_FACTOR, 42L, END_DATE, true);
+        print(first);
+        Map<String, Object> fingerprint = fingerprint();
+
+        DatasetLoadResult second = datasetService.load(SCALE_FACTOR, 42L, END_DATE, true);
+        print(second);
+        assertEquals(first.getTotalRows(), second.getTotalRows());
+        assertEquals(fingerprint, fingerprint());
+
+        assertEquals(0, count("SELECT COUNT(*) FROM orders o WHERE o.total_amount <> "
+                + "(SELECT SUM(i.quantity * i.unit_price) FROM order_items i WHERE i.order_id = o.id)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM payments p JOIN orders o ON o.id = p.order_id "
+                + "WHERE p.amount <> o.total_amount"));
+        assertEquals(0, count("SELECT COUNT(*) FROM products p WHERE p.quantity <> "
+                + "(SELECT SUM(s.quantity) FROM warehouse_stock s WHERE s.product_id = p.id)"));
+        assertEquals(count("SELECT COUNT(*) FROM order_items"),
+                count("SELECT COALESCE(SUM(order_count), 0) FROM product_order_counts"));
+
+        // Счётчики id переведены за загруженные строки - новые записи создаются без конфликтов
+        CustomerDTO customer = new CustomerDTO();
+        customer.setName("Новый покупатель");
+        customer.setEmail("new-after-dataset@example.com");
+        assertEquals(count("SELECT MAX(id) FROM customers") + 1, customerService.createCustomer(customer).getId());
+
+        List<Map<String, Object>> itemCounts = jdbcTemplate.queryForList(
+                "SELECT items, COUNT(*) AS orders FROM (SELECT COUNT(*) AS items FROM order_items GROUP BY order_id) t "
+                        + "GROUP BY items ORDER BY items");
+        System.out.println("Позиций в заказе -> заказов: " + itemCounts);
+    }
+
+    private Map<String, Object> fingerprint() {
+        return jdbcTemplate.queryForMap("SELECT (SELECT COUNT(*) FROM orders) AS orders, "
+                + "(SELECT SUM(total_amount) FROM orders) AS revenue, "
+                + "(SELECT SUM(quantity) FROM products) AS stock, "
+                + "(SELECT COUNT(*) FROM reservations) AS reservations, "
+                + "(SELECT SUM(amount) FROM payments) AS paid, "
+                + "(SELECT SUM(customer_id * id) FROM orders) AS customer_mix");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static void print(DatasetLoadResult result) {
+        System.out.printf("%-40s %12d rows %8d ms %12d rows/s%n",
+                "dataset " + result.getMethod(), result.getTotalRows(), result.getElapsedMillis(), result.getRowsPerSecond());
+        result.getTables().forEach(table -> System.out.printf("  %-38s %12d rows %8d ms%n",
+                table.getTable(), table.getRows(), table.getElapsedMillis()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.entity.Order;
+import com.ordermanagement.entity.OrderItem;
+import com.ordermanagement.util.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Приём заказа на 1000 позиций: прежний пересчёт суммы в BigDecimal на каждое добавление
+ * против инкрементальной суммы в копейках.
+ */
+@Tag("benchmark")
+class OrderTotalBenchmark {
+
+    private static final int LINES = 1_000;
+
+    private final BigDecimal[] prices = new BigDecimal[LINES];
+
+    OrderTotalBenchmark() {
+        for (int i = 0; i < LINES; i++) {
+            prices[i] = BigDecimal.valueOf(100 + i * 37L % 10_000, 2);
+        }
+    }
+
+    @Test
+    void incrementalTotalForThousandLineOrder() {
+        BenchmarkSupport.Result legacy = BenchmarkSupport.measure("legacy BigDecimal recompute", 20, 50, this::legacyIntake);
+        BenchmarkSupport.Result incremental = BenchmarkSupport.measure("incremental minor units", 200, 500, this::incrementalIntake);
+
+        assertEquals(legacyIntake(), incrementalIntake());
+        assertTrue(incremental.nanosPerOp() < legacy.nanosPerOp());
+    }
+
+    private BigDecimal incrementalIntake() {
+        Order order = new Order();
+        for (int i = 0; i < LINES; i++) {
+            order.addItem(OrderItem.builder().quantity(1 + i % 5).unitPrice(prices[i]).build());
+        }
+        order.setTotalAmount(Money.toBigDecimal(order.getTotalMinor()));
+        return order.getTotalAmount();
+    }
+
+    // Воспроизводит прежнее поведение Order.addItem: пересчёт суммы по всему списку на каждую позицию
+    private BigDecimal legacyIntake() {
+        List<BigDecimal> subtotals = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < LINES; i++) {
+            subtotals.add(prices[i].multiply(BigDecimal.valueOf(1 + i % 5)));
+            total = subtotals.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.entity.Payment;
+import com.ordermanagement.gateway.GatewayCallStatistics;
+import com.ordermanagement.gateway.PaymentCharge;
+import com.ordermanagement.gateway.PaymentGatewayClient;
+import com.ordermanagement.gateway.PaymentGatewayProperties;
+import com.ordermanagement.monitoring.LatencyHistogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Клиент платёжного шлюза против имитатора по HTTP с тяжёлым хвостом задержек:
+ * проверки статуса без дублирующих запросов и с ними. Печатаются p50/p99 и число дублей.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:gatewaybench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.admission.enabled=false",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.payment-gateway.mode=HTTP",
+        "ordermanagement.payment-gateway.simulator.endpoint-enabled=true",
+        "ordermanagement.payment-gateway.simulator.latency=LOG_NORMAL",
+        "ordermanagement.payment-gateway.simulator.min-latency-ms=2",
+        "ordermanagement.payment-gateway.simulator.median-latency-ms=10",
+        "ordermanagement.payment-gateway.simulator.p99-latency-ms=400",
+        "ordermanagement.payment-gateway.hedge.delay-ms=40",
+        "ordermanagement.payment-gateway.bulkhead.max-concurrent-calls=64",
+        "ordermanagement.payment-gateway.request-timeout-ms=5000"})
+class PaymentGatewayBenchmark {
+
+    private static final int CLIENTS = 16;
+    private static final int CHARGES = 400;
+    private static final int STATUS_CHECKS = 800;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Autowired
+    private PaymentGatewayProperties properties;
+
+    @BeforeAll
+    void pointClientAtSimulator() throws Exception {
+        properties.setBaseUrl("http://localhost:" + port + "/api/simulator/payment-gateway");
+        run("authorize", CHARGES, i -> paymentGatewayClient.authorize(PaymentCharge.builder()
+                .idempotencyKey("bench-" + i)
+                .orderId((long) i)
+                .amount(new BigDecimal("10.00"))
+                .paymentMethod(Payment.PaymentMethod.CREDIT_CARD)
+                .build()));
+    }
+
+    @Test
+    void statusChecksWithAndWithoutHedging() throws Exception {
+        properties.getHedge().setMaxHedges(0);
+        run("status, no hedging", STATUS_CHECKS, i -> paymentGatewayClient.checkStatus("bench-" + (i % CHARGES)));
+
+        properties.getHedge().setMaxHedges(1);
+        run("status, 1 hedge after 40 ms", STATUS_CHECKS, i -> paymentGatewayClient.checkStatus("bench-" + (i % CHARGES)));
+
+        for (GatewayCallStatistics calls : paymentGatewayClient.getStatistics().getCalls()) {
+            System.out.println(calls);
+        }
+        System.out.println("hedges sent " + paymentGatewayClient.getStatistics().getHedgesSent()
+                + ", won " + paymentGatewayClient.getStatistics().getHedgeWins());
+    }
+
+    private void run(String name, int calls, Call call) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(calls);
+            for (int i = 0; i < calls; i++) {
+                int index = i;
+                futures.add(clients.submit(() -> {
+                    long callStarted = System.nanoTime();
+                    call.run(index);
+                    latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - callStarted));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%-40s %8.0f ops/s  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms",
+                name, calls / seconds, latency.percentile(0.50) / 1000.0, latency.percentile(0.99) / 1000.0,
+                latency.getMax() / 1000.0));
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run(int index) throws Exception;
+    }
+}
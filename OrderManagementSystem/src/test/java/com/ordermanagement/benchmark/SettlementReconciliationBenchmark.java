@@ -0,0 +1,87 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.entity.Payment;
+import com.ordermanagement.reconciliation.PaymentIndex;
+import com.ordermanagement.reconciliation.SettlementLineReader;
+import com.ordermanagement.reconciliation.SettlementReconciler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Сверка файла расчётов: потоковое хеш-соединение по байтам строки против построчного
+ * BufferedReader со String и HashMap. Печатаются строки в секунду и размер индекса.
+ */
+@Tag("benchmark")
+class SettlementReconciliationBenchmark {
+
+    private static final int PAYMENTS = 1_000_000;
+    private static final int LINES = 2_000_000;
+
+    @Test
+    void streamingJoinAgainstStringHashMap() throws Exception {
+        Path file = Files.createTempFile("settlement", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("transaction_id,amount,status\n");
+                for (int i = 0; i < LINES; i++) {
+                    writer.write("SIM-" + (i % (PAYMENTS + PAYMENTS / 10)) + "," + (i % 10_000) / 100 + "." + (i % 100) + ",SETTLED\n");
+                }
+            }
+
+            for (int round = 0; round < 3; round++) {
+                long started = System.nanoTime();
+                PaymentIndex index = new PaymentIndex();
+                for (int i = 0; i < PAYMENTS; i++) {
+                    index.put("SIM-" + i, i, i % 10_000, Payment.PaymentStatus.COMPLETED);
+                }
+                long indexed = System.nanoTime();
+                SettlementReconciler reconciler = new SettlementReconciler(index, 100);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    SettlementLineReader.read(channel, 1024 * 1024, reconciler);
+                }
+                reconciler.finish();
+                print("streaming hash join", indexed - started, System.nanoTime() - indexed, index.memoryBytes());
+
+                started = System.nanoTime();
+                Map<String, BigDecimal> payments = new HashMap<>();
+                for (int i = 0; i < PAYMENTS; i++) {
+                    payments.put("SIM-" + i, BigDecimal.valueOf(i % 10_000, 2));
+                }
+                indexed = System.nanoTime();
+                long matched = 0;
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    reader.readLine();
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String[] fields = line.split(",");
+                        BigDecimal amount = payments.get(fields[0]);
+                        if (amount != null && amount.compareTo(new BigDecimal(fields[1])) == 0) {
+                            matched++;
+                        }
+                    }
+                }
+                print("String + HashMap (" + matched + " matched)", indexed - started, System.nanoTime() - indexed, -1);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void print(String name, long indexNanos, long joinNanos, long indexBytes) {
+        System.out.println(String.format(Locale.ROOT, "%-40s index %6d ms  join %6d ms  %10.0f lines/s  index %s",
+                name, indexNanos / 1_000_000, joinNanos / 1_000_000, LINES / (joinNanos / 1e9),
+                indexBytes < 0 ? "-" : (indexBytes / 1024 / 1024) + " MB"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.service.DatasetService;
+import com.ordermanagement.service.OrderService;
+import com.ordermanagement.service.ProductService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Списки товаров и заказов через сервисы: полные DTO (все столбцы, описание, позиции заказа) против
+ * fields=id,name,price и fields=id,status,totalAmount (кортежная проекция ProjectionQuery).
+ * Замеряются выборка и выборка вместе с JSON, размер ответа печатается отдельно.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fieldsbench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false",
+        "ordermanagement.coalescing.enabled=false"})
+class SparseFieldsetBenchmark {
+
+    // 500 товаров, 12 500 заказов
+    private static final double SCALE_FACTOR = 0.05;
+    private static final String PRODUCT_FIELDS = "id,name,price";
+    private static final String ORDER_FIELDS = "id,status,totalAmount";
+
+    @Autowired
+    private DatasetService datasetService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JsonMapper jsonMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void createData() {
+        datasetService.load(SCALE_FACTOR, 42L, LocalDate.of(2026, 6, 30), true);
+        jdbcTemplate.update("UPDATE products SET description = ?",
+                "Подробное описание товара с характеристиками и условиями гарантии. ".repeat(3));
+    }
+
+    @Test
+    void productListFields() {
+        BenchmarkSupport.measure("products: full", 5, 20, productService::getAllProducts);
+        BenchmarkSupport.measure("products: fields", 5, 20, () -> productService.getAllProducts(PRODUCT_FIELDS));
+        BenchmarkSupport.measure("products: full+json", 5, 20,
+                () -> jsonMapper.writeValueAsBytes(productService.getAllProducts()));
+        BenchmarkSupport.measure("products: fields+json", 5, 20,
+                () -> jsonMapper.writeValueAsBytes(productService.getAllProducts(PRODUCT_FIELDS)));
+
+        List<Map<String, Object>> sparse = productService.getAllProducts(PRODUCT_FIELDS);
+        assertEquals(productService.getAllProducts().size(), sparse.size());
+        assertEquals(List.of("id", "name", "price"), List.copyOf(sparse.get(0).keySet()));
+
+        int fullBytes = jsonMapper.writeValueAsBytes(productService.getAllProducts()).length;
+        int sparseBytes = jsonMapper.writeValueAsBytes(sparse).length;
+        System.out.printf("products payload: full %d B, fields=%s %d B%n", fullBytes, PRODUCT_FIELDS, sparseBytes);
+        assertTrue(sparseBytes < fullBytes);
+    }
+
+    @Test
+    void orderListFields() {
+        BenchmarkSupport.measure("orders: full", 2, 5, orderService::getAllOrders);
+        BenchmarkSupport.measure("orders: fields", 2, 5, () -> orderService.getAllOrders(ORDER_FIELDS));
+        BenchmarkSupport.measure("orders: full+json", 2, 5,
+                () -> jsonMapper.writeValueAsBytes(orderService.getAllOrders()));
+        BenchmarkSupport.measure("orders: fields+json", 2, 5,
+                () -> jsonMapper.writeValueAsBytes(orderService.getAllOrders(ORDER_FIELDS)));
+
+        List<Map<String, Object>> sparse = orderService.getAllOrders(ORDER_FIELDS);
+        assertEquals(orderService.getAllOrders().size(), sparse.size());
+        assertEquals(List.of("id", "status", "totalAmount"), List.copyOf(sparse.get(0).keySet()));
+
+        int fullBytes = jsonMapper.writeValueAsBytes(orderService.getAllOrders()).length;
+        int sparseBytes = jsonMapper.writeValueAsBytes(sparse).length;
+        System.out.printf("orders payload: full %d B, fields=%s %d B%n", fullBytes, ORDER_FIELDS, sparseBytes);
+        assertTrue(sparseBytes < fullBytes);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.allocation.ProductAvailability;
+import com.ordermanagement.allocation.StockAllocator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Распределение заказов по складам в одном потоке: 10 позиций на заказ, 8 складов на товар.
+ * Решением считается выбор складов для одной позиции; требование - не менее 10 000 в секунду.
+ */
+@Tag("benchmark")
+class StockAllocationBenchmark {
+
+    private static final int ORDERS = 1_000;
+    private static final int LINES = 10;
+    private static final int WAREHOUSES = 8;
+
+    private final StockAllocator allocator = new StockAllocator();
+    private final long[][] productIds = new long[ORDERS][LINES];
+    private final int[][] quantities = new int[ORDERS][LINES];
+    private final ProductAvailability[][] availability = new ProductAvailability[ORDERS][LINES];
+
+    StockAllocationBenchmark() {
+        Random random = new Random(42);
+        for (int o = 0; o < ORDERS; o++) {
+            for (int l = 0; l < LINES; l++) {
+                long[] warehouseIds = new long[WAREHOUSES];
+                int[] available = new int[WAREHOUSES];
+                int[] priorities = new int[WAREHOUSES];
+                for (int w = 0; w < WAREHOUSES; w++) {
+                    warehouseIds[w] = w + 1;
+                    available[w] = random.nextInt(20);
+                    priorities[w] = random.nextInt(3);
+                }
+                productIds[o][l] = o * LINES + l;
+                quantities[o][l] = 1 + random.nextInt(25);
+                availability[o][l] = new ProductAvailability(warehouseIds, available, priorities);
+            }
+        }
+    }
+
+    @Test
+    void allocationDecisionsPerSecond() {
+        BenchmarkSupport.Result result = BenchmarkSupport.measure("allocate 1000 orders x 10 lines", 50, 200, () -> {
+            for (int o = 0; o < ORDERS; o++) {
+                allocator.allocate(productIds[o], quantities[o], availability[o]);
+            }
+        });
+
+        double decisionsPerSecond = result.throughputPerSecond() * ORDERS * LINES;
+        System.out.printf("allocation decisions/s: %.0f%n", decisionsPerSecond);
+        assertTrue(decisionsPerSecond >= 10_000, "Решений в секунду: " + decisionsPerSecond);
+    }
+}
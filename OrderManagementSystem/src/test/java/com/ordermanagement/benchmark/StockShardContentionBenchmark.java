@@ -0,0 +1,140 @@
+package com.ordermanagement.benchmark;
+
+import com.ordermanagement.dto.ProductDTO;
+import com.ordermanagement.service.ProductService;
+import com.ordermanagement.service.StockShardService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Конкурентное резервирование одного товара через ProductService: строка products против
+ * сегментов StockShardService (H2 в памяти, блокировки строк до фиксации).
+ * Внутри транзакции после списания имитируется остальная работа резервирования (~50 мкс).
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shardbench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false"})
+class StockShardContentionBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int RESERVATIONS_PER_THREAD = 1_000;
+    private static final int SHARDS = 16;
+    private static final long WORK_INSIDE_TRANSACTION_NANOS = 50_000;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private StockShardService stockShardService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shardedStockUnderContention() throws Exception {
+        run("single-row", createProduct("single-row"), false);
+        run("sharded x" + SHARDS, createProduct("sharded"), true);
+    }
+
+    /**
+     * Режим переключён на «другом узле» (прямо в базе): списание из строки products затрагивает 0 строк,
+     * сервис перечитывает состояние товара и списывает из сегментов; после объединения - наоборот.
+     */
+    @Test
+    void followsShardingChangedOnAnotherNode() {
+        long productId = createProduct("other-node");
+        jdbcTemplate.update("UPDATE products SET stock_shards = 2 WHERE id = ?", productId);
+        jdbcTemplate.update("INSERT INTO product_stock_shards (product_id, shard_no, quantity) VALUES (?, 0, 3), (?, 1, 2)",
+                productId, productId);
+
+        assertFalse(stockShardService.isSharded(productId));
+        assertTrue(reserve(productId, 4));
+        assertTrue(stockShardService.isSharded(productId));
+        assertEquals(1, stockShardService.getTotalQuantity(productId));
+
+        jdbcTemplate.update("DELETE FROM product_stock_shards WHERE product_id = ?", productId);
+        jdbcTemplate.update("UPDATE products SET stock_shards = NULL, quantity = 1 WHERE id = ?", productId);
+        assertTrue(reserve(productId, 1));
+        assertFalse(stockShardService.isSharded(productId));
+        assertEquals(0, productService.getProductById(productId).getQuantity());
+    }
+
+    private void run(String name, long productId, boolean sharded) throws Exception {
+        int initial = THREADS * RESERVATIONS_PER_THREAD;
+        if (sharded) {
+            stockShardService.enableSharding(productId, SHARDS);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> reserveAll(productId));
+        }
+        long started = System.nanoTime();
+        int reserved = 0;
+        for (Future<Integer> future : executor.invokeAll(tasks)) {
+            reserved += future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+
+        assertEquals(initial, reserved);
+        assertEquals(0, productService.getProductById(productId).getQuantity());
+        assertFalse(reserve(productId, 1));
+        System.out.println(String.format(Locale.ROOT, "%-40s %12.0f reservations/s",
+                name, reserved * 1_000_000_000d / elapsed));
+    }
+
+    private int reserveAll(long productId) {
+        int reserved = 0;
+        for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+            if (reserve(productId, 1)) {
+                reserved++;
+            }
+        }
+        return reserved;
+    }
+
+    private boolean reserve(long productId, int quantity) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            boolean reserved = productService.reserveProductQuantity(productId, quantity);
+            LockSupport.parkNanos(WORK_INSIDE_TRANSACTION_NANOS);
+            return reserved;
+        }));
+    }
+
+    private long createProduct(String name) {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setPrice(new BigDecimal("1.00"));
+        product.setQuantity(THREADS * RESERVATIONS_PER_THREAD);
+        return productService.createProduct(product).getId();
+    }
+}
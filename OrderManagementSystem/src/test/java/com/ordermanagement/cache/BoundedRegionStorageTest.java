@@ -0,0 +1,40 @@
+package com.ordermanagement.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedRegionStorageTest {
+
+    @Test
+    void regionSizeIsBounded() {
+        BoundedRegionStorage storage = new BoundedRegionStorage("products", 160);
+
+        for (long id = 0; id < 10_000; id++) {
+            storage.putIntoCache(id, "product-" + id, null);
+        }
+
+        RegionStatistics stats = storage.getStatistics();
+        assertTrue(stats.getSize() <= 160, "Размер региона превысил лимит: " + stats.getSize());
+        assertEquals(10_000, stats.getPuts());
+        assertEquals(10_000 - stats.getSize(), stats.getEvictions());
+    }
+
+    @Test
+    void hitsMissesAndInvalidationsAreCounted() {
+        BoundedRegionStorage storage = new BoundedRegionStorage("customers", 100);
+        storage.putIntoCache(1L, "customer", null);
+
+        assertEquals("customer", storage.getFromCache(1L, null));
+        assertNull(storage.getFromCache(2L, null));
+
+        storage.evictData();
+        assertNull(storage.getFromCache(1L, null));
+
+        RegionStatistics stats = storage.getStatistics();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getInvalidations());
+        assertEquals(0, stats.getSize());
+    }
+}
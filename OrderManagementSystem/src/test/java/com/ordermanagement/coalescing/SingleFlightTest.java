@@ -0,0 +1,100 @@
+package com.ordermanagement.coalescing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallsWithSameKeyShareOneLoad() throws Exception {
+        SingleFlight flight = new SingleFlight("product", 4, 5000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    try {
+                        return flight.execute(42L, () -> {
+                            loads.incrementAndGet();
+                            release.await();
+                            return "product-42";
+                        });
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+            // Все вызовы должны встать за одной загрузкой, прежде чем она завершится
+            while (flight.getStatistics().getWaiting() < 7) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<Object> result : results) {
+                assertEquals("product-42", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        CoalescingStatistics statistics = flight.getStatistics();
+        assertEquals(1, loads.get());
+        assertEquals(1, statistics.getLoads());
+        assertEquals(7, statistics.getCoalesced());
+        assertEquals(7.0 / 8, statistics.getCoalescingRatio(), 1e-9);
+        assertEquals(0, statistics.getInFlight());
+    }
+
+    @Test
+    void completedLoadIsNotReusedAndFailureIsPropagated() throws Throwable {
+        SingleFlight flight = new SingleFlight("order", 3, 5000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, flight.execute(1L, loads::incrementAndGet));
+        assertEquals(2, flight.execute(1L, loads::incrementAndGet));
+        assertThrows(IllegalArgumentException.class,
+                () -> flight.execute(1L, () -> { throw new IllegalArgumentException("нет"); }));
+        assertEquals(0, flight.getStatistics().getCoalesced());
+    }
+
+    @Test
+    void waiterGivesUpOnStuckLoadAndLoadsItself() throws Exception {
+        SingleFlight flight = new SingleFlight("customer", 1, 20);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = new Thread(() -> {
+            try {
+                flight.execute(7L, () -> {
+                    started.countDown();
+                    release.await();
+                    return "slow";
+                });
+            } catch (Throwable ignored) {
+            }
+        });
+        leader.start();
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            try {
+                assertEquals("own", flight.execute(7L, () -> "own"));
+            } catch (Throwable e) {
+                fail(e);
+            }
+            assertEquals(1, flight.getStatistics().getWaitTimeouts());
+        } finally {
+            release.countDown();
+            leader.join(5000);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ordermanagement.coherence;
+
+import com.ordermanagement.OrderManagementSystemApplication;
+import com.ordermanagement.dto.CustomerDTO;
+import com.ordermanagement.dto.ProductDTO;
+import com.ordermanagement.service.CustomerService;
+import com.ordermanagement.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Два экземпляра приложения над одной локальной базой PostgreSQL:
+ * mvn test -DskipTests=false -Dtest=CacheCoherencePostgresTest -Doms.test.postgres-url=jdbc:postgresql://localhost:5432/orderdb
+ */
+@Tag("postgres")
+@EnabledIfSystemProperty(named = "oms.test.postgres-url", matches = ".+")
+class CacheCoherencePostgresTest {
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startNodes() {
+        first = start("always");
+        // Второй узел не пересоздаёт схему
+        second = start("never");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    @Test
+    void productChangeEvictsCachedCopyOnOtherNode() throws Exception {
+        ProductService firstProducts = first.getBean(ProductService.class);
+        ProductService secondProducts = second.getBean(ProductService.class);
+
+        ProductDTO product = new ProductDTO();
+        product.setName("Согласование кэша");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setQuantity(10);
+        product = firstProducts.createProduct(product);
+        long id = product.getId();
+
+        // Второй узел кладёт товар в свой кэш второго уровня
+        assertEquals(0, new BigDecimal("100.00").compareTo(secondProducts.getProductById(id).getPrice()));
+
+        product.setPrice(new BigDecimal("150.00"));
+        firstProducts.updateProduct(id, product);
+
+        awaitTrue(() -> secondProducts.getProductById(id).getPrice().compareTo(new BigDecimal("150.00")) == 0);
+        assertTrue(second.getBean(CacheCoherence.class).getStatistics().getKeysApplied() > 0);
+    }
+
+    @Test
+    void customerChangeReachesSuggestIndexOnOtherNode() throws Exception {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setName("Согласованный Покупатель");
+        customer.setEmail("coherence-" + System.nanoTime() + "@example.com");
+        first.getBean(CustomerService.class).createCustomer(customer);
+
+        CustomerService secondCustomers = second.getBean(CustomerService.class);
+        awaitTrue(() -> !secondCustomers.suggestCustomers("согласованный", 10).isEmpty());
+    }
+
+    private static ConfigurableApplicationContext start(String schemaInitMode) {
+        return new SpringApplicationBuilder(OrderManagementSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + System.getProperty("oms.test.postgres-url"),
+                        "spring.datasource.username=" + System.getProperty("oms.test.postgres-user", "postgres"),
+                        "spring.datasource.password=" + System.getProperty("oms.test.postgres-password", "password"),
+                        "spring.sql.init.mode=" + schemaInitMode,
+                        "ordermanagement.catalog-snapshot.enabled=false",
+                        "ordermanagement.cache-coherence.enabled=true")
+                .run();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Изменение не дошло до второго узла за 5 секунд");
+            Thread.sleep(10);
+        }
+    }
+}
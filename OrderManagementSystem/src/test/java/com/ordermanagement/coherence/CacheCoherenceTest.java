@@ -0,0 +1,140 @@
+package com.ordermanagement.coherence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGNotification;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Отправка и приём сообщений инвалидации без PostgreSQL: pg_notify в H2 складывает сообщения в таблицу,
+ * а второй узел получает их так же, как слушатель получает уведомления LISTEN.
+ */
+class CacheCoherenceTest {
+
+    private static final String URL = "jdbc:h2:mem:coherence;DB_CLOSE_DELAY=-1";
+
+    private Connection database;
+    private final List<CacheInvalidationEvent> received = new ArrayList<>();
+
+    @BeforeEach
+    void createNotifyFunction() throws Exception {
+        database = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = database.createStatement()) {
+            statement.execute("CREATE TABLE notifications (id IDENTITY PRIMARY KEY, payload VARCHAR(8000))");
+            statement.execute("CREATE ALIAS pg_notify AS '"
+                    + "void notify(java.sql.Connection connection, String channel, String payload) "
+                    + "throws java.sql.SQLException {"
+                    + " try (java.sql.PreparedStatement insert = connection.prepareStatement("
+                    + "\"INSERT INTO notifications (payload) VALUES (?)\")) {"
+                    + " insert.setString(1, payload); insert.execute(); } }'");
+        }
+    }
+
+    @AfterEach
+    void dropDatabase() throws Exception {
+        try (Statement statement = database.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        database.close();
+    }
+
+    @Test
+    void changesReachOtherNodeAndGapsTriggerFullRefresh() throws Exception {
+        CacheCoherence sender = node(dataSource(URL));
+        CacheCoherence receiver = node(dataSource(URL));
+
+        sender.productChanged(1L);
+        sender.productChanged(2L);
+        sender.customerChanged(7L);
+        sender.flush();
+        List<PGNotification> first = notifications();
+        receiver.apply(first.toArray(PGNotification[]::new));
+        assertEquals(1, received.size());
+        assertFalse(received.get(0).isFullRefresh());
+        assertEquals(Set.of(1L, 2L), received.get(0).getProductIds());
+        assertEquals(Set.of(7L), received.get(0).getCustomerIds());
+
+        // Своё сообщение узел не применяет
+        sender.apply(first.toArray(PGNotification[]::new));
+        assertEquals(1, received.size());
+
+        // Второе сообщение потеряно - третье приходит с пропуском номера
+        sender.productChanged(3L);
+        sender.flush();
+        sender.productChanged(4L);
+        sender.flush();
+        List<PGNotification> all = notifications();
+        receiver.apply(new PGNotification[]{all.get(2)});
+        assertTrue(received.get(1).isFullRefresh());
+        assertEquals(1, receiver.getStatistics().getSequenceGaps());
+    }
+
+    @Test
+    void failedPublishTurnsIntoFullRefresh() throws Exception {
+        DataSourceProperties dataSource = dataSource("jdbc:h2:mem:coherence-missing;IFEXISTS=TRUE");
+        CacheCoherence sender = node(dataSource);
+        sender.productChanged(1L);
+        sender.flush();
+        assertEquals(1, sender.getStatistics().getPublishFailures());
+        assertTrue(notifications().isEmpty());
+
+        // База снова доступна: вместо потерянного id 1 уходит полное обновление
+        dataSource.setUrl(URL);
+        sender.flush();
+        List<PGNotification> sent = notifications();
+        assertEquals(1, sent.size());
+        assertTrue(InvalidationMessage.decode(sent.get(0).getParameter()).isFullRefresh());
+    }
+
+    private CacheCoherence node(DataSourceProperties dataSource) {
+        CacheCoherenceProperties properties = new CacheCoherenceProperties();
+        properties.setEnabled(true);
+        return new CacheCoherence(properties, dataSource, event -> received.add((CacheInvalidationEvent) event));
+    }
+
+    private static DataSourceProperties dataSource(String url) {
+        DataSourceProperties dataSource = new DataSourceProperties();
+        dataSource.setUrl(url);
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        return dataSource;
+    }
+
+    private List<PGNotification> notifications() throws Exception {
+        List<PGNotification> notifications = new ArrayList<>();
+        try (Statement statement = database.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT payload FROM notifications ORDER BY id")) {
+            while (rs.next()) {
+                String payload = rs.getString(1);
+                notifications.add(new PGNotification() {
+                    @Override
+                    public String getName() {
+                        return "oms_cache_invalidation";
+                    }
+
+                    @Override
+                    public int getPID() {
+                        return 0;
+                    }
+
+                    @Override
+                    public String getParameter() {
+                        return payload;
+                    }
+                });
+            }
+        }
+        return notifications;
+    }
+}
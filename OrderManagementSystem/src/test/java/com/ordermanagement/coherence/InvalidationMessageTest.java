@@ -0,0 +1,63 @@
+package com.ordermanagement.coherence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationMessageTest {
+
+    @Test
+    void roundTripsProductAndCustomerIds() {
+        List<String> bodies = InvalidationMessage.bodies(List.of(1L, 22L, 333L), List.of(7L), 1000);
+        assertEquals(List.of("P1,22,333;C7"), bodies);
+
+        InvalidationMessage message = InvalidationMessage.decode(
+                InvalidationMessage.encode("node1", 5, 1000L, bodies.get(0)));
+        assertEquals("node1", message.getNodeId());
+        assertEquals(5, message.getSequence());
+        assertFalse(message.isFullRefresh());
+        assertEquals(Set.of(1L, 22L, 333L), message.getProductIds());
+        assertEquals(Set.of(7L), message.getCustomerIds());
+
+        assertTrue(InvalidationMessage.decode(
+                InvalidationMessage.encode("node1", 6, 1000L, InvalidationMessage.FULL_REFRESH)).isFullRefresh());
+    }
+
+    @Test
+    void splitsLargeBatchesWithinPayloadLimit() {
+        List<Long> products = new ArrayList<>();
+        for (long id = 1_000_000; id < 1_003_000; id++) {
+            products.add(id);
+        }
+        List<String> bodies = InvalidationMessage.bodies(products, List.of(1L, 2L), 500);
+
+        assertTrue(bodies.size() > 1);
+        Set<Long> decodedProducts = new LinkedHashSet<>();
+        Set<Long> decodedCustomers = new LinkedHashSet<>();
+        for (String body : bodies) {
+            assertTrue(body.length() <= 500);
+            InvalidationMessage message = InvalidationMessage.decode(InvalidationMessage.encode("n", 1, 0, body));
+            decodedProducts.addAll(message.getProductIds());
+            decodedCustomers.addAll(message.getCustomerIds());
+        }
+        assertEquals(new LinkedHashSet<>(products), decodedProducts);
+        assertEquals(Set.of(1L, 2L), decodedCustomers);
+    }
+
+    @Test
+    void detectsSequenceGapsPerNode() {
+        SequenceTracker tracker = new SequenceTracker();
+        assertTrue(tracker.accept("a", 1));
+        assertTrue(tracker.accept("a", 2));
+        assertTrue(tracker.accept("b", 10));
+        assertFalse(tracker.accept("a", 4));
+        assertTrue(tracker.accept("a", 5));
+        assertTrue(tracker.accept("a", 3));
+        assertTrue(tracker.accept("a", 6));
+    }
+}
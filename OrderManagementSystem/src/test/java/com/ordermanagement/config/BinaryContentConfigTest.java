@@ -0,0 +1,89 @@
+package com.ordermanagement.config;
+
+import com.ordermanagement.dto.ProductDTO;
+import com.ordermanagement.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Ответы в CBOR и Smile по заголовку Accept: успешный ответ, ответ об ошибке и настройки spring.jackson.*.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:binarycontent;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false",
+        "spring.jackson.default-property-inclusion=non_null"})
+class BinaryContentConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private ProductService productService;
+
+    private MockMvc mockMvc;
+    private long productId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        ProductDTO product = new ProductDTO();
+        product.setName("Товар");
+        product.setPrice(new BigDecimal("10.50"));
+        product.setQuantity(5);
+        productId = productService.createProduct(product).getId();
+    }
+
+    @Test
+    void cborProductAndNotFound() throws Exception {
+        assertProductAndNotFound(MediaType.APPLICATION_CBOR, CBORMapper.builder().build());
+    }
+
+    @Test
+    void smileProductAndNotFound() throws Exception {
+        assertProductAndNotFound(SMILE, SmileMapper.builder().build());
+    }
+
+    private void assertProductAndNotFound(MediaType mediaType, ObjectMapper mapper) throws Exception {
+        MvcResult found = mockMvc.perform(get("/products/{id}", productId).accept(mediaType)).andReturn();
+        assertEquals(200, found.getResponse().getStatus());
+        assertTrue(mediaType.isCompatibleWith(MediaType.parseMediaType(found.getResponse().getContentType())));
+        JsonNode product = mapper.readTree(found.getResponse().getContentAsByteArray());
+        assertEquals(productId, product.get("id").asLong());
+        assertEquals("Товар", product.get("name").asString());
+        assertEquals(0, new BigDecimal("10.50").compareTo(product.get("price").decimalValue()));
+        // spring.jackson.default-property-inclusion действует и на бинарные форматы
+        assertFalse(product.has("description"));
+
+        MvcResult missing = mockMvc.perform(get("/products/{id}", Long.MAX_VALUE).accept(mediaType)).andReturn();
+        assertEquals(404, missing.getResponse().getStatus());
+        assertTrue(mediaType.isCompatibleWith(MediaType.parseMediaType(missing.getResponse().getContentType())));
+        JsonNode error = mapper.readTree(missing.getResponse().getContentAsByteArray());
+        assertEquals(404, error.get("status").asInt());
+        assertEquals("Товар не найден с id: " + Long.MAX_VALUE, error.get("message").asString());
+    }
+}
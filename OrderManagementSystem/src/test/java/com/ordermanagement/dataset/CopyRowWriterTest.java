@@ -0,0 +1,95 @@
+package com.ordermanagement.dataset;
+
+import org.junit.jupiter.api.Test;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.util.ByteStreamWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyRowWriterTest {
+
+    @Test
+    void encodesRowsAsPostgresCsv() throws Exception {
+        RecordingCopyIn copyIn = new RecordingCopyIn();
+        // Маленький буфер: строки уходят серверу по мере заполнения, а не в конце
+        CopyRowWriter writer = new CopyRowWriter(copyIn, 16);
+
+        writer.value(-42);
+        writer.text("Ноутбук 15.6\", серый");
+        writer.money(5_999_999);
+        writer.timestamp(LocalDateTime.of(2026, 3, 7, 9, 5, 1));
+        writer.nullValue();
+        writer.text("");
+        writer.endRow();
+        assertTrue(copyIn.writes > 0);
+
+        writer.value(0);
+        writer.money(5);
+        writer.endRow();
+        writer.finish();
+
+        assertEquals("-42,\"Ноутбук 15.6\"\", серый\",59999.99,2026-03-07 09:05:01,,\"\"\n0,0.05\n",
+                copyIn.output.toString(StandardCharsets.UTF_8));
+        assertTrue(copyIn.ended);
+    }
+
+    private static final class RecordingCopyIn implements CopyIn {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int writes;
+        boolean ended;
+
+        @Override
+        public void writeToCopy(byte[] buf, int off, int siz) {
+            output.write(buf, off, siz);
+            writes++;
+        }
+
+        @Override
+        public void writeToCopy(ByteStreamWriter from) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void flushCopy() {
+        }
+
+        @Override
+        public long endCopy() {
+            ended = true;
+            return 2;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return 0;
+        }
+
+        @Override
+        public int getFormat() {
+            return 0;
+        }
+
+        @Override
+        public int getFieldFormat(int field) {
+            return 0;
+        }
+
+        @Override
+        public boolean isActive() {
+            return !ended;
+        }
+
+        @Override
+        public void cancelCopy() {
+        }
+
+        @Override
+        public long getHandledRowCount() {
+            return 0;
+        }
+    }
+}
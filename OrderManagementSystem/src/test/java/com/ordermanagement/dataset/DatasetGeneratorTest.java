@@ -0,0 +1,119 @@
+package com.ordermanagement.dataset;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+
+    private static final LocalDate END = LocalDate.of(2026, 6, 30);
+
+    @Test
+    void sameSeedGivesSameRowsAndOtherSeedDiffers() throws Exception {
+        DatasetGenerator first = new DatasetGenerator(DatasetSpec.of(0.01, 7, END));
+        DatasetGenerator second = new DatasetGenerator(DatasetSpec.of(0.01, 7, END));
+        DatasetGenerator other = new DatasetGenerator(DatasetSpec.of(0.01, 8, END));
+
+        for (DatasetTable table : DatasetTable.values()) {
+            assertEquals(rows(first, table), rows(second, table), table.getTableName());
+        }
+        assertNotEquals(rows(first, DatasetTable.ORDERS), rows(other, DatasetTable.ORDERS));
+    }
+
+    @Test
+    void rowsAreConsistentAcrossTables() throws Exception {
+        DatasetGenerator generator = new DatasetGenerator(DatasetSpec.of(0.01, 42, END));
+        DatasetSpec spec = generator.getSpec();
+
+        Map<Long, Long> prices = new HashMap<>();
+        Map<Long, Long> productQuantities = new HashMap<>();
+        for (List<Object> product : rows(generator, DatasetTable.PRODUCTS)) {
+            prices.put((Long) product.get(0), (Long) product.get(3));
+            productQuantities.put((Long) product.get(0), (Long) product.get(4));
+        }
+        Map<Long, Long> stock = new HashMap<>();
+        Set<String> stockKeys = new HashSet<>();
+        for (List<Object> row : rows(generator, DatasetTable.WAREHOUSE_STOCK)) {
+            assertTrue(stockKeys.add(row.get(1) + ":" + row.get(2)), "склад и товар повторяются");
+            stock.merge((Long) row.get(2), (Long) row.get(3), Long::sum);
+        }
+        assertEquals(productQuantities, stock);
+
+        Map<Long, Long> itemTotals = new HashMap<>();
+        Set<String> orderProducts = new HashSet<>();
+        for (List<Object> item : rows(generator, DatasetTable.ORDER_ITEMS)) {
+            assertEquals(prices.get((Long) item.get(2)), item.get(4));
+            assertTrue(orderProducts.add(item.get(1) + ":" + item.get(2)), "товар повторяется в заказе");
+            itemTotals.merge((Long) item.get(1), (Long) item.get(3) * (Long) item.get(4), Long::sum);
+        }
+
+        Map<Long, Long> orderTotals = new HashMap<>();
+        LocalDateTime end = END.plusDays(1).atStartOfDay();
+        for (List<Object> order : rows(generator, DatasetTable.ORDERS)) {
+            long customerId = (Long) order.get(1);
+            assertTrue(customerId >= 1 && customerId <= spec.getCustomers());
+            assertTrue(((LocalDateTime) order.get(2)).isBefore(end));
+            orderTotals.put((Long) order.get(0), (Long) order.get(4));
+        }
+        assertEquals(spec.getOrders(), orderTotals.size());
+        assertEquals(orderTotals, itemTotals);
+        // Суммы заказов умещаются в NUMERIC(10,2)
+        assertTrue(orderTotals.values().stream().allMatch(total -> total > 0 && total < 10_000_000_000L));
+
+        Set<Long> paidOrders = new HashSet<>();
+        for (List<Object> payment : rows(generator, DatasetTable.PAYMENTS)) {
+            assertTrue(paidOrders.add((Long) payment.get(1)), "у заказа несколько платежей");
+            assertEquals(orderTotals.get((Long) payment.get(1)), payment.get(3));
+        }
+        assertFalse(paidOrders.isEmpty());
+    }
+
+    private static List<List<Object>> rows(DatasetGenerator generator, DatasetTable table) throws Exception {
+        List<List<Object>> rows = new ArrayList<>();
+        generator.generate(table, new RowWriter() {
+            private List<Object> row = new ArrayList<>();
+
+            @Override
+            public void value(long value) {
+                row.add(value);
+            }
+
+            @Override
+            public void text(String value) {
+                row.add(value);
+            }
+
+            @Override
+            public void money(long minor) {
+                row.add(minor);
+            }
+
+            @Override
+            public void timestamp(LocalDateTime value) {
+                row.add(value);
+            }
+
+            @Override
+            public void nullValue() {
+                row.add(null);
+            }
+
+            @Override
+            public void endRow() {
+                assertEquals(table.getColumns().size(), row.size(), table.getTableName());
+                rows.add(row);
+                row = new ArrayList<>();
+            }
+        });
+        return rows;
+    }
+}
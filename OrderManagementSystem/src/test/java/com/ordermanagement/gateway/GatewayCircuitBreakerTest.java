@@ -0,0 +1,71 @@
+package com.ordermanagement.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private GatewayCircuitBreaker breaker() {
+        PaymentGatewayProperties.CircuitBreaker settings = new PaymentGatewayProperties.CircuitBreaker();
+        settings.setWindowSize(10);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(0.5);
+        settings.setOpenMs(1000);
+        settings.setHalfOpenCalls(2);
+        return new GatewayCircuitBreaker(settings, now::get);
+    }
+
+    @Test
+    void opensOnFailureRateAndRejectsUntilPauseExpires() {
+        GatewayCircuitBreaker breaker = breaker();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        // Меньше minimum-calls вызовов - цепь не размыкается
+        assertEquals(GatewayCircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(GatewayCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1000, breaker.remainingOpenMillis());
+
+        now.addAndGet(999);
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenTrialsCloseOrReopenTheCircuit() {
+        GatewayCircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquire();
+            breaker.onFailure();
+        }
+        now.addAndGet(1000);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        // Пробных вызовов не больше half-open-calls
+        assertFalse(breaker.tryAcquire());
+        assertEquals(GatewayCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onFailure();
+        assertEquals(GatewayCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenings());
+
+        now.addAndGet(1000);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(GatewayCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+}
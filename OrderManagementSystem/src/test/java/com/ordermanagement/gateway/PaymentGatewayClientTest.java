@@ -0,0 +1,162 @@
+package com.ordermanagement.gateway;
+
+import com.ordermanagement.exception.WorkloadRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Дублирующие запросы проверки статуса и разрешение неизвестного исхода списания
+ * на подставном транспорте с заданными по номеру вызова ответами.
+ */
+class PaymentGatewayClientTest {
+
+    private static final String KEY = "order-1-tx";
+
+    private final PaymentGatewayProperties properties = new PaymentGatewayProperties();
+    private final List<Supplier<CompletableFuture<Optional<PaymentAuthorization>>>> statusAnswers = new ArrayList<>();
+    private final List<CompletableFuture<Optional<PaymentAuthorization>>> statusCalls = new ArrayList<>();
+    private Supplier<CompletableFuture<PaymentAuthorization>> authorizeAnswer;
+
+    PaymentGatewayClientTest() {
+        properties.getHedge().setDelayMs(50);
+        properties.getHedge().setMaxHedges(1);
+        properties.setRequestTimeoutMs(2000);
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndHedgeWins() {
+        statusAnswers.add(() -> after(1000, found("primary")));
+        statusAnswers.add(() -> after(0, found("hedge")));
+        PaymentGatewayClient client = client();
+
+        long started = System.nanoTime();
+        assertEquals("hedge", client.checkStatus(KEY).orElseThrow().getReference());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 900);
+
+        assertEquals(2, statusCalls.size());
+        // Проигравший запрос отменяется, чтобы не занимать поток транспорта
+        assertTrue(statusCalls.get(0).isCancelled());
+        assertEquals(1, client.getStatistics().getHedgesSent());
+        assertEquals(1, client.getStatistics().getHedgeWins());
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() {
+        statusAnswers.add(() -> after(0, found("primary")));
+        PaymentGatewayClient client = client();
+
+        assertEquals("primary", client.checkStatus(KEY).orElseThrow().getReference());
+        assertEquals(1, statusCalls.size());
+        assertEquals(0, client.getStatistics().getHedgesSent());
+    }
+
+    @Test
+    void failedPrimaryIsReplacedWithoutWaitingForDelay() {
+        properties.getHedge().setDelayMs(1000);
+        statusAnswers.add(() -> CompletableFuture.failedFuture(new PaymentGatewayException("503")));
+        statusAnswers.add(() -> after(0, found("hedge")));
+        PaymentGatewayClient client = client();
+
+        long started = System.nanoTime();
+        assertEquals("hedge", client.checkStatus(KEY).orElseThrow().getReference());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 900);
+        assertEquals(1, client.getStatistics().getHedgeWins());
+    }
+
+    @Test
+    void hedgesAreLimitedAndLastFailureIsReported() {
+        statusAnswers.add(() -> CompletableFuture.failedFuture(new PaymentGatewayException("первый отказ")));
+        statusAnswers.add(() -> CompletableFuture.failedFuture(new PaymentGatewayException("второй отказ")));
+        statusAnswers.add(() -> after(0, found("лишний")));
+        PaymentGatewayClient client = client();
+
+        PaymentGatewayException error = assertThrows(PaymentGatewayException.class, () -> client.checkStatus(KEY));
+        assertEquals("второй отказ", error.getMessage());
+        assertEquals(2, statusCalls.size());
+    }
+
+    @Test
+    void noAnswerWithinRequestTimeout() {
+        properties.setRequestTimeoutMs(300);
+        statusAnswers.add(CompletableFuture::new);
+        statusAnswers.add(CompletableFuture::new);
+        PaymentGatewayClient client = client();
+
+        long started = System.nanoTime();
+        assertThrows(PaymentGatewayException.class, () -> client.checkStatus(KEY));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        assertTrue(elapsedMs >= 300 && elapsedMs < 1500, "elapsed " + elapsedMs);
+        assertEquals(2, statusCalls.size());
+        assertTrue(statusCalls.stream().allMatch(CompletableFuture::isCancelled));
+    }
+
+    @Test
+    void unknownChargeOutcomeIsResolvedByStatusCheck() {
+        authorizeAnswer = () -> CompletableFuture.failedFuture(new PaymentGatewayException("ответ потерян"));
+        statusAnswers.add(() -> after(1000, found("primary")));
+        statusAnswers.add(() -> after(0, found("hedge")));
+        PaymentGatewayClient client = client();
+
+        PaymentAuthorization result = client.authorize(charge());
+        assertTrue(result.isApproved());
+        assertEquals("hedge", result.getReference());
+        assertEquals(1, client.getStatistics().getResolvedByStatusCheck());
+    }
+
+    @Test
+    void chargeNotSeenByGatewayIsReportedAsUnavailable() {
+        authorizeAnswer = () -> CompletableFuture.failedFuture(new PaymentGatewayException("ответ потерян"));
+        statusAnswers.add(() -> after(0, Optional.empty()));
+        PaymentGatewayClient client = client();
+
+        assertThrows(WorkloadRejectedException.class, () -> client.authorize(charge()));
+        assertEquals(0, client.getStatistics().getResolvedByStatusCheck());
+    }
+
+    private PaymentGatewayClient client() {
+        SimulatedPaymentGateway transport = new SimulatedPaymentGateway(null, properties) {
+            @Override
+            public CompletableFuture<PaymentAuthorization> authorize(PaymentCharge charge) {
+                return authorizeAnswer.get();
+            }
+
+            @Override
+            public CompletableFuture<Optional<PaymentAuthorization>> findCharge(String idempotencyKey) {
+                CompletableFuture<Optional<PaymentAuthorization>> call = statusAnswers.get(statusCalls.size()).get();
+                statusCalls.add(call);
+                return call;
+            }
+        };
+        return new PaymentGatewayClient(properties, transport, null);
+    }
+
+    private static <T> CompletableFuture<T> after(long millis, T value) {
+        return CompletableFuture.supplyAsync(() -> value,
+                CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS));
+    }
+
+    private static Optional<PaymentAuthorization> found(String reference) {
+        return Optional.of(PaymentAuthorization.builder()
+                .idempotencyKey(KEY)
+                .status(PaymentAuthorization.Status.APPROVED)
+                .reference(reference)
+                .build());
+    }
+
+    private static PaymentCharge charge() {
+        return PaymentCharge.builder()
+                .idempotencyKey(KEY)
+                .orderId(1L)
+                .amount(new BigDecimal("10.00"))
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.ordermanagement.journal;
+
+import com.ordermanagement.dto.IntakeStatusDTO;
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.dto.ProductDTO;
+import com.ordermanagement.service.OrderIntakeService;
+import com.ordermanagement.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Применение журнала приёма на H2: запись, которую база не принимает, отклоняется и не задерживает остальные.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:intakeapplier;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=ERROR",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false",
+        "ordermanagement.intake-journal.enabled=true",
+        "ordermanagement.intake-journal.apply-interval-ms=600000"})
+class IntakeJournalApplierTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("ordermanagement.intake-journal.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    private IntakeJournal intakeJournal;
+    @Autowired
+    private IntakeJournalApplier applier;
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long customerId;
+    private long productId;
+
+    @BeforeEach
+    void createCatalog() {
+        jdbcTemplate.update("DELETE FROM product_order_counts");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("INSERT INTO customers (name, email, created_at) VALUES ('Покупатель', 'buyer@example.com', ?)",
+                LocalDateTime.now());
+        customerId = jdbcTemplate.queryForObject("SELECT id FROM customers", Long.class);
+        ProductDTO product = new ProductDTO();
+        product.setName("Товар");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setQuantity(100);
+        productId = productService.createProduct(product).getId();
+    }
+
+    @Test
+    void orderTotalBeyondStoredPrecisionIsNotAccepted() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderIntakeService.accept(order(new BigDecimal("50000000.00"), 2)));
+        // Цена округляется до копеек так же, как при записи в журнал
+        assertThrows(IllegalArgumentException.class,
+                () -> orderIntakeService.accept(order(new BigDecimal("0.004"), 1)));
+        assertNotNull(orderIntakeService.accept(order(new BigDecimal("99999999.99"), 1)).getReference());
+    }
+
+    @Test
+    void failingRecordIsRejectedAndLaterRecordsAreApplied() throws Exception {
+        IntakeEntry first = entry(1_000);
+        // Мимо проверки приёма: сумма заказа не помещается в NUMERIC(10,2)
+        IntakeEntry overflow = entry(Long.MAX_VALUE / 4);
+        IntakeEntry last = entry(2_000);
+        intakeJournal.append(first);
+        intakeJournal.append(overflow);
+        assertTrue(intakeJournal.awaitDurable(intakeJournal.append(last), 1000));
+
+        applier.drain();
+
+        assertEquals(IntakeStatusDTO.Status.APPLIED, orderIntakeService.getStatus(first.getReference().toString()).getStatus());
+        assertEquals(IntakeStatusDTO.Status.APPLIED, orderIntakeService.getStatus(last.getReference().toString()).getStatus());
+        IntakeStatusDTO rejected = orderIntakeService.getStatus(overflow.getReference().toString());
+        assertEquals(IntakeStatusDTO.Status.FAILED, rejected.getStatus());
+        assertNotNull(rejected.getMessage());
+        assertTrue(intakeJournal.readBatch(10).isEmpty());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+    }
+
+    private OrderDTO order(BigDecimal unitPrice, int quantity) {
+        OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        OrderDTO order = new OrderDTO();
+        order.setCustomerId(customerId);
+        order.setItems(List.of(item));
+        return order;
+    }
+
+    private IntakeEntry entry(long unitPriceMinor) {
+        return IntakeEntry.builder()
+                .reference(UUID.randomUUID())
+                .customerId(customerId)
+                .acceptedAt(LocalDateTime.now())
+                .items(List.of(new IntakeEntry.Item(productId, 1, unitPriceMinor)))
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.ordermanagement.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntakeJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void unappliedEntriesSurviveReopen() throws Exception {
+        IntakeJournal journal = open(1024 * 1024);
+        IntakeEntry first = entry();
+        IntakeEntry second = entry();
+        journal.append(first);
+        long last = journal.append(second);
+        assertTrue(journal.awaitDurable(last, 1000));
+
+        List<JournalRecord> batch = journal.readBatch(1);
+        assertEquals(first.getReference(), IntakeEntry.fromBytes(batch.get(0).getPayload()).getReference());
+        journal.markApplied(batch.get(0).getSequence(), List.of(first.getReference()), Map.of());
+        journal.close();
+
+        IntakeJournal reopened = open(1024 * 1024);
+        assertTrue(reopened.findPending(first.getReference()).isEmpty());
+        assertEquals(last, reopened.findPending(second.getReference()).orElseThrow());
+        List<JournalRecord> remaining = reopened.readBatch(10);
+        assertEquals(1, remaining.size());
+        assertEquals(second, IntakeEntry.fromBytes(remaining.get(0).getPayload()));
+        reopened.close();
+    }
+
+    @Test
+    void tornRecordIsDiscardedOnRecovery() throws Exception {
+        IntakeJournal journal = open(1024 * 1024);
+        journal.append(entry());
+        long last = journal.append(entry());
+        journal.awaitDurable(last, 1000);
+        journal.close();
+
+        // Портим данные последней записи - как при сбое посреди записи
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int firstLength = JournalSegment.HEADER_SIZE + readInt(file, 0);
+            file.seek(firstLength + JournalSegment.HEADER_SIZE + 3);
+            file.write(0x7F);
+        }
+
+        IntakeJournal reopened = open(1024 * 1024);
+        assertEquals(1, reopened.getStatistics().getLastSequence());
+        assertEquals(2, reopened.append(entry()));
+        reopened.close();
+    }
+
+    @Test
+    void appliedSegmentsAreDeleted() throws Exception {
+        IntakeJournal journal = open(512);
+        List<UUID> references = new ArrayList<>();
+        long last = 0;
+        for (int i = 0; i < 20; i++) {
+            IntakeEntry entry = entry();
+            references.add(entry.getReference());
+            last = journal.append(entry);
+        }
+        journal.awaitDurable(last, 1000);
+        assertTrue(segments().size() > 1);
+
+        List<JournalRecord> records = journal.readBatch(100);
+        assertEquals(20, records.size());
+        journal.markApplied(last, references, Map.of());
+        assertEquals(1, segments().size());
+        assertEquals(0, journal.getStatistics().getPendingCount());
+        journal.close();
+    }
+
+    @Test
+    void notesLongerThan64KbSurviveRoundTrip() throws Exception {
+        String notes = "Позвонить за час до доставки. ".repeat(5_000);
+        IntakeEntry entry = IntakeEntry.builder()
+                .reference(UUID.randomUUID())
+                .customerId(1L)
+                .notes(notes)
+                .acceptedAt(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .items(List.of(new IntakeEntry.Item(2L, 3, 1999)))
+                .build();
+
+        IntakeJournal journal = open(1024 * 1024);
+        journal.awaitDurable(journal.append(entry), 1000);
+        assertEquals(entry, IntakeEntry.fromBytes(journal.readBatch(1).get(0).getPayload()));
+        journal.close();
+    }
+
+    private IntakeJournal open(int segmentSize) throws Exception {
+        IntakeJournalProperties properties = new IntakeJournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSizeBytes(segmentSize);
+        properties.setFlushIntervalMs(1);
+        IntakeJournal journal = new IntakeJournal(properties);
+        journal.open();
+        return journal;
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalSegment::isSegmentFile).sorted().toList();
+        }
+    }
+
+    private static int readInt(RandomAccessFile file, long position) throws Exception {
+        file.seek(position);
+        return file.readInt();
+    }
+
+    private static IntakeEntry entry() {
+        return IntakeEntry.builder()
+                .reference(UUID.randomUUID())
+                .customerId(1L)
+                .notes("Доставка до 18:00")
+                .acceptedAt(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .items(List.of(new IntakeEntry.Item(2L, 3, 1999)))
+                .build();
+    }
+}
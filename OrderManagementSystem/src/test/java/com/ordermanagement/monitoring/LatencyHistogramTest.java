@@ -0,0 +1,33 @@
+package com.ordermanagement.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBoundsCoverValues() {
+        for (long value : new long[]{0, 1, 3, 4, 7, 8, 9, 1_000, 123_456_789L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value, "Значение вне корзины: " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < value, "Значение не в своей корзине: " + value);
+            }
+        }
+    }
+
+    @Test
+    void percentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5_000, histogram.percentile(0.50), 5_000 * 0.25);
+        assertEquals(9_900, histogram.percentile(0.99), 9_900 * 0.25);
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.ordermanagement.monitoring;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementMonitorTest {
+
+    @Test
+    void shapesCollapseLiteralsAndInLists() {
+        assertEquals("select * from products p where p.id in (?...) and p.name = ?",
+                SqlStatementMonitor.normalize("select *  from products p\n where p.id in (?, ?, ?) and p.name = 'x'"));
+    }
+
+    @Test
+    void keepsSlowestStatementsWithParameters() {
+        SqlMonitoringProperties properties = new SqlMonitoringProperties();
+        properties.setSlowStatementCapacity(3);
+        SqlStatementMonitor monitor = new SqlStatementMonitor(properties);
+
+        for (int i = 1; i <= 10; i++) {
+            monitor.record("select * from orders where id = ?", new Object[]{null, (long) i}, 1, 1,
+                    i * 1_000_000L, false);
+        }
+
+        List<SlowStatement> slow = monitor.getSlowStatements();
+        assertEquals(3, slow.size());
+        assertEquals(List.of("10"), slow.get(0).getParameters());
+        assertEquals(List.of("8"), slow.get(2).getParameters());
+        assertEquals(10, monitor.getShapeStatistics().get(0).getCount());
+    }
+
+    @Test
+    void recordsNullForSetNullInsteadOfTypeCode() throws Exception {
+        SqlMonitoringProperties properties = new SqlMonitoringProperties();
+        properties.setSlowStatementCapacity(1);
+        SqlStatementMonitor monitor = new SqlStatementMonitor(properties);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:monitoring-set-null");
+        MonitoringDataSource dataSource = new MonitoringDataSource(h2, monitor);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select cast(? as integer), ?")) {
+            statement.setNull(1, Types.INTEGER);
+            statement.setLong(2, 7L);
+            statement.executeQuery().close();
+        }
+
+        assertEquals(List.of("null", "7"), monitor.getSlowStatements().get(0).getParameters());
+    }
+}
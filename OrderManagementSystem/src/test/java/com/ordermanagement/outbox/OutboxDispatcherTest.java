@@ -0,0 +1,140 @@
+package com.ordermanagement.outbox;
+
+import com.ordermanagement.entity.OutboxEvent;
+import com.ordermanagement.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Захват событий исходящей очереди на H2 и пачка диспетчера с подставными приёмниками.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false"})
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxStore outboxStore;
+    @Autowired
+    private OutboxEventRepository repository;
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @BeforeEach
+    void clearQueue() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void claimTakesOldestEventPerOrderInIdOrder() {
+        long first = append(1L, null);
+        long second = append(1L, null);
+        long otherOrder = append(2L, null);
+        append(3L, LocalDateTime.now().plusMinutes(5));
+
+        // Второе событие заказа 1 ждёт первое, событие заказа 3 - время следующей попытки
+        List<OutboxEvent> claimed = outboxStore.claim(10, 60);
+        assertEquals(List.of(first, otherOrder), claimed.stream().map(OutboxEvent::getId).toList());
+        assertTrue(claimed.stream().allMatch(event -> event.getAttempts() == 1));
+        // Арендованные события повторно не выдаются
+        assertTrue(outboxStore.claim(10, 60).isEmpty());
+
+        outboxStore.markDelivered(List.of(first), LocalDateTime.now());
+        assertEquals(List.of(second), outboxStore.claim(10, 60).stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    void withoutActiveSinkEventsStayPending() {
+        long id = append(1L, null);
+        RecordingSink sink = new RecordingSink(false, 0);
+
+        assertEquals(0, dispatcher(60, sink).dispatchBatch());
+
+        OutboxEvent event = repository.findById(id).orElseThrow();
+        assertEquals(OutboxEvent.EventStatus.PENDING, event.getStatus());
+        assertEquals(0, event.getAttempts());
+        assertNull(event.getLeaseExpiresAt());
+        assertTrue(sink.delivered.isEmpty());
+    }
+
+    @Test
+    void batchStopsAtHalfLeaseAndReturnsRest() {
+        List<Long> ids = new ArrayList<>();
+        for (long order = 1; order <= 5; order++) {
+            ids.add(append(order, null));
+        }
+        // Аренда 2 с: пачка обрывается через 1 с, то есть после второй доставки по 600 мс
+        RecordingSink sink = new RecordingSink(true, 600);
+
+        assertEquals(5, dispatcher(2, sink).dispatchBatch());
+
+        assertEquals(ids.subList(0, 2), sink.delivered);
+        for (Long id : ids) {
+            OutboxEvent event = repository.findById(id).orElseThrow();
+            boolean delivered = sink.delivered.contains(id);
+            assertEquals(delivered ? OutboxEvent.EventStatus.DELIVERED : OutboxEvent.EventStatus.PENDING, event.getStatus());
+            assertEquals(delivered ? 1 : 0, event.getAttempts());
+            assertNull(event.getLeaseExpiresAt());
+        }
+    }
+
+    private OutboxDispatcher dispatcher(int leaseSeconds, OutboxSink sink) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setLeaseSeconds(leaseSeconds);
+        return new OutboxDispatcher(outboxStore, properties, List.of(sink), jsonMapper);
+    }
+
+    private long append(long orderId, LocalDateTime nextAttemptAt) {
+        return repository.save(OutboxEvent.builder()
+                .aggregateId(orderId)
+                .eventType(OutboxEvent.EventType.ORDER_PAID)
+                .payload("{\"orderId\":" + orderId + "}")
+                .nextAttemptAt(nextAttemptAt)
+                .build()).getId();
+    }
+
+    private static class RecordingSink implements OutboxSink {
+
+        private final boolean enabled;
+        private final long deliveryMillis;
+        private final List<Long> delivered = new ArrayList<>();
+
+        RecordingSink(boolean enabled, long deliveryMillis) {
+            this.enabled = enabled;
+            this.deliveryMillis = deliveryMillis;
+        }
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public void deliver(OutboxMessage message) throws InterruptedException {
+            Thread.sleep(deliveryMillis);
+            delivered.add(message.getEventId());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ordermanagement.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRetryPolicyTest {
+
+    @Test
+    void doublesDelayPerAttemptWithinJitterBand() {
+        assertEquals(500, OutboxRetryPolicy.backoffMillis(1, 1000, 60000, 0.0));
+        assertEquals(999, OutboxRetryPolicy.backoffMillis(1, 1000, 60000, 0.999));
+        assertEquals(2000, OutboxRetryPolicy.backoffMillis(3, 1000, 60000, 0.0));
+        assertEquals(6000, OutboxRetryPolicy.backoffMillis(4, 1000, 60000, 0.5));
+    }
+
+    @Test
+    void capsDelayAndSurvivesLargeAttemptNumbers() {
+        assertEquals(30000, OutboxRetryPolicy.backoffMillis(10, 1000, 60000, 0.0));
+        assertEquals(30000, OutboxRetryPolicy.backoffMillis(Integer.MAX_VALUE, 1000, 60000, 0.0));
+        assertEquals(500, OutboxRetryPolicy.backoffMillis(0, 1000, 60000, 0.0));
+    }
+}
@@ -0,0 +1,76 @@
+package com.ordermanagement.reconciliation;
+
+import com.ordermanagement.entity.Payment;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementReconcilerTest {
+
+    @Test
+    void classifiesEveryLineAndUnmatchedPayments() throws Exception {
+        PaymentIndex index = new PaymentIndex();
+        index.put("TX-1", 1, 1050, Payment.PaymentStatus.COMPLETED);
+        index.put("TX-2", 2, 2000, Payment.PaymentStatus.COMPLETED);
+        index.put("TX-3", 3, 300, Payment.PaymentStatus.COMPLETED);
+        index.put("TX-4", 4, 400, Payment.PaymentStatus.COMPLETED);
+        index.put("Платёж-5", 5, 500, Payment.PaymentStatus.REFUNDED);
+        assertFalse(index.put("TX-1", 6, 1, Payment.PaymentStatus.COMPLETED));
+
+        String file = "transaction_id,amount,status\r\n"
+                + "TX-1,10.5,SETTLED\r\n"
+                + "TX-2,20.01,SETTLED\n"
+                + "TX-3,3.00,REFUNDED\n"
+                + "TX-9,1,SETTLED\n"
+                + "TX-1,10.50,SETTLED\n"
+                + "TX-x,abc,SETTLED\n"
+                + "\n"
+                + "Платёж-5,5,REFUNDED,2026-10-18";
+        // Буфер меньше файла: строки переносятся между порциями
+        SettlementReconciler reconciler = new SettlementReconciler(index, 10);
+        long bytes = SettlementLineReader.read(
+                Channels.newChannel(new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8))), 48, reconciler);
+        reconciler.finish();
+
+        assertEquals(file.getBytes(StandardCharsets.UTF_8).length, bytes);
+        assertEquals(9, reconciler.getLines());
+        Map<ReconciliationOutcome, Long> counts = reconciler.getCounts();
+        assertEquals(2, counts.get(ReconciliationOutcome.MATCHED));
+        assertEquals(1, counts.get(ReconciliationOutcome.AMOUNT_MISMATCH));
+        assertEquals(1, counts.get(ReconciliationOutcome.STATUS_MISMATCH));
+        assertEquals(1, counts.get(ReconciliationOutcome.MISSING_PAYMENT));
+        assertEquals(1, counts.get(ReconciliationOutcome.DUPLICATE));
+        assertEquals(1, counts.get(ReconciliationOutcome.MALFORMED));
+        assertEquals(1, counts.get(ReconciliationOutcome.MISSING_SETTLEMENT));
+
+        List<ReconciliationDiscrepancy> samples = reconciler.getSamples();
+        assertEquals("TX-2", samples.get(0).getTransactionId());
+        assertEquals(3, samples.get(0).getLine());
+        assertEquals(0, samples.get(0).getSettledAmount().compareTo(new java.math.BigDecimal("20.01")));
+        ReconciliationDiscrepancy missing = samples.get(samples.size() - 1);
+        assertEquals(ReconciliationOutcome.MISSING_SETTLEMENT, missing.getOutcome());
+        assertEquals("TX-4", missing.getTransactionId());
+    }
+
+    @Test
+    void parsesAmountsToMinorUnits() {
+        assertEquals(1050, amount("10.5"));
+        assertEquals(1000, amount("10"));
+        assertEquals(-1, amount("-0.01"));
+        assertEquals(Long.MIN_VALUE, amount("1.234"));
+        assertEquals(Long.MIN_VALUE, amount("1,2"));
+        assertEquals(Long.MIN_VALUE, amount(""));
+    }
+
+    private static long amount(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        return SettlementReconciler.parseAmount(buffer, 0, buffer.limit());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ordermanagement.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongKeyTotalsTest {
+
+    @Test
+    void accumulatesAcrossResize() {
+        LongKeyTotals totals = new LongKeyTotals();
+        Map<Long, long[]> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(3_000) - 100;
+            long amount = random.nextInt(10_000);
+            totals.add(key, amount, 1);
+            long[] sums = expected.computeIfAbsent(key, k -> new long[2]);
+            sums[0] += amount;
+            sums[1] += 1;
+        }
+
+        assertEquals(expected.size(), totals.size());
+        expected.forEach((key, sums) -> {
+            assertEquals(sums[0], totals.getAmount(key));
+            assertEquals(sums[1], totals.getQuantity(key));
+        });
+    }
+
+    @Test
+    void mergeAddsMatchingKeys() {
+        LongKeyTotals left = new LongKeyTotals();
+        left.add(1, 100, 1);
+        left.add(2, 200, 2);
+        LongKeyTotals right = new LongKeyTotals();
+        right.add(2, 50, 1);
+        right.add(3, 300, 3);
+
+        left.merge(right);
+
+        assertEquals(3, left.size());
+        assertEquals(250, left.getAmount(2));
+        assertEquals(3, left.getQuantity(2));
+        assertEquals(300, left.getAmount(3));
+        long[] sum = new long[1];
+        left.forEach((key, amount, quantity) -> sum[0] += amount);
+        assertEquals(650, sum[0]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ordermanagement.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerSuggestIndexTest {
+
+    @Test
+    void matchesPrefixesOfNameAndEmailTokens() {
+        CustomerSuggestIndex index = new CustomerSuggestIndex(new CustomerSuggestProperties());
+        index.put(1, "Иван Петров", "ivan.petrov@example.com");
+        index.put(2, "Иванна Сидорова", "ivanna@mail.ru");
+        index.put(3, "Пётр Иванов", "petr@example.com");
+
+        // Сначала точное совпадение слова, затем более длинные токены
+        assertEquals(List.of(1L, 2L, 3L), ids(index.suggest("ИВАН", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("иван петро", 10)));
+        assertEquals(List.of(3L, 1L), ids(index.suggest("петр", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("ivan.p", 10)));
+        assertEquals(List.of(1L, 3L), ids(index.suggest("example", 10)).stream().sorted().toList());
+        assertEquals(1, index.suggest("иван", 1).size());
+        assertTrue(index.suggest("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void updateAndRemoveKeepTrieCompact() {
+        CustomerSuggestIndex index = new CustomerSuggestIndex(new CustomerSuggestProperties());
+        CustomerSuggestStatistics empty = index.getStatistics();
+        index.put(1, "Анна", "anna@example.com");
+        index.put(2, "Анастасия", "nastya@example.com");
+
+        index.put(1, "Алла", "alla@example.com");
+        assertTrue(index.suggest("анна", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.suggest("алл", 10)));
+
+        index.remove(1);
+        index.remove(2);
+        CustomerSuggestStatistics statistics = index.getStatistics();
+        assertEquals(0, statistics.getCustomers());
+        assertEquals(0, statistics.getPostings());
+        assertEquals(empty.getNodes(), statistics.getNodes());
+        assertTrue(index.suggest("а", 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<CustomerSuggestion> suggestions) {
+        return suggestions.stream().map(CustomerSuggestion::getId).toList();
+    }
+}
@@ -0,0 +1,149 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.FulfillmentAckResultDTO;
+import com.ordermanagement.dto.FulfillmentLeaseDTO;
+import com.ordermanagement.dto.OrderDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Очередь комплектации на H2: захват пачек с SKIP LOCKED, подтверждение и возврат по аренде.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fulfillment;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false"})
+class OrderFulfillmentTest {
+
+    private static final int PAID_ORDERS = 6;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> paidIds;
+
+    @BeforeEach
+    void createPaidOrders() {
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("INSERT INTO customers (name, email, created_at) VALUES ('Покупатель', 'buyer@example.com', ?)",
+                LocalDateTime.now());
+        Long customerId = jdbcTemplate.queryForObject("SELECT id FROM customers", Long.class);
+        LocalDateTime placed = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < PAID_ORDERS; i++) {
+            jdbcTemplate.update("INSERT INTO orders (customer_id, order_date, status, total_amount) VALUES (?, ?, 'PAID', 10.00)",
+                    customerId, placed.plusMinutes(i));
+        }
+        jdbcTemplate.update("INSERT INTO orders (customer_id, order_date, status, total_amount) VALUES (?, ?, 'RESERVED', 10.00)",
+                customerId, placed);
+        paidIds = jdbcTemplate.queryForList("SELECT id FROM orders WHERE status = 'PAID' ORDER BY order_date, id", Long.class);
+    }
+
+    @Test
+    void concurrentClaimersGetDisjointOrders() throws Exception {
+        int claimers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(claimers);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int c = 0; c < claimers; c++) {
+            String worker = "worker-" + c;
+            futures.add(executor.submit(() -> claimUntilQueueEmpty(worker)));
+        }
+        List<Long> claimed = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            claimed.addAll(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Каждый оплаченный заказ выдан ровно одному комплектовщику, заказ в другом статусе - никому
+        assertEquals(PAID_ORDERS, claimed.size());
+        assertEquals(new HashSet<>(paidIds), new HashSet<>(claimed));
+        assertEquals(PAID_ORDERS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT lease_id) FROM orders WHERE lease_id IS NOT NULL", Integer.class));
+        assertTrue(orderService.claimFulfillment("late", PAID_ORDERS).getOrders().isEmpty());
+    }
+
+    @Test
+    void acknowledgeRequiresOwnLiveLease() {
+        FulfillmentLeaseDTO lease = orderService.claimFulfillment("worker", 3);
+        List<Long> leased = ids(lease);
+
+        FulfillmentAckResultDTO foreign = orderService.acknowledgeFulfillment("other-lease", leased);
+        assertTrue(foreign.getAcknowledged().isEmpty());
+        assertEquals(leased, foreign.getRejected());
+
+        jdbcTemplate.update("UPDATE orders SET lease_expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusSeconds(1), leased.get(0));
+        FulfillmentAckResultDTO result = orderService.acknowledgeFulfillment(lease.getLeaseId(), leased);
+        assertEquals(leased.subList(1, 3), result.getAcknowledged());
+        assertEquals(List.of(leased.get(0)), result.getRejected());
+        assertEquals(2, countWithStatus("SHIPPED"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE status = 'SHIPPED' AND lease_id IS NOT NULL", Integer.class));
+
+        // Заказ с истёкшей арендой снова доступен для захвата
+        assertTrue(ids(orderService.claimFulfillment("next", PAID_ORDERS)).contains(leased.get(0)));
+    }
+
+    @Test
+    void releaseMakesOrdersClaimableAgain() {
+        FulfillmentLeaseDTO lease = orderService.claimFulfillment("worker", PAID_ORDERS);
+        assertEquals(paidIds, ids(lease));
+        assertTrue(orderService.claimFulfillment("other", PAID_ORDERS).getOrders().isEmpty());
+
+        FulfillmentAckResultDTO released = orderService.releaseFulfillment(lease.getLeaseId(), paidIds.subList(0, 2));
+        assertEquals(paidIds.subList(0, 2), released.getAcknowledged());
+        assertEquals(PAID_ORDERS, countWithStatus("PAID"));
+
+        assertEquals(paidIds.subList(0, 2), ids(orderService.claimFulfillment("other", PAID_ORDERS)));
+        // Возвращённые заказы больше не принадлежат первой аренде
+        assertEquals(paidIds.subList(0, 2),
+                orderService.acknowledgeFulfillment(lease.getLeaseId(), paidIds.subList(0, 2)).getRejected());
+    }
+
+    // Захват по одному заказу, пока все оплаченные не разобраны. Пустой ответ возможен и при непустой очереди:
+    // строки, заблокированные параллельным захватом, пропускаются
+    private List<Long> claimUntilQueueEmpty(String worker) {
+        List<Long> claimed = new ArrayList<>();
+        while (leasedCount() < PAID_ORDERS) {
+            claimed.addAll(ids(orderService.claimFulfillment(worker, 1)));
+        }
+        return claimed;
+    }
+
+    private int leasedCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE lease_id IS NOT NULL", Integer.class);
+    }
+
+    private int countWithStatus(String status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE status = ?", Integer.class, status);
+    }
+
+    private static List<Long> ids(FulfillmentLeaseDTO lease) {
+        List<Long> ids = lease.getOrders().stream().map(OrderDTO::getId).toList();
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        return ids;
+    }
+}
@@ -0,0 +1,151 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.dto.PaymentDTO;
+import com.ordermanagement.entity.Order;
+import com.ordermanagement.entity.Payment;
+import com.ordermanagement.exception.PaymentException;
+import com.ordermanagement.exception.WorkloadRejectedException;
+import com.ordermanagement.gateway.PaymentGatewayProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Оплата заказа через встроенный имитатор шлюза: параллельные оплаты, отклонение и неизвестный исход.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false",
+        "ordermanagement.payment-gateway.simulator.latency=FIXED",
+        "ordermanagement.payment-gateway.simulator.median-latency-ms=300",
+        "ordermanagement.payment-gateway.simulator.decline-rate=0"})
+class OrderPaymentServiceTest {
+
+    @Autowired
+    private OrderPaymentService orderPaymentService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private PaymentGatewayProperties gatewayProperties;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long orderId;
+
+    @BeforeEach
+    void createReservedOrder() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("INSERT INTO customers (name, email, created_at) VALUES ('Покупатель', 'buyer@example.com', ?)",
+                LocalDateTime.now());
+        Long customerId = jdbcTemplate.queryForObject("SELECT id FROM customers", Long.class);
+        jdbcTemplate.update("INSERT INTO orders (customer_id, order_date, status, total_amount) VALUES (?, ?, 'RESERVED', 10.00)",
+                customerId, LocalDateTime.now());
+        orderId = jdbcTemplate.queryForObject("SELECT id FROM orders", Long.class);
+    }
+
+    @AfterEach
+    void restoreSimulator() {
+        gatewayProperties.getSimulator().setDeclineRate(0);
+        gatewayProperties.getSimulator().setErrorRate(0);
+    }
+
+    @Test
+    void concurrentPaymentsChargeOnce() throws Exception {
+        int payers = 2;
+        ExecutorService executor = Executors.newFixedThreadPool(payers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OrderDTO>> results = new ArrayList<>();
+        for (int i = 0; i < payers; i++) {
+            Callable<OrderDTO> pay = () -> {
+                start.await();
+                return orderPaymentService.processOrderPayment(orderId, payment(null));
+            };
+            results.add(executor.submit(pay));
+        }
+        start.countDown();
+        // Второй запрос дожидается блокировки заказа, видит незавершённую попытку и повторяет её ключ
+        for (Future<OrderDTO> result : results) {
+            assertEquals(Order.OrderStatus.PAID, result.get().getStatus());
+        }
+        executor.shutdown();
+
+        assertEquals(1, count("SELECT COUNT(*) FROM payments WHERE status = 'COMPLETED'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM outbox_events WHERE event_type = 'ORDER_PAID'"));
+    }
+
+    @Test
+    void declinedPaymentIsRetriedWithNewKey() {
+        gatewayProperties.getSimulator().setDeclineRate(1);
+        assertThrows(PaymentException.class, () -> orderPaymentService.processOrderPayment(orderId, payment(null)));
+        assertEquals(Payment.PaymentStatus.FAILED.name(), paymentColumn("status"));
+        assertEquals(Order.OrderStatus.RESERVED.name(), orderStatus());
+        String declinedKey = paymentColumn("idempotency_key");
+
+        gatewayProperties.getSimulator().setDeclineRate(0);
+        assertEquals(Order.OrderStatus.PAID, orderPaymentService.processOrderPayment(orderId, payment(null)).getStatus());
+        assertNotEquals(declinedKey, paymentColumn("idempotency_key"));
+        assertEquals(Payment.PaymentStatus.COMPLETED.name(), paymentColumn("status"));
+    }
+
+    @Test
+    void unknownOutcomeKeepsKeyForRetry() {
+        gatewayProperties.getSimulator().setErrorRate(1);
+        assertThrows(WorkloadRejectedException.class,
+                () -> orderPaymentService.processOrderPayment(orderId, payment("tx-1")));
+        assertEquals(Payment.PaymentStatus.PROCESSING.name(), paymentColumn("status"));
+        assertEquals("order-" + orderId + "-tx-1", paymentColumn("idempotency_key"));
+        // Пока исход неизвестен, заказ нельзя отменить: деньги могли быть списаны
+        assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(orderId));
+
+        gatewayProperties.getSimulator().setErrorRate(0);
+        // Повтор без ID транзакции всё равно отправляет ключ незавершённой попытки
+        assertEquals(Order.OrderStatus.PAID, orderPaymentService.processOrderPayment(orderId, payment(null)).getStatus());
+        assertEquals("order-" + orderId + "-tx-1", paymentColumn("idempotency_key"));
+        assertEquals("tx-1", paymentColumn("transaction_id"));
+    }
+
+    private static PaymentDTO payment(String transactionId) {
+        PaymentDTO payment = new PaymentDTO();
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        payment.setTransactionId(transactionId);
+        return payment;
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    private String paymentColumn(String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM payments WHERE order_id = ?", String.class, orderId);
+    }
+
+    private String orderStatus() {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, orderId);
+    }
+}
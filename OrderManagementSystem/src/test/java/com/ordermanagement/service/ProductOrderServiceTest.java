@@ -0,0 +1,180 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.OrderDTO;
+import com.ordermanagement.dto.ProductDTO;
+import com.ordermanagement.dto.ProductOrderPageDTO;
+import com.ordermanagement.dto.ProductOrderSummaryDTO;
+import com.ordermanagement.entity.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Заказы товара на H2: страницы по курсору id заказа и сегментированный счётчик заказов.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:productorders;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false",
+        "ordermanagement.product-orders.counter-shards=4"})
+class ProductOrderServiceTest {
+
+    private static final int ORDERS = 7;
+
+    @Autowired
+    private ProductOrderService productOrderService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long customerId;
+    private long productId;
+    private long otherProductId;
+    // id заказов с товаром по возрастанию
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void createOrders() {
+        jdbcTemplate.update("DELETE FROM product_order_counts");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("INSERT INTO customers (name, email, created_at) VALUES ('Покупатель', 'buyer@example.com', ?)",
+                LocalDateTime.now());
+        customerId = jdbcTemplate.queryForObject("SELECT id FROM customers", Long.class);
+        productId = createProduct("Товар");
+        otherProductId = createProduct("Другой товар");
+
+        orderIds.clear();
+        for (int i = 0; i < ORDERS; i++) {
+            // Заказы другого товара между ними не попадают в страницы и счётчик
+            createOrder(otherProductId, 1);
+            // Товар дважды в одном заказе - одна строка сводки и один заказ в счётчике
+            orderIds.add(createOrder(productId, 2).getId());
+        }
+    }
+
+    @Test
+    void pagesWalkOrdersNewestFirstWithoutGapsOrOverlap() {
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Long before = null;
+        do {
+            ProductOrderPageDTO page = productOrderService.getProductOrders(productId, before, null, null, null, 3);
+            page.getOrders().forEach(order -> seen.add(order.getOrderId()));
+            pageSizes.add(page.getOrders().size());
+            before = page.getNextBefore();
+        } while (before != null);
+
+        assertEquals(List.of(3, 3, 1), pageSizes);
+        List<Long> newestFirst = new ArrayList<>(orderIds);
+        Collections.reverse(newestFirst);
+        assertEquals(newestFirst, seen);
+
+        ProductOrderSummaryDTO newest = productOrderService.getProductOrders(productId, null, null, null, null, 1)
+                .getOrders().get(0);
+        // Две позиции товара в заказе складываются
+        assertEquals(4, newest.getQuantity());
+        assertEquals(0, new BigDecimal("40.00").compareTo(newest.getAmount()));
+        assertEquals(customerId, newest.getCustomerId());
+    }
+
+    @Test
+    void fullLastPageEndsWithEmptyPage() {
+        ProductOrderPageDTO page = productOrderService.getProductOrders(productId, orderIds.get(4), null, null, null, 2);
+        assertEquals(List.of(orderIds.get(3), orderIds.get(2)), ids(page));
+        page = productOrderService.getProductOrders(productId, page.getNextBefore(), null, null, null, 2);
+        assertEquals(List.of(orderIds.get(1), orderIds.get(0)), ids(page));
+        assertEquals(orderIds.get(0), page.getNextBefore());
+
+        page = productOrderService.getProductOrders(productId, page.getNextBefore(), null, null, null, 2);
+        assertTrue(page.getOrders().isEmpty());
+        assertNull(page.getNextBefore());
+    }
+
+    @Test
+    void statusFilterKeepsCursorOrder() {
+        jdbcTemplate.update("UPDATE orders SET status = 'CANCELLED' WHERE id IN (?, ?)", orderIds.get(1), orderIds.get(5));
+        ProductOrderPageDTO page = productOrderService.getProductOrders(productId, null,
+                Order.OrderStatus.CANCELLED, null, null, 10);
+        assertEquals(List.of(orderIds.get(5), orderIds.get(1)), ids(page));
+        assertNull(page.getNextBefore());
+        // Счётчик считает все заказы товара, независимо от фильтра страницы
+        assertEquals(ORDERS, page.getTotalOrders());
+    }
+
+    @Test
+    void counterIsIncrementedOnCreateAndSummedAcrossShards() {
+        assertEquals(ORDERS, productOrderService.getProductOrders(productId, null, null, null, null, 1).getTotalOrders());
+        // Каждый заказ попал в сегмент по своему id, итог - сумма сегментов
+        Map<Integer, Long> expected = orderIds.stream()
+                .collect(Collectors.groupingBy(id -> (int) Math.floorMod(id, 4L), TreeMap::new, Collectors.counting()));
+        Map<Integer, Long> shards = new TreeMap<>();
+        jdbcTemplate.query("SELECT shard_no, order_count FROM product_order_counts WHERE product_id = ?",
+                rs -> {
+                    shards.put(rs.getInt(1), rs.getLong(2));
+                }, productId);
+        assertEquals(expected, shards);
+        assertTrue(shards.size() > 1);
+
+        createOrder(productId, 1);
+        assertEquals(ORDERS + 1,
+                productOrderService.getProductOrders(productId, null, null, null, null, 1).getTotalOrders());
+
+        // Пересчёт по позициям заказов даёт те же итоги одним сегментом
+        productOrderService.rebuildCounters();
+        assertEquals(ORDERS + 1,
+                productOrderService.getProductOrders(productId, null, null, null, null, 1).getTotalOrders());
+        assertEquals(ORDERS, productOrderService.getProductOrders(otherProductId, null, null, null, null, 1).getTotalOrders());
+    }
+
+    private OrderDTO createOrder(long product, int lines) {
+        OrderDTO order = new OrderDTO();
+        order.setCustomerId(customerId);
+        List<OrderDTO.OrderItemDTO> items = new ArrayList<>();
+        for (int line = 0; line < lines; line++) {
+            OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+            item.setProductId(product);
+            item.setQuantity(2);
+            item.setUnitPrice(new BigDecimal("10.00"));
+            items.add(item);
+        }
+        order.setItems(items);
+        return orderService.createOrder(order);
+    }
+
+    private long createProduct(String name) {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setQuantity(1000);
+        return productService.createProduct(product).getId();
+    }
+
+    private static List<Long> ids(ProductOrderPageDTO page) {
+        return page.getOrders().stream().map(ProductOrderSummaryDTO::getOrderId).toList();
+    }
+}
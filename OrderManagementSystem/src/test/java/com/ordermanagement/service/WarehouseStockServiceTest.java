@@ -0,0 +1,81 @@
+package com.ordermanagement.service;
+
+import com.ordermanagement.dto.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Остатки по складам на H2: изменение остатка склада сдвигает products.quantity на разницу
+ * и не затирает резервирования, сделанные после последней записи остатка.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:warehousestock;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false"})
+class WarehouseStockServiceTest {
+
+    @Autowired
+    private WarehouseStockService warehouseStockService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long productId;
+    private long northId;
+    private long southId;
+
+    @BeforeEach
+    void createProduct() {
+        jdbcTemplate.update("DELETE FROM warehouse_stock");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM warehouses");
+        jdbcTemplate.update("INSERT INTO warehouses (name, priority) VALUES ('Север', 0), ('Юг', 1)");
+        northId = jdbcTemplate.queryForObject("SELECT id FROM warehouses WHERE name = 'Север'", Long.class);
+        southId = jdbcTemplate.queryForObject("SELECT id FROM warehouses WHERE name = 'Юг'", Long.class);
+        ProductDTO product = new ProductDTO();
+        product.setName("Товар");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setQuantity(0);
+        productId = productService.createProduct(product).getId();
+    }
+
+    @Test
+    void stockChangeIsAppliedAsDeltaOverReservations() {
+        warehouseStockService.setStock(productId, northId, 10);
+        warehouseStockService.setStock(productId, southId, 5);
+        assertEquals(15, productQuantity());
+
+        // Резервирование уменьшает products.quantity, не трогая остатки складов
+        assertTrue(productService.reserveProductQuantity(productId, 4));
+        assertEquals(11, productQuantity());
+
+        // +3 на складе: прежняя перезапись суммой по складам дала бы 18 и вернула бы зарезервированное
+        warehouseStockService.setStock(productId, northId, 13);
+        assertEquals(14, productQuantity());
+        warehouseStockService.setStock(productId, southId, 0);
+        assertEquals(9, productQuantity());
+        // Тот же остаток - без изменений
+        warehouseStockService.setStock(productId, southId, 0);
+        assertEquals(9, productQuantity());
+        assertEquals(9, productService.getProductById(productId).getQuantity());
+    }
+
+    private int productQuantity() {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+}
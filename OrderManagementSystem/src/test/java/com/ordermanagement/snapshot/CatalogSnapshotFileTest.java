@@ -0,0 +1,52 @@
+package com.ordermanagement.snapshot;
+
+import com.ordermanagement.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripKeepsAllColumns() throws Exception {
+        LocalDateTime takenAt = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_000_000);
+        Product full = Product.builder()
+                .id(7L).name("Ноутбук").description("14 дюймов").price(new BigDecimal("89999.90"))
+                .quantity(12).warehouseId(2L).lowStockThreshold(5).stockShards(4)
+                .createdAt(takenAt.minusDays(10)).updatedAt(takenAt.minusHours(1))
+                .build();
+        Product sparse = Product.builder()
+                .id(8L).name("Кабель").price(new BigDecimal("199.00")).quantity(0)
+                .build();
+        Path file = directory.resolve("catalog.snapshot");
+
+        CatalogSnapshotFile.write(file, new CatalogSnapshot(takenAt, List.of(full, sparse)));
+        CatalogSnapshot snapshot = CatalogSnapshotFile.read(file);
+
+        assertEquals(takenAt, snapshot.getTakenAt());
+        assertEquals(List.of(full, sparse), snapshot.getProducts());
+    }
+
+    @Test
+    void corruptedSnapshotIsRejected() throws Exception {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(file, new CatalogSnapshot(LocalDateTime.now(), List.of(
+                Product.builder().id(1L).name("Товар").price(BigDecimal.ONE).quantity(3).build())));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 8);
+            raf.write(0x55);
+        }
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(file));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ordermanagement.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LowStockWatcherTest {
+
+    private final List<Object> published = new ArrayList<>();
+    private final LowStockWatcher watcher = new LowStockWatcher(new LowStockProperties(), published::add);
+
+    @Test
+    void entersAtThresholdAndClearsAboveHysteresisBand() {
+        watcher.track(1L, 12, 10);
+        assertTrue(watcher.getLowStock().isEmpty());
+
+        watcher.onDelta(1L, -2);
+        assertEquals(1, watcher.getLowStock().size());
+        assertEquals(LowStockEvent.Type.ENTERED, ((LowStockEvent) published.get(0)).getType());
+
+        // Полоса гистерезиса для порога 10 - 2 шт.: 11 и 12 не снимают товар из списка
+        watcher.onDelta(1L, 2);
+        assertEquals(1, watcher.getLowStock().size());
+        assertEquals(12, watcher.getLowStock().get(0).getQuantity());
+
+        watcher.onDelta(1L, 1);
+        assertTrue(watcher.getLowStock().isEmpty());
+        assertEquals(LowStockEvent.Type.CLEARED, ((LowStockEvent) published.get(1)).getType());
+        assertEquals(2, published.size());
+    }
+
+    @Test
+    void noFlappingAroundThreshold() {
+        watcher.track(1L, 10, 10);
+        for (int i = 0; i < 100; i++) {
+            watcher.onDelta(1L, 1);
+            watcher.onDelta(1L, -1);
+        }
+
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    void defaultThresholdAndUntrackedProducts() {
+        watcher.onDelta(2L, -100);
+        assertTrue(published.isEmpty());
+
+        watcher.track(2L, 5, null);
+        assertEquals(10, watcher.getLowStock().get(0).getThreshold());
+
+        watcher.untrack(2L);
+        assertTrue(watcher.getLowStock().isEmpty());
+    }
+}
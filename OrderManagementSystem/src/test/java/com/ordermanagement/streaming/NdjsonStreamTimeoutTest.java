@@ -0,0 +1,74 @@
+package com.ordermanagement.streaming;
+
+import com.ordermanagement.dto.ProductDTO;
+import com.ordermanagement.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Таймауты асинхронных запросов: потоки NDJSON получают свой таймаут, короткие чтения - общий.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:streamtimeout;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa", "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ordermanagement=WARN",
+        "ordermanagement.catalog-snapshot.enabled=false",
+        "ordermanagement.outbox.dispatch-enabled=false",
+        "ordermanagement.async-read.timeout-ms=1500",
+        "ordermanagement.async-read.stream-timeout-ms=0"})
+class NdjsonStreamTimeoutTest {
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private ProductService productService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void streamHasOwnTimeoutAndCompletes() throws Exception {
+        ProductDTO product = new ProductDTO();
+        product.setName("Товар");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setQuantity(5);
+        long productId = productService.createProduct(product).getId();
+
+        MvcResult stream = mockMvc.perform(get("/async/products")).andReturn();
+        assertTrue(stream.getRequest().isAsyncStarted());
+        assertEquals(0, stream.getRequest().getAsyncContext().getTimeout());
+        // asyncDispatch ждёт результат не дольше таймаута запроса - для потока его нет, ждём явно
+        stream.getAsyncResult(5000);
+        MvcResult completed = mockMvc.perform(asyncDispatch(stream)).andReturn();
+        assertEquals(200, completed.getResponse().getStatus());
+        assertTrue(completed.getResponse().getContentAsString().contains("\"id\":" + productId));
+    }
+
+    @Test
+    void boundedLookupKeepsDefaultTimeout() throws Exception {
+        MvcResult lookup = mockMvc.perform(get("/async/orders/{id}", Long.MAX_VALUE)).andReturn();
+        assertTrue(lookup.getRequest().isAsyncStarted());
+        assertEquals(1500, lookup.getRequest().getAsyncContext().getTimeout());
+    }
+}
@@ -0,0 +1,30 @@
+package com.ordermanagement.util;
+
+import com.ordermanagement.dto.BatchResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLookupTest {
+
+    @Test
+    void preservesRequestOrderAndReportsMissing() {
+        List<Long> ids = BatchLookup.distinctIds(Arrays.asList(5L, 1L, 5L, null, 3L), 10);
+        assertEquals(List.of(5L, 1L, 3L), ids);
+
+        // Репозиторий возвращает строки в произвольном порядке
+        BatchResultDTO<String> result = BatchLookup.collect(ids, List.of(3L, 5L), id -> id, id -> "item-" + id);
+
+        assertEquals(List.of("item-5", "item-3"), result.getItems());
+        assertEquals(List.of(1L), result.getMissingIds());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedLists() {
+        assertThrows(IllegalArgumentException.class, () -> BatchLookup.distinctIds(List.of(), 10));
+        assertThrows(IllegalArgumentException.class, () -> BatchLookup.distinctIds(List.of(1L, 2L, 3L), 2));
+    }
+}